@@ -0,0 +1,421 @@
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Build-Schritt (generate-sources, siehe pom.xml): übersetzt eine FXML-Datei in
+ * eine Java-Klasse, die denselben Scene-Graph direkt aufbaut.
+ *
+ * Aufruf (Single-File-Launch, JavaFX im Classpath für die Reflection):
+ * java -cp <javafx> src/build/FxmlToJava.java <fxml> <outDir> <pkg.Klasse>
+ * [<Controller.java>]
+ *
+ * Unterstützt (was primary.fxml nutzt):
+ * - Elemente mit Default-Konstruktor, Insets (top/right/bottom/left)
+ * - Attribute: Setter (String, Zahlen, boolean, Enums, double-Varargs),
+ * styleClass, statische Properties (VBox.vgrow), Handler (#methode)
+ * - Property-Elemente (padding, center) und Default-Property (children, items)
+ * - fx:id → Feld des Controllers (package-private, gleiches Package)
+ *
+ * Nicht unterstützt (Abbruch mit Meldung): fx:include, fx:define, Skripte,
+ * Ausdrücke (${...}), Ressourcen (%key, @pfad).
+ *
+ * Abgleich nach dem Generieren (Build bricht bei Abweichung ab):
+ * - fx:id-Menge der FXML == im generierten Code gesetzte Controller-Felder
+ * - #Handler der FXML == im generierten Code aufgerufene Controller-Methoden
+ * - optional (Controller-Quelle angegeben): fx:id-Menge == @FXML-Felder des
+ * Controllers (sonst bliebe ein Feld zur Laufzeit null)
+ */
+public final class FxmlToJava {
+
+    private static final String FX_NS = "http://javafx.com/fxml/1";
+
+    private final List<String> imports = new ArrayList<>();
+    private final StringBuilder body = new StringBuilder();
+    private int counter = 0;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Aufruf: FxmlToJava <fxml> <outDir> <pkg.Klasse> [<Controller.java>]");
+            System.exit(2);
+        }
+        Path fxml = Path.of(args[0]);
+        Path outDir = Path.of(args[1]);
+        String target = args[2];
+
+        String source = new FxmlToJava().generate(fxml, target);
+        List<String> mismatches = verify(fxml, source, args.length == 4 ? Path.of(args[3]) : null);
+        if (!mismatches.isEmpty()) {
+            mismatches.forEach(m -> System.err.println("FxmlToJava: " + m));
+            System.exit(1);
+        }
+
+        int dot = target.lastIndexOf('.');
+        Path file = outDir.resolve(target.substring(0, dot).replace('.', '/'))
+                .resolve(target.substring(dot + 1) + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source, StandardCharsets.UTF_8);
+        System.out.println("FxmlToJava: " + fxml + " -> " + file);
+    }
+
+    /*
+     * Unabhängig von der Generierung: FXML neu einlesen und mit dem erzeugten
+     * Quelltext (und optional der Controller-Quelle) vergleichen.
+     */
+    static List<String> verify(Path fxml, String generated, Path controllerSource) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document doc = factory.newDocumentBuilder().parse(fxml.toFile());
+
+        Set<String> ids = new TreeSet<>();
+        Set<String> handlers = new TreeSet<>();
+        NodeList all = doc.getElementsByTagName("*");
+        for (int i = 0; i < all.getLength(); i++) {
+            Element el = (Element) all.item(i);
+            if (el.hasAttributeNS(FX_NS, "id")) {
+                ids.add(el.getAttributeNS(FX_NS, "id"));
+            }
+            NamedNodeMap attrs = el.getAttributes();
+            for (int a = 0; a < attrs.getLength(); a++) {
+                Attr attr = (Attr) attrs.item(a);
+                String name = attr.getLocalName() == null ? attr.getName() : attr.getLocalName();
+                if (name.startsWith("on") && attr.getValue().startsWith("#")) {
+                    handlers.add(attr.getValue().substring(1));
+                }
+            }
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        compare(mismatches, "fx:id", ids, "generierte Felder",
+                matches(generated, "controller\\.(\\w+) = new "));
+        compare(mismatches, "Handler", handlers, "generierte Aufrufe",
+                matches(generated, "controller\\.(\\w+)\\(\\)\\);"));
+        if (controllerSource != null) {
+            compare(mismatches, "fx:id", ids, "@FXML-Felder " + controllerSource.getFileName(),
+                    matches(Files.readString(controllerSource, StandardCharsets.UTF_8),
+                            "@FXML\\s+(?!void\\b)[\\w.<>?, ]+?\\s+(\\w+)\\s*;"));
+        }
+        return mismatches;
+    }
+
+    private static Set<String> matches(String text, String regex) {
+        Set<String> output = new TreeSet<>();
+        Matcher m = Pattern.compile(regex).matcher(text);
+        while (m.find()) {
+            output.add(m.group(1));
+        }
+        return output;
+    }
+
+    private static void compare(List<String> mismatches, String expectedName, Set<String> expected,
+            String actualName, Set<String> actual) {
+        Set<String> missing = new TreeSet<>(expected);
+        missing.removeAll(actual);
+        Set<String> extra = new TreeSet<>(actual);
+        extra.removeAll(expected);
+        if (!missing.isEmpty()) {
+            mismatches.add(expectedName + " ohne Gegenstück in " + actualName + ": " + missing);
+        }
+        if (!extra.isEmpty()) {
+            mismatches.add(actualName + " ohne " + expectedName + " in der FXML: " + extra);
+        }
+    }
+
+    private String generate(Path fxml, String target) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setIgnoringComments(true);
+        Document doc = factory.newDocumentBuilder().parse(fxml.toFile());
+
+        NodeList top = doc.getChildNodes();
+        for (int i = 0; i < top.getLength(); i++) {
+            if (top.item(i) instanceof ProcessingInstruction pi && pi.getTarget().equals("import")) {
+                imports.add(pi.getData().trim());
+            }
+        }
+
+        Element root = doc.getDocumentElement();
+        String controller = root.getAttributeNS(FX_NS, "controller");
+        int dot = target.lastIndexOf('.');
+        String pkg = target.substring(0, dot);
+        String className = target.substring(dot + 1);
+        if (controller.isEmpty() || !controller.substring(0, controller.lastIndexOf('.')).equals(pkg)) {
+            throw new IllegalArgumentException("fx:controller muss im Package " + pkg + " liegen: " + controller);
+        }
+        String controllerName = controller.substring(controller.lastIndexOf('.') + 1);
+
+        String rootVar = element(root);
+
+        return "package " + pkg + ";\n"
+                + "\n"
+                + "/**\n"
+                + " * Generiert aus " + fxml.getFileName() + " (src/build/FxmlToJava.java) – nicht von Hand\n"
+                + " * ändern.\n"
+                + " *\n"
+                + " * Baut denselben Scene-Graph wie FXMLLoader, ohne XML-Parsing und Reflection;\n"
+                + " * fx:id-Felder und Handler des Controllers werden direkt gesetzt.\n"
+                + " */\n"
+                + "public final class " + className + " {\n"
+                + "\n"
+                + "    private " + className + "() {\n"
+                + "    }\n"
+                + "\n"
+                + "    /**\n"
+                + "     * Baut den Scene-Graph und ruft danach initialize() (wie FXMLLoader).\n"
+                + "     */\n"
+                + "    public static javafx.scene.Parent load(" + controllerName + " controller) {\n"
+                + "        javafx.scene.Parent root = build(controller);\n"
+                + "        controller.initialize();\n"
+                + "        return root;\n"
+                + "    }\n"
+                + "\n"
+                + "    /**\n"
+                + "     * Nur Scene-Graph + Felder/Handler (ohne initialize).\n"
+                + "     */\n"
+                + "    static javafx.scene.Parent build(" + controllerName + " controller) {\n"
+                + body
+                + "        return " + rootVar + ";\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    /*
+     * Erzeugt Anweisungen für ein Objekt-Element und liefert den Ausdruck, über den
+     * es erreichbar ist (Variable, Controller-Feld oder Konstruktor-Ausdruck).
+     */
+    private String element(Element el) throws Exception {
+        Class<?> type = resolve(el.getLocalName());
+
+        if (type.getName().equals("javafx.geometry.Insets")) {
+            return "new javafx.geometry.Insets(" + number(el, "top") + ", " + number(el, "right") + ", "
+                    + number(el, "bottom") + ", " + number(el, "left") + ")";
+        }
+
+        String id = el.getAttributeNS(FX_NS, "id");
+        String diamond = type.getTypeParameters().length > 0 ? "<>" : "";
+        String var;
+        if (!id.isEmpty()) {
+            var = "controller." + id;
+            line(var + " = new " + type.getCanonicalName() + diamond + "();");
+        } else {
+            var = "n" + (++counter);
+            String declared = type.getCanonicalName() + (diamond.isEmpty() ? "" : "<?>");
+            line(declared + " " + var + " = new " + type.getCanonicalName() + diamond + "();");
+        }
+
+        NamedNodeMap attrs = el.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            attribute(type, var, (Attr) attrs.item(i));
+        }
+
+        NodeList children = el.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (!(children.item(i) instanceof Element child)) {
+                continue;
+            }
+            if (FX_NS.equals(child.getNamespaceURI())) {
+                throw new IllegalArgumentException("nicht unterstützt: fx:" + child.getLocalName());
+            }
+            if (Character.isLowerCase(child.getLocalName().charAt(0))) {
+                propertyElement(type, var, child);
+            } else {
+                addToProperty(type, var, defaultProperty(type), element(child));
+            }
+        }
+        return var;
+    }
+
+    private void attribute(Class<?> type, String var, Attr attr) throws Exception {
+        String name = attr.getLocalName() == null ? attr.getName() : attr.getLocalName();
+        String value = attr.getValue();
+
+        if ("http://www.w3.org/2000/xmlns/".equals(attr.getNamespaceURI()) || FX_NS.equals(attr.getNamespaceURI())) {
+            return;
+        }
+        if (value.startsWith("$") || value.startsWith("%") || value.startsWith("@")) {
+            throw new IllegalArgumentException("nicht unterstützt: " + name + "=\"" + value + "\"");
+        }
+
+        if (name.startsWith("on") && value.startsWith("#")) {
+            line(var + ".set" + capitalize(name) + "(e -> controller." + value.substring(1) + "());");
+            return;
+        }
+
+        if (name.equals("styleClass")) {
+            for (String styleClass : value.split(",")) {
+                line(var + ".getStyleClass().add(" + literal(styleClass.trim()) + ");");
+            }
+            return;
+        }
+
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            Class<?> owner = resolve(name.substring(0, dot));
+            Method setter = staticSetter(owner, "set" + capitalize(name.substring(dot + 1)));
+            line(owner.getCanonicalName() + "." + setter.getName() + "(" + var + ", "
+                    + convert(setter.getParameterTypes()[1], value) + ");");
+            return;
+        }
+
+        Method setter = setter(type, "set" + capitalize(name));
+        line(var + "." + setter.getName() + "(" + convert(setter.getParameterTypes()[0], value) + ");");
+    }
+
+    // <padding><Insets .../></padding>, <center>...</center>
+    private void propertyElement(Class<?> type, String var, Element property) throws Exception {
+        NodeList children = property.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i) instanceof Element child) {
+                addToProperty(type, var, property.getLocalName(), element(child));
+            }
+        }
+    }
+
+    // Liste (getChildren().add) oder Einzelwert (setCenter)
+    private void addToProperty(Class<?> type, String var, String property, String valueExpr) throws Exception {
+        Method getter = findMethod(type, "get" + capitalize(property), 0);
+        if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+            line(var + "." + getter.getName() + "().add(" + valueExpr + ");");
+        } else {
+            line(var + "." + setter(type, "set" + capitalize(property)).getName() + "(" + valueExpr + ");");
+        }
+    }
+
+    private String defaultProperty(Class<?> type) {
+        javafx.beans.DefaultProperty annotation = type.getAnnotation(javafx.beans.DefaultProperty.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException("keine Default-Property: " + type.getName());
+        }
+        return annotation.value();
+    }
+
+    private String convert(Class<?> type, String value) {
+        if (type == String.class || type == Object.class) {
+            return literal(value);
+        }
+        if (type == double.class || type == Double.class) {
+            return doubleLiteral(value);
+        }
+        if (type == double[].class) {
+            List<String> values = new ArrayList<>();
+            for (String v : value.split(",")) {
+                values.add(doubleLiteral(v.trim()));
+            }
+            return String.join(", ", values);
+        }
+        if (type == int.class || type == Integer.class) {
+            return String.valueOf(Integer.parseInt(value.trim()));
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return String.valueOf(Boolean.parseBoolean(value.trim()));
+        }
+        if (type.isEnum()) {
+            return type.getCanonicalName() + "." + value.trim().toUpperCase();
+        }
+        throw new IllegalArgumentException("Typ nicht unterstützt: " + type.getName() + " (\"" + value + "\")");
+    }
+
+    private static String doubleLiteral(String value) {
+        return switch (value) {
+            case "Infinity" -> "Double.POSITIVE_INFINITY";
+            case "-Infinity" -> "Double.NEGATIVE_INFINITY";
+            default -> Double.parseDouble(value) + "d";
+        };
+    }
+
+    private static String number(Element el, String attribute) {
+        String value = el.getAttribute(attribute);
+        return value.isEmpty() ? "0d" : doubleLiteral(value);
+    }
+
+    // Java-String-Literal; Nicht-ASCII als \\uXXXX (unabhängig vom Quell-Encoding)
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private Class<?> resolve(String simpleName) throws ClassNotFoundException {
+        ClassLoader loader = FxmlToJava.class.getClassLoader();
+        for (String imp : imports) {
+            String candidate;
+            if (imp.endsWith(".*")) {
+                candidate = imp.substring(0, imp.length() - 1) + simpleName;
+            } else if (imp.endsWith("." + simpleName)) {
+                candidate = imp;
+            } else {
+                continue;
+            }
+            try {
+                return Class.forName(candidate, false, loader);
+            } catch (ClassNotFoundException ignored) {
+                // nächster Import
+            }
+        }
+        throw new ClassNotFoundException("Klasse nicht gefunden (Imports): " + simpleName);
+    }
+
+    private static Method setter(Class<?> type, String name) {
+        Method m = findMethod(type, name, 1);
+        if (m == null) {
+            throw new IllegalArgumentException("kein Setter " + type.getSimpleName() + "." + name);
+        }
+        return m;
+    }
+
+    private static Method staticSetter(Class<?> type, String name) {
+        for (Method m : type.getMethods()) {
+            if (m.getName().equals(name) && Modifier.isStatic(m.getModifiers()) && m.getParameterCount() == 2) {
+                return m;
+            }
+        }
+        throw new IllegalArgumentException("keine statische Property " + type.getSimpleName() + "." + name);
+    }
+
+    private static Method findMethod(Class<?> type, String name, int params) {
+        for (Method m : type.getMethods()) {
+            if (m.getName().equals(name) && !Modifier.isStatic(m.getModifiers()) && m.getParameterCount() == params) {
+                return m;
+            }
+        }
+        return null;
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private void line(String code) {
+        body.append("        ").append(code).append('\n');
+    }
+}
@@ -1,13 +1,23 @@
 package com.example;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import com.example.api.LocalApiServer;
+import com.example.metrics.FlightRecording;
+import com.example.metrics.Metrics;
+import com.example.persistence.Db;
+import com.example.persistence.WriteBehindQueue;
+import com.example.ui.LazyUi;
+import com.example.ui.PrimaryController;
+import com.example.ui.PrimaryViewLoader;
 import com.example.ui.ThemeManager;
 import com.example.service.TodoService;
 import com.example.ui.TaskbarDueNotifier;
@@ -24,22 +34,42 @@ public class App extends Application {
     // Schliessen gestoppt
     private TaskbarDueNotifier dueNotifier;
 
+    // Optionale lokale HTTP-API (nur wenn Port konfiguriert ist)
+    private LocalApiServer apiServer;
+
+    // Instanz-Sperre + IPC (in main() übernommen, beim Beenden freigegeben)
+    private static SingleInstance singleInstance;
+
+    // Hauptansicht (Startbild beim Beenden schreiben)
+    private PrimaryController primaryController;
+
+    // Metriken: periodisch neben die DB geschrieben (metrics.txt)
+    private static final Duration METRICS_DUMP_INTERVAL = Duration.ofMinutes(1);
+    private Path metricsFile;
+
     /**
      * Wird vor start(...) aufgerufen (nicht auf dem JavaFX Application Thread).
      *
      * Zweck:
      * - Datenbankinitialisierung (z. B. Tabellen erstellen, Defaults einfügen)
+     * - periodischen Metrik-Dump starten
      */
     @Override
     public void init() {
         DatabaseInitializer.init();
+
+        Runtime runtime = Runtime.getRuntime();
+        Metrics.gauge("jvm.heapUsedKb", () -> (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+        metricsFile = Db.dataDirectory().resolve("metrics.txt");
+        Metrics.startPeriodicDump(metricsFile, METRICS_DUMP_INTERVAL);
     }
 
     /**
      * Startet die UI (läuft auf dem JavaFX Application Thread).
      *
      * Ablauf:
-     * 1) FXML laden (primary.fxml) und Scene erzeugen
+     * 1) Hauptansicht laden (generierter PrimaryView bzw. FXML-Fallback, siehe
+     * PrimaryViewLoader) und Scene erzeugen
      * 2) Base-CSS hinzufügen (style.css)
      * 3) Gespeichertes Theme anwenden (ThemeManager.applySaved)
      * 4) Stage-Icon setzen
@@ -48,14 +78,15 @@ public class App extends Application {
      * 7) OnCloseRequest: Notifier sauber stoppen
      *
      * @param stage Primary Stage
-     * @throws IOException wenn FXML nicht geladen werden kann
+     * @throws IOException wenn FXML nicht geladen werden kann (Fallback)
      */
     @Override
     public void start(Stage stage) throws IOException {
-        FXMLLoader loader = new FXMLLoader(App.class.getResource("primary.fxml"));
+        PrimaryViewLoader.Loaded view = PrimaryViewLoader.load();
+        primaryController = view.getController();
 
         // Scene mit initialer Grösse
-        Scene scene = new Scene(loader.load(), 900, 600);
+        Scene scene = new Scene(view.getRoot(), 900, 600);
 
         /*
          * Base-CSS hinzufügen:
@@ -66,8 +97,7 @@ public class App extends Application {
         scene.getStylesheets().add(
                 App.class.getResource("/com/example/css/style.css").toExternalForm());
 
-        // Theme aus Preferences laden und anwenden (Theme-CSS wird hinzugefügt, alte
-        // Theme-CSS entfernt)
+        // Theme aus Preferences laden und anwenden (themes.css + Theme-Klasse am Root)
         ThemeManager.applySaved(scene);
 
         /*
@@ -80,6 +110,14 @@ public class App extends Application {
         stage.setScene(scene);
         stage.show();
 
+        /*
+         * Popups/Menüs (LazyUi):
+         * - nach dem ersten Frame im Leerlauf vorwärmen (je Pulse eines)
+         * - unter Speicherdruck unbenutzte wieder verwerfen
+         */
+        LazyUi.prewarmWhenIdle();
+        LazyUi.installMemoryPressureRelease();
+
         /*
          * Notifier:
          * - Erst nach show() gestartet (nicht zwingend nötig, aber ok)
@@ -98,6 +136,17 @@ public class App extends Application {
         });
         pt.play();
 
+        /*
+         * Lokale HTTP-API (optional):
+         * - läuft auf virtuellen Threads, unabhängig vom JavaFX-Thread
+         * - Startfehler (z. B. Port belegt) dürfen die UI nicht verhindern
+         */
+        try {
+            apiServer = LocalApiServer.startIfConfigured(service);
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+        }
+
         /*
          * Schliessen:
          * - stoppt Notifier, damit Scheduler/Tray sauber beendet werden
@@ -107,13 +156,100 @@ public class App extends Application {
                 dueNotifier.stop();
             }
         });
+
+        /*
+         * Zweiter Start (weitergeleitet über SingleInstance):
+         * - "--refresh" (CLI hat Daten geändert): Listen/Todos und Erinnerungen neu
+         * laden
+         * - sonst: Fenster nach vorne holen statt eine zweite Instanz zu öffnen
+         */
+        if (singleInstance != null) {
+            PrimaryController controller = primaryController;
+            singleInstance.setHandler(args -> javafx.application.Platform.runLater(() -> {
+                if (args.contains("--refresh")) {
+                    controller.reloadFromExternal();
+                    if (dueNotifier != null) {
+                        dueNotifier.refresh();
+                    }
+                    return;
+                }
+                stage.setIconified(false);
+                stage.show();
+                stage.toFront();
+                stage.requestFocus();
+            }));
+        }
+    }
+
+    /**
+     * Wird beim Beenden des JavaFX Lifecycles aufgerufen.
+     * Schreibt offene Eingaben (Autosave), das Startbild für den nächsten Start
+     * und die Metriken ein letztes Mal, schliesst eine laufende JFR-Aufnahme ab, stoppt die lokale API, schreibt
+     * die Schreib-Warteschlange (WriteBehindQueue) leer und gibt
+     * die Instanz-Sperre frei, damit ein Neustart sofort möglich ist.
+     */
+    @Override
+    public void stop() {
+        if (primaryController != null) {
+            // Eingaben im Detailbereich (Autosave) vor dem Beenden schreiben
+            try {
+                primaryController.flushPendingEdits();
+            } catch (RuntimeException exception) {
+                exception.printStackTrace();
+            }
+            try {
+                primaryController.saveSession();
+            } catch (RuntimeException exception) {
+                // Startbild ist optional: Beenden nicht verhindern
+                exception.printStackTrace();
+            }
+        }
+        if (metricsFile != null) {
+            Metrics.stopPeriodicDump(metricsFile);
+        }
+        if (FlightRecording.isRecording()) {
+            FlightRecording.stop();
+        }
+        if (apiServer != null) {
+            apiServer.stop();
+            apiServer = null;
+        }
+        // ausstehende Statuswechsel (Gruppen-Commit) nach der letzten Quelle schreiben
+        WriteBehindQueue.closeShared();
+        if (singleInstance != null) {
+            singleInstance.close();
+            singleInstance = null;
+        }
     }
 
     /**
      * Standard main().
+     *
+     * Hinweis:
+     * - Startpunkt der Distribution ist Launcher (CLI-Kommandos laufen dort
+     * headless, ohne diese Klasse zu laden)
+     *
+     * Single-Instance:
+     * - Läuft bereits eine Instanz, werden die Argumente dorthin weitergeleitet und
+     * dieser Prozess endet, bevor JavaFX oder die DB initialisiert werden.
+     *
      * launch(...) startet den JavaFX Application Lifecycle.
      */
     public static void main(String[] args) {
+        try {
+            singleInstance = SingleInstance.tryAcquire();
+            if (singleInstance == null) {
+                if (!SingleInstance.forward(List.of(args))) {
+                    System.err.println("TodoApp läuft bereits, ist aber nicht erreichbar.");
+                }
+                return;
+            }
+            singleInstance.listen();
+        } catch (RuntimeException exception) {
+            // Lock nicht verfügbar (z. B. Netzlaufwerk): ohne Sperre weiterstarten
+            exception.printStackTrace();
+        }
+
         launch(args);
     }
 }
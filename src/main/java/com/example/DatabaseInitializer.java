@@ -7,6 +7,8 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.sql.ResultSet;
 
@@ -22,7 +24,7 @@ import java.sql.ResultSet;
  */
 public final class DatabaseInitializer { // final --> darf nicht vererbt werden
 
-    private static final int DB_VERSION = 2;
+    private static final int DB_VERSION = 10;
 
     private DatabaseInitializer() { // private --> verhindert Instanzierung, Nutzung nur über statische Methoden
     }
@@ -31,11 +33,17 @@ public final class DatabaseInitializer { // final --> darf nicht vererbt werden
      * Einstiegspunkt für DB-Setup.
      *
      * Reihenfolge:
+     * 0) Fast-Path: DB bereits auf aktueller Version → nichts zu tun
      * 1) init_schema.sql ausführen (Tabellen erstellen, falls nicht vorhanden)
      * 2) Migration: Categories.Icon-Spalte nachrüsten (für bestehende DBs)
      * 3) seed_base_data.sql ausführen (Basis-Kategorien etc.)
      */
     public static void init() {
+        // 0) Fast-Path: eine Verbindung + PRAGMA statt Schema-Skript und Seed-Prüfung
+        if (isUpToDate()) {
+            return;
+        }
+
         // 1) Basis-Schema sicherstellen (idempotent)
         executeSqlResource("db/init_schema.sql");
 
@@ -77,6 +85,22 @@ public final class DatabaseInitializer { // final --> darf nicht vererbt werden
         }
     }
 
+    /**
+     * Prüft, ob Schema, Migrationen und Seed bereits vollständig sind.
+     *
+     * Hintergrund:
+     * - user_version wird erst nach erfolgreicher Migration auf DB_VERSION gesetzt
+     * - bei einer neuen DB ist user_version 0 → voller Init-Pfad
+     */
+    private static boolean isUpToDate() {
+        try (Connection c = Db.open();
+                Statement st = c.createStatement()) {
+            return readUserVersion(st) == DB_VERSION;
+        } catch (Exception exception) {
+            return false;
+        }
+    }
+
     private static boolean isTableEmpty(String table) {
         String sql = "SELECT 1 FROM " + table + " LIMIT 1";
 
@@ -108,7 +132,15 @@ public final class DatabaseInitializer { // final --> darf nicht vererbt werden
 
                 switch (next) {
                     case 2 -> migrateCategoriesAddIconColumn(c);
-                    // case 3 -> migrateX(c);
+                    case 3 -> migrateTodoItemsAddSeriesColumns(c);
+                    case 4 -> migrateTodoItemsAddRemindAt(c);
+                    case 5 -> migrateTodoItemsAddStatusDueDateIndex(c);
+                    case 6 -> migrateTodoTagsAddTagIndex(c);
+                    case 7 -> migrateTodoTreeAddDescendantIndex(c);
+                    case 8 -> migrateTodoItemsAddSortRank(c);
+                    case 9 -> migrateTodoItemsAddTimestamps(c);
+                    case 10 -> migrateDailyStatsAddTriggers(c);
+                    // case 11 -> migrateX(c);
                     default -> throw new IllegalStateException("Keine Migration definiert für Version " + next);
                 }
 
@@ -213,4 +245,284 @@ public final class DatabaseInitializer { // final --> darf nicht vererbt werden
         }
     }
 
+    /**
+     * Migration für wiederkehrende Todos: TodoItems.SeriesId/OccurrenceDate
+     * nachrüsten.
+     *
+     * Hintergrund:
+     * - Die Tabelle TodoSeries legt init_schema.sql an (CREATE TABLE IF NOT EXISTS
+     * greift auch bei bestehenden DBs).
+     * - Vorkommen einer Serie werden erst beim Erledigen/Bearbeiten als TodoItem
+     * gespeichert; der Unique-Index verhindert doppelte Vorkommen (NULL-Werte
+     * normaler Todos gelten in SQLite als verschieden).
+     */
+    private static void migrateTodoItemsAddSeriesColumns(Connection c) {
+        try (Statement st = c.createStatement()) {
+
+            boolean hasSeriesId = false;
+            boolean hasOccurrenceDate = false;
+            try (var rs = st.executeQuery("PRAGMA table_info(TodoItems)")) {
+                while (rs.next()) {
+                    String col = rs.getString("name");
+                    hasSeriesId |= "SeriesId".equalsIgnoreCase(col);
+                    hasOccurrenceDate |= "OccurrenceDate".equalsIgnoreCase(col);
+                }
+            }
+
+            if (!hasSeriesId) {
+                st.execute("ALTER TABLE TodoItems ADD COLUMN SeriesId INTEGER REFERENCES TodoSeries(Id) ON DELETE SET NULL");
+            }
+            if (!hasOccurrenceDate) {
+                st.execute("ALTER TABLE TodoItems ADD COLUMN OccurrenceDate TEXT");
+            }
+
+            st.execute("""
+                        CREATE UNIQUE INDEX IF NOT EXISTS UX_TodoItems_SeriesOccurrence
+                        ON TodoItems(SeriesId, OccurrenceDate)
+                    """);
+
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: TodoItems.SeriesId", exception);
+        }
+    }
+
+    /**
+     * Migration für Erinnerungen: TodoItems.RemindAt (Epoch-Millis, UTC).
+     *
+     * Index:
+     * - partiell (nur offene Todos mit Erinnerung): bleibt klein, der Scheduler
+     * liest daraus nur die nächsten N Einträge
+     */
+    private static void migrateTodoItemsAddRemindAt(Connection c) {
+        try (Statement st = c.createStatement()) {
+
+            boolean hasRemindAt = false;
+            try (var rs = st.executeQuery("PRAGMA table_info(TodoItems)")) {
+                while (rs.next()) {
+                    hasRemindAt |= "RemindAt".equalsIgnoreCase(rs.getString("name"));
+                }
+            }
+
+            if (!hasRemindAt) {
+                st.execute("ALTER TABLE TodoItems ADD COLUMN RemindAt INTEGER");
+            }
+
+            st.execute("""
+                        CREATE INDEX IF NOT EXISTS IX_TodoItems_RemindAt
+                        ON TodoItems(RemindAt)
+                        WHERE RemindAt IS NOT NULL AND Status = 0
+                    """);
+
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: TodoItems.RemindAt", exception);
+        }
+    }
+
+    /**
+     * Migration für SmartLists: zusammengesetzter Index (Status, DueDate).
+     *
+     * Hintergrund:
+     * - Bereichsabfragen über alle Kategorien ("Heute", "Nächste 7 Tage", ...)
+     * filtern auf Status und DueDate und sortieren nach DueDate, Id; mit dem
+     * Index ist das ein Range-Scan ohne Sortierschritt (Id = rowid steckt im Index)
+     */
+    private static void migrateTodoItemsAddStatusDueDateIndex(Connection c) {
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS IX_TodoItems_Status_DueDate ON TodoItems(Status, DueDate)");
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: IX_TodoItems_Status_DueDate", exception);
+        }
+    }
+
+    /**
+     * Migration für Tags: Index auf TodoTags(TagId).
+     *
+     * Hintergrund:
+     * - Tags/TodoTags legt init_schema.sql an (auch bei bestehenden DBs)
+     * - der Primärschlüssel (TodoId, TagId) deckt "Tags eines Todos" ab; der
+     * Index die Gegenrichtung (beim Laden des Tag-Index und bei ON DELETE
+     * CASCADE von Tags)
+     */
+    private static void migrateTodoTagsAddTagIndex(Connection c) {
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS IX_TodoTags_TagId ON TodoTags(TagId)");
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: IX_TodoTags_TagId", exception);
+        }
+    }
+
+    /**
+     * Migration für Unteraufgaben: Index auf TodoTree(DescendantId, Depth).
+     *
+     * Hintergrund:
+     * - TodoTree (Closure-Tabelle) legt init_schema.sql an; sie enthält für jedes
+     * Paar Vorfahre/Nachfahre eine Zeile mit Abstand (Depth >= 1)
+     * - der Primärschlüssel (AncestorId, Depth, DescendantId) deckt Kinder und
+     * Teilbaum ab, der Index die Gegenrichtung (Vorfahren, "ist Wurzel?",
+     * ON DELETE CASCADE)
+     */
+    private static void migrateTodoTreeAddDescendantIndex(Connection c) {
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS IX_TodoTree_DescendantId ON TodoTree(DescendantId, Depth)");
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: IX_TodoTree_DescendantId", exception);
+        }
+    }
+
+    /**
+     * Migration für manuelle Reihenfolge: TodoItems.SortRank (Text-Schlüssel,
+     * siehe SortRank).
+     *
+     * Index:
+     * - partiell (nur sortierte Todos): Neuverteilen liest die Reihenfolge einer
+     * Kategorie direkt aus dem Index, ohne Sortierschritt
+     */
+    private static void migrateTodoItemsAddSortRank(Connection c) {
+        try (Statement st = c.createStatement()) {
+
+            boolean hasSortRank = false;
+            try (var rs = st.executeQuery("PRAGMA table_info(TodoItems)")) {
+                while (rs.next()) {
+                    hasSortRank |= "SortRank".equalsIgnoreCase(rs.getString("name"));
+                }
+            }
+
+            if (!hasSortRank) {
+                st.execute("ALTER TABLE TodoItems ADD COLUMN SortRank TEXT");
+            }
+
+            st.execute("""
+                        CREATE INDEX IF NOT EXISTS IX_TodoItems_Category_SortRank
+                        ON TodoItems(CategoryId, SortRank)
+                        WHERE SortRank IS NOT NULL
+                    """);
+
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: TodoItems.SortRank", exception);
+        }
+    }
+
+    /**
+     * Migration für Zeitstempel: TodoItems.CreatedAt/UpdatedAt/CompletedAt
+     * (Epoch-Millis, UTC).
+     *
+     * Hintergrund:
+     * - bestehende Zeilen behalten NULL (Zeitpunkte unbekannt); sie erscheinen erst
+     * nach der nächsten Änderung in "seit"-Abfragen
+     *
+     * Index:
+     * - UpdatedAt: "geändert seit" ist ein Range-Scan ab dem Zeitpunkt (Id steckt
+     * im Index, Sortierung ohne Zusatzschritt)
+     */
+    private static void migrateTodoItemsAddTimestamps(Connection c) {
+        try (Statement st = c.createStatement()) {
+
+            Set<String> columns = new HashSet<>();
+            try (var rs = st.executeQuery("PRAGMA table_info(TodoItems)")) {
+                while (rs.next()) {
+                    columns.add(rs.getString("name").toLowerCase());
+                }
+            }
+
+            for (String column : new String[] { "CreatedAt", "UpdatedAt", "CompletedAt" }) {
+                if (!columns.contains(column.toLowerCase())) {
+                    st.execute("ALTER TABLE TodoItems ADD COLUMN " + column + " INTEGER");
+                }
+            }
+
+            st.execute("CREATE INDEX IF NOT EXISTS IX_TodoItems_UpdatedAt ON TodoItems(UpdatedAt)");
+
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: TodoItems.UpdatedAt", exception);
+        }
+    }
+
+    /**
+     * Migration für Statistiken: Tages-Rollups in DailyStats, gepflegt per Trigger.
+     *
+     * Hintergrund:
+     * - DailyStats legt init_schema.sql an (eine Zeile je Tag + Kategorie); das
+     * Dashboard liest nur diese Tabelle, nie TodoItems
+     * - Trigger statt Java-Code: jeder Schreibpfad (UI, CLI, API, Kaskade bei
+     * Unteraufgaben) zählt automatisch mit, in derselben Transaktion
+     * - Trigger stehen hier und nicht in init_schema.sql, weil das Skript an ';'
+     * getrennt wird
+     *
+     * Zählung (Tag in lokaler Zeit):
+     * - Created: am Tag von CreatedAt
+     * - Completed: am Tag von CompletedAt; Wiedereröffnen zieht den Eintrag ab
+     * - Overdue: davon nach der Fälligkeit erledigt
+     * - gelöschte Todos bleiben in der Statistik (Historie)
+     *
+     * Backfill:
+     * - aus vorhandenen Zeitstempeln (Zeilen ohne CreatedAt/CompletedAt fehlen)
+     */
+    private static void migrateDailyStatsAddTriggers(Connection c) {
+        String createdDay = "date(COALESCE(NEW.CreatedAt / 1000, strftime('%s', 'now')), 'unixepoch', 'localtime')";
+        String completedDay = "date(COALESCE(NEW.CompletedAt / 1000, strftime('%s', 'now')), 'unixepoch', 'localtime')";
+        String reopenedDay = "date(OLD.CompletedAt / 1000, 'unixepoch', 'localtime')";
+
+        try (Statement st = c.createStatement()) {
+
+            st.execute("""
+                        CREATE TRIGGER IF NOT EXISTS TR_TodoItems_Stats_Insert
+                        AFTER INSERT ON TodoItems
+                        BEGIN
+                            INSERT INTO DailyStats (Day, CategoryId, Created, Completed, Overdue)
+                            VALUES (%1$s, COALESCE(NEW.CategoryId, 0), 1, 0, 0)
+                            ON CONFLICT (Day, CategoryId) DO UPDATE SET Created = Created + 1;
+
+                            INSERT INTO DailyStats (Day, CategoryId, Created, Completed, Overdue)
+                            SELECT %2$s, COALESCE(NEW.CategoryId, 0), 0, 1, IFNULL(NEW.DueDate < %2$s, 0)
+                            WHERE NEW.Status = 1
+                            ON CONFLICT (Day, CategoryId) DO UPDATE SET
+                                Completed = Completed + 1, Overdue = Overdue + excluded.Overdue;
+                        END
+                    """.formatted(createdDay, completedDay));
+
+            st.execute("""
+                        CREATE TRIGGER IF NOT EXISTS TR_TodoItems_Stats_Done
+                        AFTER UPDATE OF Status ON TodoItems
+                        WHEN NEW.Status = 1 AND OLD.Status <> 1
+                        BEGIN
+                            INSERT INTO DailyStats (Day, CategoryId, Created, Completed, Overdue)
+                            VALUES (%1$s, COALESCE(NEW.CategoryId, 0), 0, 1, IFNULL(NEW.DueDate < %1$s, 0))
+                            ON CONFLICT (Day, CategoryId) DO UPDATE SET
+                                Completed = Completed + 1, Overdue = Overdue + excluded.Overdue;
+                        END
+                    """.formatted(completedDay));
+
+            st.execute("""
+                        CREATE TRIGGER IF NOT EXISTS TR_TodoItems_Stats_Reopen
+                        AFTER UPDATE OF Status ON TodoItems
+                        WHEN NEW.Status <> 1 AND OLD.Status = 1 AND OLD.CompletedAt IS NOT NULL
+                        BEGIN
+                            UPDATE DailyStats SET
+                                Completed = Completed - 1,
+                                Overdue = Overdue - IFNULL(OLD.DueDate < %1$s, 0)
+                            WHERE Day = %1$s AND CategoryId = COALESCE(OLD.CategoryId, 0);
+                        END
+                    """.formatted(reopenedDay));
+
+            st.execute("""
+                        INSERT OR IGNORE INTO DailyStats (Day, CategoryId, Created, Completed, Overdue)
+                        SELECT Day, CategoryId, SUM(Created), SUM(Completed), SUM(Overdue)
+                        FROM (
+                            SELECT date(CreatedAt / 1000, 'unixepoch', 'localtime') AS Day,
+                                   COALESCE(CategoryId, 0) AS CategoryId, 1 AS Created, 0 AS Completed, 0 AS Overdue
+                            FROM TodoItems WHERE CreatedAt IS NOT NULL
+                            UNION ALL
+                            SELECT date(CompletedAt / 1000, 'unixepoch', 'localtime'),
+                                   COALESCE(CategoryId, 0), 0, 1,
+                                   IFNULL(DueDate < date(CompletedAt / 1000, 'unixepoch', 'localtime'), 0)
+                            FROM TodoItems WHERE Status = 1 AND CompletedAt IS NOT NULL
+                        )
+                        GROUP BY Day, CategoryId
+                    """);
+
+        } catch (Exception exception) {
+            throw new RuntimeException("DB migration failed: DailyStats", exception);
+        }
+    }
+
 }
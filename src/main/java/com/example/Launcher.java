@@ -0,0 +1,38 @@
+package com.example;
+
+import com.example.cli.TodoCli;
+
+/**
+ * Startpunkt der Anwendung (main-class in pom.xml / jpackage).
+ *
+ * Warum nicht direkt App:
+ * - Erbt die Main-Klasse von javafx.application.Application, startet der
+ * Java-Launcher das JavaFX-Toolkit, bevor main() läuft. Für CLI-Kommandos
+ * wäre das unnötige Startzeit (und ohne Display ein Fehler).
+ *
+ * Ablauf:
+ * - CLI-Kommando (add/list/done/export/help) → TodoCli headless, Exit-Code
+ * - --bench-startup[=java|fxml|both] → StartupBenchmark (Aufbau Hauptfenster)
+ * - --bench-writes[=strict|balanced|fast|all] → WriteBenchmark (Durchsatz je
+ * Durability-Profil)
+ * - sonst → App.main (Single-Instance + UI)
+ */
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        if (TodoCli.isCommand(args)) {
+            // CLI und UI dürfen parallel auf todo.db arbeiten (keine Instanz-Sperre)
+            System.exit(TodoCli.run(args));
+        }
+        if (StartupBenchmark.isRequested(args)) {
+            System.exit(StartupBenchmark.run(args));
+        }
+        if (WriteBenchmark.isRequested(args)) {
+            System.exit(WriteBenchmark.run(args));
+        }
+        App.main(args);
+    }
+}
@@ -0,0 +1,314 @@
+package com.example;
+
+import com.example.persistence.Db;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stellt sicher, dass pro Benutzer nur eine App-Instanz auf todo.db arbeitet.
+ *
+ * Ablauf:
+ * - Erste Instanz: FileLock auf "todo.lock" (neben todo.db) + lauscht auf
+ * Unix Domain Socket "todo.sock"
+ * - Weitere Instanz: Lock schlägt fehl → Argumente über den Socket an die
+ * laufende Instanz senden und sofort beenden (kein JavaFX-Start, keine
+ * DB-Verbindungen, kein zweiter Notifier)
+ *
+ * Hinweise:
+ * - Jede IPC-Verbindung läuft auf einem eigenen virtuellen Thread mit
+ * Zeitlimit: ein Client, der verbindet, aber nie schreibt (abgestürzte zweite
+ * Instanz, fremder Prozess), blockiert keine späteren Weiterleitungen.
+ * - Der Lock wird vom Betriebssystem freigegeben, wenn der Prozess endet (auch
+ * bei Absturz). Eine liegengebliebene Socket-Datei wird deshalb nur vom
+ * Lock-Inhaber gelöscht.
+ * - Unix Domain Sockets gibt es ab Java 16 auch unter Windows 10+.
+ */
+public final class SingleInstance implements AutoCloseable {
+
+    private static final String LOCK_FILE_NAME = "todo.lock";
+    private static final String SOCKET_FILE_NAME = "todo.sock";
+
+    // Antwort der laufenden Instanz, sobald die Argumente übernommen wurden
+    private static final int ACK = 1;
+
+    // Wie lange eine zweite Instanz auf den Socket wartet (erste Instanz startet
+    // evtl. gerade)
+    private static final int FORWARD_ATTEMPTS = 20;
+    private static final long FORWARD_RETRY_MILLIS = 50;
+
+    // Wie lange die laufende Instanz auf die Argumente eines Clients wartet
+    // (SocketChannel kennt kein SO_TIMEOUT → Verbindung danach schliessen)
+    private static final long CLIENT_READ_TIMEOUT_MILLIS = 2000;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Path socketPath;
+
+    private ServerSocketChannel server;
+    private Thread acceptThread;
+
+    /*
+     * Empfänger für weitergeleitete Argumente.
+     * - Solange noch kein Handler gesetzt ist (UI noch nicht bereit), werden
+     * Nachrichten gepuffert.
+     */
+    private Consumer<List<String>> handler;
+    private final List<List<String>> pending = new ArrayList<>();
+
+    private SingleInstance(FileChannel lockChannel, FileLock lock, Path socketPath) {
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.socketPath = socketPath;
+    }
+
+    /**
+     * Versucht, die Instanz-Sperre zu übernehmen.
+     *
+     * @return SingleInstance (diese JVM ist die einzige Instanz) oder null, wenn
+     *         bereits eine andere Instanz läuft
+     */
+    public static SingleInstance tryAcquire() {
+        Path dir = Db.dataDirectory();
+        Path lockPath = dir.resolve(LOCK_FILE_NAME);
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return new SingleInstance(channel, lock, dir.resolve(SOCKET_FILE_NAME));
+
+        } catch (OverlappingFileLockException exception) {
+            // Lock wird bereits in dieser JVM gehalten
+            closeQuietly(channel);
+            return null;
+        } catch (IOException exception) {
+            // Lock nicht möglich (z. B. Dateisystem ohne Locks): Aufrufer entscheidet
+            closeQuietly(channel);
+            throw new RuntimeException("Instanz-Lock fehlgeschlagen: " + lockPath, exception);
+        }
+    }
+
+    /**
+     * Sendet Argumente an die laufende Instanz.
+     *
+     * @param args Startargumente der zweiten Instanz
+     * @return true, wenn die laufende Instanz die Nachricht bestätigt hat
+     */
+    public static boolean forward(List<String> args) {
+        Path socket = Db.dataDirectory().resolve(SOCKET_FILE_NAME);
+
+        for (int attempt = 0; attempt < FORWARD_ATTEMPTS; attempt++) {
+            if (Files.exists(socket)) {
+                try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+                    send(channel, args);
+                    return Channels.newInputStream(channel).read() == ACK;
+                } catch (IOException exception) {
+                    // Socket existiert, aber niemand hört (noch) → erneut versuchen
+                }
+            }
+
+            try {
+                Thread.sleep(FORWARD_RETRY_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Benachrichtigt eine laufende Instanz, ohne auf sie zu warten.
+     *
+     * Unterschied zu forward(...):
+     * - genau ein Versuch und nur, wenn die Socket-Datei existiert (z. B. CLI nach
+     * einer Änderung: läuft keine UI, kostet das keine Zeit)
+     *
+     * @return true, wenn eine laufende Instanz die Nachricht bestätigt hat
+     */
+    public static boolean notifyRunning(List<String> args) {
+        Path socket = Db.dataDirectory().resolve(SOCKET_FILE_NAME);
+        if (!Files.exists(socket)) {
+            return false;
+        }
+
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            send(channel, args);
+            return Channels.newInputStream(channel).read() == ACK;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    private static void send(SocketChannel channel, List<String> args) throws IOException {
+        DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+        out.writeInt(args.size());
+        for (String arg : args) {
+            out.writeUTF(arg);
+        }
+        out.flush();
+    }
+
+    /**
+     * Startet den IPC-Empfang (Daemon-Thread).
+     *
+     * Fehler beim Binden (z. B. Pfad zu lang) werden geschluckt: der Lock bleibt
+     * aktiv, nur das Weiterleiten entfällt.
+     */
+    public void listen() {
+        try {
+            Files.deleteIfExists(socketPath); // Reste einer abgestürzten Instanz
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException | UnsupportedOperationException exception) {
+            closeQuietly(server);
+            server = null;
+            return;
+        }
+
+        acceptThread = new Thread(this::acceptLoop, "single-instance-ipc");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Setzt den Empfänger für weitergeleitete Argumente und liefert gepufferte
+     * Nachrichten nach.
+     *
+     * Hinweis:
+     * - Der Handler wird im IPC-Thread aufgerufen (UI-Code muss selbst
+     * Platform.runLater nutzen).
+     */
+    public void setHandler(Consumer<List<String>> handler) {
+        List<List<String>> backlog;
+        synchronized (this) {
+            this.handler = handler;
+            backlog = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (handler != null) {
+            backlog.forEach(handler);
+        }
+    }
+
+    private void acceptLoop() {
+        while (server != null && server.isOpen()) {
+            try {
+                SocketChannel client = server.accept();
+                Thread.ofVirtual().name("single-instance-client").start(() -> handleClient(client));
+            } catch (IOException exception) {
+                if (server == null || !server.isOpen()) {
+                    return; // close() wurde aufgerufen
+                }
+                // einzelne fehlerhafte Verbindung ignorieren
+            }
+        }
+    }
+
+    /*
+     * Liest die Argumente eines Clients, bestätigt und leitet weiter. Ein
+     * Wächter-Thread schliesst die Verbindung nach CLIENT_READ_TIMEOUT_MILLIS;
+     * das blockierte readInt/readUTF endet dann mit einer IOException.
+     */
+    private void handleClient(SocketChannel client) {
+        Thread watchdog = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(CLIENT_READ_TIMEOUT_MILLIS);
+                closeQuietly(client);
+            } catch (InterruptedException ignored) {
+                // rechtzeitig fertig
+            }
+        });
+
+        List<String> args;
+        try (client) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(client));
+            int count = in.readInt();
+            args = new ArrayList<>(Math.max(0, count));
+            for (int i = 0; i < count; i++) {
+                args.add(in.readUTF());
+            }
+
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(client));
+            out.write(ACK);
+            out.flush();
+        } catch (IOException exception) {
+            // fehlerhafte oder zu langsame Verbindung ignorieren
+            return;
+        } finally {
+            watchdog.interrupt();
+        }
+
+        dispatch(args);
+    }
+
+    private void dispatch(List<String> args) {
+        Consumer<List<String>> current;
+        synchronized (this) {
+            current = handler;
+            if (current == null) {
+                pending.add(args);
+                return;
+            }
+        }
+        try {
+            current.accept(args);
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Gibt Socket und Lock frei (beim App-Ende).
+     */
+    @Override
+    public void close() {
+        ServerSocketChannel s = server;
+        server = null;
+        closeQuietly(s);
+
+        try {
+            Files.deleteIfExists(socketPath);
+        } catch (IOException ignored) {
+            // best-effort
+        }
+
+        try {
+            lock.release();
+        } catch (IOException ignored) {
+            // wird beim Prozessende ohnehin freigegeben
+        }
+        closeQuietly(lockChannel);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+}
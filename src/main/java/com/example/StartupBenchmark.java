@@ -0,0 +1,135 @@
+package com.example;
+
+import com.example.ui.PrimaryController;
+import com.example.ui.PrimaryViewLoader;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Vergleicht den Aufbau des Hauptfensters: generierter PrimaryView vs.
+ * FXMLLoader (primary.fxml).
+ *
+ * Aufruf (über Launcher):
+ * --bench-startup[=java|fxml|both]
+ *
+ * Messung (je Variante, im FX-Thread, ohne Stage/Rendering):
+ * - nur Scene-Graph + Felder/Handler: PrimaryView.build bzw. FXMLLoader mit
+ * einem Controller ohne initialize() (kein Datenladen, keine Listener oder
+ * Hintergrund-Threads, die sich über die Durchläufe aufstauen)
+ * - ein Controller für alle Durchläufe (Konstruktor nicht gemessen)
+ * - cold: erster Aufbau im Prozess (inkl. Klassenladen, FXML-Parsing)
+ * - warm: Median über WARM_RUNS weitere Aufbauten
+ *
+ * Hinweis:
+ * - "cold" ist nur für die zuerst gemessene Variante aussagekräftig (danach
+ * sind JavaFX-Klassen bereits geladen) → für den Kaltstart je Variante einen
+ * eigenen Prozess starten (=java bzw. =fxml)
+ * - benötigt ein Display (JavaFX-Toolkit); die Datenbank wird wie beim
+ * normalen Start initialisiert
+ */
+final class StartupBenchmark {
+
+    static final String FLAG = "--bench-startup";
+
+    private static final int WARM_RUNS = 20;
+
+    private StartupBenchmark() {
+    }
+
+    static boolean isRequested(String[] args) {
+        return args.length > 0 && (args[0].equals(FLAG) || args[0].startsWith(FLAG + "="));
+    }
+
+    /**
+     * @return Exit-Code (0 = ok, 2 = ungültiger Modus)
+     */
+    static int run(String[] args) {
+        String mode = args[0].equals(FLAG) ? "both" : args[0].substring(FLAG.length() + 1);
+        if (!mode.equals("java") && !mode.equals("fxml") && !mode.equals("both")) {
+            System.err.println("Aufruf: " + FLAG + "[=java|fxml|both]");
+            return 2;
+        }
+
+        DatabaseInitializer.init();
+        Platform.startup(() -> {
+        });
+        try {
+            PrimaryController controller = onFxThread(PrimaryViewLoader::sceneOnlyController);
+            if (!mode.equals("fxml")) {
+                report("java", () -> PrimaryViewLoader.buildGenerated(controller));
+            }
+            if (!mode.equals("java")) {
+                report("fxml", () -> PrimaryViewLoader.buildFxml(controller));
+            }
+        } finally {
+            Platform.exit();
+        }
+        return 0;
+    }
+
+    private static void report(String name, ViewLoad load) {
+        long cold = timeOnFxThread(load);
+
+        long[] warm = new long[WARM_RUNS];
+        for (int i = 0; i < WARM_RUNS; i++) {
+            warm[i] = timeOnFxThread(load);
+        }
+        Arrays.sort(warm);
+
+        System.out.printf("%-5s cold %8.2f ms   warm median %8.2f ms   min %8.2f ms%n",
+                name, cold / 1e6, warm[WARM_RUNS / 2] / 1e6, warm[0] / 1e6);
+    }
+
+    // ein Aufbau im FX-Thread, Dauer in Nanosekunden
+    private static long timeOnFxThread(ViewLoad load) {
+        return onFxThread(() -> {
+            long started = System.nanoTime();
+            load.load();
+            return System.nanoTime() - started;
+        });
+    }
+
+    private static <T> T onFxThread(FxCall<T> call) {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Object> result = new AtomicReference<>();
+
+        Platform.runLater(() -> {
+            try {
+                result.set(call.call());
+            } catch (IOException | RuntimeException exception) {
+                result.set(exception);
+            } finally {
+                done.countDown();
+            }
+        });
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Startup-Benchmark unterbrochen", e);
+        }
+
+        if (result.get() instanceof Exception exception) {
+            throw new RuntimeException("Laden der Hauptansicht fehlgeschlagen", exception);
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result.get();
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface ViewLoad {
+        Parent load() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FxCall<T> {
+        T call() throws IOException;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example;
+
+import com.example.persistence.WriteBehindQueue;
+import com.example.persistence.WriteBehindQueue.Durability;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Durchsatz der Statuswechsel je Durability-Profil (WriteBehindQueue) im
+ * Vergleich zu einem Autocommit pro Änderung.
+ *
+ * Aufruf (über Launcher):
+ * --bench-writes[=strict|balanced|fast|all]
+ *
+ * Szenarien (je OPS Änderungen, ein UPDATE pro Änderung):
+ * - parallel: PRODUCERS virtuelle Threads, jeder wartet auf seinen Commit (wie
+ * gleichzeitige API-Requests)
+ * - burst: alle Änderungen ohne Warten einreihen (wie schnelle Klickfolgen,
+ * Massenimport)
+ * - autocommit: bisheriger Weg, Verbindung + Autocommit je Änderung (nur bei
+ * "all")
+ *
+ * Hinweis:
+ * - läuft auf einer temporären Datenbank (todo.db bleibt unberührt), ohne
+ * Display
+ */
+final class WriteBenchmark {
+
+    static final String FLAG = "--bench-writes";
+
+    private static final int OPS = 2000;
+    private static final int PRODUCERS = 16;
+    private static final int ROWS = 200;
+
+    private WriteBenchmark() {
+    }
+
+    static boolean isRequested(String[] args) {
+        return args.length > 0 && (args[0].equals(FLAG) || args[0].startsWith(FLAG + "="));
+    }
+
+    /**
+     * @return Exit-Code (0 = ok, 1 = Fehler, 2 = ungültiger Modus)
+     */
+    static int run(String[] args) {
+        String mode = args[0].equals(FLAG) ? "all" : args[0].substring(FLAG.length() + 1);
+        List<Durability> profiles = new ArrayList<>();
+        if (mode.equals("all")) {
+            profiles.addAll(List.of(Durability.values()));
+        } else {
+            try {
+                profiles.add(Durability.valueOf(mode.toUpperCase()));
+            } catch (IllegalArgumentException exception) {
+                System.err.println("Aufruf: " + FLAG + "[=strict|balanced|fast|all]");
+                return 2;
+            }
+        }
+
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("todo-bench");
+            String url = "jdbc:sqlite:" + dir.resolve("bench.db");
+            createSchema(url);
+
+            System.out.printf("%d Änderungen, %d Producer, Tabelle mit %d Zeilen%n", OPS, PRODUCERS, ROWS);
+            if (mode.equals("all")) {
+                reportAutocommit(url);
+            }
+            for (Durability durability : profiles) {
+                report(url, durability, "parallel");
+                report(url, durability, "burst");
+            }
+            return 0;
+        } catch (Exception exception) {
+            System.err.println("Schreib-Benchmark fehlgeschlagen: " + exception.getMessage());
+            return 1;
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    private static void report(String url, Durability durability, String scenario) throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(durability, () -> open(url));
+        long started = System.nanoTime();
+        try {
+            if (scenario.equals("parallel")) {
+                runParallel(queue);
+            } else {
+                runBurst(queue);
+            }
+        } finally {
+            queue.close();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        System.out.printf("%-8s %-10s %10.0f ops/s   %6d Commits   %6.1f Änderungen/Commit%n",
+                durability.name().toLowerCase(), scenario, OPS / (elapsed / 1e9), queue.getCommits(),
+                queue.getOpsWritten() / (double) Math.max(1, queue.getCommits()));
+    }
+
+    private static void runParallel(WriteBehindQueue queue) throws Exception {
+        try (ExecutorService producers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                tasks.add(producers.submit(() -> {
+                    for (int i = producer; i < OPS; i += PRODUCERS) {
+                        int op = i;
+                        queue.execute(c -> toggle(c, op));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+    }
+
+    private static void runBurst(WriteBehindQueue queue) {
+        List<CompletableFuture<Integer>> writes = new ArrayList<>(OPS);
+        for (int i = 0; i < OPS; i++) {
+            int op = i;
+            writes.add(queue.submit(c -> toggle(c, op)));
+        }
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // bisheriger Weg: Verbindung öffnen, Autocommit, schliessen (wie Db.open())
+    private static void reportAutocommit(String url) throws SQLException {
+        long started = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            try (Connection c = open(url)) {
+                toggle(c, i);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        System.out.printf("%-8s %-10s %10.0f ops/s   %6d Commits   %6.1f Änderungen/Commit%n",
+                "normal", "autocommit", OPS / (elapsed / 1e9), OPS, 1.0);
+    }
+
+    // ein Statuswechsel wie updateStatusCascade (ohne Baum)
+    private static int toggle(Connection c, int op) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "UPDATE Bench SET Status = 1 - Status, UpdatedAt = ? WHERE Id = ?")) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.setInt(2, 1 + op % ROWS);
+            return ps.executeUpdate();
+        }
+    }
+
+    private static void createSchema(String url) throws SQLException {
+        try (Connection c = open(url);
+                Statement statement = c.createStatement()) {
+            statement.execute("CREATE TABLE Bench (Id INTEGER PRIMARY KEY, Status INTEGER NOT NULL, UpdatedAt INTEGER)");
+            statement.execute("""
+                    WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < %d)
+                    INSERT INTO Bench (Id, Status) SELECT i, 0 FROM n
+                    """.formatted(ROWS));
+        }
+    }
+
+    // PRAGMAs wie Db.open()
+    private static Connection open(String url) throws SQLException {
+        Connection c = DriverManager.getConnection(url);
+        try (Statement statement = c.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL;");
+            statement.execute("PRAGMA synchronous = NORMAL;");
+            statement.execute("PRAGMA temp_store = MEMORY;");
+        }
+        return c;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ignored) {
+            // temporäres Verzeichnis: Aufräumen ist optional
+        }
+    }
+}
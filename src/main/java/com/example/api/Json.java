@@ -0,0 +1,231 @@
+package com.example.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimaler JSON-Reader/-Writer für die lokale HTTP-API und den CLI-Export.
+ *
+ * Warum keine Library:
+ * - Die API braucht nur flache Objekte/Arrays; eine zusätzliche Abhängigkeit
+ * (und Modul-Konfiguration) lohnt sich dafür nicht.
+ *
+ * Abbildung beim Lesen:
+ * - Objekt → LinkedHashMap, Array → ArrayList, Zahl → Double, true/false →
+ * Boolean, null → null
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Schreibt einen String als JSON-String-Literal (inkl. Anführungszeichen).
+     */
+    public static void quote(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        out.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        out.append(ch);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parst einen JSON-Text.
+     *
+     * @throws IllegalArgumentException bei ungültigem JSON
+     */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("Unerwartete Zeichen nach JSON-Wert bei Position " + parser.pos);
+        }
+        return value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object readValue() {
+            if (pos >= text.length()) {
+                throw error("Wert erwartet");
+            }
+
+            char ch = text.charAt(pos);
+            return switch (ch) {
+                case '{' -> readObject();
+                case '[' -> readArray();
+                case '"' -> readString();
+                case 't' -> readLiteral("true", Boolean.TRUE);
+                case 'f' -> readLiteral("false", Boolean.FALSE);
+                case 'n' -> readLiteral("null", null);
+                default -> readNumber();
+            };
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++; // {
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, readValue());
+                skipWhitespace();
+
+                char ch = next();
+                if (ch == '}') {
+                    return map;
+                }
+                if (ch != ',') {
+                    throw error("',' oder '}' erwartet");
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> list = new ArrayList<>();
+            pos++; // [
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+
+            while (true) {
+                skipWhitespace();
+                list.add(readValue());
+                skipWhitespace();
+
+                char ch = next();
+                if (ch == ']') {
+                    return list;
+                }
+                if (ch != ',') {
+                    throw error("',' oder ']' erwartet");
+                }
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+
+            while (true) {
+                char ch = next();
+                if (ch == '"') {
+                    return sb.toString();
+                }
+                if (ch != '\\') {
+                    sb.append(ch);
+                    continue;
+                }
+
+                char esc = next();
+                switch (esc) {
+                    case '"', '\\', '/' -> sb.append(esc);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("Unvollständige Unicode-Escape-Sequenz");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> throw error("Ungültige Escape-Sequenz");
+                }
+            }
+        }
+
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Wert erwartet");
+            }
+            try {
+                return Double.valueOf(text.substring(start, pos));
+            } catch (NumberFormatException exception) {
+                throw error("Ungültige Zahl");
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!text.startsWith(literal, pos)) {
+                throw error("'" + literal + "' erwartet");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private char next() {
+            if (pos >= text.length()) {
+                throw error("Unerwartetes Ende");
+            }
+            return text.charAt(pos++);
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("'" + expected + "' erwartet");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Ungültiges JSON: " + message + " (Position " + pos + ")");
+        }
+    }
+}
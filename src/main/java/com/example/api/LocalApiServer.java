@@ -0,0 +1,449 @@
+package com.example.api;
+
+import com.example.domain.Category;
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+import com.example.service.TodoChanges;
+import com.example.service.TodoService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Optionale lokale HTTP-API (JSON) für Skripte und Integrationen.
+ *
+ * Aktivierung:
+ * - System-Property "todo.api.port" (z. B. -Dtodo.api.port=8765) oder
+ * Umgebungsvariable TODO_API_PORT
+ * - bindet ausschliesslich an 127.0.0.1 (Loopback)
+ *
+ * Endpunkte:
+ * - GET /api/categories
+ * - GET /api/categories/{id}/todos?status=open|done&offset=0&limit=50
+ * - POST /api/categories/{id}/todos {"title": "...", "dueDate": "yyyy-MM-dd"}
+ * - POST /api/categories/{id}/todos/bulk [{"title": "..."}, ...]
+ * - POST /api/todos/{id}/done
+ * - GET /api/search?q=...&limit=50
+ *
+ * Caching:
+ * - GET-Antworten tragen ein ETag aus den Änderungszählern (TodoChanges).
+ * If-None-Match wird geprüft, bevor die DB angefasst wird → 304 ohne Query.
+ *
+ * Threads:
+ * - jeder Request läuft auf einem eigenen virtuellen Thread; der JavaFX-Thread
+ * wird nie benutzt.
+ *
+ * Sicherheit:
+ * - Requests mit Origin-Header (Browser) werden abgelehnt, damit Webseiten keine
+ * Todos über localhost anlegen können.
+ * - Host muss 127.0.0.1:<port>, localhost:<port> oder [::1]:<port> sein (sonst
+ * 403): nach DNS-Rebinding schickt ein Browser same-origin-GETs ohne Origin,
+ * aber mit dem fremden Hostnamen.
+ */
+public final class LocalApiServer {
+
+    public static final String PORT_PROPERTY = "todo.api.port";
+    private static final String PORT_ENV = "TODO_API_PORT";
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final Pattern CATEGORY_TODOS = Pattern.compile("^/api/categories/(\\d+)/todos$");
+    private static final Pattern CATEGORY_TODOS_BULK = Pattern.compile("^/api/categories/(\\d+)/todos/bulk$");
+    private static final Pattern TODO_DONE = Pattern.compile("^/api/todos/(\\d+)/done$");
+
+    private final TodoService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LocalApiServer(TodoService service, HttpServer server, ExecutorService executor) {
+        this.service = service;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Startet die API, falls ein Port konfiguriert ist.
+     *
+     * @return laufender Server oder null (nicht konfiguriert)
+     */
+    public static LocalApiServer startIfConfigured(TodoService service) {
+        String value = System.getProperty(PORT_PROPERTY);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(PORT_ENV);
+        }
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return start(service, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Ungültiger API-Port: " + value, exception);
+        }
+    }
+
+    /**
+     * Startet die API auf dem angegebenen Port (nur Loopback).
+     */
+    public static LocalApiServer start(TodoService service, int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 256);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+            LocalApiServer api = new LocalApiServer(service, server, executor);
+            server.createContext("/api/", api::handle);
+            server.setExecutor(executor);
+            server.start();
+            return api;
+
+        } catch (IOException exception) {
+            throw new RuntimeException("Lokale API konnte nicht gestartet werden (Port " + port + ")", exception);
+        }
+    }
+
+    /**
+     * @return tatsächlich gebundener Port (relevant bei Port 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stoppt den Server; laufende Requests erhalten max. 1 Sekunde.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /*
+     * =========================
+     * Routing
+     * =========================
+     */
+
+    private void handle(HttpExchange exchange) throws IOException {
+        // Hinweis: bewusst kein try-with-resources, sonst wäre der Exchange in den
+        // catch-Blöcken bereits geschlossen und Fehlerantworten gingen verloren
+        try {
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                sendError(exchange, 403, "Browser-Zugriff nicht erlaubt");
+                return;
+            }
+            if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                sendError(exchange, 403, "Unbekannter Host");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            Matcher m;
+            if (path.equals("/api/categories")) {
+                requireMethod(method, "GET");
+                getCategories(exchange);
+            } else if ((m = CATEGORY_TODOS.matcher(path)).matches()) {
+                int categoryId = Integer.parseInt(m.group(1));
+                if (method.equals("GET")) {
+                    getTodos(exchange, categoryId, query);
+                } else {
+                    requireMethod(method, "POST");
+                    addTodo(exchange, categoryId);
+                }
+            } else if ((m = CATEGORY_TODOS_BULK.matcher(path)).matches()) {
+                requireMethod(method, "POST");
+                addTodosBulk(exchange, Integer.parseInt(m.group(1)));
+            } else if ((m = TODO_DONE.matcher(path)).matches()) {
+                requireMethod(method, "POST");
+                service.markDone(Integer.parseInt(m.group(1)));
+                send(exchange, 204, null, null);
+            } else if (path.equals("/api/search")) {
+                requireMethod(method, "GET");
+                search(exchange, query);
+            } else {
+                sendError(exchange, 404, "Unbekannter Pfad: " + path);
+            }
+
+        } catch (MethodNotAllowed exception) {
+            sendError(exchange, 405, exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            sendError(exchange, 400, exception.getMessage());
+        } catch (Exception exception) {
+            // z. B. "Todo nicht gefunden" (IllegalStateException, in RuntimeException
+            // gekapselt)
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+            int status = cause instanceof IllegalStateException ? 404 : 500;
+            sendError(exchange, status, cause.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // erlaubte Host-Header: Loopback-Namen mit dem gebundenen Port
+    private boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String suffix = ":" + getPort();
+        String value = host.trim().toLowerCase();
+        return value.equals("127.0.0.1" + suffix)
+                || value.equals("localhost" + suffix)
+                || value.equals("[::1]" + suffix);
+    }
+
+    private void getCategories(HttpExchange exchange) throws IOException {
+        String etag = etag("c", TodoChanges.categoriesVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        StringBuilder json = new StringBuilder(256).append('[');
+        List<Category> categories = service.getCategories();
+        for (int i = 0; i < categories.size(); i++) {
+            Category c = categories.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(c.getId()).append(",\"name\":");
+            Json.quote(json, c.getName());
+            json.append(",\"icon\":");
+            Json.quote(json, c.getIcon());
+            json.append('}');
+        }
+        json.append(']');
+
+        send(exchange, 200, json.toString(), etag);
+    }
+
+    private void getTodos(HttpExchange exchange, int categoryId, Map<String, String> query) throws IOException {
+        // Version der Kategorie vor dem Laden lesen: bei parallelem Schreiben wird
+        // höchstens ein zu altes ETag geliefert (nächster Poll lädt neu), nie ein zu
+        // neues
+        String etag = etag("t" + categoryId, TodoChanges.categoryVersion(categoryId));
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        TodoStatus status = parseStatus(query.getOrDefault("status", "open"));
+        int offset = parseInt(query.get("offset"), 0);
+        int limit = parseInt(query.get("limit"), DEFAULT_PAGE_SIZE);
+
+        List<TodoItem> items = service.getTodosPage(categoryId, status, offset, limit);
+
+        StringBuilder json = new StringBuilder(64 + items.size() * 96);
+        json.append("{\"offset\":").append(Math.max(0, offset))
+                .append(",\"items\":");
+        appendTodos(json, items);
+        json.append('}');
+
+        send(exchange, 200, json.toString(), etag);
+    }
+
+    private void search(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String text = query.getOrDefault("q", "");
+        String etag = etag("s", TodoChanges.globalVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        List<TodoItem> items = service.searchTodos(text, parseInt(query.get("limit"), DEFAULT_PAGE_SIZE));
+
+        StringBuilder json = new StringBuilder(16 + items.size() * 96);
+        appendTodos(json, items);
+        send(exchange, 200, json.toString(), etag);
+    }
+
+    private void addTodo(HttpExchange exchange, int categoryId) throws IOException {
+        Object body = Json.parse(readBody(exchange));
+        if (!(body instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("JSON-Objekt erwartet");
+        }
+
+        int id = service.addTodo(categoryId, stringField(map, "title"), dateField(map, "dueDate"));
+        send(exchange, 201, "{\"id\":" + id + "}", null);
+    }
+
+    private void addTodosBulk(HttpExchange exchange, int categoryId) throws IOException {
+        Object body = Json.parse(readBody(exchange));
+        if (!(body instanceof List<?> list)) {
+            throw new IllegalArgumentException("JSON-Array erwartet");
+        }
+
+        List<String> titles = new ArrayList<>(list.size());
+        List<LocalDate> dueDates = new ArrayList<>(list.size());
+        for (Object entry : list) {
+            if (!(entry instanceof Map<?, ?> map)) {
+                throw new IllegalArgumentException("Array-Einträge müssen Objekte sein");
+            }
+            titles.add(stringField(map, "title"));
+            dueDates.add(dateField(map, "dueDate"));
+        }
+
+        List<Integer> ids = service.addTodos(categoryId, titles, dueDates);
+
+        StringBuilder json = new StringBuilder("{\"ids\":[");
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(ids.get(i));
+        }
+        json.append("]}");
+
+        send(exchange, 201, json.toString(), null);
+    }
+
+    /*
+     * =========================
+     * JSON / HTTP Hilfsfunktionen
+     * =========================
+     */
+
+    private static void appendTodos(StringBuilder json, List<TodoItem> items) {
+        json.append('[');
+        for (int i = 0; i < items.size(); i++) {
+            TodoItem t = items.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(t.getId())
+                    .append(",\"categoryId\":").append(t.getCategoryId())
+                    .append(",\"title\":");
+            Json.quote(json, t.getTitle());
+            json.append(",\"dueDate\":");
+            Json.quote(json, t.getDueDate() == null ? null : t.getDueDate().toString());
+            json.append(",\"notes\":");
+            Json.quote(json, t.getNotes());
+            json.append(",\"status\":\"").append(t.getStatus().name()).append("\"}");
+        }
+        json.append(']');
+    }
+
+    private static String etag(String scope, long version) {
+        return "\"" + scope + "-" + TodoChanges.generation() + "-" + version + "\"";
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.sendResponseHeaders(304, -1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json, String etag) throws IOException {
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+        }
+
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.quote(json, message == null ? "" : message);
+        json.append('}');
+        send(exchange, status, json.toString(), null);
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> result = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return result;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            result.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Zahl erwartet: " + value);
+        }
+    }
+
+    private static TodoStatus parseStatus(String value) {
+        return switch (value.toLowerCase()) {
+            case "open" -> TodoStatus.OPEN;
+            case "done" -> TodoStatus.DONE;
+            default -> throw new IllegalArgumentException("status muss open oder done sein");
+        };
+    }
+
+    private static String stringField(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(key + " muss ein String sein");
+        }
+        return (String) value;
+    }
+
+    private static LocalDate dateField(Map<?, ?> map, String key) {
+        String value = stringField(map, key);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException(key + " muss yyyy-MM-dd sein");
+        }
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!actual.equals(expected)) {
+            throw new MethodNotAllowed(expected + " erwartet");
+        }
+    }
+
+    private static final class MethodNotAllowed extends RuntimeException {
+        MethodNotAllowed(String message) {
+            super(message);
+        }
+    }
+}
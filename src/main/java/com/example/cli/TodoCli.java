@@ -0,0 +1,373 @@
+package com.example.cli;
+
+import com.example.DatabaseInitializer;
+import com.example.SingleInstance;
+import com.example.api.Json;
+import com.example.domain.Category;
+import com.example.domain.RecurrenceRule;
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+import com.example.service.TodoService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Headless-Kommandozeile (ohne JavaFX).
+ *
+ * Aufruf (über App.main):
+ * - list → Listen anzeigen
+ * - list Arbeit [--done] → Todos einer Liste
+ * - add Arbeit Bericht schreiben [--due 2026-01-31] [--repeat weekly]
+ * - done 42 → Todo als erledigt markieren
+ * - export [--format csv|json] [--out datei] [--since 2026-01-31]
+ *
+ * Startzeit:
+ * - berührt nur Db, DatabaseInitializer (Fast-Path) und TodoService
+ * - JavaFX-Toolkit, FXML und CSS werden nie initialisiert
+ *
+ * Listen können per Name (Gross/Klein egal) oder ID angegeben werden.
+ */
+public final class TodoCli {
+
+    private static final Set<String> COMMANDS = Set.of("add", "list", "done", "export", "help", "--help");
+
+    // Exit-Codes
+    private static final int OK = 0;
+    private static final int FAILED = 1;
+    private static final int USAGE = 2;
+
+    private final TodoService service;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private TodoCli(TodoService service, PrintStream out, PrintStream err) {
+        this.service = service;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * @return true, wenn die Argumente ein CLI-Kommando sind (statt UI-Start)
+     */
+    public static boolean isCommand(String[] args) {
+        return args != null && args.length > 0 && COMMANDS.contains(args[0]);
+    }
+
+    /**
+     * Führt ein CLI-Kommando aus.
+     *
+     * @return Exit-Code (0 = ok, 1 = Fehler, 2 = falsche Verwendung)
+     */
+    public static int run(String[] args) {
+        PrintStream out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+        PrintStream err = new PrintStream(System.err, true, StandardCharsets.UTF_8);
+
+        String command = args[0];
+        if (command.equals("help") || command.equals("--help")) {
+            printUsage(out);
+            return OK;
+        }
+
+        try {
+            DatabaseInitializer.init();
+            TodoCli cli = new TodoCli(new TodoService(), out, err);
+
+            List<String> rest = List.of(args).subList(1, args.length);
+            return switch (command) {
+                case "add" -> cli.add(rest);
+                case "list" -> cli.list(rest);
+                case "done" -> cli.done(rest);
+                case "export" -> cli.export(rest);
+                default -> USAGE;
+            };
+
+        } catch (UsageException exception) {
+            err.println(exception.getMessage());
+            printUsage(err);
+            return USAGE;
+        } catch (Exception exception) {
+            err.println("Fehler: " + exception.getMessage());
+            return FAILED;
+        }
+    }
+
+    /*
+     * =========================
+     * Kommandos
+     * =========================
+     */
+
+    private int add(List<String> args) {
+        Options options = Options.parse(args, Set.of("--due", "--repeat"), Set.of());
+        if (options.positional.size() < 2) {
+            throw new UsageException("add: Liste und Titel angeben");
+        }
+
+        Category category = resolveCategory(options.positional.getFirst());
+        String title = String.join(" ", options.positional.subList(1, options.positional.size()));
+        LocalDate due = parseDate(options.values.get("--due"));
+        String repeat = options.values.get("--repeat");
+
+        int id = repeat == null
+                ? service.addTodo(category.getId(), title, due)
+                : service.addSeries(category.getId(), title, parseRule(repeat, due == null ? LocalDate.now() : due), due);
+        out.println(id);
+
+        notifyUi();
+        return OK;
+    }
+
+    private int list(List<String> args) {
+        Options options = Options.parse(args, Set.of(), Set.of("--done"));
+
+        if (options.positional.isEmpty()) {
+            for (Category c : service.getCategories()) {
+                out.println(c.getId() + "\t" + (c.getIcon() == null ? "" : c.getIcon() + " ") + c.getName());
+            }
+            return OK;
+        }
+
+        Category category = resolveCategory(String.join(" ", options.positional));
+        List<TodoItem> items = options.flags.contains("--done")
+                ? service.getDoneTodosForCategory(category.getId())
+                : service.getOpenTodosForCategory(category.getId());
+
+        // berechnete Serien-Vorkommen haben noch keine ID
+        for (TodoItem item : items) {
+            out.println((item.isVirtualOccurrence() ? "↻" : String.valueOf(item.getId())) + "\t"
+                    + (item.getDueDate() == null ? "" : item.getDueDate()) + "\t"
+                    + item.getTitle());
+        }
+        return OK;
+    }
+
+    private int done(List<String> args) {
+        if (args.isEmpty()) {
+            throw new UsageException("done: mindestens eine Todo-ID angeben");
+        }
+
+        for (String arg : args) {
+            service.markDone(parseId(arg));
+        }
+
+        notifyUi();
+        return OK;
+    }
+
+    private int export(List<String> args) throws IOException {
+        Options options = Options.parse(args, Set.of("--format", "--out", "--since"), Set.of());
+        String format = options.values.getOrDefault("--format", "csv");
+        String since = options.values.get("--since");
+
+        Map<Integer, String> categoryNames = new HashMap<>();
+        for (Category c : service.getCategories()) {
+            categoryNames.put(c.getId(), c.getName());
+        }
+        // --since: nur seither angelegte/geänderte Todos (inkrementeller Export)
+        List<TodoItem> items = since == null ? service.getAllTodos() : service.findUpdatedSince(parseInstant(since));
+
+        String text = switch (format) {
+            case "csv" -> toCsv(items, categoryNames);
+            case "json" -> toJson(items, categoryNames);
+            default -> throw new UsageException("export: --format muss csv oder json sein");
+        };
+
+        String outFile = options.values.get("--out");
+        if (outFile == null) {
+            out.print(text);
+        } else {
+            Files.writeString(Path.of(outFile), text, StandardCharsets.UTF_8);
+        }
+        return OK;
+    }
+
+    /*
+     * =========================
+     * Hilfsfunktionen
+     * =========================
+     */
+
+    private Category resolveCategory(String nameOrId) {
+        List<Category> categories = service.getCategories();
+
+        for (Category c : categories) {
+            if (c.getName().equalsIgnoreCase(nameOrId.trim())) {
+                return c;
+            }
+        }
+        if (nameOrId.chars().allMatch(Character::isDigit)) {
+            int id = Integer.parseInt(nameOrId);
+            for (Category c : categories) {
+                if (c.getId() == id) {
+                    return c;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Liste nicht gefunden: " + nameOrId);
+    }
+
+    /**
+     * Läuft die UI, lädt sie die Daten neu (sonst passiert nichts).
+     */
+    private static void notifyUi() {
+        SingleInstance.notifyRunning(List.of("--refresh"));
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            throw new UsageException("Ungültige ID: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException exception) {
+            throw new UsageException("Datum muss yyyy-MM-dd sein: " + value);
+        }
+    }
+
+    /**
+     * yyyy-MM-dd (Tagesbeginn, lokale Zeit) oder ISO-Zeitpunkt
+     * (2026-01-31T08:00:00Z).
+     */
+    private static Instant parseInstant(String value) {
+        String v = value.trim();
+        try {
+            return v.contains("T") ? Instant.parse(v) : LocalDate.parse(v).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException exception) {
+            throw new UsageException("--since muss yyyy-MM-dd oder ein ISO-Zeitpunkt sein: " + value);
+        }
+    }
+
+    /**
+     * daily | weekdays | weekly | monthly | every:N
+     */
+    private static RecurrenceRule parseRule(String value, LocalDate start) {
+        String v = value.trim().toLowerCase();
+        if (v.startsWith("every:")) {
+            try {
+                return RecurrenceRule.everyNDays(Integer.parseInt(v.substring("every:".length())));
+            } catch (IllegalArgumentException exception) {
+                throw new UsageException("--repeat every:N braucht N >= 1");
+            }
+        }
+        return switch (v) {
+            case "daily" -> RecurrenceRule.daily();
+            case "weekdays" -> RecurrenceRule.weekly(RecurrenceRule.WORKDAYS);
+            case "weekly" -> RecurrenceRule.weekly(start.getDayOfWeek());
+            case "monthly" -> RecurrenceRule.monthly(start.getDayOfMonth());
+            default -> throw new UsageException("--repeat muss daily, weekdays, weekly, monthly oder every:N sein");
+        };
+    }
+
+    private static String toCsv(List<TodoItem> items, Map<Integer, String> categoryNames) {
+        StringBuilder sb = new StringBuilder("Id;Liste;Titel;Faellig;Status;Notizen\n");
+        for (TodoItem t : items) {
+            sb.append(t.getId()).append(';');
+            appendCsv(sb, categoryNames.get(t.getCategoryId()));
+            sb.append(';');
+            appendCsv(sb, t.getTitle());
+            sb.append(';');
+            sb.append(t.getDueDate() == null ? "" : t.getDueDate()).append(';');
+            sb.append(t.getStatus() == TodoStatus.DONE ? "erledigt" : "offen").append(';');
+            appendCsv(sb, t.getNotes());
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void appendCsv(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(';') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0;
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String toJson(List<TodoItem> items, Map<Integer, String> categoryNames) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < items.size(); i++) {
+            TodoItem t = items.get(i);
+            sb.append("  {\"id\":").append(t.getId()).append(",\"list\":");
+            Json.quote(sb, categoryNames.get(t.getCategoryId()));
+            sb.append(",\"title\":");
+            Json.quote(sb, t.getTitle());
+            sb.append(",\"dueDate\":");
+            Json.quote(sb, t.getDueDate() == null ? null : t.getDueDate().toString());
+            sb.append(",\"status\":\"").append(t.getStatus().name()).append("\",\"notes\":");
+            Json.quote(sb, t.getNotes());
+            sb.append(i + 1 < items.size() ? "},\n" : "}\n");
+        }
+        return sb.append("]\n").toString();
+    }
+
+    private static void printUsage(PrintStream ps) {
+        ps.println("""
+                Verwendung:
+                  list                               Listen anzeigen
+                  list <Liste> [--done]              Todos einer Liste anzeigen
+                  add <Liste> <Titel...> [--due yyyy-MM-dd]
+                      [--repeat daily|weekdays|weekly|monthly|every:N]
+                  done <Id> [<Id>...]                Todos als erledigt markieren
+                  export [--format csv|json] [--out <Datei>] [--since yyyy-MM-dd]
+                """);
+    }
+
+    /**
+     * Einfacher Argument-Parser: "--key value", "--flag" und Positionsargumente.
+     */
+    private static final class Options {
+        final List<String> positional = new ArrayList<>();
+        final Map<String, String> values = new HashMap<>();
+        final List<String> flags = new ArrayList<>();
+
+        static Options parse(List<String> args, Set<String> valueOptions, Set<String> flagOptions) {
+            Options options = new Options();
+            for (int i = 0; i < args.size(); i++) {
+                String arg = args.get(i);
+                if (valueOptions.contains(arg)) {
+                    if (i + 1 >= args.size()) {
+                        throw new UsageException(arg + " braucht einen Wert");
+                    }
+                    options.values.put(arg, args.get(++i));
+                } else if (flagOptions.contains(arg)) {
+                    options.flags.add(arg);
+                } else if (arg.startsWith("--")) {
+                    throw new UsageException("Unbekannte Option: " + arg);
+                } else {
+                    options.positional.add(arg);
+                }
+            }
+            return options;
+        }
+    }
+
+    private static final class UsageException extends RuntimeException {
+        UsageException(String message) {
+            super(message);
+        }
+    }
+}
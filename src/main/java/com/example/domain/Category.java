@@ -43,6 +43,13 @@ public class Category {
         this.icon = icon;
     }
 
+    /**
+     * @return true für virtuelle Listen (SmartList, negative ID)
+     */
+    public boolean isSmartList() {
+        return id < 0;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -0,0 +1,237 @@
+package com.example.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Wiederholungsregel einer Todo-Serie (unveränderlich).
+ *
+ * Varianten:
+ * - DAILY: jeden Tag
+ * - WEEKLY: an bestimmten Wochentagen (Bitmaske, Mo = Bit 0 ... So = Bit 6)
+ * - MONTHLY: an einem Tag im Monat (kürzere Monate → letzter Tag des Monats)
+ * - EVERY_N_DAYS: alle N Tage ab Startdatum
+ *
+ * Berechnung:
+ * - next/previous rechnen direkt (ohne Tag-für-Tag-Schleife über Monate), damit
+ * die lazy Expansion auch für alte Serien günstig bleibt.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY(0),
+        WEEKLY(1),
+        MONTHLY(2),
+        EVERY_N_DAYS(3);
+
+        private final int dbValue;
+
+        Frequency(int dbValue) {
+            this.dbValue = dbValue;
+        }
+
+        public int getDbValue() {
+            return dbValue;
+        }
+
+        public static Frequency fromDbValue(int dbValue) {
+            for (Frequency f : values()) {
+                if (f.dbValue == dbValue) {
+                    return f;
+                }
+            }
+            throw new IllegalArgumentException("Unknown Frequency dbValue: " + dbValue);
+        }
+    }
+
+    // Mo–Fr
+    public static final int WORKDAYS = 0b0011111;
+
+    private static final String[] DAY_SHORT = { "Mo", "Di", "Mi", "Do", "Fr", "Sa", "So" };
+
+    private final Frequency frequency;
+    private final int intervalDays;
+    private final int weekDays;
+    private final int monthDay;
+
+    private RecurrenceRule(Frequency frequency, int intervalDays, int weekDays, int monthDay) {
+        this.frequency = frequency;
+        this.intervalDays = intervalDays;
+        this.weekDays = weekDays;
+        this.monthDay = monthDay;
+    }
+
+    public static RecurrenceRule daily() {
+        return new RecurrenceRule(Frequency.DAILY, 1, 0, 0);
+    }
+
+    /**
+     * @param weekDays Bitmaske (Mo = 1, Di = 2, ... So = 64), mindestens ein Tag
+     */
+    public static RecurrenceRule weekly(int weekDays) {
+        if ((weekDays & 0b1111111) == 0) {
+            throw new IllegalArgumentException("Mindestens ein Wochentag ist Pflicht");
+        }
+        return new RecurrenceRule(Frequency.WEEKLY, 1, weekDays & 0b1111111, 0);
+    }
+
+    public static RecurrenceRule weekly(DayOfWeek day) {
+        return weekly(bit(day));
+    }
+
+    /**
+     * @param monthDay Tag im Monat (1..31)
+     */
+    public static RecurrenceRule monthly(int monthDay) {
+        if (monthDay < 1 || monthDay > 31) {
+            throw new IllegalArgumentException("Tag im Monat muss zwischen 1 und 31 liegen");
+        }
+        return new RecurrenceRule(Frequency.MONTHLY, 1, 0, monthDay);
+    }
+
+    /**
+     * @param days Abstand in Tagen (>= 1)
+     */
+    public static RecurrenceRule everyNDays(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Intervall muss mindestens 1 Tag sein");
+        }
+        return new RecurrenceRule(Frequency.EVERY_N_DAYS, days, 0, 0);
+    }
+
+    /**
+     * Erzeugt eine Regel aus DB-Spalten (TodoSeries).
+     */
+    public static RecurrenceRule fromDb(int frequency, int intervalDays, int weekDays, int monthDay) {
+        return switch (Frequency.fromDbValue(frequency)) {
+            case DAILY -> daily();
+            case WEEKLY -> weekly(weekDays);
+            case MONTHLY -> monthly(monthDay);
+            case EVERY_N_DAYS -> everyNDays(intervalDays);
+        };
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public int getWeekDays() {
+        return weekDays;
+    }
+
+    public int getMonthDay() {
+        return monthDay;
+    }
+
+    /**
+     * Erstes Vorkommen am oder nach "from" (nie vor "start").
+     *
+     * @param start Startdatum der Serie (Anker für EVERY_N_DAYS)
+     * @param from  frühestes gewünschtes Datum
+     * @return Datum des Vorkommens (nie null)
+     */
+    public LocalDate next(LocalDate start, LocalDate from) {
+        LocalDate d = from.isBefore(start) ? start : from;
+
+        return switch (frequency) {
+            case DAILY -> d;
+            case WEEKLY -> {
+                // höchstens 7 Schritte, weil mindestens ein Bit gesetzt ist
+                while (!matchesWeekDay(d)) {
+                    d = d.plusDays(1);
+                }
+                yield d;
+            }
+            case MONTHLY -> {
+                LocalDate candidate = dayInMonth(YearMonth.from(d));
+                yield candidate.isBefore(d) ? dayInMonth(YearMonth.from(d).plusMonths(1)) : candidate;
+            }
+            case EVERY_N_DAYS -> {
+                long diff = ChronoUnit.DAYS.between(start, d);
+                long steps = (diff + intervalDays - 1) / intervalDays;
+                yield start.plusDays(steps * intervalDays);
+            }
+        };
+    }
+
+    /**
+     * Letztes Vorkommen vor "before" (nicht vor "start").
+     *
+     * @return Datum oder null, wenn es vor "before" kein Vorkommen gibt
+     */
+    public LocalDate previous(LocalDate start, LocalDate before) {
+        LocalDate d = before.minusDays(1);
+        if (d.isBefore(start)) {
+            return null;
+        }
+
+        LocalDate result = switch (frequency) {
+            case DAILY -> d;
+            case WEEKLY -> {
+                for (int i = 0; i < 7 && !matchesWeekDay(d); i++) {
+                    d = d.minusDays(1);
+                }
+                yield d;
+            }
+            case MONTHLY -> {
+                LocalDate candidate = dayInMonth(YearMonth.from(d));
+                yield candidate.isAfter(d) ? dayInMonth(YearMonth.from(d).minusMonths(1)) : candidate;
+            }
+            case EVERY_N_DAYS -> {
+                long diff = ChronoUnit.DAYS.between(start, d);
+                yield start.plusDays((diff / intervalDays) * intervalDays);
+            }
+        };
+
+        return result.isBefore(start) ? null : result;
+    }
+
+    /**
+     * @return Anzeige-Text (z. B. "Wöchentlich (Mo, Mi)")
+     */
+    public String describe() {
+        return switch (frequency) {
+            case DAILY -> "Täglich";
+            case WEEKLY -> {
+                if (weekDays == WORKDAYS) {
+                    yield "Werktags";
+                }
+                StringBuilder sb = new StringBuilder("Wöchentlich (");
+                for (int i = 0; i < 7; i++) {
+                    if ((weekDays & (1 << i)) != 0) {
+                        if (sb.charAt(sb.length() - 1) != '(') {
+                            sb.append(", ");
+                        }
+                        sb.append(DAY_SHORT[i]);
+                    }
+                }
+                yield sb.append(')').toString();
+            }
+            case MONTHLY -> "Monatlich am " + monthDay + ".";
+            case EVERY_N_DAYS -> intervalDays == 1 ? "Täglich" : "Alle " + intervalDays + " Tage";
+        };
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+
+    private boolean matchesWeekDay(LocalDate d) {
+        return (weekDays & bit(d.getDayOfWeek())) != 0;
+    }
+
+    private LocalDate dayInMonth(YearMonth month) {
+        return month.atDay(Math.min(monthDay, month.lengthOfMonth()));
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+}
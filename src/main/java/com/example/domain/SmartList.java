@@ -0,0 +1,105 @@
+package com.example.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Virtuelle Listen über alle Kategorien (nach Fälligkeit).
+ *
+ * Darstellung:
+ * - erscheinen in der Listen-Auswahl als Category mit negativer ID (echte
+ * Kategorie-IDs sind immer > 0)
+ *
+ * Datumsbereich:
+ * - from/to jeweils inklusive; null = offen
+ * - NO_DATE hat keinen Bereich (DueDate IS NULL)
+ */
+public enum SmartList {
+    TODAY(-1, "Heute", "☀"),
+    OVERDUE(-2, "Überfällig", "⏳"),
+    NEXT_7_DAYS(-3, "Nächste 7 Tage", "📆"),
+    NO_DATE(-4, "Ohne Datum", "📥");
+
+    private final int id;
+    private final String title;
+    private final String icon;
+
+    SmartList(int id, String title, String icon) {
+        this.id = id;
+        this.title = title;
+        this.icon = icon;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    /**
+     * @return true für "Ohne Datum" (kein Datumsbereich)
+     */
+    public boolean isWithoutDate() {
+        return this == NO_DATE;
+    }
+
+    /**
+     * @return erstes Datum (inklusive) oder null (unbegrenzt / ohne Datum)
+     */
+    public LocalDate from(LocalDate today) {
+        return switch (this) {
+            case TODAY, NEXT_7_DAYS -> today;
+            case OVERDUE, NO_DATE -> null;
+        };
+    }
+
+    /**
+     * @return letztes Datum (inklusive) oder null (ohne Datum)
+     */
+    public LocalDate to(LocalDate today) {
+        return switch (this) {
+            case TODAY -> today;
+            case OVERDUE -> today.minusDays(1);
+            case NEXT_7_DAYS -> today.plusDays(6);
+            case NO_DATE -> null;
+        };
+    }
+
+    /**
+     * Prüft, ob ein Fälligkeitsdatum in diese Liste fällt.
+     */
+    public boolean contains(LocalDate dueDate, LocalDate today) {
+        if (isWithoutDate()) {
+            return dueDate == null;
+        }
+        if (dueDate == null) {
+            return false;
+        }
+        LocalDate from = from(today);
+        return (from == null || !dueDate.isBefore(from)) && !dueDate.isAfter(to(today));
+    }
+
+    /**
+     * @return Eintrag für die Listen-Auswahl (negative ID)
+     */
+    public Category asCategory() {
+        return new Category(id, title, icon);
+    }
+
+    /**
+     * @return SmartList zur ID oder null (normale Kategorie)
+     */
+    public static SmartList fromId(int id) {
+        for (SmartList list : values()) {
+            if (list.id == id) {
+                return list;
+            }
+        }
+        return null;
+    }
+}
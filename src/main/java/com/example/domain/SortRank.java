@@ -0,0 +1,126 @@
+package com.example.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sortierschlüssel für die manuelle Reihenfolge (TodoItems.SortRank).
+ *
+ * Idee:
+ * - Schlüssel sind Nachkommastellen einer Zahl zur Basis 62 ("0-9A-Za-z"),
+ * verglichen als Text (ASCII-Reihenfolge = Zahlen-Reihenfolge, passt zur
+ * BINARY-Collation von SQLite)
+ * - zwischen zwei Schlüsseln gibt es immer einen weiteren → Verschieben schreibt
+ * genau eine Zeile, nichts wird umnummeriert
+ * - Schlüssel enden nie auf '0' (sonst gäbe es darunter keinen Platz)
+ *
+ * Hinweis:
+ * - wiederholtes Einfügen an derselben Stelle verlängert die Schlüssel (ca. ein
+ * Zeichen pro sechs Einfügungen); ab MAX_LENGTH wird neu verteilt
+ * (evenlySpaced)
+ */
+public final class SortRank {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    /** Ab dieser Länge sollte die Kategorie neu verteilt werden. */
+    public static final int MAX_LENGTH = 12;
+
+    private SortRank() {
+    }
+
+    /**
+     * Liefert einen Schlüssel strikt zwischen before und after.
+     *
+     * @param before unterer Nachbar oder null (Listenanfang)
+     * @param after  oberer Nachbar oder null (Listenende)
+     * @return neuer Schlüssel
+     * @throws IllegalArgumentException wenn before >= after
+     */
+    public static String between(String before, String after) {
+        String low = before == null ? "" : before;
+        if (after != null && low.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Ungültige Nachbarn: " + before + " >= " + after);
+        }
+        return midpoint(low, after);
+    }
+
+    /**
+     * Liefert count gleichmässig verteilte Schlüssel (aufsteigend), z. B. für das
+     * erstmalige Festschreiben einer Reihenfolge oder nach zu langen Schlüsseln.
+     */
+    public static List<String> evenlySpaced(int count) {
+        // Breite mit einer Stelle Reserve: zwischen zwei Schlüsseln bleiben >= 62
+        // Werte frei
+        int width = 1;
+        long range = BASE;
+        while (range < (long) (count + 1) * BASE) {
+            width++;
+            range *= BASE;
+        }
+
+        long step = range / (count + 1);
+        List<String> output = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            output.add(stripTrailingZeros(toDigits(step * i, width)));
+        }
+        return output;
+    }
+
+    /**
+     * @return true, wenn der Schlüssel so lang ist, dass neu verteilt werden sollte
+     */
+    public static boolean needsRebalance(String rank) {
+        return rank != null && rank.length() > MAX_LENGTH;
+    }
+
+    /*
+     * low < high (high == null: unbegrenzt). Gemeinsames Präfix übernehmen, dann
+     * die erste Stelle halbieren; liegen die Stellen direkt nebeneinander, eine
+     * Stelle weiter rechts suchen.
+     */
+    private static String midpoint(String low, String high) {
+        if (high != null) {
+            int n = 0;
+            while (n < high.length() && digitAt(low, n) == DIGITS.indexOf(high.charAt(n))) {
+                n++;
+            }
+            if (n > 0) {
+                return high.substring(0, n) + midpoint(low.length() > n ? low.substring(n) : "", high.substring(n));
+            }
+        }
+
+        int digitLow = digitAt(low, 0);
+        int digitHigh = high == null ? BASE : DIGITS.indexOf(high.charAt(0));
+
+        if (digitHigh - digitLow > 1) {
+            return String.valueOf(DIGITS.charAt((digitLow + digitHigh + 1) / 2));
+        }
+        if (high != null && high.length() > 1) {
+            return high.substring(0, 1);
+        }
+        return DIGITS.charAt(digitLow) + midpoint(low.length() > 1 ? low.substring(1) : "", null);
+    }
+
+    private static int digitAt(String value, int index) {
+        return index < value.length() ? DIGITS.indexOf(value.charAt(index)) : 0;
+    }
+
+    private static String toDigits(long value, int width) {
+        char[] output = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            output[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(output);
+    }
+
+    private static String stripTrailingZeros(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == '0') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+}
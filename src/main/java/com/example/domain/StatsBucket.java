@@ -0,0 +1,44 @@
+package com.example.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Summen einer Periode (bzw. eines Zeitraums) aus der Tabelle DailyStats.
+ *
+ * Werte:
+ * - created: angelegte Todos
+ * - completed: erledigte Todos
+ * - overdue: davon nach der Fälligkeit erledigt
+ */
+public class StatsBucket {
+    private final LocalDate start;
+    private final int created;
+    private final int completed;
+    private final int overdue;
+
+    public StatsBucket(LocalDate start, int created, int completed, int overdue) {
+        this.start = start;
+        this.created = created;
+        this.completed = completed;
+        this.overdue = overdue;
+    }
+
+    /**
+     * @return erster Tag der Periode
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+}
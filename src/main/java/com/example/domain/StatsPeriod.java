@@ -0,0 +1,56 @@
+package com.example.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Zeitraster für Statistiken (Zusammenfassung der Tages-Rollups).
+ *
+ * Perioden beginnen:
+ * - DAY: am Tag selbst
+ * - WEEK: am Montag
+ * - MONTH: am Monatsersten
+ */
+public enum StatsPeriod {
+    DAY("Tage"),
+    WEEK("Wochen"),
+    MONTH("Monate");
+
+    private final String title;
+
+    StatsPeriod(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return erster Tag der Periode, in der day liegt
+     */
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * @return Beginn der folgenden Periode
+     */
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
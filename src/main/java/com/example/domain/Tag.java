@@ -0,0 +1,52 @@
+package com.example.domain;
+
+import java.util.Locale;
+
+/**
+ * Schlagwort, das beliebig vielen Todos zugeordnet werden kann (Tabelle Tags,
+ * Zuordnung über TodoTags).
+ *
+ * Namen:
+ * - werden normalisiert gespeichert (ohne führendes '#', klein geschrieben,
+ * ohne Leerzeichen), damit "#Arbeit" und "arbeit" dasselbe Tag sind
+ */
+public class Tag {
+    private int id;
+    private String name;
+
+    public Tag(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Normalisiert eine Eingabe zu einem Tag-Namen.
+     *
+     * @param raw z. B. "#Arbeit"
+     * @return z. B. "arbeit" oder null, wenn nichts übrig bleibt
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String name = raw.trim();
+        while (name.startsWith("#")) {
+            name = name.substring(1);
+        }
+        name = name.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        return name.isEmpty() ? null : name;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + name;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.domain;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 
 public class TodoItem {
     private int id;
@@ -10,6 +13,29 @@ public class TodoItem {
     private TodoStatus status;
     private String notes;
 
+    // Serien-Vorkommen: seriesId > 0; id == 0 solange nur berechnet (nicht in DB)
+    private int seriesId;
+    private LocalDate occurrenceDate;
+
+    // Erinnerung (null = keine)
+    private Instant remindAt;
+
+    // manuelle Reihenfolge (null = automatisch nach Fälligkeit), siehe SortRank
+    private String sortRank;
+
+    // Zeitstempel (null = unbekannt, z. B. vor der Migration angelegt);
+    // completedAt nur bei erledigten Todos
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+
+    // Tag-Namen (nur Anzeige; gesetzt vom Service, nicht vom Repository)
+    private List<String> tags = List.of();
+
+    // Unteraufgaben im ganzen Teilbaum (nur Anzeige; gesetzt vom Service)
+    private int subtaskCount;
+    private int subtasksDone;
+
     public TodoItem() {
     }
 
@@ -70,6 +96,128 @@ public class TodoItem {
         this.notes = notes;
     }
 
+    public int getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(int seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    public Instant getRemindAt() {
+        return remindAt;
+    }
+
+    public void setRemindAt(Instant remindAt) {
+        this.remindAt = remindAt;
+    }
+
+    public String getSortRank() {
+        return sortRank;
+    }
+
+    public void setSortRank(String sortRank) {
+        this.sortRank = sortRank;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags == null ? List.of() : List.copyOf(tags);
+    }
+
+    public int getSubtaskCount() {
+        return subtaskCount;
+    }
+
+    public int getSubtasksDone() {
+        return subtasksDone;
+    }
+
+    public void setSubtaskProgress(int subtaskCount, int subtasksDone) {
+        this.subtaskCount = subtaskCount;
+        this.subtasksDone = subtasksDone;
+    }
+
+    /**
+     * @return true, wenn dies ein berechnetes Serien-Vorkommen ohne DB-Zeile ist
+     */
+    public boolean isVirtualOccurrence() {
+        return id == 0 && seriesId != 0;
+    }
+
+    /**
+     * Vergleicht die Identität (nicht die Felder): gleiche ID, bzw. bei
+     * berechneten Vorkommen gleiche Serie + gleiches Datum.
+     */
+    public boolean isSameTodo(TodoItem other) {
+        if (other == null) {
+            return false;
+        }
+        if (id != 0 || other.id != 0) {
+            return id == other.id;
+        }
+        return seriesId == other.seriesId && Objects.equals(occurrenceDate, other.occurrenceDate);
+    }
+
+    /**
+     * Vergleicht alle Felder inkl. Tags und Unteraufgaben-Fortschritt (z. B. ob
+     * eine bereits angezeigte Instanz weiterverwendet werden kann).
+     */
+    public boolean hasSameContent(TodoItem other) {
+        return other != null
+                && id == other.id
+                && categoryId == other.categoryId
+                && seriesId == other.seriesId
+                && subtaskCount == other.subtaskCount
+                && subtasksDone == other.subtasksDone
+                && status == other.status
+                && Objects.equals(title, other.title)
+                && Objects.equals(dueDate, other.dueDate)
+                && Objects.equals(notes, other.notes)
+                && Objects.equals(occurrenceDate, other.occurrenceDate)
+                && Objects.equals(remindAt, other.remindAt)
+                && Objects.equals(sortRank, other.sortRank)
+                && Objects.equals(createdAt, other.createdAt)
+                && Objects.equals(updatedAt, other.updatedAt)
+                && Objects.equals(completedAt, other.completedAt)
+                && Objects.equals(tags, other.tags);
+    }
+
     public String toDisplayString() {
         String d = (dueDate == null) ? "" : " (" + dueDate + ")";
         return title + d;
@@ -0,0 +1,69 @@
+package com.example.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Wiederkehrendes Todo (eine Zeile in TodoSeries statt einer Zeile pro Termin).
+ *
+ * - startDate: erstes mögliches Vorkommen (Anker der Regel)
+ * - clearedThrough: Vorkommen bis einschliesslich dieses Datums gelten als
+ * erledigt und weggeräumt ("Alle erledigten löschen"), null = keine
+ */
+public class TodoSeries {
+    private final int id;
+    private final int categoryId;
+    private final String title;
+    private final String notes;
+    private final RecurrenceRule rule;
+    private final LocalDate startDate;
+    private final LocalDate clearedThrough;
+
+    public TodoSeries(int id, int categoryId, String title, String notes, RecurrenceRule rule, LocalDate startDate,
+            LocalDate clearedThrough) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.title = title;
+        this.notes = notes;
+        this.rule = rule;
+        this.startDate = startDate;
+        this.clearedThrough = clearedThrough;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getClearedThrough() {
+        return clearedThrough;
+    }
+
+    /**
+     * @return erstes Datum, ab dem Vorkommen noch relevant sind
+     */
+    public LocalDate firstRelevantDate() {
+        if (clearedThrough == null || clearedThrough.isBefore(startDate)) {
+            return startDate;
+        }
+        return clearedThrough.plusDays(1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zähler (nur aufsteigend), z. B. Zell-Updates im FX-Thread.
+ *
+ * Hinweis:
+ * - LongAdder: kein Contention-Hotspot, wenn mehrere Threads zählen
+ * - increment() erzeugt keine Objekte
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
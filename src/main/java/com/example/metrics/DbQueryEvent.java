@@ -0,0 +1,31 @@
+package com.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event je Repository-Aufruf (Verbindung + SQL + Mapping).
+ *
+ * Hinweis:
+ * - wird von Timer.Sample erzeugt (Timer aus Metrics.queryTimer), nur während
+ * eine Aufnahme läuft
+ */
+@Name("com.example.DbQuery")
+@Label("DB-Abfrage")
+@Category({ "TodoApp", "Datenbank" })
+@Description("Ausführung einer Repository-Methode")
+@StackTrace(false)
+final class DbQueryEvent extends Event {
+
+    @Label("SQL-ID")
+    @Description("Repository und Methode, z. B. TodoRepository.findAll")
+    String sqlId;
+
+    @Label("Zeilen")
+    @Description("gelieferte Zeilen; -1 = nicht erfasst")
+    int rows;
+}
@@ -0,0 +1,91 @@
+package com.example.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Startet/stoppt eine Java-Flight-Recorder-Aufnahme aus der App heraus.
+ *
+ * Inhalt:
+ * - JFR-Standardprofil ("default", geringer Overhead: GC, Threads, Sampling)
+ * - plus App-Events (DbQuery, Refresh, ThemeSwitch, NotifierTick)
+ *
+ * Ablage:
+ * - eine .jfr-Datei je Aufnahme im übergebenen Verzeichnis, Name mit
+ * Zeitstempel; öffnen z. B. mit JDK Mission Control oder "jfr print"
+ */
+public final class FlightRecording {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+    private static Path file;
+
+    private FlightRecording() {
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Startet eine Aufnahme (falls schon eine läuft: keine zweite).
+     *
+     * @param directory Zielverzeichnis (wird bei Bedarf erstellt)
+     * @return Datei, in die beim Stoppen geschrieben wird
+     */
+    public static synchronized Path start(Path directory) {
+        if (recording != null) {
+            return file;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve("todo-" + LocalDateTime.now().format(FILE_STAMP) + ".jfr");
+
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            r.setName("TodoApp");
+            r.enable(DbQueryEvent.class);
+            r.enable(RefreshEvent.class);
+            r.enable(ThemeSwitchEvent.class);
+            r.enable(NotifierTickEvent.class);
+            r.setDestination(target);
+            r.start();
+
+            recording = r;
+            file = target;
+            return target;
+        } catch (Exception exception) {
+            throw new RuntimeException("JFR-Aufnahme starten fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Stoppt die laufende Aufnahme und schreibt die Datei.
+     *
+     * @return geschriebene Datei oder null, wenn keine Aufnahme lief
+     */
+    public static synchronized Path stop() {
+        if (recording == null) {
+            return null;
+        }
+
+        Recording r = recording;
+        Path target = file;
+        recording = null;
+        file = null;
+        try {
+            r.stop();
+            return target;
+        } catch (Exception exception) {
+            throw new RuntimeException("JFR-Aufnahme stoppen fehlgeschlagen", exception);
+        } finally {
+            r.close();
+        }
+    }
+}
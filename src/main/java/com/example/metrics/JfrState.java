@@ -0,0 +1,37 @@
+package com.example.metrics;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Merkt sich, ob gerade irgendeine JFR-Aufnahme läuft (aus der App, per jcmd
+ * oder -XX:StartFlightRecording).
+ *
+ * Zweck:
+ * - DbQueryEvents nur erzeugen, wenn sie aufgezeichnet werden können; ohne
+ * Aufnahme bleibt ein gemessener Repository-Aufruf ohne Allokation
+ */
+final class JfrState {
+
+    private static volatile boolean recording;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                recording = FlightRecorder.isInitialized() && FlightRecorder.getFlightRecorder().getRecordings()
+                        .stream()
+                        .anyMatch(r -> r.getState() == RecordingState.RUNNING);
+            }
+        });
+    }
+
+    private JfrState() {
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Prozessweite Metriken: Zähler, Timer (mit Histogramm) und Gauges.
+ *
+ * Zweck:
+ * - sehen, wo Zeit verbraucht wird (Repository-Methoden, Db.open, Refresh im
+ * UI), ohne Profiler
+ *
+ * Verwendung:
+ * - Metriken einmal als static final Feld holen (counter/timer); Aufzeichnen
+ * ist danach nur noch Arithmetik ohne Lookup
+ * - gauge(...) registriert einen Lieferanten, der erst beim Auslesen läuft
+ * - queryTimer(...) für DB-Zugriffe: wie timer(...), plus JFR-Event je Aufruf
+ *
+ * Ausgabe:
+ * - report(): Texttabelle (In-App-Ansicht, Datei)
+ * - startPeriodicDump(...): schreibt report() periodisch in eine Datei
+ * (Hintergrund-Thread, atomar ersetzt)
+ */
+public final class Metrics {
+
+    // sortiert nach Name → stabile Reihenfolge in Ansicht und Datei
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new Timer(n, false));
+    }
+
+    /**
+     * Timer für Repository-Methoden: zusätzlich ein JFR-Event (DbQueryEvent) je
+     * Aufruf.
+     */
+    public static Timer queryTimer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new Timer(n, true));
+    }
+
+    /**
+     * Registriert (bzw. ersetzt) einen Gauge.
+     *
+     * @param supplier wird beim Auslesen aufgerufen (beliebiger Thread)
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    public static List<Timer.Snapshot> timerSnapshots() {
+        List<Timer.Snapshot> output = new ArrayList<>(TIMERS.size());
+        for (Timer timer : TIMERS.values()) {
+            output.add(timer.snapshot());
+        }
+        return output;
+    }
+
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> output = new ConcurrentSkipListMap<>();
+        COUNTERS.forEach((name, counter) -> output.put(name, counter.get()));
+        return output;
+    }
+
+    /**
+     * Liest alle Gauges; ein fehlerhafter Gauge wird ausgelassen.
+     */
+    public static Map<String, Long> gaugeValues() {
+        Map<String, Long> output = new ConcurrentSkipListMap<>();
+        GAUGES.forEach((name, supplier) -> {
+            try {
+                output.put(name, supplier.getAsLong());
+            } catch (RuntimeException exception) {
+                // Gauge nicht lesbar (z. B. UI noch nicht aufgebaut)
+            }
+        });
+        return output;
+    }
+
+    /**
+     * Texttabelle aller Metriken (Zeiten in ms).
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Metriken ").append(LocalDateTime.now().format(STAMP)).append('\n');
+
+        sb.append(String.format(Locale.ROOT, "%n%-40s %10s %10s %10s %10s %10s %12s%n",
+                "Timer", "Anzahl", "Mittel", "p50", "p99", "Max", "Summe"));
+        for (Timer.Snapshot s : timerSnapshots()) {
+            if (s.getCount() == 0) {
+                continue;
+            }
+            sb.append(String.format(Locale.ROOT, "%-40s %10d %10.3f %10.3f %10.3f %10.3f %12.1f%n",
+                    s.getName(), s.getCount(), millis(s.getMeanNanos()), millis(s.percentileNanos(0.5)),
+                    millis(s.percentileNanos(0.99)), millis(s.getMaxNanos()), millis(s.getTotalNanos())));
+        }
+
+        sb.append(String.format(Locale.ROOT, "%n%-40s %10s%n", "Zähler", "Wert"));
+        counterValues().forEach((name, value) -> sb.append(String.format(Locale.ROOT, "%-40s %10d%n", name, value)));
+
+        sb.append(String.format(Locale.ROOT, "%n%-40s %10s%n", "Gauge", "Wert"));
+        gaugeValues().forEach((name, value) -> sb.append(String.format(Locale.ROOT, "%-40s %10d%n", name, value)));
+
+        return sb.toString();
+    }
+
+    public static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Schreibt report() periodisch in eine Datei (zuerst temporär, dann
+     * ersetzen → Leser sehen nie eine halbe Datei).
+     *
+     * Hinweis:
+     * - mehrfacher Aufruf startet keinen zweiten Thread
+     * - Schreibfehler werden ausgegeben, brechen die App aber nicht ab
+     */
+    public static synchronized void startPeriodicDump(Path file, Duration interval) {
+        if (dumper != null) {
+            return;
+        }
+
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long millis = Math.max(1000, interval.toMillis());
+        dumper.scheduleWithFixedDelay(() -> dump(file), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stoppt den periodischen Dump und schreibt ein letztes Mal.
+     */
+    public static synchronized void stopPeriodicDump(Path file) {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdownNow();
+        dumper = null;
+        dump(file);
+    }
+
+    public static void dump(Path file) {
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, report(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event je Prüfung des Fälligkeits-Notifiers (Badge/Tooltip/Balloon).
+ */
+@Name("com.example.NotifierTick")
+@Label("Notifier-Prüfung")
+@Category({ "TodoApp", "Hintergrund" })
+@StackTrace(false)
+public final class NotifierTickEvent extends Event {
+
+    @Label("Heute fällig")
+    private int dueToday;
+
+    public void setDueToday(int dueToday) {
+        this.dueToday = dueToday;
+    }
+}
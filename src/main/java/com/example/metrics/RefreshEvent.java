@@ -0,0 +1,38 @@
+package com.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event je Lade-Zyklus einer Ansicht (Start im FX-Thread bis Übernahme der
+ * Daten in die Liste).
+ */
+@Name("com.example.Refresh")
+@Label("Ansicht neu laden")
+@Category({ "TodoApp", "UI" })
+@StackTrace(false)
+public final class RefreshEvent extends Event {
+
+    @Label("Ansicht")
+    @Description("tasks oder categories")
+    private String view;
+
+    @Label("Kategorie-ID")
+    private int categoryId;
+
+    @Label("Zeilen")
+    private int rows;
+
+    public RefreshEvent(String view, int categoryId) {
+        this.view = view;
+        this.categoryId = categoryId;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+}
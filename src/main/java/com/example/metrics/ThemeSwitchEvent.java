@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event je Theme-Wechsel (Stylesheets tauschen + applyCss/layout).
+ */
+@Name("com.example.ThemeSwitch")
+@Label("Theme-Wechsel")
+@Category({ "TodoApp", "UI" })
+@StackTrace(false)
+public final class ThemeSwitchEvent extends Event {
+
+    @Label("Theme")
+    private String theme;
+
+    public ThemeSwitchEvent(String theme) {
+        this.theme = theme;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeit-Messung mit Histogramm (Nanosekunden).
+ *
+ * Histogramm (HDR-artig, log-linear):
+ * - Werte < 16 ns je ein eigener Bucket
+ * - darüber je Zweierpotenz SUB_BUCKETS Buckets → max. ca. 12 % Abweichung
+ * bei Perzentilen, unabhängig von der Grössenordnung
+ * - feste Anzahl Buckets (AtomicLongArray), record() erzeugt keine Objekte
+ *
+ * Verwendung:
+ * - direkt: record(System.nanoTime() - start)
+ * - als Ressource: try (Timer.Sample s = TIMER.time(); Connection c = ...)
+ *
+ * JFR:
+ * - Timer aus Metrics.queryTimer(...) erzeugen pro Sample zusätzlich ein
+ * DbQueryEvent (SQL-ID = Timer-Name, Zeilen über Sample.rows(...)), sofern
+ * gerade eine Aufnahme läuft
+ */
+public final class Timer {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - (SUB_BITS + 1)) * SUB_BUCKETS;
+
+    private final String name;
+    private final boolean queryEvents;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    Timer(String name, boolean queryEvents) {
+        this.name = name;
+        this.queryEvents = queryEvents;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Startet eine Messung; close() (try-with-resources) zeichnet sie auf.
+     */
+    public Sample time() {
+        return new Sample(this, System.nanoTime(), queryEvents && JfrState.isRecording() ? new DbQueryEvent() : null);
+    }
+
+    /**
+     * Zeichnet eine Dauer auf.
+     *
+     * @param nanos Dauer in Nanosekunden (negative Werte zählen als 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        totalNanos.add(value);
+
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Momentaufnahme (Anzahl, Mittel, Perzentile, Maximum).
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(name, count, totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    // Mitte des Buckets (Schätzwert für Perzentile)
+    static long valueOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width / 2;
+    }
+
+    /**
+     * Laufende Messung (kurzlebig, nur im Stack des Aufrufers).
+     *
+     * Hinweis:
+     * - Event nur während einer JFR-Aufnahme (JfrState); das Sample selbst
+     * entfernt die JIT (Escape-Analyse)
+     */
+    public static final class Sample implements AutoCloseable {
+        private final Timer timer;
+        private final long start;
+        private final DbQueryEvent event;
+        private int rows = -1;
+
+        private Sample(Timer timer, long start, DbQueryEvent event) {
+            this.timer = timer;
+            this.start = start;
+            this.event = event;
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        /**
+         * Anzahl gelieferter Zeilen (nur für das JFR-Event).
+         */
+        public void rows(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - start);
+
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.sqlId = timer.name;
+                    event.rows = rows;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Unveränderliche Momentaufnahme eines Timers.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] counts;
+
+        private Snapshot(String name, long count, long totalNanos, long maxNanos, long[] counts) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.counts = counts;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getMeanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * @param quantile 0..1 (z. B. 0.99)
+         * @return geschätzter Wert in Nanosekunden (höchstens das Maximum)
+         */
+        public long percentileNanos(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(valueOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
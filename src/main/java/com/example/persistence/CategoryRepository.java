@@ -1,6 +1,8 @@
 package com.example.persistence;
 
 import com.example.domain.Category;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -22,6 +24,13 @@ import java.util.List;
  */
 public class CategoryRepository {
 
+    // Laufzeit je Repository-Methode
+    private static final Timer T_FIND_ALL = Metrics.queryTimer("CategoryRepository.findAll");
+    private static final Timer T_INSERT = Metrics.queryTimer("CategoryRepository.insert");
+    private static final Timer T_UPDATE_NAME = Metrics.queryTimer("CategoryRepository.updateName");
+    private static final Timer T_UPDATE_ICON = Metrics.queryTimer("CategoryRepository.updateIcon");
+    private static final Timer T_DELETE = Metrics.queryTimer("CategoryRepository.delete");
+
     /**
      * Lädt alle Kategorien aus der Datenbank.
      *
@@ -42,7 +51,8 @@ public class CategoryRepository {
          * - Connection, PreparedStatement und ResultSet werden automatisch geschlossen
          * - Verhindert Resource-Leaks
          */
-        try (Connection connection = Db.open();
+        try (Timer.Sample sample = T_FIND_ALL.time();
+                Connection connection = Db.open();
                 PreparedStatement ps = connection.prepareStatement(sql);
                 ResultSet rs = ps.executeQuery()) {
 
@@ -60,6 +70,7 @@ public class CategoryRepository {
                         rs.getString("Icon")));
             }
 
+            sample.rows(outputedList.size());
             return outputedList;
 
         } catch (Exception exception) {
@@ -87,7 +98,8 @@ public class CategoryRepository {
          * Statement.RETURN_GENERATED_KEYS:
          * - Ermöglicht den Zugriff auf automatisch generierte IDs (Primary Key)
          */
-        try (Connection connection = Db.open();
+        try (Timer.Sample sample = T_INSERT.time();
+                Connection connection = Db.open();
                 PreparedStatement ps = connection.prepareStatement(
                         sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -95,8 +107,8 @@ public class CategoryRepository {
             ps.setString(1, name);
             ps.setString(2, icon);
 
-            // Führt INSERT aus, Rückgabewert (int) wird hier nicht benötigt
-            ps.executeUpdate();
+            // Führt INSERT aus, Rückgabewert (Zeilen) nur für die Metrik
+            sample.rows(ps.executeUpdate());
 
             /*
              * Lesen des generierten Primärschlüssels
@@ -125,14 +137,15 @@ public class CategoryRepository {
     public void updateName(int id, String newName) {
         String sql = "UPDATE Categories SET Name = ? WHERE Id = ?";
 
-        try (Connection connection = Db.open();
+        try (Timer.Sample sample = T_UPDATE_NAME.time();
+                Connection connection = Db.open();
                 PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setString(1, newName);
             ps.setInt(2, id);
 
             // Führt UPDATE-Anweisung aus
-            ps.executeUpdate();
+            sample.rows(ps.executeUpdate());
 
         } catch (SQLException exception) {
             throw new RuntimeException("Kategorie umbenennen fehlgeschlagen", exception);
@@ -148,12 +161,13 @@ public class CategoryRepository {
     public void updateIcon(int id, String newIcon) {
         String sql = "UPDATE Categories SET Icon = ? WHERE Id = ?";
 
-        try (Connection connection = Db.open();
+        try (Timer.Sample sample = T_UPDATE_ICON.time();
+                Connection connection = Db.open();
                 PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setString(1, newIcon);
             ps.setInt(2, id);
-            ps.executeUpdate();
+            sample.rows(ps.executeUpdate());
         } catch (SQLException exception) {
             throw new RuntimeException("Kategorie Icon ändern fehlgeschlagen", exception);
         }
@@ -167,13 +181,14 @@ public class CategoryRepository {
     public void delete(int id) {
         String sql = "DELETE FROM Categories WHERE Id = ?";
 
-        try (Connection connection = Db.open();
+        try (Timer.Sample sample = T_DELETE.time();
+                Connection connection = Db.open();
                 PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, id);
 
             // Führt DELETE aus
-            ps.executeUpdate();
+            sample.rows(ps.executeUpdate());
 
         } catch (SQLException exception) {
             throw new RuntimeException("Kategorie löschen fehlgeschlagen", exception);
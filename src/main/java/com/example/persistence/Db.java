@@ -2,6 +2,9 @@
 // Db.open() --> Baut JDBC-Verbindung zu SQLite auf, JDBC = Java Database Connectivity API (Datenzugriff)
 package com.example.persistence;
 
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -19,11 +22,19 @@ public final class Db {
 
     // Lazy-initialisiert, weil Pfad/Env erst zur Laufzeit sicher bestimmbar ist
     private static volatile String jdbcUrl;
+    private static volatile Path dbPath;
+
+    // Verbindungsaufbau inkl. PRAGMAs (ohne Pool: jede Repository-Methode zahlt das)
+    private static final Timer OPEN_TIMER = Metrics.timer("Db.open");
+
+    // PRAGMA synchronous laut Durability-Profil (lazy, wie die URL)
+    private static volatile String synchronous;
 
     private Db() { // Konstruktor privat --> verhindert Instanzierung neuer Db
     }
 
     public static Connection open() throws SQLException { // Rückgabe: Connection zur DB
+        long start = System.nanoTime();
         String url = getJdbcUrl();
         Connection c = DriverManager.getConnection(url); // Baut DB-Verbindung auf
         try (Statement statement = c.createStatement()) {
@@ -32,18 +43,39 @@ public final class Db {
             // Performance/IO: schnellerer Start + schnellere Writes
             statement.execute("PRAGMA journal_mode = WAL;"); // Write-Ahead Logging --> Schreiboperationen nicht direkt
                                                              // in DB-Datei
-            statement.execute("PRAGMA synchronous = NORMAL;"); // weniger Syncs auf Platte
+            // weniger Syncs auf Platte (NORMAL); FULL beim Profil STRICT
+            statement.execute("PRAGMA synchronous = " + getSynchronous() + ";");
             statement.execute("PRAGMA temp_store = MEMORY;"); // temporäre Tabellen in RAM
         }
 
+        OPEN_TIMER.record(System.nanoTime() - start);
         return c;
     }
 
+    /**
+     * Verzeichnis, in dem todo.db liegt (wird bei Bedarf erstellt).
+     *
+     * Wird auch für Dateien genutzt, die zur DB gehören (z. B. Instanz-Lock).
+     */
+    public static Path dataDirectory() {
+        return getDbPath().getParent();
+    }
+
+    /**
+     * synchronous des konfigurierten Profils (WriteBehindQueue.Durability), damit
+     * STRICT auch für direkt geschriebene Tabellen gilt.
+     */
+    private static String getSynchronous() {
+        String local = synchronous;
+        if (local == null) {
+            local = WriteBehindQueue.configuredDurability().getSynchronous();
+            synchronous = local;
+        }
+        return local;
+    }
+
     /**
      * Gibt die JDBC-URL zur DB in einem stabilen User-App-Data-Verzeichnis zurück.
-     * Beim ersten Zugriff wird:
-     * - Zielverzeichnis erstellt
-     * - optional eine legacy "./todo.db" migriert (kopiert), falls vorhanden
      */
     private static String getJdbcUrl() {
         String local = jdbcUrl;
@@ -56,18 +88,39 @@ public final class Db {
                 return jdbcUrl;
             }
 
-            Path dbPath = resolveAppDataDbPath();
-            ensureParentDirectory(dbPath);
-            migrateLegacyDbIfNeeded(dbPath);
-
             // SQLite JDBC akzeptiert absolute Pfade; Backslashes sind meist ok,
             // aber "/" ist in JDBC-URLs robuster.
-            String normalized = dbPath.toAbsolutePath().toString().replace("\\", "/");
+            String normalized = getDbPath().toString().replace("\\", "/");
             jdbcUrl = "jdbc:sqlite:" + normalized;
             return jdbcUrl;
         }
     }
 
+    /**
+     * Liefert den absoluten DB-Pfad. Beim ersten Zugriff wird:
+     * - Zielverzeichnis erstellt
+     * - optional eine legacy "./todo.db" migriert (kopiert), falls vorhanden
+     */
+    private static Path getDbPath() {
+        Path local = dbPath;
+        if (local != null) {
+            return local;
+        }
+
+        synchronized (Db.class) {
+            if (dbPath != null) {
+                return dbPath;
+            }
+
+            Path resolved = resolveAppDataDbPath().toAbsolutePath();
+            ensureParentDirectory(resolved);
+            migrateLegacyDbIfNeeded(resolved);
+
+            dbPath = resolved;
+            return dbPath;
+        }
+    }
+
     private static Path resolveAppDataDbPath() {
         String os = System.getProperty("os.name", "").toLowerCase();
 
@@ -0,0 +1,140 @@
+package com.example.persistence;
+
+import com.example.domain.StatsBucket;
+import com.example.domain.StatsPeriod;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lesezugriff auf die Tages-Rollups (Tabelle DailyStats).
+ *
+ * Hinweis:
+ * - geschrieben wird DailyStats nur von Triggern auf TodoItems (siehe
+ * DatabaseInitializer); hier wird nie TodoItems gelesen
+ * - Day ist Primärschlüssel-Präfix → Zeiträume sind Range-Scans, auch über
+ * Jahre (eine Zeile je Tag und Kategorie)
+ */
+public class StatsRepository {
+
+    // Laufzeit je Repository-Methode
+    private static final Timer T_FIND_BUCKETS = Metrics.queryTimer("StatsRepository.findBuckets");
+    private static final Timer T_FIND_TOTALS_BY_CATEGORY = Metrics.queryTimer("StatsRepository.findTotalsByCategory");
+    private static final Timer T_FIND_FIRST_DAY = Metrics.queryTimer("StatsRepository.findFirstDay");
+
+    /**
+     * Summen je Periode in einem Zeitraum.
+     *
+     * @param period     Zeitraster (Tag/Woche/Monat)
+     * @param from       erster Tag (inklusive)
+     * @param to         letzter Tag (inklusive)
+     * @param categoryId Kategorie oder null für alle
+     * @return Perioden mit Einträgen, aufsteigend (Lücken fehlen)
+     */
+    public List<StatsBucket> findBuckets(StatsPeriod period, LocalDate from, LocalDate to, Integer categoryId) {
+        String sql = """
+                SELECT %s AS Start, SUM(Created), SUM(Completed), SUM(Overdue)
+                FROM DailyStats
+                WHERE Day >= ? AND Day <= ?%s
+                GROUP BY Start
+                ORDER BY Start
+                """.formatted(startOf(period), categoryId == null ? "" : " AND CategoryId = ?");
+
+        List<StatsBucket> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_BUCKETS.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            if (categoryId != null) {
+                ps.setInt(3, categoryId);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(new StatsBucket(LocalDate.parse(rs.getString(1)), rs.getInt(2), rs.getInt(3),
+                            rs.getInt(4)));
+                }
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Statistik laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Summen je Kategorie in einem Zeitraum.
+     *
+     * @return Kategorie-ID → Summen (start = from); 0 = ohne Kategorie (gelöscht)
+     */
+    public Map<Integer, StatsBucket> findTotalsByCategory(LocalDate from, LocalDate to) {
+        String sql = """
+                SELECT CategoryId, SUM(Created), SUM(Completed), SUM(Overdue)
+                FROM DailyStats
+                WHERE Day >= ? AND Day <= ?
+                GROUP BY CategoryId
+                """;
+
+        Map<Integer, StatsBucket> output = new LinkedHashMap<>();
+
+        try (Timer.Sample sample = T_FIND_TOTALS_BY_CATEGORY.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.put(rs.getInt(1), new StatsBucket(from, rs.getInt(2), rs.getInt(3), rs.getInt(4)));
+                }
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Statistik laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * @return erster Tag mit Einträgen oder null (noch keine Statistik)
+     */
+    public LocalDate findFirstDay() {
+        String sql = "SELECT MIN(Day) FROM DailyStats";
+
+        try (Timer.Sample sample = T_FIND_FIRST_DAY.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            String day = rs.next() ? rs.getString(1) : null;
+            sample.rows(day == null ? 0 : 1);
+            return day == null ? null : LocalDate.parse(day);
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Statistik laden fehlgeschlagen", exception);
+        }
+    }
+
+    // Periodenbeginn in SQL, passend zu StatsPeriod.start (Woche ab Montag)
+    private static String startOf(StatsPeriod period) {
+        return switch (period) {
+            case DAY -> "Day";
+            case WEEK -> "date(Day, 'weekday 0', '-6 days')";
+            case MONTH -> "strftime('%Y-%m-01', Day)";
+        };
+    }
+}
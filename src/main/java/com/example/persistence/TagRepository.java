@@ -0,0 +1,150 @@
+package com.example.persistence;
+
+import com.example.domain.Tag;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datenzugriff für Tags (Tabellen Tags und TodoTags, n:m zu TodoItems).
+ *
+ * Hinweis:
+ * - Filtern nach Tags passiert nicht per SQL-Join, sondern im TagIndex
+ * (Service); hier nur Laden und Schreiben.
+ */
+public class TagRepository {
+
+    // Laufzeit je Repository-Methode
+    private static final Timer T_FIND_ALL = Metrics.queryTimer("TagRepository.findAll");
+    private static final Timer T_FIND_ASSIGNMENTS = Metrics.queryTimer("TagRepository.findAssignments");
+    private static final Timer T_REPLACE_TAGS = Metrics.queryTimer("TagRepository.replaceTags");
+
+    /**
+     * Lädt alle Tags.
+     */
+    public List<Tag> findAll() {
+        String sql = "SELECT Id, Name FROM Tags ORDER BY Name";
+
+        List<Tag> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_ALL.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                output.add(new Tag(rs.getInt("Id"), rs.getString("Name")));
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Tags laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt alle Zuordnungen, gruppiert nach Tag (Basis für den TagIndex).
+     *
+     * @return Map Tag-ID → Todo-IDs (aufsteigend)
+     */
+    public Map<Integer, List<Integer>> findAssignments() {
+        String sql = "SELECT TagId, TodoId FROM TodoTags ORDER BY TagId, TodoId";
+
+        Map<Integer, List<Integer>> output = new HashMap<>();
+
+        try (Timer.Sample sample = T_FIND_ASSIGNMENTS.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                output.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getInt(2));
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Tag-Zuordnungen laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Ersetzt die Tags eines Todos (eine Änderung der WriteBehindQueue, wartet
+     * auf den Commit).
+     *
+     * Ablauf:
+     * - fehlende Tags anlegen (No-op-Upsert, damit RETURNING auch für bestehende
+     * Tags die ID liefert)
+     * - alte Zuordnungen löschen, neue einfügen
+     * - UpdatedAt des Todos setzen
+     *
+     * @param todoId Todo-ID
+     * @param names  normalisierte Tag-Namen (ohne Duplikate)
+     * @return zugeordnete Tags in Eingabereihenfolge
+     */
+    public List<Tag> replaceTags(int todoId, Collection<String> names) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> replaceTags(c, todoId, names));
+        } catch (Exception exception) {
+            throw new RuntimeException("Tags speichern fehlgeschlagen", exception);
+        }
+    }
+
+    private static List<Tag> replaceTags(Connection c, int todoId, Collection<String> names) throws SQLException {
+        String upsertTag = """
+                INSERT INTO Tags (Name) VALUES (?)
+                ON CONFLICT(Name) DO UPDATE SET Name = excluded.Name
+                RETURNING Id
+                """;
+        String deleteAssignments = "DELETE FROM TodoTags WHERE TodoId = ?";
+        String insertAssignment = "INSERT INTO TodoTags (TodoId, TagId) VALUES (?, ?)";
+        String touchTodo = "UPDATE TodoItems SET UpdatedAt = ? WHERE Id = ?";
+
+        List<Tag> output = new ArrayList<>(names.size());
+
+        try (Timer.Sample sample = T_REPLACE_TAGS.time();
+                PreparedStatement upsert = c.prepareStatement(upsertTag);
+                PreparedStatement delete = c.prepareStatement(deleteAssignments);
+                PreparedStatement insert = c.prepareStatement(insertAssignment);
+                PreparedStatement touch = c.prepareStatement(touchTodo)) {
+
+            for (String name : names) {
+                upsert.setString(1, name);
+                try (ResultSet rs = upsert.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new IllegalStateException("Keine Tag-ID zurückgegeben");
+                    }
+                    output.add(new Tag(rs.getInt(1), name));
+                }
+            }
+
+            delete.setInt(1, todoId);
+            delete.executeUpdate();
+
+            for (Tag tag : output) {
+                insert.setInt(1, todoId);
+                insert.setInt(2, tag.getId());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            // Tags gehören zum Todo: Änderung soll in "geändert seit" erscheinen
+            touch.setLong(1, System.currentTimeMillis());
+            touch.setInt(2, todoId);
+            touch.executeUpdate();
+
+            sample.rows(output.size());
+            return output;
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.example.persistence;
 
+import com.example.domain.SortRank;
 import com.example.domain.TodoItem;
 import com.example.domain.TodoStatus;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 
 /**
  * Verantwortlichkeiten:
@@ -23,9 +32,58 @@ import java.util.List;
  * - try-with-resources schliesst JDBC-Ressourcen deterministisch.
  * - PreparedStatements verhindern SQL-Injection und übernehmen
  * Typ-Konvertierung.
+ * - Änderungen laufen über die WriteBehindQueue (Gruppen-Commit, Profil siehe
+ * dort) und warten auf den Commit; Abfragen öffnen eigene Verbindungen.
  */
 public class TodoRepository {
 
+    // Reihenfolge offener Todos: manuell sortierte zuerst, dann nach Fälligkeit
+    private static final String OPEN_ORDER = "SortRank IS NULL, SortRank, DueDate IS NULL, DueDate, Id";
+
+    /*
+     * Filter "nur Wurzeln": ein Lookup je Zeile im Index
+     * IX_TodoTree_DescendantId (Unteraufgaben haben dort mindestens eine Zeile).
+     */
+    private static final String ROOTS_ONLY =
+            " AND NOT EXISTS (SELECT 1 FROM TodoTree t WHERE t.DescendantId = TodoItems.Id)";
+
+    /*
+     * Zeitstempel bei Statuswechsel (Parameter: erledigt 1/0, Zeitpunkt):
+     * erledigt → CompletedAt bleibt, falls schon gesetzt, sonst jetzt; offen →
+     * NULL.
+     */
+    static final String SET_COMPLETED_AT = "CompletedAt = CASE WHEN ? THEN COALESCE(CompletedAt, ?) END";
+
+    // Laufzeit je Repository-Methode (Overloads teilen sich einen Timer)
+    private static final Timer T_HAS_TODOS = Metrics.queryTimer("TodoRepository.hasTodos");
+    private static final Timer T_COUNT_BY_CATEGORY_AND_STATUS = Metrics.queryTimer("TodoRepository.countByCategoryAndStatus");
+    private static final Timer T_FIND_PAGE_BY_CATEGORY = Metrics.queryTimer("TodoRepository.findPageByCategory");
+    private static final Timer T_FIND_OPEN_BY_DUE_RANGE = Metrics.queryTimer("TodoRepository.findOpenByDueRange");
+    private static final Timer T_FIND_OPEN_WITHOUT_DUE_DATE = Metrics.queryTimer("TodoRepository.findOpenWithoutDueDate");
+    private static final Timer T_FIND_OPEN_DUE_DATES = Metrics.queryTimer("TodoRepository.findOpenDueDates");
+    private static final Timer T_FIND_IDS_BY_STATUS = Metrics.queryTimer("TodoRepository.findIdsByStatus");
+    private static final Timer T_FIND_BY_ID = Metrics.queryTimer("TodoRepository.findById");
+    private static final Timer T_FIND_ALL = Metrics.queryTimer("TodoRepository.findAll");
+    private static final Timer T_FIND_RECENT_OPEN = Metrics.queryTimer("TodoRepository.findRecentOpen");
+    private static final Timer T_FIND_UPDATED_SINCE = Metrics.queryTimer("TodoRepository.findUpdatedSince");
+    private static final Timer T_SEARCH = Metrics.queryTimer("TodoRepository.search");
+    private static final Timer T_INSERT = Metrics.queryTimer("TodoRepository.insert");
+    private static final Timer T_INSERT_ALL = Metrics.queryTimer("TodoRepository.insertAll");
+    private static final Timer T_INSERT_OCCURRENCE = Metrics.queryTimer("TodoRepository.insertOccurrence");
+    private static final Timer T_FIND_OCCURRENCE_DATES = Metrics.queryTimer("TodoRepository.findOccurrenceDates");
+    private static final Timer T_FIND_LATEST_DONE_OCCURRENCES = Metrics.queryTimer("TodoRepository.findLatestDoneOccurrences");
+    private static final Timer T_FIND_REMINDERS_AFTER = Metrics.queryTimer("TodoRepository.findRemindersAfter");
+    private static final Timer T_UPDATE_REMIND_AT = Metrics.queryTimer("TodoRepository.updateRemindAt");
+    private static final Timer T_UPDATE_TODO = Metrics.queryTimer("TodoRepository.updateTodo");
+    private static final Timer T_UPDATE_TEXT = Metrics.queryTimer("TodoRepository.updateText");
+    private static final Timer T_UPDATE_SORT_RANK = Metrics.queryTimer("TodoRepository.updateSortRank");
+    private static final Timer T_UPDATE_SORT_RANKS = Metrics.queryTimer("TodoRepository.updateSortRanks");
+    private static final Timer T_REBALANCE_SORT_RANKS = Metrics.queryTimer("TodoRepository.rebalanceSortRanks");
+    private static final Timer T_DELETE_DONE_BY_CATEGORY = Metrics.queryTimer("TodoRepository.deleteDoneByCategory");
+    private static final Timer T_COUNT_BY_DUE_DATE_AND_STATUS = Metrics.queryTimer("TodoRepository.countByDueDateAndStatus");
+    private static final Timer T_FIND_OPEN_BY_CATEGORY = Metrics.queryTimer("TodoRepository.findOpenByCategory");
+    private static final Timer T_FIND_DONE_BY_CATEGORY = Metrics.queryTimer("TodoRepository.findDoneByCategory");
+
     /**
      * Prüft, ob eine Kategorie mindestens ein Todo besitzt.
      *
@@ -38,13 +96,16 @@ public class TodoRepository {
     public boolean hasTodos(int categoryId) {
         String sql = "SELECT 1 FROM TodoItems WHERE CategoryId = ? LIMIT 1";
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_HAS_TODOS.time();
+                Connection c = Db.open();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setInt(1, categoryId);
 
             try (ResultSet rs = ps.executeQuery()) {
-                return rs.next(); // true, sobald ein Datensatz vorhanden ist
+                boolean found = rs.next(); // true, sobald ein Datensatz vorhanden ist
+                sample.rows(found ? 1 : 0);
+                return found;
             }
 
         } catch (Exception exception) {
@@ -62,7 +123,8 @@ public class TodoRepository {
     public int countByCategoryAndStatus(int categoryId, TodoStatus status) {
         String sql = "SELECT COUNT(*) FROM TodoItems WHERE CategoryId = ? AND Status = ?";
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_COUNT_BY_CATEGORY_AND_STATUS.time();
+                Connection c = Db.open();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setInt(1, categoryId);
@@ -70,6 +132,7 @@ public class TodoRepository {
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
+                    sample.rows(1);
                     return rs.getInt(1); // COUNT(*) liefert genau eine Zeile
                 }
                 return 0; // defensiver Fallback
@@ -84,20 +147,32 @@ public class TodoRepository {
      * Lädt offene Todos einer Kategorie.
      *
      * Sortierung:
+     * - SortRank: manuell sortierte Todos zuerst, in Rang-Reihenfolge
      * - DueDate IS NULL: ohne Datum ans Ende (SQLite: false < true, daher NULLs
      * zuletzt)
      * - DueDate: frühestes Datum zuerst
      * - Id: stabile Reihenfolge
      */
     public List<TodoItem> findOpenByCategory(int categoryId) {
+        return findOpenByCategory(categoryId, false);
+    }
+
+    /**
+     * Lädt offene Todos einer Kategorie, optional nur Wurzeln (ohne
+     * Unteraufgaben; diese werden beim Aufklappen nachgeladen).
+     *
+     * @param rootsOnly true → Todos mit Elternteil (Zeile in TodoTree) auslassen
+     */
+    public List<TodoItem> findOpenByCategory(int categoryId, boolean rootsOnly) {
         String sql = """
-                SELECT Id, CategoryId, Title, DueDate, Notes, Status
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
                 FROM TodoItems
-                WHERE CategoryId = ? AND Status = ?
-                ORDER BY DueDate IS NULL, DueDate, Id
-                """;
+                WHERE CategoryId = ? AND Status = ?%s
+                ORDER BY %s
+                """.formatted(rootsOnly ? ROOTS_ONLY : "", OPEN_ORDER);
 
-        return queryByCategoryAndStatus(sql, categoryId, TodoStatus.OPEN);
+        return queryByCategoryAndStatus(T_FIND_OPEN_BY_CATEGORY, sql, categoryId, TodoStatus.OPEN);
     }
 
     /**
@@ -109,14 +184,422 @@ public class TodoRepository {
      * - Id DESC: neuere Einträge (höhere ID) zuerst
      */
     public List<TodoItem> findDoneByCategory(int categoryId) {
+        return findDoneByCategory(categoryId, false);
+    }
+
+    /**
+     * Lädt erledigte Todos einer Kategorie, optional nur Wurzeln.
+     *
+     * @param rootsOnly true → Todos mit Elternteil (Zeile in TodoTree) auslassen
+     */
+    public List<TodoItem> findDoneByCategory(int categoryId, boolean rootsOnly) {
         String sql = """
-                SELECT Id, CategoryId, Title, DueDate, Notes, Status
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
                 FROM TodoItems
-                WHERE CategoryId = ? AND Status = ?
+                WHERE CategoryId = ? AND Status = ?%s
                 ORDER BY DueDate IS NULL, DueDate DESC, Id DESC
+                """.formatted(rootsOnly ? ROOTS_ONLY : "");
+
+        return queryByCategoryAndStatus(T_FIND_DONE_BY_CATEGORY, sql, categoryId, TodoStatus.DONE);
+    }
+
+    /**
+     * Lädt eine Seite von Todos einer Kategorie (gleiche Sortierung wie
+     * findOpenByCategory/findDoneByCategory).
+     *
+     * @param categoryId Kategorie-ID
+     * @param status     OPEN oder DONE
+     * @param offset     Anzahl zu überspringender Datensätze (>= 0)
+     * @param limit      max. Anzahl Datensätze (> 0)
+     */
+    public List<TodoItem> findPageByCategory(int categoryId, TodoStatus status, int offset, int limit) {
+        String order = status == TodoStatus.OPEN
+                ? OPEN_ORDER
+                : "DueDate IS NULL, DueDate DESC, Id DESC";
+
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE CategoryId = ? AND Status = ?
+                ORDER BY %s
+                LIMIT ? OFFSET ?
+                """.formatted(order);
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_PAGE_BY_CATEGORY.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, categoryId);
+            ps.setInt(2, status.getDbValue());
+            ps.setInt(3, limit);
+            ps.setInt(4, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Seite laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt eine Seite offener Todos aller Kategorien in einem Datumsbereich
+     * (SmartLists).
+     *
+     * Index:
+     * - IX_TodoItems_Status_DueDate: Range-Scan in DueDate-Reihenfolge, ORDER BY
+     * braucht keinen Sortierschritt
+     *
+     * @param from   erstes Datum (inklusive) oder null (unbegrenzt)
+     * @param to     letztes Datum (inklusive)
+     * @param offset Anzahl zu überspringender Datensätze (>= 0)
+     * @param limit  max. Anzahl Datensätze (> 0)
+     */
+    public List<TodoItem> findOpenByDueRange(LocalDate from, LocalDate to, int offset, int limit) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE Status = ? AND DueDate >= ? AND DueDate <= ?
+                ORDER BY DueDate, Id
+                LIMIT ? OFFSET ?
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_OPEN_BY_DUE_RANGE.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, TodoStatus.OPEN.getDbValue());
+            // '' ist kleiner als jedes Datum (NULL-Werte fallen durch den Vergleich raus)
+            ps.setString(2, from == null ? "" : from.toString());
+            ps.setString(3, to.toString());
+            ps.setInt(4, limit);
+            ps.setInt(5, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todos nach Fälligkeit laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt eine Seite offener Todos ohne Fälligkeitsdatum (alle Kategorien).
+     *
+     * @param offset Anzahl zu überspringender Datensätze (>= 0)
+     * @param limit  max. Anzahl Datensätze (> 0)
+     */
+    public List<TodoItem> findOpenWithoutDueDate(int offset, int limit) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE Status = ? AND DueDate IS NULL
+                ORDER BY Id
+                LIMIT ? OFFSET ?
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_OPEN_WITHOUT_DUE_DATE.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, TodoStatus.OPEN.getDbValue());
+            ps.setInt(2, limit);
+            ps.setInt(3, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todos ohne Datum laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt Id → DueDate aller offenen Todos (Basis für SmartList-Zähler).
+     *
+     * Hinweis:
+     * - liest nur den Index IX_TodoItems_Status_DueDate (covering), nicht die
+     * Tabellenzeilen
+     *
+     * @return Map Todo-ID → DueDate (null = ohne Datum)
+     */
+    public Map<Integer, LocalDate> findOpenDueDates() {
+        String sql = "SELECT Id, DueDate FROM TodoItems WHERE Status = ?";
+
+        Map<Integer, LocalDate> output = new HashMap<>();
+
+        try (Timer.Sample sample = T_FIND_OPEN_DUE_DATES.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, TodoStatus.OPEN.getDbValue());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String due = rs.getString(2);
+                    output.put(rs.getInt(1), due == null || due.isBlank() ? null : LocalDate.parse(due));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Fälligkeiten laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt die IDs aller Todos mit einem Status (Basis für den TagIndex).
+     *
+     * Hinweis:
+     * - liest nur den Index IX_TodoItems_Status (covering)
+     */
+    public List<Integer> findIdsByStatus(TodoStatus status) {
+        String sql = "SELECT Id FROM TodoItems WHERE Status = ? ORDER BY Id";
+
+        List<Integer> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_IDS_BY_STATUS.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, status.getDbValue());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(rs.getInt(1));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-IDs laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt ein einzelnes Todo.
+     *
+     * @param todoId Todo-ID
+     * @return TodoItem oder null, wenn es nicht existiert
+     */
+    public TodoItem findById(int todoId) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE Id = ?
                 """;
 
-        return queryByCategoryAndStatus(sql, categoryId, TodoStatus.DONE);
+        try (Timer.Sample sample = T_FIND_BY_ID.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, todoId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                TodoItem found = rs.next() ? map(rs) : null;
+                sample.rows(found == null ? 0 : 1);
+                return found;
+            }
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt alle Todos (z. B. für Export).
+     *
+     * Sortierung:
+     * - nach Kategorie, offene vor erledigten, dann wie in der Listenansicht
+     */
+    public List<TodoItem> findAll() {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                ORDER BY CategoryId, Status, DueDate IS NULL, DueDate, Id
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_ALL.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                output.add(map(rs));
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todos laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt die zuletzt angelegten offenen Todos über alle Kategorien (z. B. für
+     * den Schnellwechsler).
+     *
+     * Hinweis:
+     * - "zuletzt" = höchste IDs (Primärschlüssel rückwärts, kein Sortieren)
+     *
+     * @param limit max. Anzahl
+     */
+    public List<TodoItem> findRecentOpen(int limit) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE Status = ?
+                ORDER BY Id DESC
+                LIMIT ?
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_RECENT_OPEN.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, TodoStatus.OPEN.getDbValue());
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todos laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt alle Todos, die nach einem Zeitpunkt geändert wurden (Anlegen,
+     * Bearbeiten, Status, Erinnerung, Tags).
+     *
+     * Hinweis:
+     * - Range-Scan über IX_TodoItems_UpdatedAt, sortiert nach Änderungszeit
+     * - gelöschte Todos und die manuelle Reihenfolge (SortRank) erscheinen hier
+     * nicht
+     * - inklusiv: UpdatedAt hat nur Millisekunden-Auflösung; mit "UpdatedAt > ?"
+     * gingen Zeilen verloren, die nach dem Lesen in derselben Millisekunde wie
+     * der Cursor geschrieben wurden
+     *
+     * @param sinceMillis Zeitpunkt (Epoch-Millis, inklusiv)
+     */
+    public List<TodoItem> findUpdatedSince(long sinceMillis) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE UpdatedAt >= ?
+                ORDER BY UpdatedAt, Id
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_UPDATED_SINCE.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, sinceMillis);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Geänderte Todos laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Volltextsuche (LIKE) über Titel und Notizen, über alle Kategorien.
+     *
+     * Hinweis:
+     * - %/_ im Suchtext werden escaped, damit sie wörtlich gesucht werden.
+     *
+     * @param text  Suchtext (nicht leer)
+     * @param limit max. Anzahl Treffer
+     */
+    public List<TodoItem> search(String text, int limit) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE Title LIKE ? ESCAPE '\\' OR Notes LIKE ? ESCAPE '\\'
+                ORDER BY Status, DueDate IS NULL, DueDate, Id
+                LIMIT ?
+                """;
+
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_SEARCH.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+            ps.setInt(3, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Suche fehlgeschlagen", exception);
+        }
     }
 
     /**
@@ -126,10 +609,11 @@ public class TodoRepository {
      * - Vermeidet Code-Duplikation
      * - Einheitliches Mapping und Fehlerhandling
      */
-    private List<TodoItem> queryByCategoryAndStatus(String sql, int categoryId, TodoStatus status) {
+    private List<TodoItem> queryByCategoryAndStatus(Timer timer, String sql, int categoryId, TodoStatus status) {
         List<TodoItem> output = new ArrayList<>();
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = timer.time();
+                Connection c = Db.open();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setInt(1, categoryId);
@@ -141,6 +625,7 @@ public class TodoRepository {
                 }
             }
 
+            sample.rows(output.size());
             return output;
 
         } catch (Exception exception) {
@@ -158,12 +643,20 @@ public class TodoRepository {
      * @return generierte ID
      */
     public int insert(TodoItem item) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> insert(c, item));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo einfügen fehlgeschlagen", exception);
+        }
+    }
+
+    private static int insert(Connection c, TodoItem item) throws Exception {
         String sql = """
-                INSERT INTO TodoItems (CategoryId, Title, DueDate, Notes, Status)
-                VALUES (?, ?, ?, ?, ?)
+                INSERT INTO TodoItems (CategoryId, Title, DueDate, Notes, Status, CreatedAt, UpdatedAt, CompletedAt)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_INSERT.time();
                 PreparedStatement ps = c.prepareStatement(
                         sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -175,8 +668,9 @@ public class TodoRepository {
 
             ps.setString(4, item.getNotes());
             ps.setInt(5, item.getStatus().getDbValue());
+            bindTimestamps(ps, 6, item.getStatus(), System.currentTimeMillis());
 
-            ps.executeUpdate();
+            sample.rows(ps.executeUpdate());
 
             // Generated Keys lesen (Primary Key)
             try (ResultSet keys = ps.getGeneratedKeys()) {
@@ -187,37 +681,284 @@ public class TodoRepository {
 
             // Wenn keine ID geliefert wird, ist das ein technischer Fehlerzustand
             throw new RuntimeException("Keine ID zurückgegeben");
+        }
+    }
 
+    /**
+     * Fügt mehrere Todos als eine Änderung ein.
+     *
+     * Vorteil:
+     * - ein Commit (ein WAL-Sync) statt einem pro Datensatz
+     * - alles oder nichts: bei einem Fehler wird zurückgerollt (Savepoint der
+     * Änderung)
+     *
+     * @param items Todos (ohne ID)
+     * @return generierte IDs in Eingabereihenfolge
+     */
+    public List<Integer> insertAll(List<TodoItem> items) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> insertAll(c, items));
         } catch (Exception exception) {
-            throw new RuntimeException("Todo einfügen fehlgeschlagen", exception);
+            throw new RuntimeException("Todos einfügen fehlgeschlagen", exception);
+        }
+    }
+
+    private static List<Integer> insertAll(Connection c, List<TodoItem> items) throws Exception {
+        String sql = """
+                INSERT INTO TodoItems (CategoryId, Title, DueDate, Notes, Status, CreatedAt, UpdatedAt, CompletedAt)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        List<Integer> ids = new ArrayList<>(items.size());
+        long now = System.currentTimeMillis();
+
+        try (Timer.Sample sample = T_INSERT_ALL.time();
+                PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (TodoItem item : items) {
+                ps.setInt(1, item.getCategoryId());
+                ps.setString(2, item.getTitle());
+                ps.setString(3, item.getDueDate() == null ? null : item.getDueDate().toString());
+                ps.setString(4, item.getNotes());
+                ps.setInt(5, item.getStatus().getDbValue());
+                bindTimestamps(ps, 6, item.getStatus(), now);
+                ps.executeUpdate();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new IllegalStateException("Keine ID zurückgegeben");
+                    }
+                    ids.add(keys.getInt(1));
+                }
+            }
+
+            sample.rows(ids.size());
+            return ids;
         }
     }
 
     /**
-     * Aktualisiert nur den Status eines Todos.
+     * Speichert ein berechnetes Serien-Vorkommen als TodoItem (Materialisierung).
      *
-     * Validierung:
-     * - Wenn affected == 0: kein Datensatz mit dieser ID (z. B. bereits gelöscht)
+     * Idempotent:
+     * - existiert das Vorkommen bereits (Unique-Index SeriesId/OccurrenceDate),
+     * wird nichts geändert und die bestehende ID geliefert (No-op-Upsert, damit
+     * RETURNING auch im Konfliktfall eine Zeile liefert)
      *
-     * @param todoId ID des Todos
-     * @param status neuer Status
+     * @param item Vorkommen (seriesId und occurrenceDate gesetzt)
+     * @return ID der (neuen oder bestehenden) Zeile
      */
-    public void updateStatus(int todoId, TodoStatus status) {
-        String sql = "UPDATE TodoItems SET Status = ? WHERE Id = ?";
+    public int insertOccurrence(TodoItem item) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> insertOccurrence(c, item));
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien-Vorkommen speichern fehlgeschlagen", exception);
+        }
+    }
+
+    static int insertOccurrence(Connection c, TodoItem item) throws Exception {
+        String sql = """
+                INSERT INTO TodoItems (CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate,
+                                       CreatedAt, UpdatedAt, CompletedAt)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (SeriesId, OccurrenceDate) DO UPDATE SET SeriesId = excluded.SeriesId
+                RETURNING Id
+                """;
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_INSERT_OCCURRENCE.time();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
-            ps.setInt(1, status.getDbValue());
-            ps.setInt(2, todoId);
+            ps.setInt(1, item.getCategoryId());
+            ps.setString(2, item.getTitle());
+            ps.setString(3, item.getDueDate() == null ? null : item.getDueDate().toString());
+            ps.setString(4, item.getNotes());
+            ps.setInt(5, item.getStatus().getDbValue());
+            ps.setInt(6, item.getSeriesId());
+            ps.setString(7, item.getOccurrenceDate().toString());
+            bindTimestamps(ps, 8, item.getStatus(), System.currentTimeMillis());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Keine ID zurückgegeben");
+                }
+                sample.rows(1);
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Liefert die bereits gespeicherten Vorkommen (beliebiger Status) je Serie ab
+     * einem Datum.
+     *
+     * Zweck:
+     * - Lazy Expansion: berechnete Vorkommen, die schon als Zeile existieren,
+     * werden nicht doppelt angezeigt
+     * - nutzt den Unique-Index (SeriesId, OccurrenceDate)
+     *
+     * @param categoryId Kategorie oder null für alle Kategorien
+     * @param from       frühestes Vorkommen
+     * @return SeriesId → sortierte Vorkommen-Daten
+     */
+    public Map<Integer, NavigableSet<LocalDate>> findOccurrenceDates(Integer categoryId, LocalDate from) {
+        String sql = categoryId == null
+                ? """
+                        SELECT SeriesId, OccurrenceDate
+                        FROM TodoItems
+                        WHERE SeriesId IS NOT NULL AND OccurrenceDate >= ?
+                        """
+                : """
+                        SELECT SeriesId, OccurrenceDate
+                        FROM TodoItems
+                        WHERE SeriesId IN (SELECT Id FROM TodoSeries WHERE CategoryId = ?)
+                          AND OccurrenceDate >= ?
+                        """;
+
+        Map<Integer, NavigableSet<LocalDate>> output = new HashMap<>();
 
-            int affected = ps.executeUpdate();
-            if (affected == 0) {
-                throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+        try (Timer.Sample sample = T_FIND_OCCURRENCE_DATES.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = 1;
+            if (categoryId != null) {
+                ps.setInt(i++, categoryId);
+            }
+            ps.setString(i, from.toString());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.computeIfAbsent(rs.getInt(1), k -> new TreeSet<>())
+                            .add(LocalDate.parse(rs.getString(2)));
+                }
             }
 
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien-Vorkommen laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Liefert je Serie das späteste erledigte Vorkommen einer Kategorie (vor
+     * "Alle erledigten löschen", damit gelöschte Vorkommen nicht wieder berechnet
+     * werden).
+     *
+     * @return SeriesId → spätestes erledigtes Vorkommen
+     */
+    public Map<Integer, LocalDate> findLatestDoneOccurrences(int categoryId) {
+        String sql = """
+                SELECT SeriesId, MAX(OccurrenceDate)
+                FROM TodoItems
+                WHERE CategoryId = ? AND Status = ? AND SeriesId IS NOT NULL
+                GROUP BY SeriesId
+                """;
+
+        Map<Integer, LocalDate> output = new HashMap<>();
+
+        try (Timer.Sample sample = T_FIND_LATEST_DONE_OCCURRENCES.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, categoryId);
+            ps.setInt(2, TodoStatus.DONE.getDbValue());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.put(rs.getInt(1), LocalDate.parse(rs.getString(2)));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien-Vorkommen laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt die nächsten Erinnerungen offener Todos nach einem Zeitpunkt.
+     *
+     * Index:
+     * - "Status = 0" steht bewusst als Literal im SQL: nur so erkennt SQLite, dass
+     * der partielle Index IX_TodoItems_RemindAt passt (ein Parameter würde nicht
+     * reichen)
+     *
+     * @param afterMillis nur Erinnerungen mit RemindAt > afterMillis
+     * @param limit       max. Anzahl
+     * @return Todos (RemindAt gesetzt), aufsteigend nach RemindAt
+     */
+    public List<TodoItem> findRemindersAfter(long afterMillis, int limit) {
+        String sql = """
+                SELECT Id, CategoryId, Title, DueDate, Notes, Status, SeriesId, OccurrenceDate, RemindAt, SortRank,
+                       CreatedAt, UpdatedAt, CompletedAt
+                FROM TodoItems
+                WHERE RemindAt IS NOT NULL AND Status = 0 AND RemindAt > ?
+                ORDER BY RemindAt
+                LIMIT ?
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_REMINDERS_AFTER.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, afterMillis);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(map(rs));
+                }
+            }
+
+            sample.rows(output.size());
+            return output;
+
         } catch (Exception exception) {
-            throw new RuntimeException("Todo-Status aktualisieren fehlgeschlagen", exception);
+            throw new RuntimeException("Erinnerungen laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Setzt oder entfernt die Erinnerung eines Todos.
+     *
+     * @param remindAt Zeitpunkt oder null (keine Erinnerung)
+     * @return Kategorie-ID des Todos
+     */
+    public int updateRemindAt(int todoId, Instant remindAt) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> updateRemindAt(c, todoId, remindAt));
+        } catch (Exception exception) {
+            throw new RuntimeException("Erinnerung speichern fehlgeschlagen", exception);
+        }
+    }
+
+    private static int updateRemindAt(Connection c, int todoId, Instant remindAt) throws SQLException {
+        String sql = "UPDATE TodoItems SET RemindAt = ?, UpdatedAt = ? WHERE Id = ? RETURNING CategoryId";
+
+        try (Timer.Sample sample = T_UPDATE_REMIND_AT.time();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            if (remindAt == null) {
+                ps.setNull(1, Types.INTEGER);
+            } else {
+                ps.setLong(1, remindAt.toEpochMilli());
+            }
+            ps.setLong(2, System.currentTimeMillis());
+            ps.setInt(3, todoId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+                }
+                sample.rows(1);
+                return rs.getInt(1);
+            }
         }
     }
 
@@ -231,11 +972,26 @@ public class TodoRepository {
      * Typ-Hinweis:
      * - setNull(…, Types.VARCHAR) passt zur Speicherung als TEXT/VARCHAR.
      * - Wenn DueDate als DATE gespeichert wäre, müsste Types.DATE verwendet werden.
+     *
+     * @return Kategorie-ID des Todos
      */
-    public void updateTodo(int todoId, String title, LocalDate dueDate, String notes) {
-        String sql = "UPDATE TodoItems SET Title = ?, DueDate = ?, Notes = ? WHERE Id = ?";
+    public int updateTodo(int todoId, String title, LocalDate dueDate, String notes) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> updateTodo(c, todoId, title, dueDate, notes));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo aktualisieren fehlgeschlagen", exception);
+        }
+    }
+
+    private static int updateTodo(Connection c, int todoId, String title, LocalDate dueDate, String notes)
+            throws SQLException {
+        String sql = """
+                UPDATE TodoItems SET Title = ?, DueDate = ?, Notes = ?, UpdatedAt = ?
+                WHERE Id = ?
+                RETURNING CategoryId
+                """;
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_UPDATE_TODO.time();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setString(1, title);
@@ -252,15 +1008,194 @@ public class TodoRepository {
                 ps.setString(3, notes);
             }
 
-            ps.setInt(4, todoId);
+            ps.setLong(4, System.currentTimeMillis());
+            ps.setInt(5, todoId);
 
-            int affected = ps.executeUpdate();
-            if (affected == 0) {
-                throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+                }
+                sample.rows(1);
+                return rs.getInt(1);
             }
+        }
+    }
 
+    /**
+     * Aktualisiert nur Titel und/oder Notizen (Autosave im Detailbereich).
+     *
+     * Hinweis:
+     * - null = Spalte unverändert (nicht im UPDATE); Datum, Erinnerung,
+     * Reihenfolge usw. bleiben unberührt
+     * - notes leer/blank → NULL in DB (wie updateTodo)
+     *
+     * @return Kategorie-ID des Todos
+     */
+    public int updateText(int todoId, String title, String notes) {
+        if (title == null && notes == null) {
+            throw new IllegalArgumentException("Keine Spalte zum Aktualisieren");
+        }
+
+        try {
+            return WriteBehindQueue.shared().execute(c -> updateText(c, todoId, title, notes));
         } catch (Exception exception) {
-            throw new RuntimeException("Todo aktualisieren fehlgeschlagen", exception);
+            throw new RuntimeException("Todo-Text aktualisieren fehlgeschlagen", exception);
+        }
+    }
+
+    private static int updateText(Connection c, int todoId, String title, String notes) throws SQLException {
+        StringBuilder sql = new StringBuilder("UPDATE TodoItems SET ");
+        if (title != null) {
+            sql.append("Title = ?, ");
+        }
+        if (notes != null) {
+            sql.append("Notes = ?, ");
+        }
+        sql.append("UpdatedAt = ? WHERE Id = ? RETURNING CategoryId");
+
+        try (Timer.Sample sample = T_UPDATE_TEXT.time();
+                PreparedStatement ps = c.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            if (title != null) {
+                ps.setString(index++, title);
+            }
+            if (notes != null) {
+                if (notes.isBlank()) {
+                    ps.setNull(index++, Types.VARCHAR);
+                } else {
+                    ps.setString(index++, notes);
+                }
+            }
+            ps.setLong(index++, System.currentTimeMillis());
+            ps.setInt(index, todoId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+                }
+                sample.rows(1);
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Setzt den Sortierschlüssel eines Todos (Verschieben = genau eine Zeile).
+     *
+     * @param todoId Todo-ID
+     * @param rank   neuer Schlüssel (siehe SortRank) oder null (automatisch)
+     * @return Kategorie-ID des Todos
+     */
+    public int updateSortRank(int todoId, String rank) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> updateSortRank(c, todoId, rank));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Reihenfolge speichern fehlgeschlagen", exception);
+        }
+    }
+
+    private static int updateSortRank(Connection c, int todoId, String rank) throws SQLException {
+        String sql = "UPDATE TodoItems SET SortRank = ? WHERE Id = ? RETURNING CategoryId";
+
+        try (Timer.Sample sample = T_UPDATE_SORT_RANK.time();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, rank);
+            ps.setInt(2, todoId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+                }
+                sample.rows(1);
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Setzt mehrere Sortierschlüssel als eine Änderung (z. B. erstmaliges
+     * Festschreiben einer angezeigten Reihenfolge).
+     *
+     * @param ranks Todo-ID → Schlüssel
+     */
+    public void updateSortRanks(Map<Integer, String> ranks) {
+        try {
+            WriteBehindQueue.shared().execute(c -> updateSortRanks(c, ranks));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Reihenfolge speichern fehlgeschlagen", exception);
+        }
+    }
+
+    private static int updateSortRanks(Connection c, Map<Integer, String> ranks) throws SQLException {
+        String sql = "UPDATE TodoItems SET SortRank = ? WHERE Id = ?";
+
+        try (Timer.Sample sample = T_UPDATE_SORT_RANKS.time();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            for (Map.Entry<Integer, String> entry : ranks.entrySet()) {
+                ps.setString(1, entry.getValue());
+                ps.setInt(2, entry.getKey());
+                ps.addBatch();
+            }
+            int updated = ps.executeBatch().length;
+            sample.rows(updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Verteilt die Sortierschlüssel einer Kategorie neu (gleichmässig, kurz),
+     * Reihenfolge bleibt erhalten.
+     *
+     * Ablauf:
+     * - Lesen und Schreiben als eine Änderung der Schreib-Warteschlange
+     * (gleichzeitiges Verschieben läuft davor oder danach, nie dazwischen)
+     * - Index IX_TodoItems_Category_SortRank liefert die Reihenfolge ohne
+     * Sortierschritt
+     *
+     * @param categoryId Kategorie-ID
+     * @return Anzahl neu verteilter Todos
+     */
+    public int rebalanceSortRanks(int categoryId) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> rebalanceSortRanks(c, categoryId));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Reihenfolge neu verteilen fehlgeschlagen", exception);
+        }
+    }
+
+    private static int rebalanceSortRanks(Connection c, int categoryId) throws SQLException {
+        String select = """
+                SELECT Id FROM TodoItems
+                WHERE CategoryId = ? AND SortRank IS NOT NULL
+                ORDER BY SortRank, Id
+                """;
+        String update = "UPDATE TodoItems SET SortRank = ? WHERE Id = ?";
+
+        try (Timer.Sample sample = T_REBALANCE_SORT_RANKS.time();
+                PreparedStatement read = c.prepareStatement(select);
+                PreparedStatement write = c.prepareStatement(update)) {
+
+            List<Integer> ids = new ArrayList<>();
+            read.setInt(1, categoryId);
+            try (ResultSet rs = read.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+
+            List<String> ranks = SortRank.evenlySpaced(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                write.setString(1, ranks.get(i));
+                write.setInt(2, ids.get(i));
+                write.addBatch();
+            }
+            write.executeBatch();
+
+            sample.rows(ids.size());
+            return ids.size();
         }
     }
 
@@ -268,25 +1203,42 @@ public class TodoRepository {
      * Löscht alle erledigten Todos einer Kategorie.
      *
      * Hinweis:
-     * - Diese Operation ist "bulk delete" ohne Rückgabe der Anzahl.
-     * - Optional könnte man affected rows zurückgeben (executeUpdate() Ergebnis).
+     * - Diese Operation ist "bulk delete"; RETURNING liefert die gelöschten IDs
+     * (für In-Memory-Indizes), ohne zweite Abfrage.
+     *
+     * @return IDs der gelöschten Todos
      */
-    public void deleteDoneByCategory(int categoryId) {
+    public List<Integer> deleteDoneByCategory(int categoryId) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> deleteDoneByCategory(c, categoryId));
+        } catch (Exception exception) {
+            throw new RuntimeException("Erledigte Todos löschen fehlgeschlagen", exception);
+        }
+    }
+
+    private static List<Integer> deleteDoneByCategory(Connection c, int categoryId) throws SQLException {
         String sql = """
                 DELETE FROM TodoItems
                 WHERE Status = ? AND CategoryId = ?
+                RETURNING Id
                 """;
 
-        try (Connection c = Db.open();
+        List<Integer> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_DELETE_DONE_BY_CATEGORY.time();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setInt(1, TodoStatus.DONE.getDbValue());
             ps.setInt(2, categoryId);
 
-            ps.executeUpdate();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(rs.getInt(1));
+                }
+            }
 
-        } catch (Exception exception) {
-            throw new RuntimeException("Erledigte Todos löschen fehlgeschlagen", exception);
+            sample.rows(output.size());
+            return output;
         }
     }
 
@@ -300,7 +1252,7 @@ public class TodoRepository {
      * @param rs aktuelles ResultSet (steht bereits auf einer Zeile)
      * @return TodoItem Domain-Objekt
      */
-    private TodoItem map(ResultSet rs) throws Exception {
+    static TodoItem map(ResultSet rs) throws Exception {
         int id = rs.getInt("Id");
         int catId = rs.getInt("CategoryId");
         String title = rs.getString("Title");
@@ -311,7 +1263,42 @@ public class TodoRepository {
         LocalDate dueDate = (due == null || due.isBlank()) ? null : LocalDate.parse(due);
         TodoStatus todoStatus = TodoStatus.fromDbValue(statusValue);
 
-        return new TodoItem(id, catId, title, dueDate, notes, todoStatus);
+        TodoItem item = new TodoItem(id, catId, title, dueDate, notes, todoStatus);
+
+        // Serien-Vorkommen (SeriesId NULL → getInt liefert 0)
+        String occurrence = rs.getString("OccurrenceDate");
+        item.setSeriesId(rs.getInt("SeriesId"));
+        item.setOccurrenceDate(occurrence == null ? null : LocalDate.parse(occurrence));
+
+        long remindAt = rs.getLong("RemindAt");
+        item.setRemindAt(rs.wasNull() ? null : Instant.ofEpochMilli(remindAt));
+
+        item.setSortRank(rs.getString("SortRank"));
+
+        item.setCreatedAt(instantOrNull(rs, "CreatedAt"));
+        item.setUpdatedAt(instantOrNull(rs, "UpdatedAt"));
+        item.setCompletedAt(instantOrNull(rs, "CompletedAt"));
+
+        return item;
+    }
+
+    private static Instant instantOrNull(ResultSet rs, String column) throws Exception {
+        long millis = rs.getLong(column);
+        return rs.wasNull() ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /*
+     * Setzt CreatedAt, UpdatedAt, CompletedAt (ab Parameter index) für ein neues
+     * Todo; CompletedAt nur, wenn es bereits erledigt angelegt wird.
+     */
+    static void bindTimestamps(PreparedStatement ps, int index, TodoStatus status, long now) throws Exception {
+        ps.setLong(index, now);
+        ps.setLong(index + 1, now);
+        if (status == TodoStatus.DONE) {
+            ps.setLong(index + 2, now);
+        } else {
+            ps.setNull(index + 2, Types.INTEGER);
+        }
     }
 
     /**
@@ -329,13 +1316,15 @@ public class TodoRepository {
     public int countByDueDateAndStatus(LocalDate dueDate, TodoStatus status) {
         String sql = "SELECT COUNT(*) FROM TodoItems WHERE DueDate = ? AND Status = ?";
 
-        try (Connection c = Db.open();
+        try (Timer.Sample sample = T_COUNT_BY_DUE_DATE_AND_STATUS.time();
+                Connection c = Db.open();
                 PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setString(1, dueDate.toString()); // yyyy-MM-dd
             ps.setInt(2, status.getDbValue());
 
             try (ResultSet rs = ps.executeQuery()) {
+                sample.rows(1);
                 if (rs.next()) {
                     return rs.getInt(1);
                 }
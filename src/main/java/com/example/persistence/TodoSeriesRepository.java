@@ -0,0 +1,259 @@
+package com.example.persistence;
+
+import com.example.domain.RecurrenceRule;
+import com.example.domain.TodoSeries;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datenzugriff für wiederkehrende Todos (Tabelle TodoSeries).
+ *
+ * Hinweis:
+ * - Eine Serie ist eine Zeile; einzelne Vorkommen stehen nur dann in TodoItems,
+ * wenn sie erledigt oder bearbeitet wurden (siehe TodoRepository).
+ */
+public class TodoSeriesRepository {
+
+    // Laufzeit je Repository-Methode
+    private static final Timer T_FIND_BY_CATEGORY = Metrics.queryTimer("TodoSeriesRepository.findByCategory");
+    private static final Timer T_FIND_ALL = Metrics.queryTimer("TodoSeriesRepository.findAll");
+    private static final Timer T_FIND_BY_ID = Metrics.queryTimer("TodoSeriesRepository.findById");
+    private static final Timer T_HAS_SERIES = Metrics.queryTimer("TodoSeriesRepository.hasSeries");
+    private static final Timer T_INSERT = Metrics.queryTimer("TodoSeriesRepository.insert");
+    private static final Timer T_ADVANCE_CLEARED_THROUGH = Metrics.queryTimer("TodoSeriesRepository.advanceClearedThrough");
+    private static final Timer T_DELETE = Metrics.queryTimer("TodoSeriesRepository.delete");
+
+    /**
+     * Lädt alle Serien einer Kategorie.
+     *
+     * @param categoryId Kategorie-ID
+     */
+    public List<TodoSeries> findByCategory(int categoryId) {
+        String sql = """
+                SELECT Id, CategoryId, Title, Notes, Frequency, IntervalDays, WeekDays, MonthDay, StartDate, ClearedThrough
+                FROM TodoSeries
+                WHERE CategoryId = ?
+                ORDER BY Id
+                """;
+
+        try (Timer.Sample sample = T_FIND_BY_CATEGORY.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, categoryId);
+            List<TodoSeries> output = readAll(ps);
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt alle Serien (z. B. für "heute fällig" über alle Kategorien).
+     */
+    public List<TodoSeries> findAll() {
+        String sql = """
+                SELECT Id, CategoryId, Title, Notes, Frequency, IntervalDays, WeekDays, MonthDay, StartDate, ClearedThrough
+                FROM TodoSeries
+                ORDER BY Id
+                """;
+
+        try (Timer.Sample sample = T_FIND_ALL.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            List<TodoSeries> output = readAll(ps);
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Lädt eine Serie per ID.
+     *
+     * @return Serie oder null, wenn nicht vorhanden
+     */
+    public TodoSeries findById(int seriesId) {
+        String sql = """
+                SELECT Id, CategoryId, Title, Notes, Frequency, IntervalDays, WeekDays, MonthDay, StartDate, ClearedThrough
+                FROM TodoSeries
+                WHERE Id = ?
+                """;
+
+        try (Timer.Sample sample = T_FIND_BY_ID.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, seriesId);
+            List<TodoSeries> found = readAll(ps);
+            sample.rows(found.size());
+            return found.isEmpty() ? null : found.getFirst();
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serie laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Prüft, ob eine Kategorie mindestens eine Serie besitzt.
+     */
+    public boolean hasSeries(int categoryId) {
+        String sql = "SELECT 1 FROM TodoSeries WHERE CategoryId = ? LIMIT 1";
+
+        try (Timer.Sample sample = T_HAS_SERIES.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, categoryId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                boolean found = rs.next();
+                sample.rows(found ? 1 : 0);
+                return found;
+            }
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serien-Existenz prüfen fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Fügt eine neue Serie ein.
+     *
+     * @return generierte ID
+     */
+    public int insert(TodoSeries series) {
+        String sql = """
+                INSERT INTO TodoSeries (CategoryId, Title, Notes, Frequency, IntervalDays, WeekDays, MonthDay, StartDate)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (Timer.Sample sample = T_INSERT.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            RecurrenceRule rule = series.getRule();
+
+            ps.setInt(1, series.getCategoryId());
+            ps.setString(2, series.getTitle());
+            ps.setString(3, series.getNotes());
+            ps.setInt(4, rule.getFrequency().getDbValue());
+            ps.setInt(5, rule.getIntervalDays());
+            ps.setInt(6, rule.getWeekDays());
+            ps.setInt(7, rule.getMonthDay());
+            ps.setString(8, series.getStartDate().toString());
+
+            sample.rows(ps.executeUpdate());
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+            throw new RuntimeException("Keine ID zurückgegeben");
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serie einfügen fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Merkt sich, bis zu welchem Datum Vorkommen weggeräumt wurden (nur vorwärts).
+     *
+     * @param seriesId Serie
+     * @param date     letztes weggeräumtes Vorkommen
+     */
+    public void advanceClearedThrough(int seriesId, LocalDate date) {
+        String sql = """
+                UPDATE TodoSeries
+                SET ClearedThrough = ?
+                WHERE Id = ? AND (ClearedThrough IS NULL OR ClearedThrough < ?)
+                """;
+
+        try (Timer.Sample sample = T_ADVANCE_CLEARED_THROUGH.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, date.toString());
+            ps.setInt(2, seriesId);
+            ps.setString(3, date.toString());
+            sample.rows(ps.executeUpdate());
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serie aktualisieren fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Löscht eine Serie.
+     *
+     * Hinweis:
+     * - bereits gespeicherte Vorkommen bleiben als normale Todos erhalten (FK ON
+     * DELETE SET NULL)
+     *
+     * @return Kategorie-ID der gelöschten Serie
+     */
+    public int delete(int seriesId) {
+        String sql = "DELETE FROM TodoSeries WHERE Id = ? RETURNING CategoryId";
+
+        try (Timer.Sample sample = T_DELETE.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, seriesId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Serie nicht gefunden: Id=" + seriesId);
+                }
+                sample.rows(1);
+                return rs.getInt(1);
+            }
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Serie löschen fehlgeschlagen", exception);
+        }
+    }
+
+    private List<TodoSeries> readAll(PreparedStatement ps) throws Exception {
+        List<TodoSeries> output = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                output.add(map(rs));
+            }
+        }
+        return output;
+    }
+
+    private TodoSeries map(ResultSet rs) throws Exception {
+        RecurrenceRule rule = RecurrenceRule.fromDb(
+                rs.getInt("Frequency"),
+                rs.getInt("IntervalDays"),
+                rs.getInt("WeekDays"),
+                rs.getInt("MonthDay"));
+
+        String cleared = rs.getString("ClearedThrough");
+
+        return new TodoSeries(
+                rs.getInt("Id"),
+                rs.getInt("CategoryId"),
+                rs.getString("Title"),
+                rs.getString("Notes"),
+                rule,
+                LocalDate.parse(rs.getString("StartDate")),
+                cleared == null || cleared.isBlank() ? null : LocalDate.parse(cleared));
+    }
+}
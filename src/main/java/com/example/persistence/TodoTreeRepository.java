@@ -0,0 +1,315 @@
+package com.example.persistence;
+
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Datenzugriff für Unteraufgaben (Closure-Tabelle TodoTree).
+ *
+ * Aufbau:
+ * - eine Zeile je Paar Vorfahre/Nachfahre mit Abstand Depth (1 = direktes Kind)
+ * - keine Zeilen für Wurzeln und keine Selbst-Zeilen: bestehende Todos brauchen
+ * keine Nachführung
+ *
+ * Abfragen (jeweils ein Index-Lookup, keine Rekursion):
+ * - Kinder: PK-Präfix (AncestorId, Depth = 1)
+ * - Teilbaum: PK-Präfix (AncestorId)
+ * - Vorfahren / "ist Wurzel?": IX_TodoTree_DescendantId
+ */
+public class TodoTreeRepository {
+
+    // Laufzeit je Repository-Methode
+    private static final Timer T_INSERT_CHILD = Metrics.queryTimer("TodoTreeRepository.insertChild");
+    private static final Timer T_FIND_CHILDREN = Metrics.queryTimer("TodoTreeRepository.findChildren");
+    private static final Timer T_FIND_PROGRESS = Metrics.queryTimer("TodoTreeRepository.findProgress");
+    private static final Timer T_UPDATE_STATUS_CASCADE = Metrics.queryTimer("TodoTreeRepository.updateStatusCascade");
+
+    /**
+     * Ergebnis eines Statuswechsels, bei dem das Todo erst gespeichert wurde
+     * (berechnetes Serien-Vorkommen).
+     */
+    public static final class StatusChange {
+        private final int todoId;
+        private final Map<Integer, Integer> changed;
+
+        StatusChange(int todoId, Map<Integer, Integer> changed) {
+            this.todoId = todoId;
+            this.changed = changed;
+        }
+
+        /**
+         * @return ID des (neu oder bereits) gespeicherten Todos
+         */
+        public int getTodoId() {
+            return todoId;
+        }
+
+        /**
+         * @return geänderte Todos: ID → Kategorie-ID
+         */
+        public Map<Integer, Integer> getChanged() {
+            return changed;
+        }
+    }
+
+    /**
+     * Fügt ein Todo als Unteraufgabe ein (Todo + Pfad-Zeilen als eine Änderung
+     * der WriteBehindQueue, wartet auf den Commit).
+     *
+     * Ablauf:
+     * - Todo einfügen
+     * - Pfad-Zeilen: alle Vorfahren des Elternteils (Depth + 1) plus das
+     * Elternteil selbst (Depth 1)
+     *
+     * @param item     Todo (ohne ID; Kategorie wie Elternteil)
+     * @param parentId ID des Elternteils
+     * @return generierte ID
+     */
+    public int insertChild(TodoItem item, int parentId) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> insertChild(c, item, parentId));
+        } catch (Exception exception) {
+            throw new RuntimeException("Unteraufgabe einfügen fehlgeschlagen", exception);
+        }
+    }
+
+    private static int insertChild(Connection c, TodoItem item, int parentId) throws Exception {
+        String insertTodo = """
+                INSERT INTO TodoItems (CategoryId, Title, DueDate, Notes, Status, CreatedAt, UpdatedAt, CompletedAt)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        String insertPaths = """
+                INSERT INTO TodoTree (AncestorId, Depth, DescendantId)
+                SELECT AncestorId, Depth + 1, ? FROM TodoTree WHERE DescendantId = ?
+                UNION ALL
+                SELECT ?, 1, ?
+                """;
+
+        try (Timer.Sample sample = T_INSERT_CHILD.time();
+                PreparedStatement todo = c.prepareStatement(insertTodo, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement paths = c.prepareStatement(insertPaths)) {
+
+            todo.setInt(1, item.getCategoryId());
+            todo.setString(2, item.getTitle());
+            todo.setString(3, item.getDueDate() == null ? null : item.getDueDate().toString());
+            todo.setString(4, item.getNotes());
+            todo.setInt(5, item.getStatus().getDbValue());
+            TodoRepository.bindTimestamps(todo, 6, item.getStatus(), System.currentTimeMillis());
+            sample.rows(todo.executeUpdate());
+
+            int id;
+            try (ResultSet keys = todo.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new IllegalStateException("Keine ID zurückgegeben");
+                }
+                id = keys.getInt(1);
+            }
+
+            paths.setInt(1, id);
+            paths.setInt(2, parentId);
+            paths.setInt(3, parentId);
+            paths.setInt(4, id);
+            paths.executeUpdate();
+
+            return id;
+        }
+    }
+
+    /**
+     * Lädt die direkten Unteraufgaben eines Todos.
+     *
+     * Sortierung:
+     * - offene vor erledigten, dann wie in der Listenansicht
+     *
+     * @param parentId ID des Elternteils
+     * @return Kinder (ohne Enkel)
+     */
+    public List<TodoItem> findChildren(int parentId) {
+        String sql = """
+                SELECT i.Id, i.CategoryId, i.Title, i.DueDate, i.Notes, i.Status,
+                       i.SeriesId, i.OccurrenceDate, i.RemindAt, i.SortRank,
+                       i.CreatedAt, i.UpdatedAt, i.CompletedAt
+                FROM TodoTree t
+                JOIN TodoItems i ON i.Id = t.DescendantId
+                WHERE t.AncestorId = ? AND t.Depth = 1
+                ORDER BY i.Status, i.DueDate IS NULL, i.DueDate, i.Id
+                """;
+
+        List<TodoItem> output = new ArrayList<>();
+
+        try (Timer.Sample sample = T_FIND_CHILDREN.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, parentId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.add(TodoRepository.map(rs));
+                }
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Unteraufgaben laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Zählt Unteraufgaben (ganzer Teilbaum) für mehrere Todos in einer Abfrage.
+     *
+     * @param todoIds IDs (z. B. alle Todos einer geladenen Seite)
+     * @return Todo-ID → {Anzahl, davon erledigt}; Todos ohne Unteraufgaben fehlen
+     */
+    public Map<Integer, int[]> findProgress(Collection<Integer> todoIds) {
+        Map<Integer, int[]> output = new HashMap<>();
+        if (todoIds.isEmpty()) {
+            return output;
+        }
+
+        String sql = """
+                SELECT t.AncestorId, COUNT(*), SUM(i.Status = ?)
+                FROM TodoTree t
+                JOIN TodoItems i ON i.Id = t.DescendantId
+                WHERE t.AncestorId IN (%s)
+                GROUP BY t.AncestorId
+                """.formatted(String.join(",", Collections.nCopies(todoIds.size(), "?")));
+
+        try (Timer.Sample sample = T_FIND_PROGRESS.time();
+                Connection c = Db.open();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int index = 1;
+            ps.setInt(index++, TodoStatus.DONE.getDbValue());
+            for (int id : todoIds) {
+                ps.setInt(index++, id);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.put(rs.getInt(1), new int[] { rs.getInt(2), rs.getInt(3) });
+                }
+            }
+            sample.rows(output.size());
+            return output;
+
+        } catch (Exception exception) {
+            throw new RuntimeException("Fortschritt der Unteraufgaben laden fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Setzt den Status eines Todos samt abhängiger Todos (ein Statement).
+     *
+     * Richtung:
+     * - DONE: ganzer Teilbaum wird erledigt
+     * - OPEN: alle Vorfahren werden wieder geöffnet (ein erledigtes Elternteil mit
+     * offenem Kind gibt es nicht)
+     *
+     * Schreiben:
+     * - über die gemeinsame WriteBehindQueue → gleichzeitige Statuswechsel (z. B.
+     * API-Requests) teilen sich einen Commit
+     * - blockiert den aufrufenden Thread bis zum Commit der Gruppe (inkl.
+     * Sammelfenster des Profils, z. B. 2 ms bei BALANCED) → nicht im FX-Thread
+     * verwenden, dort updateStatusCascadeAsync()
+     *
+     * @param todoId ID des Todos
+     * @param status neuer Status
+     * @return geänderte Todos: ID → Kategorie-ID (leer, wenn das Todo fehlt)
+     */
+    public Map<Integer, Integer> updateStatusCascade(int todoId, TodoStatus status) {
+        try {
+            return WriteBehindQueue.shared().execute(c -> updateStatusCascade(c, todoId, status));
+        } catch (Exception exception) {
+            throw new RuntimeException("Todo-Status aktualisieren fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Wie updateStatusCascade(), ohne auf den Commit zu warten (z. B. Checkbox im
+     * FX-Thread: schnelle Klickfolgen landen in einer Transaktion).
+     *
+     * @return Future mit den geänderten Todos, abgeschlossen nach dem Commit
+     */
+    public CompletableFuture<Map<Integer, Integer>> updateStatusCascadeAsync(int todoId, TodoStatus status) {
+        return WriteBehindQueue.shared().submit(c -> updateStatusCascade(c, todoId, status));
+    }
+
+    /**
+     * Wie updateStatusCascadeAsync(), speichert ein berechnetes Serien-Vorkommen
+     * aber zuerst (INSERT + Statuswechsel als eine Änderung, ein Commit).
+     *
+     * Hinweis:
+     * - die Werte des Vorkommens werden im aufrufenden Thread kopiert; die neue ID
+     * liefert das Ergebnis (der Aufrufer setzt sie selbst am angezeigten Todo)
+     * - idempotent wie insertOccurrence: ist das Vorkommen inzwischen gespeichert
+     * (z. B. schneller Doppelklick), wird nur der Status geändert
+     *
+     * @param occurrence berechnetes Vorkommen (seriesId und occurrenceDate
+     *                   gesetzt)
+     * @return Future mit ID und geänderten Todos, abgeschlossen nach dem Commit
+     */
+    public CompletableFuture<StatusChange> updateOccurrenceStatusAsync(TodoItem occurrence, TodoStatus status) {
+        TodoItem copy = new TodoItem(0, occurrence.getCategoryId(), occurrence.getTitle(), occurrence.getDueDate(),
+                occurrence.getNotes(), occurrence.getStatus());
+        copy.setSeriesId(occurrence.getSeriesId());
+        copy.setOccurrenceDate(occurrence.getOccurrenceDate());
+
+        return WriteBehindQueue.shared().submit(c -> {
+            int id = TodoRepository.insertOccurrence(c, copy);
+            return new StatusChange(id, updateStatusCascade(c, id, status));
+        });
+    }
+
+    private static Map<Integer, Integer> updateStatusCascade(Connection c, int todoId, TodoStatus status)
+            throws SQLException {
+        String related = status == TodoStatus.DONE
+                ? "SELECT DescendantId FROM TodoTree WHERE AncestorId = ?"
+                : "SELECT AncestorId FROM TodoTree WHERE DescendantId = ?";
+
+        String sql = """
+                UPDATE TodoItems SET Status = ?, UpdatedAt = ?, %s
+                WHERE Id = ? OR (Status <> ? AND Id IN (%s))
+                RETURNING Id, CategoryId
+                """.formatted(TodoRepository.SET_COMPLETED_AT, related);
+
+        Map<Integer, Integer> output = new LinkedHashMap<>();
+
+        try (Timer.Sample sample = T_UPDATE_STATUS_CASCADE.time();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+            long now = System.currentTimeMillis();
+            ps.setInt(1, status.getDbValue());
+            ps.setLong(2, now);
+            ps.setBoolean(3, status == TodoStatus.DONE);
+            ps.setLong(4, now);
+            ps.setInt(5, todoId);
+            ps.setInt(6, status.getDbValue());
+            ps.setInt(7, todoId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    output.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+            sample.rows(output.size());
+        }
+        return output;
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.persistence;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schreib-Warteschlange mit Gruppen-Commit.
+ *
+ * Zweck:
+ * - jede Änderung als eigene Autocommit-Transaktion zahlt einen WAL-Commit
+ * (bei synchronous=FULL einen fsync); schnelle Klickfolgen oder viele
+ * parallele API-Requests bündeln sich hier zu einer Transaktion
+ * - benutzt von allen Todo-Änderungen (TodoRepository, TodoTreeRepository,
+ * TagRepository); Kategorien und Serien (selten) schreiben weiter direkt
+ *
+ * Ablauf (ein Schreib-Thread, eine Verbindung):
+ * - erste Änderung abwarten, dann bis zu window weitere einsammeln (höchstens
+ * maxBatch)
+ * - alle in einer Transaktion ausführen; jede Änderung in einem Savepoint →
+ * ein Fehler macht nur diese Änderung rückgängig
+ * - Futures erst nach dem Commit abschliessen (Ergebnis = dauerhaft gemäss
+ * Profil)
+ * - Metriken: batch = ganze Gruppe, commit = nur COMMIT (Query-Timer →
+ * DbQueryEvent, Zeilen = Änderungen der Gruppe); die Statements selbst messen
+ * die Repositories
+ *
+ * Profile (Durability):
+ * - STRICT: synchronous=FULL, ein Commit pro Änderung
+ * - BALANCED: synchronous=NORMAL, Gruppen innerhalb von 2 ms (Standard)
+ * - FAST: synchronous=NORMAL, Gruppen innerhalb von 10 ms, bis 1024 Änderungen
+ * (für Massenänderungen; einzelne wartende Aufrufer zahlen das volle Fenster)
+ * - Auswahl: System-Property todo.db.durability bzw. TODO_DB_DURABILITY
+ * - synchronous gilt für jede Verbindung (Db.open), also auch für die direkt
+ * geschriebenen Kategorien und Serien
+ *
+ * Beenden:
+ * - close() nimmt nichts mehr an, schreibt alles Ausstehende und wartet darauf;
+ * shared() registriert dafür zusätzlich einen Shutdown-Hook
+ */
+public final class WriteBehindQueue implements AutoCloseable {
+
+    public static final String DURABILITY_PROPERTY = "todo.db.durability";
+    private static final String DURABILITY_ENV = "TODO_DB_DURABILITY";
+
+    private static final Counter OPS = Metrics.counter("WriteBehindQueue.ops");
+    private static final Counter COMMITS = Metrics.counter("WriteBehindQueue.commits");
+    private static final Timer BATCH_TIMER = Metrics.timer("WriteBehindQueue.batch");
+    private static final Timer T_COMMIT = Metrics.queryTimer("WriteBehindQueue.commit");
+
+    private static volatile WriteBehindQueue shared;
+
+    /**
+     * Dauerhaftigkeit vs. Durchsatz.
+     */
+    public enum Durability {
+        STRICT("FULL", 1, 0),
+        BALANCED("NORMAL", 64, 2),
+        FAST("NORMAL", 1024, 10);
+
+        private final String synchronous;
+        private final int maxBatch;
+        private final long windowMillis;
+
+        Durability(String synchronous, int maxBatch, long windowMillis) {
+            this.synchronous = synchronous;
+            this.maxBatch = maxBatch;
+            this.windowMillis = windowMillis;
+        }
+
+        /**
+         * @return Wert für PRAGMA synchronous (FULL bzw. NORMAL)
+         */
+        public String getSynchronous() {
+            return synchronous;
+        }
+
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+    }
+
+    /**
+     * Eine Änderung auf der Verbindung des Schreib-Threads (kein commit/close).
+     */
+    @FunctionalInterface
+    public interface Write<T> {
+        T apply(Connection connection) throws Exception;
+    }
+
+    /**
+     * Liefert Verbindungen für den Schreib-Thread (z. B. Db::open).
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final class Op<T> {
+        final Write<T> write;
+        final CompletableFuture<T> future;
+
+        Op(Write<T> write, CompletableFuture<T> future) {
+            this.write = write;
+            this.future = future;
+        }
+    }
+
+    // Stop-Marke: danach nur noch Ausstehendes schreiben
+    private static final Op<Void> STOP = new Op<>(null, null);
+
+    private final Durability durability;
+    private final ConnectionFactory connections;
+    private final BlockingQueue<Op<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object lock = new Object();
+    private boolean closed = false;
+
+    private Connection connection;
+
+    // je Instanz (Benchmark: Änderungen pro Commit)
+    private final AtomicLong opsWritten = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+
+    public WriteBehindQueue(Durability durability, ConnectionFactory connections) {
+        this.durability = durability;
+        this.connections = connections;
+        this.writer = new Thread(this::run, "db-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Prozessweite Warteschlange auf todo.db (Profil aus Konfiguration). Beim
+     * JVM-Ende wird sie über einen Shutdown-Hook geleert.
+     */
+    public static WriteBehindQueue shared() {
+        WriteBehindQueue local = shared;
+        if (local != null) {
+            return local;
+        }
+        synchronized (WriteBehindQueue.class) {
+            if (shared == null) {
+                shared = new WriteBehindQueue(configuredDurability(), Db::open);
+                Runtime.getRuntime().addShutdownHook(new Thread(WriteBehindQueue::closeShared, "db-write-flush"));
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Schliesst die prozessweite Warteschlange (falls benutzt) und wartet auf alle
+     * ausstehenden Änderungen. Mehrfacher Aufruf ist unkritisch.
+     */
+    public static void closeShared() {
+        WriteBehindQueue local = shared;
+        if (local != null) {
+            local.close();
+        }
+    }
+
+    /**
+     * @return Profil laut todo.db.durability / TODO_DB_DURABILITY (Standard
+     *         BALANCED)
+     */
+    public static Durability configuredDurability() {
+        String value = System.getProperty(DURABILITY_PROPERTY);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(DURABILITY_ENV);
+        }
+        if (value == null || value.isBlank()) {
+            return Durability.BALANCED;
+        }
+        try {
+            return Durability.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Ungültiges Durability-Profil: " + value, exception);
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Reiht eine Änderung ein.
+     *
+     * @return Future, abgeschlossen nach dem Commit der Gruppe (bzw. mit dem
+     *         Fehler dieser Änderung)
+     * @throws IllegalStateException nach close()
+     */
+    public <T> CompletableFuture<T> submit(Write<T> write) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Schreib-Warteschlange ist geschlossen");
+            }
+            queue.add(new Op<>(write, future));
+        }
+        return future;
+    }
+
+    /**
+     * Reiht eine Änderung ein und wartet auf den Commit.
+     *
+     * @return Ergebnis der Änderung
+     * @throws IllegalStateException im Schreib-Thread selbst (würde sich
+     *                               blockieren) bzw. nach close()
+     */
+    public <T> T execute(Write<T> write) {
+        if (Thread.currentThread() == writer) {
+            throw new IllegalStateException("Warten auf die Schreib-Warteschlange im Schreib-Thread");
+        }
+        try {
+            return submit(write).join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Wartet, bis alle bisher eingereihten Änderungen committet sind.
+     */
+    public void flush() {
+        execute(connection -> null);
+    }
+
+    /**
+     * Nimmt keine Änderungen mehr an, schreibt alles Ausstehende und schliesst die
+     * Verbindung.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (!closed) {
+                closed = true;
+                queue.add(STOP);
+            }
+        }
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return geschriebene Änderungen (dieser Instanz)
+     */
+    public long getOpsWritten() {
+        return opsWritten.get();
+    }
+
+    /**
+     * @return Commits (dieser Instanz)
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /*
+     * =========================
+     * Schreib-Thread
+     * =========================
+     */
+
+    private void run() {
+        List<Op<?>> batch = new ArrayList<>();
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                Op<?> first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durability.windowMillis);
+                while (batch.size() < durability.maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Op<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+
+            writeInBatches(batch);
+            batch.clear();
+        }
+
+        // Ausstehendes nach STOP (bzw. Interrupt) noch schreiben
+        List<Op<?>> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(STOP);
+        writeInBatches(rest);
+        closeConnection();
+    }
+
+    private void writeInBatches(List<Op<?>> ops) {
+        for (int from = 0; from < ops.size(); from += durability.maxBatch) {
+            writeBatch(ops.subList(from, Math.min(ops.size(), from + durability.maxBatch)));
+        }
+    }
+
+    private void writeBatch(List<Op<?>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Object[] results = new Object[batch.size()];
+        Throwable[] failures = new Throwable[batch.size()];
+        long started = System.nanoTime();
+
+        try {
+            Connection c = connection();
+            for (int i = 0; i < batch.size(); i++) {
+                Savepoint savepoint = c.setSavepoint();
+                try {
+                    results[i] = batch.get(i).write.apply(c);
+                    c.releaseSavepoint(savepoint);
+                } catch (Exception exception) {
+                    c.rollback(savepoint);
+                    failures[i] = exception;
+                }
+            }
+            try (Timer.Sample sample = T_COMMIT.time()) {
+                c.commit();
+                sample.rows(batch.size());
+            }
+        } catch (Exception exception) {
+            // Commit/Verbindung fehlgeschlagen: keine Änderung der Gruppe ist dauerhaft
+            rollbackQuietly();
+            closeConnection();
+            RuntimeException failed = new RuntimeException("Gruppen-Commit fehlgeschlagen", exception);
+            for (Op<?> op : batch) {
+                op.future.completeExceptionally(failed);
+            }
+            return;
+        }
+
+        BATCH_TIMER.record(System.nanoTime() - started);
+        COMMITS.increment();
+        commits.incrementAndGet();
+        OPS.add(batch.size());
+        opsWritten.addAndGet(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results[i], failures[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(Op<T> op, Object result, Throwable failure) {
+        if (failure != null) {
+            op.future.completeExceptionally(failure);
+        } else {
+            op.future.complete((T) result);
+        }
+    }
+
+    // Verbindung des Schreib-Threads (nach Fehlern neu geöffnet)
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            Connection c = connections.open();
+            try (Statement statement = c.createStatement()) {
+                statement.execute("PRAGMA synchronous = " + durability.synchronous + ";");
+            }
+            c.setAutoCommit(false);
+            connection = c;
+        }
+        return connection;
+    }
+
+    private void rollbackQuietly() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // Verbindung wird ohnehin verworfen
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // beim Verwerfen/Beenden ohne Bedeutung
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Kompakte Menge nicht-negativer int-IDs (Aufbau wie Roaring Bitmaps).
+ *
+ * Aufbau:
+ * - IDs werden nach den oberen 16 Bit in Container aufgeteilt (Schlüssel
+ * sortiert, Suche binär)
+ * - Container mit wenigen Werten: sortiertes char-Array (2 Byte pro ID)
+ * - Container mit vielen Werten (> ARRAY_MAX): Bitmap mit 1024 longs (8 KB
+ * fix), AND/OR/ANDNOT wortweise
+ *
+ * Hinweis:
+ * - and/or/andNot liefern neue Instanzen, die Operanden bleiben unverändert
+ * - nicht thread-safe (Synchronisation übernimmt TagIndex)
+ */
+final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    void add(int id) {
+        char high = high(id);
+        int i = indexOf(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add(low(id));
+            return;
+        }
+        insertAt(-i - 1, high, new ArrayContainer().add(low(id)));
+    }
+
+    void remove(int id) {
+        int i = indexOf(high(id));
+        if (i < 0) {
+            return;
+        }
+        Container container = containers[i].remove(low(id));
+        if (container.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = container;
+        }
+    }
+
+    boolean contains(int id) {
+        int i = indexOf(high(id));
+        return i >= 0 && containers[i].contains(low(id));
+    }
+
+    void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += containers[i].cardinality();
+        }
+        return sum;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    IdBitmap copy() {
+        IdBitmap output = new IdBitmap();
+        for (int i = 0; i < size; i++) {
+            output.append(keys[i], containers[i].copy());
+        }
+        return output;
+    }
+
+    /**
+     * Schnittmenge (nur Container, deren Schlüssel in beiden vorkommen).
+     */
+    IdBitmap and(IdBitmap other) {
+        IdBitmap output = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                output.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return output;
+    }
+
+    IdBitmap or(IdBitmap other) {
+        IdBitmap output = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                output.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                output.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                output.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Differenz: alle IDs dieser Menge, die nicht in other sind.
+     */
+    IdBitmap andNot(IdBitmap other) {
+        IdBitmap output = new IdBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                output.appendIfNotEmpty(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                output.append(keys[i], containers[i].copy());
+            }
+        }
+        return output;
+    }
+
+    private static char high(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID muss >= 0 sein: " + id);
+        }
+        return (char) (id >>> 16);
+    }
+
+    private static char low(int id) {
+        return (char) id;
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    // Schlüssel werden in aufsteigender Reihenfolge angehängt (Mengenoperationen)
+    private void append(char key, Container container) {
+        ensureCapacity();
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void appendIfNotEmpty(char key, Container container) {
+        if (container.cardinality() > 0) {
+            append(key, container);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+    }
+
+    /*
+     * Container für 2^16 Werte (untere 16 Bit einer ID).
+     * Mutierende Operationen liefern den (ggf. umgewandelten) Container zurück.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract Container copy();
+
+        abstract long[] toWords();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            long[] a = toWords();
+            long[] b = ((BitmapContainer) other).words;
+            for (int i = 0; i < WORDS; i++) {
+                a[i] &= b[i];
+            }
+            return fromWords(a);
+        }
+
+        Container or(Container other) {
+            long[] a = toWords();
+            long[] b = other.toWords();
+            for (int i = 0; i < WORDS; i++) {
+                a[i] |= b[i];
+            }
+            return fromWords(a);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            long[] a = toWords();
+            long[] b = other.toWords();
+            for (int i = 0; i < WORDS; i++) {
+                a[i] &= ~b[i];
+            }
+            return fromWords(a);
+        }
+
+        static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+
+            ArrayContainer array = new ArrayContainer(cardinality);
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[array.cardinality++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(4);
+        }
+
+        ArrayContainer(int capacity) {
+            values = new char[Math.max(4, capacity)];
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int index = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer output = new ArrayContainer(cardinality);
+            System.arraycopy(values, 0, output.values, 0, cardinality);
+            output.cardinality = cardinality;
+            return output;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        // keep=true: Schnittmenge, keep=false: Differenz
+        Container filter(Container other, boolean keep) {
+            ArrayContainer output = new ArrayContainer(cardinality);
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    output.values[output.cardinality++] = values[i];
+                }
+            }
+            return output;
+        }
+
+        private BitmapContainer toBitmap() {
+            return new BitmapContainer(toWords(), cardinality);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return fromWords(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(base | (i * 64 + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+    }
+}
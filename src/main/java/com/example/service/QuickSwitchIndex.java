@@ -0,0 +1,264 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Unveränderlicher Such-Index für den Schnellwechsler (Ctrl+K): unscharfe Suche
+ * über kurze Bezeichnungen (Kategorienamen, Todo-Titel).
+ *
+ * Aufbau (einmal pro Öffnen):
+ * - Präfix-Trie über alle Wörter jeder Bezeichnung (bis MAX_PREFIX Zeichen);
+ * jeder Knoten kennt die Einträge, die ein Wort mit diesem Präfix haben
+ * - Bezeichnungen werden einmal normalisiert (klein, Locale.ROOT)
+ *
+ * Suche (pro Tastendruck):
+ * - Kandidaten aus dem Trie (erstes Wort der Eingabe als Wortanfang), bewertet
+ * mit dem Fuzzy-Scorer
+ * - reicht das nicht für limit Treffer: restliche Einträge als Teilfolge
+ * bewerten (z. B. "ekf" → "Einkaufen")
+ * - Ergebnis: die besten limit Einträge, Wortanfänge vor Teilfolgen
+ *
+ * Hinweis:
+ * - unveränderlich → ohne Sperren aus jedem Thread nutzbar
+ */
+public final class QuickSwitchIndex<T> {
+
+    /** Präfixe werden nur bis zu dieser Länge im Trie geführt. */
+    private static final int MAX_PREFIX = 8;
+
+    // Bewertung: Wortanfang im Trie schlägt jede reine Teilfolge
+    private static final int PREFIX_BONUS = 1000;
+    private static final int LABEL_START_BONUS = 50;
+    private static final int WORD_START_BONUS = 10;
+    private static final int CONSECUTIVE_BONUS = 5;
+
+    private final List<T> items;
+    private final String[] labels;
+    private final Node root = new Node();
+
+    /**
+     * @param items Einträge (Reihenfolge = Rangfolge bei gleicher Bewertung)
+     * @param label Bezeichnung je Eintrag
+     */
+    public QuickSwitchIndex(List<T> items, Function<T, String> label) {
+        this.items = List.copyOf(items);
+        this.labels = new String[this.items.size()];
+
+        for (int i = 0; i < labels.length; i++) {
+            String text = label.apply(this.items.get(i));
+            labels[i] = text == null ? "" : text.toLowerCase(Locale.ROOT);
+            indexWords(labels[i], i);
+        }
+        root.freeze();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Liefert die besten Treffer für eine Eingabe.
+     *
+     * @param query Eingabe; leer → die ersten limit Einträge
+     * @param limit max. Anzahl Treffer
+     * @return Treffer, beste zuerst
+     */
+    public List<T> search(String query, int limit) {
+        String q = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return items.subList(0, Math.min(limit, items.size()));
+        }
+
+        TopK top = new TopK(limit);
+        boolean[] seen = new boolean[labels.length];
+
+        // 1) Wortanfänge über den Trie
+        String first = q.split("\\s+", 2)[0];
+        Node node = root.find(first.length() > MAX_PREFIX ? first.substring(0, MAX_PREFIX) : first);
+        if (node != null) {
+            for (int i : node.entries) {
+                seen[i] = true;
+                int score = score(labels[i], q);
+                if (score >= 0) {
+                    top.offer(i, PREFIX_BONUS + score);
+                }
+            }
+        }
+
+        // 2) Teilfolgen in den übrigen Einträgen (nur, wenn noch Plätze frei sind)
+        if (!top.isFull()) {
+            for (int i = 0; i < labels.length; i++) {
+                if (!seen[i]) {
+                    int score = score(labels[i], q);
+                    if (score >= 0) {
+                        top.offer(i, score);
+                    }
+                }
+            }
+        }
+
+        int[] order = top.sorted();
+        List<T> output = new ArrayList<>(order.length);
+        for (int i : order) {
+            output.add(items.get(i));
+        }
+        return output;
+    }
+
+    /*
+     * Fuzzy-Scorer: alle Zeichen der Eingabe (ohne Leerzeichen) müssen in
+     * Reihenfolge vorkommen. Bonus für Wortanfänge und zusammenhängende Treffer,
+     * Abzug für übersprungene Zeichen.
+     *
+     * @return Bewertung >= 0 oder -1, wenn keine Teilfolge
+     */
+    static int score(String text, String query) {
+        int score = text.startsWith(query) ? LABEL_START_BONUS : 0;
+        int pos = 0;
+        int last = -2;
+
+        for (int k = 0; k < query.length(); k++) {
+            char ch = query.charAt(k);
+            if (Character.isWhitespace(ch)) {
+                continue;
+            }
+
+            // bevorzugt an einem Wortanfang, sonst nächstes Vorkommen
+            int found = -1;
+            for (int i = pos; i < text.length(); i++) {
+                if (text.charAt(i) == ch) {
+                    if (found < 0) {
+                        found = i;
+                    }
+                    if (i == last + 1 || isWordStart(text, i)) {
+                        found = i;
+                        break;
+                    }
+                }
+            }
+            if (found < 0) {
+                return -1;
+            }
+
+            if (found == last + 1) {
+                score += CONSECUTIVE_BONUS;
+            } else if (isWordStart(text, found)) {
+                score += WORD_START_BONUS;
+            }
+            score -= found - pos;
+            last = found;
+            pos = found + 1;
+        }
+        return Math.max(0, score + 100 - text.length());
+    }
+
+    private static boolean isWordStart(String text, int index) {
+        return index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1));
+    }
+
+    private void indexWords(String text, int entry) {
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            Node node = root;
+            int depth = 0;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                if (depth < MAX_PREFIX) {
+                    node = node.child(text.charAt(i));
+                    node.add(entry);
+                    depth++;
+                }
+                i++;
+            }
+        }
+    }
+
+    /*
+     * Trie-Knoten: Kinder je Zeichen, Einträge als aufsteigendes int[] (beim
+     * Aufbau eine Liste, danach eingefroren).
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private int[] entries = new int[0];
+        private int size = 0;
+
+        Node child(char ch) {
+            return children.computeIfAbsent(ch, k -> new Node());
+        }
+
+        // Einträge kommen aufsteigend; ein Wort kann mehrfach denselben Präfix liefern
+        void add(int entry) {
+            if (size > 0 && entries[size - 1] == entry) {
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(4, size * 2));
+            }
+            entries[size++] = entry;
+        }
+
+        Node find(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        void freeze() {
+            entries = Arrays.copyOf(entries, size);
+            children.values().forEach(Node::freeze);
+        }
+    }
+
+    /*
+     * Die besten k Einträge (Bewertung absteigend, bei Gleichstand kleinerer
+     * Index zuerst), als sortiertes Array mit Einfügen.
+     */
+    private static final class TopK {
+        private final int[] index;
+        private final int[] score;
+        private int size = 0;
+
+        TopK(int k) {
+            index = new int[Math.max(0, k)];
+            score = new int[Math.max(0, k)];
+        }
+
+        boolean isFull() {
+            return size == index.length;
+        }
+
+        void offer(int entry, int value) {
+            int pos = size;
+            while (pos > 0 && better(entry, value, index[pos - 1], score[pos - 1])) {
+                pos--;
+            }
+            if (pos >= index.length) {
+                return;
+            }
+            int end = Math.min(size, index.length - 1);
+            System.arraycopy(index, pos, index, pos + 1, end - pos);
+            System.arraycopy(score, pos, score, pos + 1, end - pos);
+            index[pos] = entry;
+            score[pos] = value;
+            size = Math.min(size + 1, index.length);
+        }
+
+        int[] sorted() {
+            return Arrays.copyOf(index, size);
+        }
+
+        private static boolean better(int entry, int value, int otherEntry, int otherValue) {
+            return value > otherValue || (value == otherValue && entry < otherEntry);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.service;
+
+import com.example.domain.TodoItem;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Ereignisgesteuerter Scheduler für Erinnerungen und Tageswechsel (ersetzt
+ * periodisches Polling).
+ *
+ * Ablauf:
+ * - hält die nächsten QUEUE_SIZE Erinnerungen in einer PriorityQueue (kleinster
+ * Zeitpunkt zuerst)
+ * - ein Thread schläft bis zum frühesten von: nächste Erinnerung, Mitternacht,
+ * MAX_SLEEP
+ * - Änderungen (TodoChanges) markieren den Zustand als "dirty" und wecken den
+ * Thread; er lädt dann einmal neu (mehrere Änderungen → ein Reload)
+ *
+ * Callbacks laufen im Scheduler-Thread:
+ * - onReminder: eine Erinnerung ist fällig
+ * - onRefresh: Tageswechsel oder Daten geändert (z. B. Badge neu zählen)
+ *
+ * Hinweise:
+ * - Erinnerungen, die vor dem Start fällig waren (App geschlossen), werden nicht
+ * nachgeholt.
+ * - MAX_SLEEP fängt Uhrzeitsprünge (Standby, Zeitumstellung) ab, ohne dass
+ * der Thread im Leerlauf öfter als einmal pro Stunde aufwacht.
+ */
+public final class ReminderScheduler {
+
+    private static final int QUEUE_SIZE = 32;
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final TodoService service;
+    private final Clock clock;
+    private final Consumer<TodoItem> onReminder;
+    private final Runnable onRefresh;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+
+    private final PriorityQueue<TodoItem> queue = new PriorityQueue<>(
+            QUEUE_SIZE, Comparator.comparing(TodoItem::getRemindAt));
+
+    // geschützt durch lock
+    private boolean dirty = true;
+    private boolean running = false;
+
+    // nur im Scheduler-Thread verwendet
+    private Instant firedThrough;
+    private boolean queueWasFull;
+    private LocalDate currentDay;
+
+    private final Consumer<TodoChanges.Change> changeListener = change -> markDirty();
+    private Thread thread;
+
+    /**
+     * @param service    Datenzugriff (Erinnerungen laden)
+     * @param onReminder fällige Erinnerung (im Scheduler-Thread)
+     * @param onRefresh  Tageswechsel/Datenänderung (im Scheduler-Thread)
+     */
+    public ReminderScheduler(TodoService service, Consumer<TodoItem> onReminder, Runnable onRefresh) {
+        this(service, Clock.systemDefaultZone(), onReminder, onRefresh);
+    }
+
+    ReminderScheduler(TodoService service, Clock clock, Consumer<TodoItem> onReminder, Runnable onRefresh) {
+        this.service = service;
+        this.clock = clock;
+        this.onReminder = onReminder;
+        this.onRefresh = onRefresh;
+    }
+
+    /**
+     * Startet den Scheduler-Thread (Daemon) und registriert den Change-Listener.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+
+        firedThrough = clock.instant();
+        currentDay = LocalDate.now(clock);
+        TodoChanges.addListener(changeListener);
+
+        thread = new Thread(this::runLoop, "reminder-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stoppt den Scheduler (wartet nicht auf laufende Callbacks).
+     */
+    public void stop() {
+        TodoChanges.removeListener(changeListener);
+
+        lock.lock();
+        try {
+            running = false;
+            wakeUp.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Erzwingt Reload + onRefresh (z. B. nachdem ein anderer Prozess die DB
+     * geändert hat).
+     */
+    public void markDirty() {
+        lock.lock();
+        try {
+            dirty = true;
+            wakeUp.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        while (true) {
+            boolean reload;
+
+            lock.lock();
+            try {
+                if (!running) {
+                    return;
+                }
+                reload = dirty;
+                dirty = false;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                Instant now = clock.instant();
+                LocalDate today = LocalDate.ofInstant(now, zone());
+                boolean dayChanged = !today.equals(currentDay);
+                currentDay = today;
+
+                if (reload || (queue.isEmpty() && queueWasFull)) {
+                    reloadQueue();
+                }
+
+                fireDue(now);
+
+                if (reload || dayChanged) {
+                    onRefresh.run();
+                }
+
+                sleepUntilNextDeadline();
+
+            } catch (InterruptedException exception) {
+                return;
+            } catch (RuntimeException exception) {
+                // z. B. DB kurz gesperrt: später erneut versuchen, Thread nicht verlieren
+                exception.printStackTrace();
+                markDirty();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * Lädt die nächsten QUEUE_SIZE Erinnerungen nach firedThrough.
+     * Ist die Queue danach leer gelaufen und war sie voll, wird nachgeladen.
+     */
+    private void reloadQueue() {
+        List<TodoItem> next = service.getUpcomingReminders(firedThrough, QUEUE_SIZE);
+        queue.clear();
+        queue.addAll(next);
+        queueWasFull = next.size() == QUEUE_SIZE;
+    }
+
+    private void fireDue(Instant now) {
+        List<TodoItem> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().getRemindAt().isAfter(now)) {
+            due.add(queue.poll());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        firedThrough = now;
+        for (TodoItem item : due) {
+            try {
+                onReminder.accept(item);
+            } catch (RuntimeException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private void sleepUntilNextDeadline() throws InterruptedException {
+        long now = clock.millis();
+        long deadline = now + MAX_SLEEP_MILLIS;
+
+        long midnight = currentDay.plusDays(1).atStartOfDay(zone()).toInstant().toEpochMilli();
+        deadline = Math.min(deadline, midnight);
+
+        TodoItem next = queue.peek();
+        if (next != null) {
+            deadline = Math.min(deadline, next.getRemindAt().toEpochMilli());
+        } else if (queueWasFull) {
+            deadline = now; // sofort nachladen
+        }
+
+        lock.lock();
+        try {
+            long waitMillis = deadline - clock.millis();
+            while (running && !dirty && waitMillis > 0) {
+                wakeUp.await(waitMillis, TimeUnit.MILLISECONDS);
+                waitMillis = deadline - clock.millis();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ZoneId zone() {
+        return clock.getZone();
+    }
+}
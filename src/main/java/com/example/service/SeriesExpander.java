@@ -0,0 +1,127 @@
+package com.example.service;
+
+import com.example.domain.RecurrenceRule;
+import com.example.domain.TodoItem;
+import com.example.domain.TodoSeries;
+import com.example.domain.TodoStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+/**
+ * Berechnet offene Vorkommen von Serien für ein Datumsfenster (ohne DB-Zugriff).
+ *
+ * Regeln pro Serie:
+ * - Fenster: alle Vorkommen von heute bis heute + windowDays
+ * - immer mindestens das nächste offene Vorkommen (z. B. monatlich ausserhalb
+ * des Fensters)
+ * - überfällig: nur das letzte verpasste Vorkommen vor heute, und nur wenn kein
+ * späteres bereits gespeichert ist (verpasste Tage stapeln sich nicht)
+ * - gespeicherte Vorkommen (erledigt/bearbeitet) werden nicht erneut geliefert
+ */
+final class SeriesExpander {
+
+    // Schutz vor Endlosschleifen bei exotischen Daten (z. B. sehr viele
+    // gespeicherte Vorkommen in Folge)
+    private static final int MAX_STEPS = 400;
+
+    private SeriesExpander() {
+    }
+
+    /**
+     * Frühestes Datum, ab dem gespeicherte Vorkommen für expand(...) bekannt
+     * sein müssen.
+     */
+    static LocalDate lowerBound(List<TodoSeries> series, LocalDate today) {
+        LocalDate bound = today;
+        for (TodoSeries s : series) {
+            LocalDate prev = previous(s, today);
+            if (prev != null && prev.isBefore(bound)) {
+                bound = prev;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @param series       Serien
+     * @param materialized gespeicherte Vorkommen je Serie (ab lowerBound)
+     * @param today        heutiges Datum
+     * @param windowDays   Fenstergrösse in Tagen
+     * @return berechnete (nicht gespeicherte) offene Vorkommen, nach Datum sortiert
+     */
+    static List<TodoItem> expand(List<TodoSeries> series, Map<Integer, NavigableSet<LocalDate>> materialized,
+            LocalDate today, int windowDays) {
+
+        List<TodoItem> output = new ArrayList<>();
+        LocalDate end = today.plusDays(windowDays);
+
+        for (TodoSeries s : series) {
+            RecurrenceRule rule = s.getRule();
+            LocalDate start = s.getStartDate();
+            NavigableSet<LocalDate> stored = materialized.getOrDefault(s.getId(), Collections.emptyNavigableSet());
+
+            // überfällig: letztes verpasstes Vorkommen
+            LocalDate prev = previous(s, today);
+            if (prev != null && stored.ceiling(prev) == null) {
+                output.add(occurrence(s, prev));
+            }
+
+            // Fenster
+            boolean any = false;
+            LocalDate d = next(s, today);
+            for (int i = 0; i < MAX_STEPS && !d.isAfter(end); i++) {
+                if (!stored.contains(d)) {
+                    output.add(occurrence(s, d));
+                    any = true;
+                }
+                d = rule.next(start, d.plusDays(1));
+            }
+
+            // nächstes offenes Vorkommen nach dem Fenster
+            for (int i = 0; !any && i < MAX_STEPS; i++) {
+                if (!stored.contains(d)) {
+                    output.add(occurrence(s, d));
+                    any = true;
+                }
+                d = rule.next(start, d.plusDays(1));
+            }
+        }
+
+        output.sort((a, b) -> a.getDueDate().compareTo(b.getDueDate()));
+        return output;
+    }
+
+    /**
+     * Prüft, ob eine Serie an einem Tag ein offenes, nicht gespeichertes Vorkommen
+     * hat.
+     */
+    static boolean occursOn(TodoSeries s, LocalDate day, NavigableSet<LocalDate> stored) {
+        return next(s, day).equals(day) && (stored == null || !stored.contains(day));
+    }
+
+    /*
+     * Die Regel rechnet immer ab StartDate (Anker, wichtig für "alle N Tage");
+     * firstRelevantDate() begrenzt nur, welche Vorkommen noch zählen.
+     */
+    private static LocalDate next(TodoSeries s, LocalDate from) {
+        LocalDate first = s.firstRelevantDate();
+        return s.getRule().next(s.getStartDate(), from.isBefore(first) ? first : from);
+    }
+
+    private static LocalDate previous(TodoSeries s, LocalDate before) {
+        LocalDate prev = s.getRule().previous(s.getStartDate(), before);
+        return prev == null || prev.isBefore(s.firstRelevantDate()) ? null : prev;
+    }
+
+    private static TodoItem occurrence(TodoSeries s, LocalDate date) {
+        TodoItem item = new TodoItem(0, s.getCategoryId(), s.getTitle(), date, s.getNotes(), TodoStatus.OPEN);
+        item.setSeriesId(s.getId());
+        item.setOccurrenceDate(date);
+        return item;
+    }
+}
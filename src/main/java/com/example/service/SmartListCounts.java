@@ -0,0 +1,208 @@
+package com.example.service;
+
+import com.example.domain.SmartList;
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Zähler für die SmartList-Badges, inkrementell gepflegt statt neu gezählt.
+ *
+ * Datenstruktur:
+ * - openDue: Todo-ID → DueDate aller offenen Todos (um bei einer Änderung das
+ * alte Datum zu kennen)
+ * - perDate: Anzahl offener Todos pro Datum (TreeMap); ein Listen-Count ist eine
+ * Bereichssumme über wenige Datumsschlüssel
+ * - dadurch ist kein Neuzählen bei Tageswechsel nötig (nur andere Bereiche)
+ *
+ * Ablauf:
+ * - TodoChanges-Events merken nur die Todo-ID (billig, auch im FX-Thread)
+ * - snapshot() liest pro gemerkter ID genau eine Zeile (Primärschlüssel) und
+ * verschiebt sie zwischen den Datumsschlüsseln
+ * - Änderungen ohne Todo-ID (Bulk: Import, Serien, Aufräumen) → einmal komplett
+ * neu laden
+ * - Serien-Vorkommen werden separat berechnet und nur neu ermittelt, wenn eine
+ * Serie oder eines ihrer Vorkommen betroffen ist (oder der Tag wechselt)
+ *
+ * Threading:
+ * - snapshot() greift auf die DB zu → nicht im FX-Thread aufrufen
+ */
+public final class SmartListCounts {
+
+    private final TodoService service;
+
+    // von Listenern befüllt (beliebige Threads)
+    private final Set<Integer> pendingTodos = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullReload = new AtomicBoolean(true);
+    private final AtomicBoolean seriesDirty = new AtomicBoolean(true);
+
+    // nur in snapshot() verwendet (synchronized)
+    private final Map<Integer, LocalDate> openDue = new HashMap<>();
+    private final NavigableMap<LocalDate, Integer> perDate = new TreeMap<>();
+    private int withoutDate;
+    private List<LocalDate> seriesDates = List.of();
+    private LocalDate seriesDay;
+
+    private final Consumer<TodoChanges.Change> changeListener = this::onChange;
+    private volatile Runnable onChanged;
+
+    public SmartListCounts(TodoService service) {
+        this.service = service;
+    }
+
+    /**
+     * Registriert den Change-Listener.
+     *
+     * @param onChanged wird nach jeder relevanten Änderung aufgerufen (im Thread
+     *                  der Änderung); danach snapshot() neu abfragen
+     */
+    public void start(Runnable onChanged) {
+        this.onChanged = onChanged;
+        TodoChanges.addListener(changeListener);
+    }
+
+    public void stop() {
+        TodoChanges.removeListener(changeListener);
+        onChanged = null;
+    }
+
+    /**
+     * Erzwingt ein vollständiges Neuladen (z. B. nachdem ein anderer Prozess die DB
+     * geändert hat).
+     */
+    public void invalidate() {
+        fullReload.set(true);
+        seriesDirty.set(true);
+    }
+
+    /**
+     * Liefert die aktuellen Zähler (offene gespeicherte Todos + berechnete
+     * Serien-Vorkommen).
+     *
+     * @return Anzahl je SmartList
+     */
+    public synchronized Map<SmartList, Integer> snapshot() {
+        LocalDate today = LocalDate.now();
+
+        // IDs vor dem Lesen entnehmen: spätere Änderungen bleiben für den nächsten
+        // Aufruf gemerkt
+        List<Integer> ids = new ArrayList<>(pendingTodos);
+        pendingTodos.removeAll(ids);
+
+        if (fullReload.getAndSet(false)) {
+            reloadAll();
+        } else {
+            for (int id : ids) {
+                apply(id, service.getTodo(id));
+            }
+        }
+
+        if (seriesDirty.getAndSet(false) || !today.equals(seriesDay)) {
+            List<LocalDate> dates = new ArrayList<>();
+            for (TodoItem occurrence : service.expandAllSeries(today)) {
+                dates.add(occurrence.getDueDate());
+            }
+            seriesDates = dates;
+            seriesDay = today;
+        }
+
+        Map<SmartList, Integer> output = new EnumMap<>(SmartList.class);
+        for (SmartList list : SmartList.values()) {
+            int count = countStored(list, today);
+            for (LocalDate date : seriesDates) {
+                if (list.contains(date, today)) {
+                    count++;
+                }
+            }
+            output.put(list, count);
+        }
+        return output;
+    }
+
+    private void onChange(TodoChanges.Change change) {
+        // Kategorienliste: löschen ist nur ohne Todos/Serien möglich → keine Wirkung
+        if (change.isCategoryList()) {
+            return;
+        }
+
+        if (change.getTodoId() == 0) {
+            fullReload.set(true);
+            seriesDirty.set(true);
+        } else {
+            pendingTodos.add(change.getTodoId());
+        }
+
+        Runnable callback = onChanged;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    private void reloadAll() {
+        openDue.clear();
+        perDate.clear();
+        withoutDate = 0;
+
+        service.getOpenDueDates().forEach((id, due) -> {
+            openDue.put(id, due);
+            increment(due, 1);
+        });
+    }
+
+    /*
+     * Verschiebt ein Todo zwischen den Datumsschlüsseln (item == null: gelöscht).
+     */
+    private void apply(int id, TodoItem item) {
+        if (openDue.containsKey(id)) {
+            increment(openDue.remove(id), -1);
+        }
+
+        if (item != null && item.getStatus() == TodoStatus.OPEN) {
+            openDue.put(id, item.getDueDate());
+            increment(item.getDueDate(), 1);
+        }
+
+        // Vorkommen gespeichert/erledigt/gelöscht → berechnete Vorkommen ändern sich
+        if (item == null || item.getSeriesId() != 0) {
+            seriesDirty.set(true);
+        }
+    }
+
+    private void increment(LocalDate due, int delta) {
+        if (due == null) {
+            withoutDate += delta;
+            return;
+        }
+        perDate.merge(due, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private int countStored(SmartList list, LocalDate today) {
+        if (list.isWithoutDate()) {
+            return withoutDate;
+        }
+
+        LocalDate from = list.from(today);
+        LocalDate to = list.to(today);
+        NavigableMap<LocalDate, Integer> range = from == null
+                ? perDate.headMap(to, true)
+                : perDate.subMap(from, true, to, true);
+
+        int sum = 0;
+        for (int count : range.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.service;
+
+import com.example.domain.Tag;
+import com.example.domain.TodoStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Geparster Tag-Filter (Eingabe im Filterfeld).
+ *
+ * Syntax (durch Leerzeichen getrennt, '#' optional):
+ * - "#a #b" → a UND b
+ * - "#a|#b" → a ODER b (Gruppe; mehrere Gruppen werden UND-verknüpft)
+ * - "-#a" oder "!#a" → NICHT a
+ * - "is:open" / "is:done" → Status
+ *
+ * Beispiel: "#arbeit #dringend|#heute -#warten is:open"
+ */
+public final class TagFilter {
+
+    public static final TagFilter EMPTY = new TagFilter(List.of(), List.of(), List.of(), null);
+
+    private final List<String> allOf;
+    private final List<List<String>> anyOf;
+    private final List<String> noneOf;
+    private final TodoStatus status;
+
+    private TagFilter(List<String> allOf, List<List<String>> anyOf, List<String> noneOf, TodoStatus status) {
+        this.allOf = allOf;
+        this.anyOf = anyOf;
+        this.noneOf = noneOf;
+        this.status = status;
+    }
+
+    /**
+     * @param query Eingabe; null/leer → EMPTY
+     */
+    public static TagFilter parse(String query) {
+        if (query == null || query.isBlank()) {
+            return EMPTY;
+        }
+
+        List<String> allOf = new ArrayList<>();
+        List<List<String>> anyOf = new ArrayList<>();
+        List<String> noneOf = new ArrayList<>();
+        TodoStatus status = null;
+
+        for (String token : query.trim().split("[\\s,]+")) {
+            String lower = token.toLowerCase(Locale.ROOT);
+            if (lower.equals("is:open")) {
+                status = TodoStatus.OPEN;
+            } else if (lower.equals("is:done")) {
+                status = TodoStatus.DONE;
+            } else if (token.startsWith("-") || token.startsWith("!")) {
+                addIfValid(noneOf, token.substring(1));
+            } else if (token.contains("|")) {
+                List<String> group = new ArrayList<>();
+                for (String part : token.split("\\|")) {
+                    addIfValid(group, part);
+                }
+                if (!group.isEmpty()) {
+                    anyOf.add(List.copyOf(group));
+                }
+            } else {
+                addIfValid(allOf, token);
+            }
+        }
+
+        if (allOf.isEmpty() && anyOf.isEmpty() && noneOf.isEmpty() && status == null) {
+            return EMPTY;
+        }
+        return new TagFilter(List.copyOf(allOf), List.copyOf(anyOf), List.copyOf(noneOf), status);
+    }
+
+    private static void addIfValid(List<String> target, String raw) {
+        String name = Tag.normalize(raw);
+        if (name != null) {
+            target.add(name);
+        }
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    List<String> allOf() {
+        return allOf;
+    }
+
+    List<List<String>> anyOf() {
+        return anyOf;
+    }
+
+    List<String> noneOf() {
+        return noneOf;
+    }
+
+    TodoStatus status() {
+        return status;
+    }
+
+    /**
+     * Auswertung für Todos ohne Tags, die nicht im Index stehen (berechnete
+     * Serien-Vorkommen).
+     */
+    boolean matchesUntagged(TodoStatus todoStatus) {
+        return allOf.isEmpty() && anyOf.isEmpty() && (status == null || status == todoStatus);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.service;
+
+import com.example.domain.Tag;
+import com.example.domain.TodoStatus;
+import com.example.persistence.TagRepository;
+import com.example.persistence.TodoRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-Memory-Index Tag → Todo-IDs (IdBitmap) plus Status-Bitmaps.
+ *
+ * Zweck:
+ * - Tag-Filter (UND/ODER/NICHT + Status) werden als Bitmap-Operationen
+ * ausgewertet, ohne SQL-Joins pro Tastendruck
+ *
+ * Konsistenz:
+ * - wird einmal aus der DB geladen (lazy) und danach von TodoService bei jedem
+ * Schreibvorgang nachgeführt
+ * - Nachführen ist idempotent (Mengenoperationen), daher unkritisch, falls ein
+ * Schreibvorgang bereits im geladenen Stand enthalten war
+ * - Änderungen anderer Prozesse (CLI): invalidate() → beim nächsten Zugriff neu
+ * laden
+ *
+ * Threading:
+ * - alle Methoden synchronized (kurze, reine Speicheroperationen; nur das
+ * erstmalige Laden greift auf die DB zu)
+ */
+final class TagIndex {
+
+    private final TagRepository tagRepo = new TagRepository();
+    private final TodoRepository todoRepo = new TodoRepository();
+
+    private boolean loaded = false;
+
+    private final Map<Integer, IdBitmap> todosByTag = new HashMap<>();
+    private final Map<String, Integer> tagIdsByName = new HashMap<>();
+    // nach Name sortiert → Tags eines Todos kommen alphabetisch zurück
+    private final TreeMap<String, Integer> tagsSorted = new TreeMap<>();
+    private final IdBitmap open = new IdBitmap();
+    private final IdBitmap done = new IdBitmap();
+
+    synchronized void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Lädt den Index, falls nötig (DB-Zugriff nur beim ersten Mal bzw. nach
+     * invalidate()).
+     */
+    synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        todosByTag.clear();
+        tagIdsByName.clear();
+        tagsSorted.clear();
+        open.clear();
+        done.clear();
+        todoRepo.findIdsByStatus(TodoStatus.OPEN).forEach(open::add);
+        todoRepo.findIdsByStatus(TodoStatus.DONE).forEach(done::add);
+
+        for (Tag tag : tagRepo.findAll()) {
+            registerTag(tag);
+        }
+        tagRepo.findAssignments().forEach((tagId, todoIds) -> {
+            IdBitmap bitmap = todosByTag.computeIfAbsent(tagId, k -> new IdBitmap());
+            for (int todoId : todoIds) {
+                bitmap.add(todoId);
+            }
+        });
+
+        loaded = true;
+    }
+
+    synchronized void setStatus(int todoId, TodoStatus status) {
+        if (!loaded) {
+            return;
+        }
+        if (status == TodoStatus.DONE) {
+            open.remove(todoId);
+            done.add(todoId);
+        } else {
+            done.remove(todoId);
+            open.add(todoId);
+        }
+    }
+
+    synchronized void removeTodos(Collection<Integer> todoIds) {
+        if (!loaded) {
+            return;
+        }
+        for (int todoId : todoIds) {
+            open.remove(todoId);
+            done.remove(todoId);
+            for (IdBitmap bitmap : todosByTag.values()) {
+                bitmap.remove(todoId);
+            }
+        }
+    }
+
+    synchronized void setTags(int todoId, List<Tag> tags) {
+        if (!loaded) {
+            return;
+        }
+        for (IdBitmap bitmap : todosByTag.values()) {
+            bitmap.remove(todoId);
+        }
+        for (Tag tag : tags) {
+            registerTag(tag);
+            todosByTag.computeIfAbsent(tag.getId(), k -> new IdBitmap()).add(todoId);
+        }
+    }
+
+    /**
+     * @return Tag-Namen eines Todos (alphabetisch); O(Anzahl Tags)
+     */
+    synchronized List<String> tagsOf(int todoId) {
+        ensureLoaded();
+
+        List<String> output = new ArrayList<>(2);
+        for (Map.Entry<String, Integer> entry : tagsSorted.entrySet()) {
+            IdBitmap bitmap = todosByTag.get(entry.getValue());
+            if (bitmap != null && bitmap.contains(todoId)) {
+                output.add(entry.getKey());
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @return alle bekannten Tag-Namen (alphabetisch)
+     */
+    synchronized List<String> tagNames() {
+        ensureLoaded();
+        return List.copyOf(tagsSorted.keySet());
+    }
+
+    /**
+     * Wertet einen Filter aus.
+     *
+     * Ablauf:
+     * - Start: Status-Bitmap (oder offen ∪ erledigt)
+     * - UND je Pflicht-Tag, UND je ODER-Gruppe (Vereinigung der Gruppe), zuletzt
+     * ANDNOT je ausgeschlossenem Tag
+     * - unbekannte Tags: leere Menge
+     *
+     * @return Todo-IDs, die den Filter erfüllen (eigene Kopie)
+     */
+    synchronized IdBitmap evaluate(TagFilter filter) {
+        ensureLoaded();
+
+        TodoStatus status = filter.status();
+        IdBitmap result = status == null
+                ? open.or(done)
+                : (status == TodoStatus.OPEN ? open : done).copy();
+
+        for (String name : filter.allOf()) {
+            result = result.and(bitmapFor(name));
+        }
+        for (List<String> group : filter.anyOf()) {
+            IdBitmap union = new IdBitmap();
+            for (String name : group) {
+                union = union.or(bitmapFor(name));
+            }
+            result = result.and(union);
+        }
+        for (String name : filter.noneOf()) {
+            result = result.andNot(bitmapFor(name));
+        }
+        return result;
+    }
+
+    private IdBitmap bitmapFor(String name) {
+        Integer tagId = tagIdsByName.get(name);
+        IdBitmap bitmap = tagId == null ? null : todosByTag.get(tagId);
+        return bitmap == null ? new IdBitmap() : bitmap;
+    }
+
+    private void registerTag(Tag tag) {
+        tagIdsByName.put(tag.getName(), tag.getId());
+        tagsSorted.put(tag.getName(), tag.getId());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Prozessweite Änderungszähler + Change-Events für Todos und Kategorien.
+ *
+ * Zweck:
+ * - Versionen pro Kategorie: Caches/Poller (z. B. HTTP-API mit ETag) erkennen
+ * ohne DB-Zugriff, ob sich eine Liste geändert hat
+ * - Listener: interessierte Komponenten werden nach jeder Änderung informiert
+ *
+ * Design:
+ * - statisch, weil mehrere TodoService-Instanzen existieren (UI, Notifier, ...)
+ * und alle dieselben Zähler sehen müssen
+ * - Versionen werden nur von TodoService erhöht (package-private); Ausnahme:
+ * externalChange() nach Änderungen eines anderen Prozesses (CLI)
+ * - generation unterscheidet App-Starts: Zähler beginnen nach jedem Start wieder
+ * bei 0, alte ETags dürfen trotzdem nicht mehr passen; externalChange() setzt
+ * sie ebenfalls neu (welche Kategorien betroffen sind, ist unbekannt)
+ * - runLocal(): Änderungen, die die UI selbst auf einem Hintergrund-Thread
+ * schreibt, als lokal markieren (Versionen steigen trotzdem; die UI lädt dafür
+ * nicht wie bei externen Änderungen nach)
+ */
+public final class TodoChanges {
+
+    /** Kategorie-ID für Änderungen ohne konkrete Kategorie (z. B. Kategorienliste). */
+    public static final int NO_CATEGORY = 0;
+
+    private static final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    private static final AtomicLong globalVersion = new AtomicLong();
+    private static final AtomicLong categoriesVersion = new AtomicLong();
+    private static final ConcurrentHashMap<Integer, AtomicLong> categoryVersions = new ConcurrentHashMap<>();
+
+    private static final CopyOnWriteArrayList<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+
+    // true, solange der aktuelle Thread in runLocal() schreibt
+    private static final ThreadLocal<Boolean> LOCAL = ThreadLocal.withInitial(() -> false);
+
+    private TodoChanges() {
+    }
+
+    /**
+     * Beschreibt eine Änderung.
+     *
+     * - categoryId: betroffene Kategorie (oder NO_CATEGORY)
+     * - todoId: betroffenes Todo (0 = mehrere/unbekannt)
+     * - categoryList: true, wenn die Kategorienliste selbst geändert wurde
+     * - local: true, wenn die UI die Änderung selbst ausgelöst hat (runLocal)
+     */
+    public static final class Change {
+        private final int categoryId;
+        private final int todoId;
+        private final boolean categoryList;
+        private final boolean local;
+
+        Change(int categoryId, int todoId, boolean categoryList, boolean local) {
+            this.categoryId = categoryId;
+            this.todoId = todoId;
+            this.categoryList = categoryList;
+            this.local = local;
+        }
+
+        public boolean isLocal() {
+            return local;
+        }
+
+        public boolean isCategoryList() {
+            return categoryList;
+        }
+
+        public int getCategoryId() {
+            return categoryId;
+        }
+
+        public int getTodoId() {
+            return todoId;
+        }
+    }
+
+    public static long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @return Version über alle Änderungen (steigt bei jeder Änderung)
+     */
+    public static long globalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * @return Version der Kategorienliste (Anlegen/Umbenennen/Löschen)
+     */
+    public static long categoriesVersion() {
+        return categoriesVersion.get();
+    }
+
+    /**
+     * @param categoryId Kategorie-ID
+     * @return Version der Todos dieser Kategorie
+     */
+    public static long categoryVersion(int categoryId) {
+        AtomicLong v = categoryVersions.get(categoryId);
+        return v == null ? 0 : v.get();
+    }
+
+    /**
+     * Führt write aus; dabei gemeldete Änderungen sind lokal (Change.isLocal()).
+     *
+     * Zweck:
+     * - die UI schreibt z. B. Autosave auf einem eigenen Thread und aktualisiert
+     * die betroffene Zeile selbst → kein Nachladen wie bei externen Änderungen
+     *
+     * @param write Schreibvorgang im aktuellen Thread
+     */
+    public static void runLocal(Runnable write) {
+        boolean outer = LOCAL.get();
+        LOCAL.set(true);
+        try {
+            write.run();
+        } finally {
+            LOCAL.set(outer);
+        }
+    }
+
+    public static void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Todos einer Kategorie wurden geändert (Insert/Update/Status/Delete).
+     */
+    static void todosChanged(int categoryId, int todoId) {
+        categoryVersions.computeIfAbsent(categoryId, k -> new AtomicLong()).incrementAndGet();
+        globalVersion.incrementAndGet();
+        fire(new Change(categoryId, todoId, false, LOCAL.get()));
+    }
+
+    /**
+     * Ein anderer Prozess (z. B. CLI) hat die DB geändert; betroffene Kategorien
+     * sind unbekannt.
+     *
+     * Ablauf:
+     * - neue Generation → alle bisher ausgegebenen ETags passen nicht mehr (auch
+     * für Kategorien, deren Zähler hier nie gestiegen ist)
+     * - globale und Kategorienlisten-Version erhöhen, Listener informieren
+     */
+    public static void externalChange() {
+        generation.updateAndGet(g -> Math.max(g + 1, System.currentTimeMillis()));
+        categoriesVersion.incrementAndGet();
+        globalVersion.incrementAndGet();
+        fire(new Change(NO_CATEGORY, 0, true, LOCAL.get()));
+    }
+
+    /**
+     * Kategorienliste wurde geändert.
+     */
+    static void categoriesChanged(int categoryId) {
+        categoriesVersion.incrementAndGet();
+        globalVersion.incrementAndGet();
+        fire(new Change(categoryId, 0, true, LOCAL.get()));
+    }
+
+    /*
+     * Listener laufen synchron im schreibenden Thread (UI, API, Notifier).
+     * Teure Arbeit oder UI-Zugriffe müssen Listener selbst auslagern.
+     */
+    private static void fire(Change change) {
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException exception) {
+                // ein fehlerhafter Listener darf Schreiboperationen nicht abbrechen
+                exception.printStackTrace();
+            }
+        }
+    }
+}
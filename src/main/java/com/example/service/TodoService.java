@@ -1,13 +1,37 @@
 package com.example.service;
 
 import com.example.domain.Category;
+import com.example.domain.RecurrenceRule;
+import com.example.domain.SmartList;
+import com.example.domain.SortRank;
+import com.example.domain.StatsBucket;
+import com.example.domain.StatsPeriod;
+import com.example.domain.Tag;
 import com.example.domain.TodoItem;
+import com.example.domain.TodoSeries;
 import com.example.domain.TodoStatus;
 import com.example.persistence.CategoryRepository;
+import com.example.persistence.StatsRepository;
+import com.example.persistence.TagRepository;
 import com.example.persistence.TodoRepository;
+import com.example.persistence.TodoSeriesRepository;
+import com.example.persistence.TodoTreeRepository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * Zweck:
@@ -30,6 +54,33 @@ public class TodoService {
      */
     private final CategoryRepository categoryRepo = new CategoryRepository();
     private final TodoRepository todoRepo = new TodoRepository();
+    private final TodoSeriesRepository seriesRepo = new TodoSeriesRepository();
+    private final TagRepository tagRepo = new TagRepository();
+    private final TodoTreeRepository treeRepo = new TodoTreeRepository();
+    private final StatsRepository statsRepo = new StatsRepository();
+
+    /*
+     * Tag-Index (Bitmaps) ist prozessweit, weil mehrere TodoService-Instanzen
+     * existieren (UI, Notifier, API) und alle Schreibvorgänge ihn nachführen
+     * müssen (wie TodoChanges).
+     */
+    private static final TagIndex TAGS = new TagIndex();
+
+    // Obergrenze für Seiten/Suchtreffer (schützt UI und API vor Riesen-Resultaten)
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Sichtbares Fenster für berechnete Serien-Vorkommen (ab heute)
+    public static final int SERIES_WINDOW_DAYS = 14;
+
+    // Sortierung wie TodoRepository.findOpenByCategory (manuell sortierte zuerst,
+    // ohne Datum ans Ende)
+    private static final Comparator<TodoItem> OPEN_ORDER = Comparator
+            .comparing(TodoItem::getSortRank, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TodoItem::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(t -> t.getId() == 0 ? Integer.MAX_VALUE : t.getId());
+
+    // Kategorien, deren Sortierschlüssel gerade neu verteilt werden (prozessweit)
+    private static final Set<Integer> REBALANCING = ConcurrentHashMap.newKeySet();
 
     /**
      * Liefert alle Kategorien.
@@ -60,7 +111,9 @@ public class TodoService {
         // Icon: optional, nur Whitespace entfernen
         String trimmedIcon = icon == null ? null : icon.trim();
 
-        return categoryRepo.insert(trimmedName, trimmedIcon);
+        int id = categoryRepo.insert(trimmedName, trimmedIcon);
+        TodoChanges.categoriesChanged(id);
+        return id;
     }
 
     /**
@@ -74,6 +127,7 @@ public class TodoService {
             throw new IllegalArgumentException("Name ist Pflicht");
         }
         categoryRepo.updateName(id, newName.trim());
+        TodoChanges.categoriesChanged(id);
     }
 
     /**
@@ -102,6 +156,7 @@ public class TodoService {
 
         categoryRepo.updateName(id, trimmedName);
         categoryRepo.updateIcon(id, trimmedIcon);
+        TodoChanges.categoriesChanged(id);
     }
 
     /**
@@ -113,20 +168,51 @@ public class TodoService {
      * @param categoryId Kategorie-ID
      */
     public void deleteCategory(int categoryId) {
-        if (todoRepo.hasTodos(categoryId)) {
+        if (todoRepo.hasTodos(categoryId) || seriesRepo.hasSeries(categoryId)) {
             throw new IllegalStateException("Liste enthält noch Todos. Erst Todos löschen/verschieben.");
         }
         categoryRepo.delete(categoryId);
+        TodoChanges.categoriesChanged(categoryId);
     }
 
     /**
-     * Liefert offene Todos einer Kategorie.
+     * Liefert offene Todos einer Kategorie, inkl. berechneter Serien-Vorkommen.
+     *
+     * Ablauf:
+     * - gespeicherte Todos wie bisher (Index auf CategoryId/Status)
+     * - Serien der Kategorie laden (eine Zeile pro Serie) und nur im Fenster
+     * expandieren; gespeicherte Vorkommen werden per Unique-Index abgeglichen
+     * - ohne Serien: keine zusätzliche Abfrage der TodoItems
      *
      * @param categoryId Kategorie-ID
-     * @return offene Todos
+     * @return offene Todos (berechnete Vorkommen haben id == 0)
      */
     public List<TodoItem> getOpenTodosForCategory(int categoryId) {
-        return todoRepo.findOpenByCategory(categoryId);
+        return getOpenTodosForCategory(categoryId, false);
+    }
+
+    /**
+     * Wie getOpenTodosForCategory, optional nur Wurzeln (Baumansicht: Unteraufgaben
+     * werden erst beim Aufklappen über getSubtasks geladen).
+     *
+     * @param rootsOnly true → Unteraufgaben auslassen
+     */
+    public List<TodoItem> getOpenTodosForCategory(int categoryId, boolean rootsOnly) {
+        List<TodoItem> stored = todoRepo.findOpenByCategory(categoryId, rootsOnly);
+
+        List<TodoSeries> series = seriesRepo.findByCategory(categoryId);
+        if (series.isEmpty()) {
+            return stored;
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Integer, NavigableSet<LocalDate>> materialized = todoRepo.findOccurrenceDates(
+                categoryId, SeriesExpander.lowerBound(series, today));
+
+        List<TodoItem> output = new ArrayList<>(stored);
+        output.addAll(SeriesExpander.expand(series, materialized, today, SERIES_WINDOW_DAYS));
+        output.sort(OPEN_ORDER);
+        return output;
     }
 
     /**
@@ -139,6 +225,195 @@ public class TodoService {
         return todoRepo.findDoneByCategory(categoryId);
     }
 
+    /**
+     * Liefert erledigte Todos einer Kategorie, optional nur Wurzeln.
+     *
+     * @param rootsOnly true → Unteraufgaben auslassen
+     */
+    public List<TodoItem> getDoneTodosForCategory(int categoryId, boolean rootsOnly) {
+        return todoRepo.findDoneByCategory(categoryId, rootsOnly);
+    }
+
+    /**
+     * Liefert die direkten Unteraufgaben eines Todos (offene zuerst).
+     *
+     * @param parentId ID des Elternteils
+     * @return Kinder; leer, wenn keine vorhanden
+     */
+    public List<TodoItem> getSubtasks(int parentId) {
+        return treeRepo.findChildren(parentId);
+    }
+
+    /**
+     * Setzt den Fortschritt der Unteraufgaben (ganzer Teilbaum) für die
+     * übergebenen Todos (eine Abfrage für alle).
+     *
+     * @param items Todos (berechnete Vorkommen haben keine Unteraufgaben)
+     */
+    public void attachSubtaskProgress(List<TodoItem> items) {
+        List<Integer> ids = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            if (item.getId() != 0) {
+                ids.add(item.getId());
+            }
+        }
+
+        Map<Integer, int[]> progress = treeRepo.findProgress(ids);
+        for (TodoItem item : items) {
+            int[] counts = progress.get(item.getId());
+            item.setSubtaskProgress(counts == null ? 0 : counts[0], counts == null ? 0 : counts[1]);
+        }
+    }
+
+    /**
+     * Liefert eine Seite von Todos einer Kategorie.
+     *
+     * Validierung:
+     * - offset wird auf >= 0, limit auf 1..MAX_PAGE_SIZE begrenzt
+     *
+     * @param categoryId Kategorie-ID
+     * @param status     OPEN oder DONE
+     * @param offset     Startposition
+     * @param limit      Seitengrösse
+     * @return Todos der Seite (sortiert wie die Listenansicht)
+     */
+    public List<TodoItem> getTodosPage(int categoryId, TodoStatus status, int offset, int limit) {
+        int safeOffset = Math.max(0, offset);
+        int safeLimit = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        return todoRepo.findPageByCategory(categoryId, status, safeOffset, safeLimit);
+    }
+
+    /**
+     * Liefert eine Seite einer SmartList (offene Todos aller Kategorien nach
+     * Fälligkeit).
+     *
+     * Ablauf:
+     * - gespeicherte Todos: Bereichsabfrage über den Index (Status, DueDate),
+     * keine Abfrage pro Kategorie
+     * - Serien: berechnete Vorkommen im Bereich werden der ersten Seite
+     * beigemischt (Serien sind wenige Zeilen, nicht paginiert)
+     *
+     * @param list   SmartList
+     * @param offset Startposition (gespeicherte Todos)
+     * @param limit  Seitengrösse (1..MAX_PAGE_SIZE)
+     * @return Todos der Seite (berechnete Vorkommen haben id == 0)
+     */
+    public List<TodoItem> getSmartListPage(SmartList list, int offset, int limit) {
+        int safeOffset = Math.max(0, offset);
+        int safeLimit = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        LocalDate today = LocalDate.now();
+
+        List<TodoItem> stored = list.isWithoutDate()
+                ? todoRepo.findOpenWithoutDueDate(safeOffset, safeLimit)
+                : todoRepo.findOpenByDueRange(list.from(today), list.to(today), safeOffset, safeLimit);
+
+        if (safeOffset > 0 || list.isWithoutDate()) {
+            return stored;
+        }
+
+        List<TodoItem> output = new ArrayList<>(stored);
+        for (TodoItem occurrence : expandAllSeries(today)) {
+            if (list.contains(occurrence.getDueDate(), today)) {
+                output.add(occurrence);
+            }
+        }
+        output.sort(OPEN_ORDER);
+        return output;
+    }
+
+    /**
+     * Berechnete Serien-Vorkommen aller Kategorien (Fenster ab heute, inkl.
+     * letztem verpassten Vorkommen).
+     */
+    List<TodoItem> expandAllSeries(LocalDate today) {
+        List<TodoSeries> series = seriesRepo.findAll();
+        if (series.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, NavigableSet<LocalDate>> materialized = todoRepo.findOccurrenceDates(
+                null, SeriesExpander.lowerBound(series, today));
+        return SeriesExpander.expand(series, materialized, today, SERIES_WINDOW_DAYS);
+    }
+
+    /**
+     * Liefert Id → DueDate aller offenen Todos (Basis für SmartListCounts).
+     */
+    Map<Integer, LocalDate> getOpenDueDates() {
+        return todoRepo.findOpenDueDates();
+    }
+
+    /**
+     * Liefert ein einzelnes Todo.
+     *
+     * @param todoId Todo-ID
+     * @return TodoItem oder null, wenn es nicht (mehr) existiert
+     */
+    public TodoItem getTodo(int todoId) {
+        return todoRepo.findById(todoId);
+    }
+
+    /**
+     * Liefert alle Todos aller Kategorien (z. B. für Export).
+     *
+     * @return alle Todos, nach Kategorie gruppiert
+     */
+    public List<TodoItem> getAllTodos() {
+        return todoRepo.findAll();
+    }
+
+    /**
+     * Sucht Todos über alle Kategorien (Titel + Notizen).
+     *
+     * @param text  Suchtext; leer → leere Liste
+     * @param limit max. Treffer (1..MAX_PAGE_SIZE)
+     * @return Treffer (offene zuerst)
+     */
+    public List<TodoItem> searchTodos(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        int safeLimit = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        return todoRepo.search(text.trim(), safeLimit);
+    }
+
+    /**
+     * Liefert die zuletzt angelegten offenen Todos aller Kategorien (inkl. Tags,
+     * damit sie direkt in den Details geöffnet werden können).
+     *
+     * @param limit max. Anzahl (1..MAX_PAGE_SIZE)
+     * @return neueste zuerst
+     */
+    public List<TodoItem> getRecentTodos(int limit) {
+        int safeLimit = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<TodoItem> items = todoRepo.findRecentOpen(safeLimit);
+        attachTags(items);
+        return items;
+    }
+
+    /**
+     * Liefert alle Todos, die nach einem Zeitpunkt angelegt oder geändert wurden
+     * (für inkrementelle Caches/Exporte statt Vollscan).
+     *
+     * Hinweis:
+     * - gelöschte Todos sind nicht enthalten (dafür TodoChanges beobachten)
+     * - als nächsten Zeitpunkt das grösste UpdatedAt des Ergebnisses verwenden;
+     * da inklusiv, kommen Todos mit genau diesem UpdatedAt erneut → Aufrufer
+     * überspringen bereits gesehene IDs dieser Millisekunde (so geht keine
+     * spätere Änderung in derselben Millisekunde verloren)
+     *
+     * @param since Zeitpunkt (inklusiv)
+     * @return Todos inkl. Tags, älteste Änderung zuerst
+     */
+    public List<TodoItem> findUpdatedSince(Instant since) {
+        if (since == null) {
+            throw new IllegalArgumentException("Zeitpunkt ist Pflicht");
+        }
+        List<TodoItem> items = todoRepo.findUpdatedSince(since.toEpochMilli());
+        attachTags(items);
+        return items;
+    }
+
     /**
      * Zählt erledigte Todos einer Kategorie.
      *
@@ -177,7 +452,148 @@ public class TodoService {
                 null, // Notes initial leer
                 TodoStatus.OPEN);
 
-        return todoRepo.insert(item);
+        int id = todoRepo.insert(item);
+        TAGS.setStatus(id, TodoStatus.OPEN);
+        TodoChanges.todosChanged(categoryId, id);
+        return id;
+    }
+
+    /**
+     * Erstellt eine Unteraufgabe (gleiche Kategorie wie das Elternteil).
+     *
+     * Validierung:
+     * - Titel ist Pflicht
+     * - Elternteil muss existieren und offen sein (ein erledigtes Elternteil hat
+     * nur erledigte Unteraufgaben)
+     *
+     * @param parentId ID des Elternteils (gespeichert)
+     * @param title    Titel (Pflicht)
+     * @param dueDate  Fälligkeitsdatum (optional)
+     * @return generierte Todo-ID
+     */
+    public int addSubtask(int parentId, String title, LocalDate dueDate) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Titel ist Pflicht");
+        }
+
+        TodoItem parent = todoRepo.findById(parentId);
+        if (parent == null) {
+            throw new IllegalArgumentException("Todo nicht gefunden: Id=" + parentId);
+        }
+        if (parent.getStatus() == TodoStatus.DONE) {
+            throw new IllegalStateException("Erledigte Aufgaben können keine Unteraufgaben erhalten.");
+        }
+
+        TodoItem item = new TodoItem(0, parent.getCategoryId(), title.trim(), dueDate, null, TodoStatus.OPEN);
+
+        int id = treeRepo.insertChild(item, parentId);
+        TAGS.setStatus(id, TodoStatus.OPEN);
+        TodoChanges.todosChanged(parent.getCategoryId(), id);
+        return id;
+    }
+
+    /**
+     * Erstellt mehrere Todos in einer Kategorie (eine Transaktion).
+     *
+     * Validierung:
+     * - jeder Titel ist Pflicht; bei einem ungültigen Eintrag wird nichts
+     * gespeichert
+     *
+     * @param categoryId Kategorie-ID
+     * @param titles     Titel (Pflicht, gleiche Reihenfolge wie dueDates)
+     * @param dueDates   Fälligkeitsdaten (Einträge dürfen null sein)
+     * @return generierte IDs in Eingabereihenfolge
+     */
+    public List<Integer> addTodos(int categoryId, List<String> titles, List<LocalDate> dueDates) {
+        if (titles.size() != dueDates.size()) {
+            throw new IllegalArgumentException("Titel und Daten müssen gleich viele Einträge haben");
+        }
+
+        List<TodoItem> items = new ArrayList<>(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            if (title == null || title.trim().isEmpty()) {
+                throw new IllegalArgumentException("Titel ist Pflicht (Eintrag " + (i + 1) + ")");
+            }
+            items.add(new TodoItem(0, categoryId, title.trim(), dueDates.get(i), null, TodoStatus.OPEN));
+        }
+
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> ids = todoRepo.insertAll(items);
+        ids.forEach(id -> TAGS.setStatus(id, TodoStatus.OPEN));
+        TodoChanges.todosChanged(categoryId, 0);
+        return ids;
+    }
+
+    /**
+     * Erstellt eine wiederkehrende Aufgabe (Serie).
+     *
+     * Hinweis:
+     * - Es wird nur die Serie gespeichert; Vorkommen werden beim Laden berechnet
+     * und erst beim Erledigen/Bearbeiten als Todo gespeichert.
+     *
+     * @param categoryId Kategorie-ID
+     * @param title      Titel (Pflicht)
+     * @param rule       Wiederholungsregel (Pflicht)
+     * @param startDate  erstes mögliches Vorkommen (null → heute)
+     * @return generierte Serien-ID
+     */
+    public int addSeries(int categoryId, String title, RecurrenceRule rule, LocalDate startDate) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Titel ist Pflicht");
+        }
+        if (rule == null) {
+            throw new IllegalArgumentException("Wiederholung ist Pflicht");
+        }
+
+        LocalDate start = startDate == null ? LocalDate.now() : startDate;
+        int id = seriesRepo.insert(new TodoSeries(0, categoryId, title.trim(), null, rule, start, null));
+        TodoChanges.todosChanged(categoryId, 0);
+        return id;
+    }
+
+    /**
+     * Liefert eine Serie (z. B. für die Anzeige der Regel in den Details).
+     *
+     * @return Serie oder null, wenn sie nicht (mehr) existiert
+     */
+    public TodoSeries getSeries(int seriesId) {
+        return seriesRepo.findById(seriesId);
+    }
+
+    /**
+     * Beendet eine Serie.
+     *
+     * - berechnete Vorkommen verschwinden
+     * - gespeicherte Vorkommen bleiben als normale Todos erhalten
+     *
+     * @param seriesId Serien-ID
+     */
+    public void deleteSeries(int seriesId) {
+        int categoryId = seriesRepo.delete(seriesId);
+        TodoChanges.todosChanged(categoryId, 0);
+    }
+
+    /**
+     * Speichert ein berechnetes Serien-Vorkommen als Todo, damit es wie jedes
+     * andere Todo geändert werden kann.
+     *
+     * @param item Todo (gespeichert oder berechnet)
+     * @return ID des gespeicherten Todos (bei gespeicherten Todos unverändert)
+     */
+    public int materialize(TodoItem item) {
+        if (!item.isVirtualOccurrence()) {
+            return item.getId();
+        }
+
+        int id = todoRepo.insertOccurrence(item);
+        item.setId(id);
+        TAGS.setStatus(id, TodoStatus.OPEN);
+        TodoChanges.todosChanged(item.getCategoryId(), id);
+        return id;
     }
 
     /**
@@ -199,7 +615,223 @@ public class TodoService {
             throw new IllegalArgumentException("Titel darf nicht leer sein");
         }
 
-        todoRepo.updateTodo(todoId, newTitle.trim(), newDueDate, notes);
+        int categoryId = todoRepo.updateTodo(todoId, newTitle.trim(), newDueDate, notes);
+        TodoChanges.todosChanged(categoryId, todoId);
+    }
+
+    /**
+     * Aktualisiert nur Titel und/oder Notizen (ein UPDATE, nur diese Spalten).
+     *
+     * @param todoId Todo-ID
+     * @param title  neuer Titel oder null (unverändert)
+     * @param notes  neue Notizen oder null (unverändert); leer → keine Notizen
+     */
+    public void updateText(int todoId, String title, String notes) {
+        if (title != null && title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Titel darf nicht leer sein");
+        }
+
+        int categoryId = todoRepo.updateText(todoId, title == null ? null : title.trim(), notes);
+        TodoChanges.todosChanged(categoryId, todoId);
+    }
+
+    /**
+     * Verschiebt ein Todo in der manuellen Reihenfolge seiner Kategorie.
+     *
+     * Ablauf:
+     * - neuer Schlüssel zwischen den gespeicherten Nachbarn → ein UPDATE
+     * - ist der Vorgänger noch nicht manuell sortiert (erstes Verschieben in der
+     * Liste) oder sind die Schlüssel inkonsistent, wird die angezeigte
+     * Reihenfolge einmal komplett festgeschrieben (eine Transaktion)
+     * - werden Schlüssel zu lang, verteilt ein Hintergrund-Thread die Kategorie
+     * neu
+     *
+     * Hinweis:
+     * - berechnete Serien-Vorkommen werden beim Verschieben gespeichert; als
+     * Nachbarn zählen sie nicht (sie haben keinen Schlüssel)
+     *
+     * @param order offene Todos der Liste in der neuen Reihenfolge (verschobenes
+     *              Todo bereits an der Zielposition)
+     * @param index Position des verschobenen Todos in order
+     */
+    public void moveTodo(List<TodoItem> order, int index) {
+        TodoItem item = order.get(index);
+        int todoId = materialize(item);
+
+        TodoItem previous = null;
+        for (int i = index - 1; i >= 0 && previous == null; i--) {
+            previous = order.get(i).getId() != 0 ? order.get(i) : null;
+        }
+        TodoItem next = null;
+        for (int i = index + 1; i < order.size() && next == null; i++) {
+            next = order.get(i).getId() != 0 ? order.get(i) : null;
+        }
+
+        String low = previous == null ? null : previous.getSortRank();
+        String high = next == null ? null : next.getSortRank();
+
+        if ((previous != null && low == null) || (low != null && high != null && low.compareTo(high) >= 0)) {
+            rankAll(order, item.getCategoryId());
+            return;
+        }
+
+        String rank = SortRank.between(low, high);
+        int categoryId = todoRepo.updateSortRank(todoId, rank);
+        item.setSortRank(rank);
+        TodoChanges.todosChanged(categoryId, todoId);
+
+        if (SortRank.needsRebalance(rank)) {
+            rebalanceAsync(categoryId);
+        }
+    }
+
+    /*
+     * Schreibt die Reihenfolge aller gespeicherten Todos der Liste fest.
+     */
+    private void rankAll(List<TodoItem> order, int categoryId) {
+        List<TodoItem> stored = new ArrayList<>(order.size());
+        for (TodoItem item : order) {
+            if (item.getId() != 0) {
+                stored.add(item);
+            }
+        }
+
+        List<String> ranks = SortRank.evenlySpaced(stored.size());
+        Map<Integer, String> updates = new LinkedHashMap<>();
+        for (int i = 0; i < stored.size(); i++) {
+            stored.get(i).setSortRank(ranks.get(i));
+            updates.put(stored.get(i).getId(), ranks.get(i));
+        }
+
+        todoRepo.updateSortRanks(updates);
+        TodoChanges.todosChanged(categoryId, 0);
+    }
+
+    /*
+     * Neuverteilung im Hintergrund (pro Kategorie höchstens einmal gleichzeitig).
+     * Das Change-Event kommt aus einem fremden Thread → die UI lädt neu und sieht
+     * die neuen Schlüssel.
+     */
+    private void rebalanceAsync(int categoryId) {
+        if (!REBALANCING.add(categoryId)) {
+            return;
+        }
+
+        Thread t = new Thread(() -> {
+            try {
+                todoRepo.rebalanceSortRanks(categoryId);
+                TodoChanges.todosChanged(categoryId, 0);
+            } catch (Exception exception) {
+                // Reihenfolge stimmt weiterhin, nur die Schlüssel bleiben lang
+                exception.printStackTrace();
+            } finally {
+                REBALANCING.remove(categoryId);
+            }
+        }, "rank-rebalance");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Setzt oder entfernt die Erinnerung eines Todos.
+     *
+     * @param todoId   Todo-ID
+     * @param remindAt Zeitpunkt oder null (keine Erinnerung)
+     */
+    public void setReminder(int todoId, Instant remindAt) {
+        int categoryId = todoRepo.updateRemindAt(todoId, remindAt);
+        TodoChanges.todosChanged(categoryId, todoId);
+    }
+
+    /**
+     * Ersetzt die Tags eines Todos.
+     *
+     * Normalisierung:
+     * - '#' und Leerzeichen werden entfernt, Namen klein geschrieben, Duplikate
+     * ignoriert (siehe Tag.normalize)
+     *
+     * @param todoId Todo-ID (gespeichert)
+     * @param names  Tag-Namen (leer → alle Tags entfernen)
+     */
+    public void setTags(int todoId, Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String name : names) {
+            String tag = Tag.normalize(name);
+            if (tag != null) {
+                normalized.add(tag);
+            }
+        }
+
+        TodoItem item = todoRepo.findById(todoId);
+        if (item == null) {
+            throw new IllegalArgumentException("Todo nicht gefunden: Id=" + todoId);
+        }
+
+        List<Tag> tags = tagRepo.replaceTags(todoId, normalized);
+        TAGS.setTags(todoId, tags);
+        TodoChanges.todosChanged(item.getCategoryId(), todoId);
+    }
+
+    /**
+     * Setzt die Tag-Namen der übergebenen Todos (für die Anzeige) aus dem
+     * Tag-Index.
+     *
+     * Hinweis:
+     * - lädt den Index beim ersten Aufruf (DB) → nicht im FX-Thread aufrufen
+     *
+     * @param items Todos (berechnete Vorkommen haben keine Tags)
+     */
+    public void attachTags(List<TodoItem> items) {
+        for (TodoItem item : items) {
+            if (item.getId() != 0) {
+                item.setTags(TAGS.tagsOf(item.getId()));
+            }
+        }
+    }
+
+    /**
+     * @return alle bekannten Tag-Namen (alphabetisch, z. B. für Vorschläge)
+     */
+    public List<String> getTagNames() {
+        return TAGS.tagNames();
+    }
+
+    /**
+     * Übersetzt eine Filter-Eingabe in ein Prädikat (Auswertung einmal als
+     * Bitmap-Operation, danach O(1) je Todo).
+     *
+     * @param query Filter, z. B. "#arbeit|#privat -#warten is:open"
+     * @return Prädikat für TodoItems (leere Eingabe → alle)
+     */
+    public Predicate<TodoItem> tagFilter(String query) {
+        TagFilter filter = TagFilter.parse(query);
+        if (filter.isEmpty()) {
+            return item -> true;
+        }
+
+        IdBitmap matches = TAGS.evaluate(filter);
+        return item -> item.getId() == 0
+                ? filter.matchesUntagged(item.getStatus())
+                : matches.contains(item.getId());
+    }
+
+    /**
+     * Verwirft In-Memory-Indizes (z. B. nachdem ein anderer Prozess die DB
+     * geändert hat); sie werden beim nächsten Zugriff neu geladen.
+     */
+    public void invalidateIndexes() {
+        TAGS.invalidate();
+    }
+
+    /**
+     * Liefert die nächsten Erinnerungen offener Todos (für ReminderScheduler).
+     *
+     * @param after nur Erinnerungen nach diesem Zeitpunkt
+     * @param limit max. Anzahl
+     * @return Todos aufsteigend nach Erinnerungszeitpunkt
+     */
+    public List<TodoItem> getUpcomingReminders(Instant after, int limit) {
+        return todoRepo.findRemindersAfter(after.toEpochMilli(), limit);
     }
 
     /**
@@ -208,25 +840,113 @@ public class TodoService {
      * @param categoryId Kategorie-ID
      */
     public void deleteDoneTodosByCategory(int categoryId) {
-        todoRepo.deleteDoneByCategory(categoryId);
+        // Serien merken sich, bis wann weggeräumt wurde (sonst würden gelöschte
+        // Vorkommen wieder berechnet)
+        todoRepo.findLatestDoneOccurrences(categoryId)
+                .forEach(seriesRepo::advanceClearedThrough);
+
+        TAGS.removeTodos(todoRepo.deleteDoneByCategory(categoryId));
+        TodoChanges.todosChanged(categoryId, 0);
     }
 
     /**
-     * Markiert ein Todo als erledigt.
+     * Markiert ein Todo als erledigt, samt aller Unteraufgaben (ein Statement).
+     *
+     * Hinweis:
+     * - wartet auf den Gruppen-Commit der WriteBehindQueue (bis zum Fenster des
+     * Profils) → nicht im FX-Thread aufrufen, dort markDoneAsync()
      *
      * @param todoId Todo-ID
      */
     public void markDone(int todoId) {
-        todoRepo.updateStatus(todoId, TodoStatus.DONE);
+        setStatusCascade(todoId, TodoStatus.DONE);
     }
 
     /**
-     * Setzt ein Todo zurück auf offen.
+     * Markiert ein Todo als erledigt; berechnete Serien-Vorkommen werden dabei
+     * gespeichert.
+     *
+     * @param item Todo (gespeichert oder berechnet)
+     */
+    public void markDone(TodoItem item) {
+        markDone(materialize(item));
+    }
+
+    /**
+     * Setzt ein Todo zurück auf offen; erledigte übergeordnete Aufgaben werden
+     * dabei ebenfalls geöffnet.
+     *
+     * Hinweis:
+     * - wartet auf den Gruppen-Commit (wie markDone) → im FX-Thread
+     * markOpenAsync()
      *
      * @param todoId Todo-ID
      */
     public void markOpen(int todoId) {
-        todoRepo.updateStatus(todoId, TodoStatus.OPEN);
+        setStatusCascade(todoId, TodoStatus.OPEN);
+    }
+
+    /**
+     * Wie markDone(TodoItem), wartet aber nicht auf den Commit (Gruppen-Commit
+     * über die WriteBehindQueue).
+     *
+     * Hinweis:
+     * - berechnete Serien-Vorkommen werden in derselben Änderung gespeichert
+     * (INSERT + Statuswechsel, kein eigener Commit im aufrufenden Thread); die
+     * neue ID wird über completion am übergebenen TodoItem gesetzt
+     * - Tag-Index und TodoChanges werden über completion nachgeführt (UI:
+     * Platform::runLater → die Änderung gilt als eigene, nicht als externe)
+     *
+     * @param item       Todo (gespeichert oder berechnet)
+     * @param completion führt die Nacharbeit nach dem Commit aus
+     * @return Future, abgeschlossen nach dem Commit und der Nacharbeit
+     */
+    public CompletableFuture<Void> markDoneAsync(TodoItem item, Executor completion) {
+        return setStatusCascadeAsync(item, TodoStatus.DONE, completion);
+    }
+
+    /**
+     * Wie markOpen(int), wartet aber nicht auf den Commit; ein noch berechnetes
+     * Vorkommen (z. B. Abhaken noch nicht committet) wird wie bei markDoneAsync
+     * gespeichert.
+     *
+     * @param item       Todo (gespeichert oder berechnet)
+     * @param completion führt die Nacharbeit nach dem Commit aus
+     * @return Future, abgeschlossen nach dem Commit und der Nacharbeit
+     */
+    public CompletableFuture<Void> markOpenAsync(TodoItem item, Executor completion) {
+        return setStatusCascadeAsync(item, TodoStatus.OPEN, completion);
+    }
+
+    private CompletableFuture<Void> setStatusCascadeAsync(TodoItem item, TodoStatus status, Executor completion) {
+        if (!item.isVirtualOccurrence()) {
+            int todoId = item.getId();
+            return treeRepo.updateStatusCascadeAsync(todoId, status)
+                    .thenAcceptAsync(changed -> afterStatusCascade(todoId, status, changed), completion);
+        }
+
+        return treeRepo.updateOccurrenceStatusAsync(item, status)
+                .thenAcceptAsync(result -> {
+                    item.setId(result.getTodoId());
+                    afterStatusCascade(result.getTodoId(), status, result.getChanged());
+                }, completion);
+    }
+
+    /*
+     * Statuswechsel über den Baum: ein UPDATE über die Closure-Tabelle.
+     * Mehrere geänderte Todos → Bulk-Event (todoId 0), damit Zähler neu laden.
+     */
+    private void setStatusCascade(int todoId, TodoStatus status) {
+        afterStatusCascade(todoId, status, treeRepo.updateStatusCascade(todoId, status));
+    }
+
+    private void afterStatusCascade(int todoId, TodoStatus status, Map<Integer, Integer> changed) {
+        if (changed.isEmpty()) {
+            throw new IllegalStateException("Todo nicht gefunden: Id=" + todoId);
+        }
+
+        changed.keySet().forEach(id -> TAGS.setStatus(id, status));
+        TodoChanges.todosChanged(changed.get(todoId), changed.size() == 1 ? todoId : 0);
     }
 
     /**
@@ -236,9 +956,75 @@ public class TodoService {
      * - LocalDate.now() verwendet System-Default-Zeitzone.
      * - Wenn die App Zeitzonen-sensitiv sein soll: Clock injizieren.
      *
+     * Serien:
+     * - berechnete Vorkommen von heute zählen mit (gespeicherte sind bereits im
+     * COUNT enthalten)
+     *
      * @return Anzahl offener Todos mit DueDate == heute
      */
     public int countDueTodayOpen() {
-        return todoRepo.countByDueDateAndStatus(LocalDate.now(), TodoStatus.OPEN);
+        LocalDate today = LocalDate.now();
+        int count = todoRepo.countByDueDateAndStatus(today, TodoStatus.OPEN);
+
+        List<TodoSeries> series = seriesRepo.findAll();
+        if (series.isEmpty()) {
+            return count;
+        }
+
+        Map<Integer, NavigableSet<LocalDate>> materialized = todoRepo.findOccurrenceDates(null, today);
+        for (TodoSeries s : series) {
+            if (SeriesExpander.occursOn(s, today, materialized.get(s.getId()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Liefert die Statistik je Periode (nur Tages-Rollups, kein Scan über
+     * TodoItems).
+     *
+     * Lücken:
+     * - Perioden ohne Einträge werden mit 0 aufgefüllt (durchgehende Reihe für
+     * Diagramme)
+     *
+     * @param period     Zeitraster
+     * @param from       erster Tag (inklusive)
+     * @param to         letzter Tag (inklusive)
+     * @param categoryId Kategorie oder null für alle
+     * @return eine Periode je Rasterschritt von from bis to
+     */
+    public List<StatsBucket> getStats(StatsPeriod period, LocalDate from, LocalDate to, Integer categoryId) {
+        if (period == null || from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Ungültiger Zeitraum");
+        }
+
+        Map<LocalDate, StatsBucket> stored = new LinkedHashMap<>();
+        for (StatsBucket bucket : statsRepo.findBuckets(period, from, to, categoryId)) {
+            stored.put(bucket.getStart(), bucket);
+        }
+
+        List<StatsBucket> output = new ArrayList<>();
+        for (LocalDate start = period.start(from); !start.isAfter(to); start = period.next(start)) {
+            StatsBucket bucket = stored.get(start);
+            output.add(bucket != null ? bucket : new StatsBucket(start, 0, 0, 0));
+        }
+        return output;
+    }
+
+    /**
+     * Liefert die Summen je Kategorie in einem Zeitraum.
+     *
+     * @return Kategorie-ID → Summen (0 = gelöschte Kategorie)
+     */
+    public Map<Integer, StatsBucket> getStatsByCategory(LocalDate from, LocalDate to) {
+        return statsRepo.findTotalsByCategory(from, to);
+    }
+
+    /**
+     * @return erster Tag mit Statistik oder null (z. B. für "Alles")
+     */
+    public LocalDate getFirstStatsDay() {
+        return statsRepo.findFirstDay();
     }
 }
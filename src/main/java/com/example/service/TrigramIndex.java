@@ -0,0 +1,199 @@
+package com.example.service;
+
+import com.example.domain.TodoItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Volltext-Index (Trigramme) über Titel und Notizen geladener Todos, für Suche
+ * während der Eingabe ohne DB-Abfrage.
+ *
+ * Aufbau:
+ * - jedes Todo belegt einen Slot (int); pro Trigramm eine IdBitmap der Slots
+ * - Suche: je Wort die Bitmaps seiner Trigramme schneiden (Kandidaten), dann
+ * Kandidaten per contains prüfen (Trigramme sind notwendig, nicht hinreichend)
+ * - Wörter mit weniger als drei Zeichen haben keine Trigramme → nur Prüfung
+ *
+ * Inkrementell:
+ * - sync() gleicht mit einer neu geladenen Liste ab: unveränderte Todos werden
+ * nur auf die neue Instanz umgehängt, geänderte neu zerlegt, fehlende entfernt
+ *
+ * Threading:
+ * - synchronized: Abgleich läuft in Lade-Tasks, Suche im FX-Thread
+ * - matcher() liefert ein Prädikat ohne Bezug auf den Index (Menge der
+ * Treffer-Instanzen), darf also danach beliebig ausgewertet werden
+ */
+public final class TrigramIndex {
+
+    private final Map<Object, Integer> slotByKey = new HashMap<>();
+    private final List<TodoItem> items = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private final Map<Long, IdBitmap> postings = new HashMap<>();
+
+    /**
+     * Gleicht den Index mit den übergebenen Todos ab (alle anderen werden
+     * entfernt).
+     *
+     * @param current aktuell geladene Todos (inkl. geladener Unteraufgaben)
+     */
+    public synchronized void sync(Collection<TodoItem> current) {
+        Set<Object> keep = new HashSet<>(current.size() * 2);
+        for (TodoItem item : current) {
+            keep.add(key(item));
+            put(item);
+        }
+
+        for (Object key : new ArrayList<>(slotByKey.keySet())) {
+            if (!keep.contains(key)) {
+                removeSlot(slotByKey.remove(key));
+            }
+        }
+    }
+
+    /**
+     * Fügt ein Todo hinzu oder aktualisiert es (Text neu zerlegen nur bei
+     * Änderung).
+     */
+    public synchronized void put(TodoItem item) {
+        Object key = key(item);
+        String text = normalize(item);
+
+        Integer existing = slotByKey.get(key);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            items.set(slot, item);
+            if (text.equals(texts.get(slot))) {
+                return;
+            }
+            forEachTrigram(texts.get(slot), trigram -> remove(trigram, slot));
+        } else {
+            slot = allocate();
+            slotByKey.put(key, slot);
+            items.set(slot, item);
+        }
+
+        texts.set(slot, text);
+        forEachTrigram(text, trigram -> postings.computeIfAbsent(trigram, k -> new IdBitmap()).add(slot));
+    }
+
+    /**
+     * Entfernt ein Todo (z. B. gelöscht).
+     */
+    public synchronized void remove(TodoItem item) {
+        Integer slot = slotByKey.remove(key(item));
+        if (slot != null) {
+            removeSlot(slot);
+        }
+    }
+
+    public synchronized int size() {
+        return slotByKey.size();
+    }
+
+    /**
+     * Liefert ein Prädikat für die Suche (alle Wörter müssen vorkommen, Gross-/
+     * Kleinschreibung egal).
+     *
+     * @param query Suchtext; leer → null (kein Filter)
+     */
+    public synchronized Predicate<TodoItem> matcher(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+
+        String[] words = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+
+        // Kandidaten: Schnitt der Trigramm-Bitmaps aller Wörter (null = alle Slots)
+        IdBitmap candidates = null;
+        for (String word : words) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                IdBitmap posting = postings.get(trigram(word, i));
+                if (posting == null) {
+                    return item -> false;
+                }
+                candidates = candidates == null ? posting : candidates.and(posting);
+            }
+        }
+
+        Set<TodoItem> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (candidates == null) {
+            for (int slot : slotByKey.values()) {
+                addIfContains(slot, words, matches);
+            }
+        } else {
+            candidates.forEach(slot -> addIfContains(slot, words, matches));
+        }
+        return matches::contains;
+    }
+
+    private void addIfContains(int slot, String[] words, Set<TodoItem> output) {
+        String text = texts.get(slot);
+        for (String word : words) {
+            if (!text.contains(word)) {
+                return;
+            }
+        }
+        output.add(items.get(slot));
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.remove(freeSlots.size() - 1);
+        }
+        items.add(null);
+        texts.add(null);
+        return items.size() - 1;
+    }
+
+    private void removeSlot(int slot) {
+        forEachTrigram(texts.get(slot), trigram -> remove(trigram, slot));
+        items.set(slot, null);
+        texts.set(slot, null);
+        freeSlots.add(slot);
+    }
+
+    private void remove(long trigram, int slot) {
+        IdBitmap posting = postings.get(trigram);
+        if (posting != null) {
+            posting.remove(slot);
+            if (posting.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    // Identität wie TodoItem.isSameTodo: ID bzw. Serie + Datum (berechnete Vorkommen)
+    private static Object key(TodoItem item) {
+        return item.getId() != 0 ? (Object) item.getId() : item.getSeriesId() + "@" + item.getOccurrenceDate();
+    }
+
+    private static String normalize(TodoItem item) {
+        String title = item.getTitle() == null ? "" : item.getTitle();
+        String notes = item.getNotes() == null ? "" : item.getNotes();
+        return (title + "\n" + notes).toLowerCase(Locale.ROOT);
+    }
+
+    private static void forEachTrigram(String text, LongConsumer action) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            action.accept(trigram(text, i));
+        }
+    }
+
+    // drei UTF-16-Zeichen in einen long packen
+    private static long trigram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ui;
+
+import java.util.Arrays;
+
+/**
+ * Cache für gemessene Zellhöhen (ListCell.computePrefHeight) bei Zellen mit
+ * umbrechendem Text.
+ *
+ * Zweck:
+ * - VirtualFlow fragt beim Scrollen/Resize wiederholt prefHeight(width) ab;
+ * ohne Cache wird jedes Mal das Text-Layout des Titels neu berechnet
+ *
+ * Aufbau:
+ * - Schlüssel: long (vom Aufrufer gebildet, z. B. aus ID, Layout-Hash und
+ * Breite in Pixeln); Wert: Höhe
+ * - offene Adressierung über zwei primitive Arrays → get/put ohne Allokation
+ * - voll (Hälfte belegt) → komplett leeren statt verdrängen (Neu-Messen ist
+ * billig im Vergleich zu einer LRU-Verwaltung pro Zugriff)
+ *
+ * Hinweis:
+ * - nur im FX-Thread verwenden
+ */
+public final class CellHeightCache {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] keys;
+    private final double[] values;
+    private final int mask;
+    private final int maxSize;
+    private int size = 0;
+
+    /**
+     * @param capacity max. Einträge (wird auf eine Zweierpotenz aufgerundet)
+     */
+    public CellHeightCache(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1) * 2;
+        keys = new long[tableSize];
+        values = new double[tableSize];
+        mask = tableSize - 1;
+        maxSize = tableSize / 2;
+    }
+
+    /**
+     * @return gemerkte Höhe oder NaN
+     */
+    public double get(long key) {
+        long k = key == EMPTY ? 1 : key;
+        int i = slot(k);
+        while (true) {
+            long existing = keys[i];
+            if (existing == k) {
+                return values[i];
+            }
+            if (existing == EMPTY) {
+                return Double.NaN;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(long key, double height) {
+        long k = key == EMPTY ? 1 : key;
+        if (size >= maxSize) {
+            clear();
+        }
+
+        int i = slot(k);
+        while (keys[i] != EMPTY && keys[i] != k) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = k;
+            size++;
+        }
+        values[i] = height;
+    }
+
+    /**
+     * Vergisst alle Höhen (z. B. nach Theme-/Schriftwechsel).
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Mischt Bestandteile zu einem Schlüssel (64-Bit-Finalizer, gute Streuung
+     * auch bei ähnlichen Eingaben).
+     */
+    public static long key(long a, long b, long c, long d) {
+        long h = mix(a);
+        h = mix(h ^ b);
+        h = mix(h ^ c);
+        return mix(h ^ d);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
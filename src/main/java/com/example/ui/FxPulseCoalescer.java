@@ -0,0 +1,46 @@
+package com.example.ui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Führt eine Aktion höchstens einmal pro FX-Pulse aus (Entprellen auf den
+ * nächsten Frame).
+ *
+ * Zweck:
+ * - schnelle Eingaben (mehrere Tastendrücke zwischen zwei Frames) lösen nur eine
+ * Neuberechnung aus, statt eine pro Tastendruck
+ * - kein fester Timer-Delay: die Aktion läuft im nächsten Frame, die Anzeige
+ * bleibt also ohne spürbare Verzögerung aktuell
+ *
+ * Hinweis:
+ * - nur im FX-Thread verwenden (request() und die Aktion laufen dort)
+ */
+public final class FxPulseCoalescer {
+
+    private final Runnable action;
+    private boolean pending = false;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            pending = false;
+            action.run();
+        }
+    };
+
+    public FxPulseCoalescer(Runnable action) {
+        this.action = action;
+    }
+
+    /**
+     * Plant die Aktion für den nächsten Pulse (mehrfache Aufrufe bis dahin werden
+     * zusammengefasst).
+     */
+    public void request() {
+        if (!pending) {
+            pending = true;
+            timer.start();
+        }
+    }
+}
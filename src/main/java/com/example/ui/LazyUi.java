@@ -0,0 +1,229 @@
+package com.example.ui;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import javax.management.NotificationEmitter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lazy erzeugte UI-Komponente (Popup, Menü, Popup-Controller) plus
+ * prozessweite Registry aller solchen Komponenten.
+ *
+ * Zweck:
+ * - Popups/Menüs, die viele Sitzungen nie öffnen, nicht beim Start bauen →
+ * kürzere Zeit bis zum ersten Frame, weniger Nodes im Speicher
+ *
+ * Lebenszyklus:
+ * - get(): erzeugt beim ersten Zugriff (Factory), danach dieselbe Instanz
+ * - prewarmWhenIdle(): nach dem ersten Frame je Pulse eine noch fehlende
+ * Komponente bauen (erstes Öffnen ohne Verzögerung)
+ * - releaseUnused(): nicht benutzte Instanzen verwerfen (inUse == false);
+ * beim nächsten get() wird neu gebaut
+ * - installMemoryPressureRelease(): releaseUnused() bei knappem Heap (nach GC
+ * über Schwellwert)
+ *
+ * Hinweis:
+ * - nur im FX-Thread verwenden (Factory, get, release)
+ * - Aufrufer halten die Instanz nicht in eigenen Feldern, sondern holen sie
+ * jedes Mal über get() bzw. ifCreated(...)
+ */
+public final class LazyUi<T> {
+
+    // Frames nach dem ersten Frame, bevor vorgewärmt wird (Start-Layout, erste Loads)
+    private static final int PREWARM_DELAY_FRAMES = 30;
+
+    // Heap-Anteil (nach GC), ab dem unbenutzte Komponenten verworfen werden
+    private static final double MEMORY_PRESSURE_THRESHOLD = 0.8;
+
+    private static final List<LazyUi<?>> REGISTRY = new ArrayList<>();
+    private static final Counter CREATED = Metrics.counter("LazyUi.created");
+    private static final Counter RELEASED = Metrics.counter("LazyUi.released");
+
+    private static boolean memoryListenerInstalled = false;
+
+    static {
+        Metrics.gauge("LazyUi.resident", LazyUi::residentCount);
+    }
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Predicate<T> inUse;
+    private final Consumer<T> onRelease;
+    private T instance;
+
+    private LazyUi(String name, Supplier<T> factory, Predicate<T> inUse, Consumer<T> onRelease) {
+        this.name = name;
+        this.factory = factory;
+        this.inUse = inUse;
+        this.onRelease = onRelease;
+    }
+
+    /**
+     * Registriert eine Komponente (erzeugt sie noch nicht).
+     *
+     * @param name    Bezeichnung (Debug/Metriken)
+     * @param factory baut die Komponente inkl. Handler
+     * @param inUse   true = darf nicht verworfen werden (z. B. isShowing)
+     */
+    public static <T> LazyUi<T> register(String name, Supplier<T> factory, Predicate<T> inUse) {
+        return register(name, factory, inUse, instance -> {
+        });
+    }
+
+    /**
+     * @param onRelease räumt beim Verwerfen auf (z. B. Listener am Modell lösen)
+     */
+    public static <T> LazyUi<T> register(String name, Supplier<T> factory, Predicate<T> inUse,
+            Consumer<T> onRelease) {
+        LazyUi<T> lazy = new LazyUi<>(name, factory, inUse, onRelease);
+        REGISTRY.add(lazy);
+        return lazy;
+    }
+
+    /**
+     * @return Komponente (beim ersten Aufruf bzw. nach release erzeugt)
+     */
+    public T get() {
+        if (instance == null) {
+            instance = factory.get();
+            CREATED.increment();
+        }
+        return instance;
+    }
+
+    public boolean isCreated() {
+        return instance != null;
+    }
+
+    /**
+     * Führt action nur aus, wenn die Komponente bereits existiert (z. B. hide()
+     * oder isShowing, ohne sie dafür zu bauen).
+     */
+    public void ifCreated(Consumer<T> action) {
+        if (instance != null) {
+            action.accept(instance);
+        }
+    }
+
+    /**
+     * true, wenn die Komponente existiert und test zutrifft.
+     */
+    public boolean test(Predicate<T> test) {
+        return instance != null && test.test(instance);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean release() {
+        if (instance == null || inUse.test(instance)) {
+            return false;
+        }
+        T old = instance;
+        instance = null;
+        onRelease.accept(old);
+        RELEASED.increment();
+        return true;
+    }
+
+    /*
+     * =========================
+     * Registry
+     * =========================
+     */
+
+    /**
+     * Baut nach dem ersten Frame je Pulse eine noch nicht erzeugte Komponente
+     * (nach PREWARM_DELAY_FRAMES Frames). Danach stoppt der Timer.
+     */
+    public static void prewarmWhenIdle() {
+        new AnimationTimer() {
+            private int frames = 0;
+            private int next = 0;
+
+            @Override
+            public void handle(long now) {
+                if (++frames <= PREWARM_DELAY_FRAMES) {
+                    return;
+                }
+                while (next < REGISTRY.size() && REGISTRY.get(next).isCreated()) {
+                    next++;
+                }
+                if (next >= REGISTRY.size()) {
+                    stop();
+                    return;
+                }
+                REGISTRY.get(next++).get();
+            }
+        }.start();
+    }
+
+    /**
+     * Verwirft alle erzeugten, gerade nicht benutzten Komponenten.
+     *
+     * @return Anzahl verworfener Komponenten
+     */
+    public static int releaseUnused() {
+        int released = 0;
+        for (LazyUi<?> lazy : REGISTRY) {
+            if (lazy.release()) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Registriert einen Listener auf die Heap-Pools: liegt die Belegung nach
+     * einer GC über MEMORY_PRESSURE_THRESHOLD, wird releaseUnused() im FX-Thread
+     * ausgeführt.
+     *
+     * Hinweis:
+     * - mehrfacher Aufruf registriert nur einmal
+     * - Pools ohne festes Maximum bzw. ohne Schwellwert-Unterstützung werden
+     * übersprungen
+     */
+    public static void installMemoryPressureRelease() {
+        if (memoryListenerInstalled) {
+            return;
+        }
+        memoryListenerInstalled = true;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage() == null ? -1 : pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * MEMORY_PRESSURE_THRESHOLD));
+            }
+        }
+
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener((notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                Platform.runLater(LazyUi::releaseUnused);
+            }
+        }, null, null);
+    }
+
+    // Gauge: derzeit erzeugte Komponenten (Lesen aus beliebigem Thread, nur Schätzwert)
+    private static long residentCount() {
+        long count = 0;
+        for (LazyUi<?> lazy : List.copyOf(REGISTRY)) {
+            if (lazy.isCreated()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
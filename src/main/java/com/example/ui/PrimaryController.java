@@ -2,6 +2,10 @@ package com.example.ui;
 
 import com.example.domain.Category;
 import com.example.domain.TodoItem;
+import com.example.metrics.RefreshEvent;
+import com.example.persistence.Db;
+import com.example.service.SmartListCounts;
+import com.example.service.TodoChanges;
 import com.example.service.TodoService;
 import com.example.ui.controller.*;
 
@@ -10,6 +14,9 @@ import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Side;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
@@ -20,95 +27,153 @@ import javafx.scene.layout.VBox;
  * - Verdrahtung der UI-Events (Buttons/Selection/Theme)
  * - Koordination zwischen Bereichen (Listenwechsel → Tasks refresh, Details
  * schliessen, Header aktualisieren)
+ *
+ * Hinweis:
+ * - @FXML-Felder, Handler und initialize() sind package-private: der zur
+ * Build-Zeit generierte PrimaryView setzt sie direkt (ohne Reflection);
+ * @FXML bleibt für den FXMLLoader-Fallback (PrimaryViewLoader)
  */
 public class PrimaryController {
 
     @FXML
-    private ListView<Category> listsView;
+    ListView<Category> listsView;
     @FXML
-    private ListView<TodoItem> tasksView;
+    ListView<TodoItem> tasksView;
     @FXML
-    private TextField txtNewTaskTitle;
+    TextField txtNewTaskTitle;
     @FXML
-    private DatePicker dpNewTaskDueDate;
+    DatePicker dpNewTaskDueDate;
+    @FXML
+    ComboBox<String> cmbNewTaskRepeat;
 
     @FXML
-    private Label tasksTitleLabel;
+    Label tasksTitleLabel;
+    @FXML
+    TextField txtTagFilter;
+    @FXML
+    TextField txtSearch;
 
     @FXML
-    private Button btnShowDone;
+    Button btnShowDone;
     @FXML
-    private Button btnBack;
+    Button btnBack;
     @FXML
-    private Button btnClearDone;
+    Button btnClearDone;
 
     @FXML
-    private VBox detailsPane;
+    VBox detailsPane;
+    @FXML
+    TextField detailsTitle;
     @FXML
-    private TextField detailsTitle;
+    DatePicker detailsDueDate;
     @FXML
-    private DatePicker detailsDueDate;
+    TextField detailsRemindTime;
     @FXML
-    private TextArea detailsNotes;
+    TextField detailsTags;
+    @FXML
+    TextArea detailsNotes;
+    @FXML
+    HBox detailsSeriesRow;
+    @FXML
+    Label detailsSeriesLabel;
 
     @FXML
-    private HBox tasksAndDetailsContainer;
+    HBox tasksAndDetailsContainer;
     @FXML
-    private VBox listsPane;
+    VBox listsPane;
     @FXML
-    private SplitPane rootSplit;
+    SplitPane rootSplit;
 
     @FXML
-    private ToggleButton tglTheme;
-    private ContextMenu themeMenu;
+    ToggleButton tglTheme;
+    private final LazyUi<ContextMenu> themeMenu = LazyUi.register(
+            "PrimaryController.themeMenu", this::buildThemeMenu, ContextMenu::isShowing);
 
     @FXML
-    private Button btnListMenu;
+    Button btnListMenu;
 
     private final TodoService service = new TodoService();
 
+    // Badges der SmartLists (inkrementell gepflegt, Abfrage im Hintergrund)
+    private final SmartListCounts smartCounts = new SmartListCounts(service);
+    private final java.util.concurrent.atomic.AtomicBoolean smartCountsQueued = new java.util.concurrent.atomic.AtomicBoolean();
+
     private CategoriesController categoriesController;
     private TasksController tasksController;
     private DetailsController detailsController;
-    private NewListPopupController newListPopupController;
+    private LazyUi<NewListPopupController> newListPopup;
 
     private PrimaryLayoutController layout;
     private PrimaryDetailsSizingController sizing;
+    private ResizeCoordinator resizeCoordinator;
     private PrimaryListMenuController listMenuCtl;
+    private QuickSwitcherController quickSwitcher;
+    private StatsDashboardController statsDashboard;
+    private MetricsViewController metricsView;
 
     private static final double COMPACT_BREAKPOINT = 640;
 
+    // Startbild der letzten Sitzung (neben der DB)
+    private static final String SESSION_FILE = "session.snapshot";
+
     /**
      * Guard: verhindert, dass Listener während Initial-Load (setAll/selectFirst)
      * läuft.
      */
     private boolean selectionListenerArmed = false;
 
+    /*
+     * Externe Änderungen (API etc.) werden gesammelt und einmal pro FX-Runnable
+     * angewendet.
+     */
+    private final java.util.concurrent.atomic.AtomicBoolean externalRefreshQueued = new java.util.concurrent.atomic.AtomicBoolean();
+    private volatile boolean externalCategoriesChanged = false;
+    private final java.util.Set<Integer> externalTodoCategories = java.util.concurrent.ConcurrentHashMap.newKeySet();
+
     @FXML
-    private void initialize() {
+    void initialize() {
         // Subcontroller erstellen
         categoriesController = new CategoriesController(listsView, service);
-        detailsController = new DetailsController(detailsPane, detailsTitle, detailsDueDate, detailsNotes, service);
+        detailsController = new DetailsController(detailsPane, detailsTitle, detailsDueDate, detailsRemindTime, detailsTags,
+                detailsNotes, detailsSeriesRow, detailsSeriesLabel, service);
 
         tasksController = new TasksController(
-                tasksView, txtNewTaskTitle, dpNewTaskDueDate,
+                tasksView, txtNewTaskTitle, dpNewTaskDueDate, cmbNewTaskRepeat,
                 btnShowDone, btnBack, btnClearDone,
                 service, () -> listsView.getSelectionModel().getSelectedItem());
 
+        // Autosave im Detailbereich: nur die betroffene Zeile aktualisieren
+        detailsController.setOnTextSaved(tasksController::applySavedText);
+
         // Layout/Sizing
         layout = new PrimaryLayoutController(listsPane, rootSplit, tasksTitleLabel, btnListMenu, COMPACT_BREAKPOINT);
         sizing = new PrimaryDetailsSizingController(tasksAndDetailsContainer, tasksView, detailsPane);
+        resizeCoordinator = new ResizeCoordinator(rootSplit, layout, sizing);
 
-        // New-List Popup (reload + selektieren)
-        newListPopupController = new NewListPopupController(listsView, service, newId -> {
-            reloadCategoriesAsync(newId);
-        });
+        // New-List Popup (reload + selektieren); gebaut erst beim ersten Öffnen
+        newListPopup = LazyUi.register("PrimaryController.newListPopup", () -> {
+            NewListPopupController popup = new NewListPopupController(listsView, service, newId -> {
+                reloadCategoriesAsync(newId);
+            });
+            popup.init();
+            return popup;
+        }, NewListPopupController::isShowing);
+
+        // Schnellwechsler (Ctrl+K): Kategorie wählen oder Todo in den Details öffnen
+        quickSwitcher = new QuickSwitcherController(listsView, service, this::iconFor, this::openTodo);
+
+        // Statistik-Fenster (Daten erst beim Öffnen)
+        statsDashboard = new StatsDashboardController(service, () -> java.util.List.copyOf(listsView.getItems()));
+
+        // Metrik-Ansicht inkl. JFR-Aufnahmen (neben der DB unter recordings/)
+        metricsView = new MetricsViewController(Db.dataDirectory().resolve("recordings"));
 
         // Inits (nur UI setup, keine DB Loads)
         categoriesController.init();
         tasksController.init();
-        newListPopupController.init();
+        quickSwitcher.init();
         layout.init();
+        resizeCoordinator.init();
 
         Platform.runLater(() -> {
             var scene = rootSplit.getScene();
@@ -118,8 +183,14 @@ public class PrimaryController {
             // initial einmal anwenden
             sizing.apply(layout.isCompactMode());
 
-            // bei jeder Breitenänderung neu anwenden (falls Details offen)
-            scene.widthProperty().addListener((o, oldW, newW) -> sizing.apply(layout.isCompactMode()));
+            // Ctrl+K (macOS: Cmd+K) öffnet den Schnellwechsler
+            scene.getAccelerators().put(new KeyCodeCombination(KeyCode.K, KeyCombination.SHORTCUT_DOWN),
+                    quickSwitcher::toggleShow);
+
+            // Ctrl+Shift+M: Metrik-Ansicht (Laufzeiten Repository/Refresh, Zähler)
+            scene.getAccelerators().put(
+                    new KeyCodeCombination(KeyCode.M, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN),
+                    () -> metricsView.show(scene.getWindow()));
         });
 
         // Initialzustand
@@ -139,11 +210,16 @@ public class PrimaryController {
             sizing.apply(layout.isCompactMode());
             tasksController.refresh();
 
-            if (listMenuCtl != null && listMenuCtl.isShowing()) {
-                listMenuCtl.rebuild();
-            }
+            // Tageswechsel: Bereiche der SmartLists verschieben sich (ohne DB-Zugriff)
+            refreshSmartCountsAsync();
         });
 
+        // Tag-Filter: jede Eingabe filtert die geladene Liste im Speicher
+        txtTagFilter.textProperty().addListener((obs, oldV, newV) -> tasksController.setTagFilter(newV));
+
+        // Suche: filtert die geladene Liste (entprellt auf den nächsten Frame)
+        txtSearch.textProperty().addListener((obs, oldV, newV) -> tasksController.setSearchText(newV));
+
         tasksController.setOnUserSelection((obs, oldV, newV) -> {
             if (newV == null) {
                 detailsController.close();
@@ -169,16 +245,166 @@ public class PrimaryController {
             setupThemeMenu();
         }
 
-        // Initial-Load async (einziger Ort)
+        /*
+         * SmartList-Badges:
+         * - Events können aus jedem Thread kommen; viele Änderungen → ein Snapshot
+         */
+        smartCounts.start(() -> {
+            if (smartCountsQueued.compareAndSet(false, true)) {
+                Platform.runLater(this::refreshSmartCountsAsync);
+            }
+        });
+
+        /*
+         * Startbild der letzten Sitzung (memory-mapped, ohne DB) sofort anzeigen;
+         * danach lädt der Initial-Load im Hintergrund und gleicht nur Abweichungen ab
+         * (aktuelle Selektion bleibt, unveränderte Zeilen werden übernommen)
+         */
         selectionListenerArmed = false;
+        SessionSnapshot snapshot = SessionSnapshot.read(sessionFile());
+        if (snapshot != null) {
+            showSnapshot(snapshot);
+            selectionListenerArmed = true;
+        }
+
+        // Initial-Load async (einziger Ort)
         Platform.runLater(() -> reloadCategoriesAsync(null));
+
+        /*
+         * Externe Änderungen (z. B. lokale HTTP-API) nachziehen:
+         * - Änderungen aus dem FX-Thread stammen von der UI selbst und werden dort
+         * bereits refresht; ebenso lokal markierte aus Hintergrund-Threads der UI
+         * (z. B. Autosave)
+         */
+        TodoChanges.addListener(change -> {
+            if (Platform.isFxApplicationThread() || change.isLocal()) {
+                return;
+            }
+            if (change.isCategoryList()) {
+                externalCategoriesChanged = true;
+            } else {
+                externalTodoCategories.add(change.getCategoryId());
+            }
+            // viele Änderungen kurz hintereinander (z. B. API-Import) → ein Refresh
+            if (externalRefreshQueued.compareAndSet(false, true)) {
+                Platform.runLater(this::applyExternalChanges);
+            }
+        });
+    }
+
+    private static java.nio.file.Path sessionFile() {
+        return Db.dataDirectory().resolve(SESSION_FILE);
+    }
+
+    private void showSnapshot(SessionSnapshot snapshot) {
+        categoriesController.setCategories(snapshot.getCategories());
+        listsView.getItems().stream()
+                .filter(c -> c.getId() == snapshot.getSelectedCategoryId())
+                .findFirst()
+                .ifPresent(c -> {
+                    listsView.getSelectionModel().select(c);
+                    tasksController.showSnapshot(snapshot.getItems(), snapshot.getDoneCount());
+                });
+        updateHeaderTexts();
+    }
+
+    /**
+     * Schreibt ausstehende Autosave-Änderungen des Detailbereichs (beim Beenden,
+     * FX-Thread; wartet auf den Schreib-Thread).
+     *
+     * @throws RuntimeException wenn ein Schreibvorgang fehlgeschlagen ist
+     */
+    public void flushPendingEdits() {
+        detailsController.flushPendingEdits();
+    }
+
+    /**
+     * Schreibt das Startbild für den nächsten Start (Kategorien, Selektion, erste
+     * Seite der Todos). Aufruf beim Beenden im FX-Thread.
+     */
+    public void saveSession() {
+        Category selected = listsView.getSelectionModel().getSelectedItem();
+        java.util.List<Category> categories = listsView.getItems().stream()
+                .filter(c -> !c.isSmartList())
+                .toList();
+
+        new SessionSnapshot(java.time.Instant.now(), selected == null ? 0 : selected.getId(),
+                tasksController.getDoneCount(), categories, tasksController.snapshotRows())
+                .write(sessionFile());
+    }
+
+    private void applyExternalChanges() {
+        externalRefreshQueued.set(false);
+
+        // nur die gelesenen IDs entfernen (parallel neu hinzugekommene lösen einen
+        // weiteren Durchlauf aus)
+        java.util.List<Integer> changed = java.util.List.copyOf(externalTodoCategories);
+        externalTodoCategories.removeAll(changed);
+
+        Category selected = listsView.getSelectionModel().getSelectedItem();
+        if (externalCategoriesChanged) {
+            externalCategoriesChanged = false;
+            reloadCategoriesAsync(selected == null ? null : selected.getId());
+            return;
+        }
+
+        // SmartLists zeigen Todos aller Kategorien
+        if (selected != null && (selected.isSmartList() || changed.contains(selected.getId()))) {
+            tasksController.refresh();
+        }
+    }
+
+    /**
+     * Fragt die SmartList-Zähler im Hintergrund ab und setzt die Badges im
+     * FX-Thread.
+     */
+    private void refreshSmartCountsAsync() {
+        smartCountsQueued.set(false);
+
+        Task<java.util.Map<com.example.domain.SmartList, Integer>> task = new Task<>() {
+            @Override
+            protected java.util.Map<com.example.domain.SmartList, Integer> call() {
+                return smartCounts.snapshot();
+            }
+        };
+
+        task.setOnSucceeded(e -> categoriesController.setSmartCounts(task.getValue()));
+        task.setOnFailed(e -> {
+            // Badges sind Zusatzinfo: Fehler nur loggen
+            Throwable ex = task.getException();
+            if (ex != null) {
+                ex.printStackTrace();
+            }
+        });
+
+        Thread t = new Thread(task, "count-smart-lists");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Lädt Kategorien und Todos neu, nachdem ein anderer Prozess (CLI) die DB
+     * geändert hat. Muss im FX-Thread aufgerufen werden.
+     */
+    public void reloadFromExternal() {
+        // ETags der lokalen API ungültig machen (Pollers sehen sonst 304 mit altem Stand)
+        TodoChanges.externalChange();
+        smartCounts.invalidate();
+        service.invalidateIndexes();
+        Category selected = listsView.getSelectionModel().getSelectedItem();
+        reloadCategoriesAsync(selected == null ? null : selected.getId());
     }
 
     /**
      * Lädt Kategorien im Background und setzt sie im FX-Thread.
-     * Optional: selektiert eine bestimmte Kategorie-ID (z.B. nach Create).
+     * Optional: selektiert eine bestimmte Kategorie-ID (z.B. nach Create); ohne
+     * ID bleibt die aktuelle Selektion (z. B. aus dem Startbild), sonst die erste
+     * Kategorie.
      */
     private void reloadCategoriesAsync(Integer selectCategoryIdOrNull) {
+        RefreshEvent event = new RefreshEvent("categories", selectCategoryIdOrNull == null ? 0 : selectCategoryIdOrNull);
+        event.begin();
+
         Task<java.util.List<Category>> task = new Task<>() {
             @Override
             protected java.util.List<Category> call() {
@@ -189,22 +415,23 @@ public class PrimaryController {
         task.setOnSucceeded(e -> {
             var categories = task.getValue();
 
+            Category current = listsView.getSelectionModel().getSelectedItem();
+            Integer selectId = selectCategoryIdOrNull != null ? selectCategoryIdOrNull
+                    : current != null ? Integer.valueOf(current.getId()) : null;
+
             selectionListenerArmed = false;
-            listsView.getItems().setAll(categories);
-
-            if (!categories.isEmpty()) {
-                if (selectCategoryIdOrNull != null) {
-                    categories.stream()
-                            .filter(c -> c.getId() == selectCategoryIdOrNull)
-                            .findFirst()
-                            .ifPresentOrElse(
-                                    c -> listsView.getSelectionModel().select(c),
-                                    () -> listsView.getSelectionModel().selectFirst());
-                } else if (listsView.getSelectionModel().getSelectedItem() == null) {
-                    listsView.getSelectionModel().selectFirst();
-                }
-            } else {
-                listsView.getSelectionModel().clearSelection();
+            categoriesController.setCategories(categories);
+
+            // SmartLists stehen immer in der Liste; Default bleibt die erste Kategorie
+            if (selectId != null) {
+                listsView.getItems().stream()
+                        .filter(c -> c.getId() == selectId)
+                        .findFirst()
+                        .ifPresentOrElse(
+                                c -> listsView.getSelectionModel().select(c),
+                                () -> categoriesController.selectFirstCategory());
+            } else if (listsView.getSelectionModel().getSelectedItem() == null) {
+                categoriesController.selectFirstCategory();
             }
 
             // jetzt darf Listener laufen, aber initialen Refresh machen wir deterministisch
@@ -216,10 +443,10 @@ public class PrimaryController {
             detailsController.close();
             sizing.apply(layout.isCompactMode());
             tasksController.refresh();
+            refreshSmartCountsAsync();
 
-            if (listMenuCtl != null && listMenuCtl.isShowing()) {
-                listMenuCtl.rebuild();
-            }
+            event.setRows(categories.size());
+            event.commit();
         });
 
         task.setOnFailed(e -> {
@@ -255,20 +482,37 @@ public class PrimaryController {
         };
     }
 
+    /*
+     * Todo aus dem Schnellwechsler: zuerst seine Kategorie wählen (schliesst die
+     * Details und lädt die Liste), dann die Details öffnen.
+     */
+    private void openTodo(TodoItem item) {
+        Category selected = listsView.getSelectionModel().getSelectedItem();
+        if (selected == null || selected.getId() != item.getCategoryId()) {
+            listsView.getItems().stream()
+                    .filter(c -> c.getId() == item.getCategoryId())
+                    .findFirst()
+                    .ifPresent(c -> listsView.getSelectionModel().select(c));
+        }
+
+        detailsController.open(item);
+        sizing.apply(layout.isCompactMode());
+    }
+
     @FXML
-    private void onNewList() {
-        newListPopupController.toggleShowCentered();
+    void onNewList() {
+        newListPopup.get().toggleShowCentered();
     }
 
     @FXML
-    private void onAddTask() {
+    void onAddTask() {
         detailsController.close();
         sizing.apply(layout.isCompactMode());
         tasksController.onAddTask();
     }
 
     @FXML
-    private void onShowHistory() {
+    void onShowHistory() {
         tasksController.showDone();
         detailsController.close();
         sizing.apply(layout.isCompactMode());
@@ -276,7 +520,14 @@ public class PrimaryController {
     }
 
     @FXML
-    private void onBackFromHistory() {
+    void onShowStats() {
+        if (rootSplit.getScene() != null) {
+            statsDashboard.show(rootSplit.getScene().getWindow());
+        }
+    }
+
+    @FXML
+    void onBackFromHistory() {
         tasksController.showOpen();
         detailsController.close();
         sizing.apply(layout.isCompactMode());
@@ -284,26 +535,37 @@ public class PrimaryController {
     }
 
     @FXML
-    private void onClearDone() {
+    void onClearDone() {
         detailsController.close();
         sizing.apply(layout.isCompactMode());
         tasksController.onClearDone();
     }
 
     @FXML
-    private void onCloseDetails() {
+    void onCloseDetails() {
         detailsController.close();
         sizing.apply(layout.isCompactMode());
         tasksController.clearSelectionProgrammatically();
     }
 
     @FXML
-    private void onClearDetailsDueDate() {
+    void onClearDetailsDueDate() {
         detailsController.clearDueDate();
     }
 
     @FXML
-    private void onSaveDetails() {
+    void onStopSeries() {
+        boolean ok = detailsController.stopSeries();
+        if (ok) {
+            detailsController.close();
+            sizing.apply(layout.isCompactMode());
+            tasksController.refresh();
+            tasksController.clearSelectionProgrammatically();
+        }
+    }
+
+    @FXML
+    void onSaveDetails() {
         boolean ok = detailsController.save();
         if (ok) {
             detailsController.close();
@@ -314,9 +576,26 @@ public class PrimaryController {
         }
     }
 
+    /*
+     * Theme-Button: Beschriftung sofort, das Menü selbst erst beim ersten Öffnen
+     * (LazyUi).
+     */
     private void setupThemeMenu() {
-        themeMenu = new ContextMenu();
-        themeMenu.getStyleClass().add("theme-menu");
+        tglTheme.setText(prettyThemeName(ThemeManager.loadThemeOrDefault()));
+        tglTheme.setSelected(false);
+
+        tglTheme.setOnAction(e -> {
+            if (themeMenu.test(ContextMenu::isShowing))
+                themeMenu.get().hide();
+            else
+                themeMenu.get().show(tglTheme, Side.BOTTOM, 0, 6);
+            tglTheme.setSelected(false);
+        });
+    }
+
+    private ContextMenu buildThemeMenu() {
+        ContextMenu menu = new ContextMenu();
+        menu.getStyleClass().add("theme-menu");
 
         ToggleGroup group = new ToggleGroup();
         for (ThemeManager.Theme t : ThemeManager.Theme.values()) {
@@ -330,31 +609,21 @@ public class PrimaryController {
                     ThemeManager.saveTheme(selected);
                     tglTheme.setText(prettyThemeName(selected));
                 }
-                themeMenu.hide();
+                menu.hide();
             });
-            themeMenu.getItems().add(item);
+            menu.getItems().add(item);
         }
 
         ThemeManager.Theme current = ThemeManager.loadThemeOrDefault();
-        for (var mi : themeMenu.getItems()) {
+        for (var mi : menu.getItems()) {
             if (mi instanceof RadioMenuItem rmi && rmi.getUserData() == current) {
                 rmi.setSelected(true);
                 break;
             }
         }
 
-        tglTheme.setText(prettyThemeName(current));
-        tglTheme.setSelected(false);
-
-        tglTheme.setOnAction(e -> {
-            if (themeMenu.isShowing())
-                themeMenu.hide();
-            else
-                themeMenu.show(tglTheme, Side.BOTTOM, 0, 6);
-            tglTheme.setSelected(false);
-        });
-
-        themeMenu.setOnHidden(e -> tglTheme.setSelected(false));
+        menu.setOnHidden(e -> tglTheme.setSelected(false));
+        return menu;
     }
 
     private String prettyThemeName(ThemeManager.Theme t) {
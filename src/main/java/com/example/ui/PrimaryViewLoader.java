@@ -0,0 +1,135 @@
+package com.example.ui;
+
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+
+/**
+ * Lädt das Hauptfenster (Scene-Graph + PrimaryController).
+ *
+ * Varianten:
+ * - Standard: PrimaryView (zur Build-Zeit aus primary.fxml generiert) → kein
+ * XML-Parsing, keine Reflection beim Start
+ * - Fallback: FXMLLoader mit primary.fxml, z. B. um eine geänderte FXML ohne
+ * Neubau zu prüfen oder bei Verdacht auf einen Generator-Fehler
+ *
+ * Umschalten:
+ * - System-Property todo.ui.fxml=true oder Umgebungsvariable TODO_UI_FXML=true
+ */
+public final class PrimaryViewLoader {
+
+    public static final String FXML_PROPERTY = "todo.ui.fxml";
+    private static final String FXML_ENV = "TODO_UI_FXML";
+
+    private static final Timer T_GENERATED = Metrics.timer("PrimaryViewLoader.generated");
+    private static final Timer T_FXML = Metrics.timer("PrimaryViewLoader.fxml");
+
+    private PrimaryViewLoader() {
+    }
+
+    /**
+     * Geladene View: Root-Node und zugehöriger Controller (bereits initialisiert).
+     */
+    public static final class Loaded {
+        private final Parent root;
+        private final PrimaryController controller;
+
+        private Loaded(Parent root, PrimaryController controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() {
+            return root;
+        }
+
+        public PrimaryController getController() {
+            return controller;
+        }
+    }
+
+    /**
+     * Lädt über die konfigurierte Variante (siehe useFxml()).
+     *
+     * @throws IOException wenn primary.fxml nicht geladen werden kann (Fallback)
+     */
+    public static Loaded load() throws IOException {
+        return useFxml() ? loadFxml() : loadGenerated();
+    }
+
+    /**
+     * @return true, wenn der FXMLLoader-Fallback eingeschaltet ist
+     */
+    public static boolean useFxml() {
+        String value = System.getProperty(FXML_PROPERTY);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(FXML_ENV);
+        }
+        return value != null && Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Generierter Scene-Graph (PrimaryView).
+     */
+    public static Loaded loadGenerated() {
+        long started = System.nanoTime();
+        PrimaryController controller = new PrimaryController();
+        Parent root = PrimaryView.load(controller);
+        T_GENERATED.record(System.nanoTime() - started);
+        return new Loaded(root, controller);
+    }
+
+    /**
+     * Klassischer Weg über FXMLLoader.
+     *
+     * @throws IOException wenn primary.fxml nicht geladen werden kann
+     */
+    public static Loaded loadFxml() throws IOException {
+        long started = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(PrimaryViewLoader.class.getResource("/com/example/primary.fxml"));
+        Parent root = loader.load();
+        T_FXML.record(System.nanoTime() - started);
+        return new Loaded(root, loader.getController());
+    }
+
+    /**
+     * Controller für reine Aufbau-Messungen (StartupBenchmark): initialize() tut
+     * nichts → keine Listener, Hintergrund-Loads oder Session-Datei.
+     *
+     * Hinweis:
+     * - einmal erzeugen und für alle Messungen wiederverwenden (der Konstruktor
+     * registriert z. B. LazyUi-Einträge)
+     */
+    public static PrimaryController sceneOnlyController() {
+        return new SceneOnlyController();
+    }
+
+    /**
+     * Nur generierter Scene-Graph + Felder/Handler (ohne initialize).
+     */
+    public static Parent buildGenerated(PrimaryController controller) {
+        return PrimaryView.build(controller);
+    }
+
+    /**
+     * Nur FXMLLoader-Aufbau in einen vorhandenen Controller; initialize() läuft
+     * wie beim normalen Laden (bei sceneOnlyController() also nichts).
+     *
+     * @throws IOException wenn primary.fxml nicht geladen werden kann
+     */
+    public static Parent buildFxml(PrimaryController controller) throws IOException {
+        FXMLLoader loader = new FXMLLoader(PrimaryViewLoader.class.getResource("/com/example/primary.fxml"));
+        loader.setControllerFactory(type -> controller);
+        return loader.load();
+    }
+
+    private static final class SceneOnlyController extends PrimaryController {
+        @Override
+        void initialize() {
+            // nur Aufbau messen
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.ui;
+
+import com.example.domain.Category;
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Kompaktes Abbild der letzten Sitzung (Startbild bis zum ersten DB-Load).
+ *
+ * Inhalt:
+ * - Kategorien (ohne SmartLists), selektierte Kategorie
+ * - erste Seite der geladenen Todos (nur Wurzeln) + Anzahl erledigter
+ *
+ * Datei (memory-mapped, Little Endian):
+ * - Header: MAGIC, VERSION, Payload-Länge, CRC32 des Payloads
+ * - Payload: Zeitpunkt, Selektion, Kategorien, Todos (Strings als Länge +
+ * UTF-8, -1 = null; Datum/Zeitpunkt als long, NONE = null)
+ *
+ * Hinweis:
+ * - der Header wird nach dem Payload geschrieben; ein abgebrochenes Schreiben
+ * fällt über Magic/CRC auf → read() liefert null (normaler Start ohne
+ * Startbild)
+ * - die Datei wird nie verkleinert (Windows erlaubt kein Kürzen gemappter
+ * Dateien), gültig ist nur der Bereich laut Header
+ */
+public final class SessionSnapshot {
+
+    private static final int MAGIC = 0x53534454; // "TDSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    private final Instant savedAt;
+    private final int selectedCategoryId;
+    private final int doneCount;
+    private final List<Category> categories;
+    private final List<TodoItem> items;
+
+    /**
+     * @param selectedCategoryId selektierte Kategorie (0 = keine)
+     * @param doneCount          erledigte Todos der Kategorie (Button-Text)
+     * @param items              geladene Todos der Kategorie (erste Seite)
+     */
+    public SessionSnapshot(Instant savedAt, int selectedCategoryId, int doneCount, List<Category> categories,
+            List<TodoItem> items) {
+        this.savedAt = savedAt;
+        this.selectedCategoryId = selectedCategoryId;
+        this.doneCount = doneCount;
+        this.categories = List.copyOf(categories);
+        this.items = List.copyOf(items);
+    }
+
+    public Instant getSavedAt() {
+        return savedAt;
+    }
+
+    public int getSelectedCategoryId() {
+        return selectedCategoryId;
+    }
+
+    public int getDoneCount() {
+        return doneCount;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public List<TodoItem> getItems() {
+        return items;
+    }
+
+    /*
+     * =========================
+     * Lesen
+     * =========================
+     */
+
+    /**
+     * Liest ein Abbild.
+     *
+     * @return Abbild oder null (keine Datei, andere Version, beschädigt)
+     */
+    public static SessionSnapshot read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                return null;
+            }
+            int length = map.getInt(8);
+            if (length < 0 || HEADER_BYTES + (long) length > size) {
+                return null;
+            }
+
+            ByteBuffer payload = map.slice(HEADER_BYTES, length).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != map.getInt(12)) {
+                return null;
+            }
+
+            return decode(payload);
+        } catch (IOException | RuntimeException exception) {
+            // Startbild ist optional: unlesbar (z. B. trotz CRC inkonsistent) → ohne
+            // Abbild normal starten
+            return null;
+        }
+    }
+
+    private static SessionSnapshot decode(ByteBuffer in) {
+        Instant savedAt = Instant.ofEpochMilli(in.getLong());
+        int selectedCategoryId = in.getInt();
+        int doneCount = in.getInt();
+
+        int categoryCount = in.getInt();
+        List<Category> categories = new ArrayList<>(Math.max(0, categoryCount));
+        for (int i = 0; i < categoryCount; i++) {
+            categories.add(new Category(in.getInt(), getString(in), getString(in)));
+        }
+
+        int itemCount = in.getInt();
+        List<TodoItem> items = new ArrayList<>(Math.max(0, itemCount));
+        for (int i = 0; i < itemCount; i++) {
+            TodoItem item = new TodoItem();
+            item.setId(in.getInt());
+            item.setCategoryId(in.getInt());
+            item.setTitle(getString(in));
+            item.setDueDate(getDate(in));
+            byte status = in.get();
+            item.setStatus(status < 0 ? null : STATUSES[status]);
+            item.setNotes(getString(in));
+            item.setSeriesId(in.getInt());
+            item.setOccurrenceDate(getDate(in));
+            item.setRemindAt(getInstant(in));
+            item.setSortRank(getString(in));
+            item.setCreatedAt(getInstant(in));
+            item.setUpdatedAt(getInstant(in));
+            item.setCompletedAt(getInstant(in));
+
+            int tagCount = in.getInt();
+            List<String> tags = new ArrayList<>(Math.max(0, tagCount));
+            for (int t = 0; t < tagCount; t++) {
+                tags.add(getString(in));
+            }
+            item.setTags(List.copyOf(tags));
+
+            int subtaskCount = in.getInt();
+            int subtasksDone = in.getInt();
+            item.setSubtaskProgress(subtaskCount, subtasksDone);
+            items.add(item);
+        }
+
+        return new SessionSnapshot(savedAt, selectedCategoryId, doneCount, categories, items);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate getDate(ByteBuffer in) {
+        long day = in.getLong();
+        return day == NONE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static Instant getInstant(ByteBuffer in) {
+        long millis = in.getLong();
+        return millis == NONE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /*
+     * =========================
+     * Schreiben
+     * =========================
+     */
+
+    /**
+     * Schreibt das Abbild über ein Memory-Mapping der Datei.
+     *
+     * Ablauf:
+     * - Strings einmal nach UTF-8 kodieren, daraus die Payload-Grösse
+     * - Payload direkt in das Mapping schreiben, CRC darüber, Header zuletzt
+     * - force(): vor dem Prozessende auf die Platte
+     */
+    public void write(Path file) {
+        List<byte[]> strings = new ArrayList<>();
+        int length = 8 + 4 + 4 + 4 + 4;
+        for (Category c : categories) {
+            length += 4 + encode(c.getName(), strings) + encode(c.getIcon(), strings);
+        }
+        for (TodoItem item : items) {
+            length += 4 + 4 + encode(item.getTitle(), strings) + 8 + 1 + encode(item.getNotes(), strings)
+                    + 4 + 8 + 8 + encode(item.getSortRank(), strings) + 8 + 8 + 8 + 4;
+            for (String tag : item.getTags()) {
+                length += encode(tag, strings);
+            }
+            length += 4 + 4;
+        }
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long size = Math.max(channel.size(), HEADER_BYTES + (long) length);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+
+                // alten Header ungültig machen, falls das Schreiben abbricht
+                map.putInt(0, 0);
+
+                ByteBuffer out = map.slice(HEADER_BYTES, length).order(ByteOrder.LITTLE_ENDIAN);
+                encodePayload(out, strings);
+
+                CRC32 crc = new CRC32();
+                crc.update(map.slice(HEADER_BYTES, length));
+
+                map.putInt(4, VERSION);
+                map.putInt(8, length);
+                map.putInt(12, (int) crc.getValue());
+                map.putInt(0, MAGIC);
+                map.force();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Sitzungsabbild schreiben fehlgeschlagen", e);
+        }
+    }
+
+    private void encodePayload(ByteBuffer out, List<byte[]> strings) {
+        int next = 0;
+
+        out.putLong(savedAt.toEpochMilli());
+        out.putInt(selectedCategoryId);
+        out.putInt(doneCount);
+
+        out.putInt(categories.size());
+        for (Category c : categories) {
+            out.putInt(c.getId());
+            next = putString(out, strings, next);
+            next = putString(out, strings, next);
+        }
+
+        out.putInt(items.size());
+        for (TodoItem item : items) {
+            out.putInt(item.getId());
+            out.putInt(item.getCategoryId());
+            next = putString(out, strings, next);
+            out.putLong(item.getDueDate() == null ? NONE : item.getDueDate().toEpochDay());
+            out.put(item.getStatus() == null ? -1 : (byte) item.getStatus().ordinal());
+            next = putString(out, strings, next);
+            out.putInt(item.getSeriesId());
+            out.putLong(item.getOccurrenceDate() == null ? NONE : item.getOccurrenceDate().toEpochDay());
+            out.putLong(millis(item.getRemindAt()));
+            next = putString(out, strings, next);
+            out.putLong(millis(item.getCreatedAt()));
+            out.putLong(millis(item.getUpdatedAt()));
+            out.putLong(millis(item.getCompletedAt()));
+
+            out.putInt(item.getTags().size());
+            for (int t = 0; t < item.getTags().size(); t++) {
+                next = putString(out, strings, next);
+            }
+
+            out.putInt(item.getSubtaskCount());
+            out.putInt(item.getSubtasksDone());
+        }
+    }
+
+    // kodiert s (null → kein Eintrag in strings) und liefert die Bytes im Payload
+    private static int encode(String s, List<byte[]> strings) {
+        byte[] bytes = s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+        strings.add(bytes);
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static int putString(ByteBuffer out, List<byte[]> strings, int index) {
+        byte[] bytes = strings.get(index);
+        if (bytes == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+        return index + 1;
+    }
+
+    private static long millis(Instant instant) {
+        return instant == null ? NONE : instant.toEpochMilli();
+    }
+}
@@ -1,13 +1,13 @@
 package com.example.ui;
 
+import com.example.domain.TodoItem;
+import com.example.metrics.NotifierTickEvent;
+import com.example.service.ReminderScheduler;
 import com.example.service.TodoService;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.time.LocalDate;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Plattformverhalten:
@@ -15,27 +15,24 @@ import java.util.concurrent.TimeUnit;
  * - Windows/Linux: SystemTray Icon + Tooltip + Balloon-Notification
  *
  * Designentscheidungen:
- * - Scheduler läuft in einem Daemon-Thread (blockiert App-Shutdown nicht).
+ * - ereignisgesteuert über ReminderScheduler (Daemon-Thread, kein Polling):
+ * Prüfung beim Start, bei Datenänderungen, bei Tageswechsel und zu jeder
+ * Erinnerungszeit.
  * - Tray ist optional: Fehler beim Setup werden geschluckt, App läuft weiter.
  * - Benachrichtigung (Balloon) maximal 1x pro Tag, solange fällige Todos
  * existieren.
+ * - Erinnerungen (RemindAt) erzeugen je eine eigene Balloon-Notification.
  */
 public final class TaskbarDueNotifier {
 
     private final TodoService service;
 
     /*
-     * ScheduledExecutorService:
-     * - periodisches Polling (alle 5 Minuten)
-     * - Single-Thread reicht, da checkAndNotify kurz ist
-     * - Daemon-Thread: verhindert "hängt beim Beenden", falls stop() nicht
-     * aufgerufen wurde
+     * ReminderScheduler:
+     * - schläft bis zur nächsten Erinnerung bzw. Mitternacht
+     * - Callbacks laufen im Scheduler-Thread (nacheinander, kein Overlap)
      */
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "due-notifier");
-        t.setDaemon(true);
-        return t;
-    });
+    private final ReminderScheduler scheduler;
 
     /*
      * TrayIcon:
@@ -57,6 +54,7 @@ public final class TaskbarDueNotifier {
      */
     public TaskbarDueNotifier(TodoService service) {
         this.service = service;
+        this.scheduler = new ReminderScheduler(service, this::showReminder, this::checkAndNotify);
     }
 
     /**
@@ -64,30 +62,31 @@ public final class TaskbarDueNotifier {
      *
      * Ablauf:
      * - Tray versuchen zu initialisieren (optional)
-     * - Sofort prüfen (initial delay = 0), danach alle 5 Minuten
-     *
-     * Hinweis:
-     * - scheduleAtFixedRate kann zu Overlap führen, falls checkAndNotify sehr lange
-     * dauert.
-     * Hier ist es kurz (DB-Count), daher ok.
+     * - Scheduler starten (prüft sofort, danach nur bei Ereignissen)
      */
     public void start() {
         setupTrayIfSupported();
+        scheduler.start();
+    }
 
-        // Sofort prüfen, dann alle 5 Minuten
-        scheduler.scheduleAtFixedRate(this::checkAndNotify, 0, 5, TimeUnit.MINUTES);
+    /**
+     * Erzwingt eine neue Prüfung (z. B. nachdem die CLI die DB geändert hat;
+     * Änderungen anderer Prozesse lösen kein TodoChanges-Event aus).
+     */
+    public void refresh() {
+        scheduler.markDirty();
     }
 
     /**
      * Stoppt den Notifier.
      *
      * Ablauf:
-     * - Scheduler beenden (interrupt)
+     * - Scheduler beenden
      * - TrayIcon entfernen (falls vorhanden)
      * - macOS Badge löschen
      */
     public void stop() {
-        scheduler.shutdownNow();
+        scheduler.stop();
         if (trayIcon != null && SystemTray.isSupported()) {
             SystemTray.getSystemTray().remove(trayIcon);
         }
@@ -101,8 +100,12 @@ public final class TaskbarDueNotifier {
      * - Balloon-Notification max 1x pro Tag, solange fällige existieren
      */
     private void checkAndNotify() {
+        NotifierTickEvent event = new NotifierTickEvent();
+        event.begin();
+
         int dueToday = service.countDueTodayOpen();
         boolean hasDue = dueToday > 0;
+        event.setDueToday(dueToday);
 
         // macOS Dock Badge
         setMacBadge(hasDue ? String.valueOf(dueToday) : null);
@@ -139,11 +142,25 @@ public final class TaskbarDueNotifier {
          * wieder notifiziert wird
          *
          * Hinweis:
-         * - "späteres Hinzufügen" wird durch Polling erkannt (nächster 5-Minuten-Tick).
+         * - "späteres Hinzufügen" meldet TodoChanges an den Scheduler.
          */
         if (!hasDue) {
             lastNotifiedDay = null;
         }
+
+        event.commit();
+    }
+
+    /**
+     * Zeigt eine fällige Erinnerung als Balloon-Notification.
+     */
+    private void showReminder(TodoItem item) {
+        if (trayIcon != null) {
+            trayIcon.displayMessage(
+                    "Erinnerung",
+                    item.getTitle(),
+                    TrayIcon.MessageType.INFO);
+        }
     }
 
     /**
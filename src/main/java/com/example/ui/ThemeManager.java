@@ -1,15 +1,35 @@
 package com.example.ui;
 
+import com.example.metrics.ThemeSwitchEvent;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.prefs.Preferences;
 
 /**
  * Konzepte:
  * - Preferences: persistente Speicherung pro User (OS-abhängiger Speicherort)
- * - Scene Stylesheets: Reihenfolge ist relevant (spätere Styles können frühere
- * überschreiben)
  * - Base-CSS (style.css): Grundlayout/Komponenten-Styles
- * - Theme-CSS (theme-*.css): Farb-/Theme-Overrides
+ * - Theme-CSS (themes.css): alle Paletten als Looked-up Colors, je Theme ein
+ * Block ".root.theme-x"
+ *
+ * Theme-Wechsel:
+ * - Stylesheets bleiben fest (einmal geparst, aus dem StyleManager-Cache)
+ * - gewechselt wird nur die Style-Klasse am Root jeder registrierten Scene →
+ * ein CSS-Durchgang im nächsten Pulse, kein Neu-Parsen, kein erzwungenes
+ * Layout
+ * - Popups/Nebenfenster registrieren ihre Scene einmal (adopt) und wechseln
+ * dadurch auch offen mit
+ *
+ * Build:
+ * - beim Packen werden style.css/themes.css zu .bss vorkompiliert (pom.xml);
+ * JavaFX lädt die .bss neben einer .css automatisch
  */
 public final class ThemeManager {
 
@@ -26,37 +46,47 @@ public final class ThemeManager {
     // Key im Preferences-Store
     private static final String KEY_THEME = "ui.theme";
 
+    private static final String BASE_CSS = "/com/example/css/style.css";
+    private static final String THEMES_CSS = "/com/example/css/themes.css";
+
     /**
      * Verfügbare Themes.
      *
-     * cssFile:
-     * - Dateiname der Theme-CSS im Ressourcenpfad /com/example/css/
+     * styleClass:
+     * - Klasse am Scene-Root, wählt den Palettenblock in themes.css
      */
     public enum Theme {
-        LIGHT("theme-light.css"),
-        DIM("theme-dim.css"),
-        BLUE("theme-blue.css"),
-        GREEN("theme-green.css"),
-        PURPLE("theme-purple.css"),
-        HIGH_CONTRAST("theme-high-contrast.css");
+        LIGHT("theme-light"),
+        DIM("theme-dim"),
+        BLUE("theme-blue"),
+        GREEN("theme-green"),
+        PURPLE("theme-purple"),
+        HIGH_CONTRAST("theme-high-contrast");
 
-        final String cssFile;
+        final String styleClass;
 
-        Theme(String cssFile) {
-            this.cssFile = cssFile;
+        Theme(String styleClass) {
+            this.styleClass = styleClass;
         }
 
         /**
-         * @return Classpath-Pfad zur Theme-CSS.
-         *
-         *         Beispiel:
-         *         - "/com/example/css/theme-dim.css"
+         * @return Style-Klasse am Root, z. B. "theme-dim"
          */
-        String getCssPath() {
-            return "/com/example/css/" + cssFile;
+        String getStyleClass() {
+            return styleClass;
         }
     }
 
+    private static final ReadOnlyObjectWrapper<Theme> CURRENT = new ReadOnlyObjectWrapper<>();
+
+    /*
+     * Scenes, deren Root dem Theme folgt (Hauptfenster, Popups, Nebenfenster).
+     * Schwach referenziert: verworfene Fenster fallen von selbst heraus.
+     */
+    private static final Set<Scene> SCENES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private static List<String> stylesheets;
+
     /*
      * =========================
      * Load / Save
@@ -104,62 +134,88 @@ public final class ThemeManager {
      */
 
     /**
-     * Wendet Base-CSS + Theme-CSS auf eine Scene an.
+     * Wendet ein Theme an: Scene registrieren (Stylesheets sicherstellen) und
+     * die Root-Klasse aller registrierten Scenes umschalten.
      *
-     * Ablauf:
-     * 1) Base-CSS (style.css) sicherstellen (wenn nicht vorhanden → add(0))
-     * 2) alle bisherigen theme- Stylesheets entfernen (Filter:
-     * "/com/example/css/theme-")
-     * 3) neues Theme-CSS hinzufügen
-     * 4) applyCss/layout erzwingen (visuelle Aktualisierung)
-     *
-     * Voraussetzungen:
-     * - Ressourcen müssen existieren, sonst liefert getResource(...) null und
-     * toExternalForm() NPE.
-     * (Hier wird das nicht abgefangen.)
+     * Hinweis:
+     * - kein applyCss/layout: die Klassenänderung markiert die Roots, der
+     * nächste Pulse wendet CSS einmal an
      */
     public static void apply(Scene scene, Theme theme) {
         if (scene == null || theme == null) {
             return;
         }
 
-        /*
-         * Base-CSS:
-         * - Wird über com.example.App.class geladen (nur als "Classloader-Anker").
-         * - Vorteil: funktioniert zuverlässig, solange App.class im gleichen Modul/JAR
-         * ist.
-         */
-        String baseCss = com.example.App.class
-                .getResource("/com/example/css/style.css")
-                .toExternalForm();
-
-        // Base-CSS sicherstellen (Layout, Komponenten)
-        if (!scene.getStylesheets().contains(baseCss)) {
-            // Index 0: Base-CSS soll vor Theme-CSS kommen (Theme überschreibt Base)
-            scene.getStylesheets().add(0, baseCss);
+        ThemeSwitchEvent event = new ThemeSwitchEvent(theme.name());
+        event.begin();
+
+        SCENES.add(scene);
+        ensureStylesheets(scene);
+
+        CURRENT.set(theme);
+        for (Scene s : SCENES) {
+            tag(s.getRoot(), theme);
         }
 
-        /*
-         * Alle Theme-CSS entfernen:
-         * - removeIf(...) entfernt alle Einträge, deren URL den Theme-Prefix enthält.
-         * - Dadurch kann man Theme wechseln ohne "Stacking" mehrerer Themes.
-         */
-        scene.getStylesheets().removeIf(s -> s.contains("/com/example/css/theme-"));
+        event.commit();
+    }
+
+    /**
+     * Registriert die Scene eines Popups/Nebenfensters: gleiche Stylesheets wie
+     * das Hauptfenster (nur beim ersten Mal gesetzt) und Root-Klasse des
+     * aktuellen Themes; folgt danach jedem Theme-Wechsel.
+     *
+     * Hinweis:
+     * - Root zuerst setzen (scene.setRoot), dann adopt aufrufen
+     * - mehrfacher Aufruf (z. B. bei jedem Öffnen) ist billig
+     */
+    public static void adopt(Scene scene) {
+        if (scene == null) {
+            return;
+        }
+        SCENES.add(scene);
+        ensureStylesheets(scene);
+        tag(scene.getRoot(), CURRENT.get());
+    }
 
-        // Neues Theme hinzufügen
-        String themeCss = com.example.App.class
-                .getResource(theme.getCssPath())
-                .toExternalForm();
+    /**
+     * Aktuelles Theme (z. B. um von Schrift/Abständen abhängige Caches zu leeren).
+     */
+    public static ReadOnlyObjectProperty<Theme> currentThemeProperty() {
+        return CURRENT.getReadOnlyProperty();
+    }
 
-        scene.getStylesheets().add(themeCss);
+    /*
+     * Base-CSS vor Theme-CSS; nur ändern, wenn die Liste abweicht (jede Änderung
+     * der Stylesheets stösst ein vollständiges Neu-Stylen der Scene an).
+     *
+     * Ressourcen werden über com.example.App.class geladen (nur als
+     * "Classloader-Anker").
+     */
+    private static void ensureStylesheets(Scene scene) {
+        if (stylesheets == null) {
+            stylesheets = List.of(
+                    com.example.App.class.getResource(BASE_CSS).toExternalForm(),
+                    com.example.App.class.getResource(THEMES_CSS).toExternalForm());
+        }
+        if (!scene.getStylesheets().equals(stylesheets)) {
+            scene.getStylesheets().setAll(stylesheets);
+        }
+    }
 
-        /*
-         * Re-Apply erzwingen:
-         * - applyCss(): CSS neu anwenden
-         * - layout(): Layout neu berechnen
-         */
-        scene.getRoot().applyCss();
-        scene.getRoot().layout();
+    // genau eine Theme-Klasse am Root; unverändert → keine Listener-Benachrichtigung
+    private static void tag(Parent root, Theme theme) {
+        if (root == null || theme == null) {
+            return;
+        }
+        for (Theme t : Theme.values()) {
+            if (t != theme) {
+                root.getStyleClass().remove(t.getStyleClass());
+            }
+        }
+        if (!root.getStyleClass().contains(theme.getStyleClass())) {
+            root.getStyleClass().add(theme.getStyleClass());
+        }
     }
 
     /**
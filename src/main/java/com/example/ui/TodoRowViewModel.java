@@ -0,0 +1,190 @@
+package com.example.ui;
+
+import com.example.domain.TodoItem;
+import com.example.domain.TodoStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unveränderliche Anzeige-Daten einer Todo-Zeile (Titel, Datumszeile,
+ * Überfällig, Notizen, Fortschritt).
+ *
+ * Zweck:
+ * - Texte einmal pro Todo berechnen (im Lade-Task), nicht bei jedem
+ * updateItem beim Scrollen
+ *
+ * Gültigkeit:
+ * - an die geladene TodoItem-Instanz gebunden (isFor prüft die Quellfelder per
+ * Referenz, falls ein Todo an Ort und Stelle geändert wurde)
+ * - an den Tag gebunden (Überfällig hängt von "heute" ab) → nach
+ * Mitternacht neu berechnen
+ *
+ * Hinweis:
+ * - Datumstexte kommen aus einem gemeinsamen Cache je Epoch-Tag (wenige
+ * verschiedene Daten pro Liste)
+ */
+public final class TodoRowViewModel {
+
+    private static final DateTimeFormatter DUE_FMT = DateTimeFormatter.ofPattern("EEE, d. MMM", Locale.GERMAN);
+    private static final DateTimeFormatter REMIND_FMT = DateTimeFormatter.ofPattern("HH:mm");
+
+    // "📅 Mo, 3. Feb" je Epoch-Tag; Obergrenze, damit der Cache nicht wächst
+    private static final int DATE_CACHE_LIMIT = 4096;
+    private static final Map<Long, String> DUE_TEXT_BY_DAY = new ConcurrentHashMap<>();
+
+    // aktueller Tag, bis zur nächsten Mitternacht gültig (ohne Allokation prüfbar)
+    private static volatile long today = Long.MIN_VALUE;
+    private static volatile long nextMidnightMillis = Long.MIN_VALUE;
+
+    private final String title;
+    private final String dueText;
+    private final boolean overdue;
+    private final boolean hasNotes;
+    private final String progressText;
+    private final int layoutHash;
+    private final long day;
+
+    // Quellfelder (Referenzvergleich in isFor)
+    private final String sourceTitle;
+    private final LocalDate sourceDue;
+    private final String sourceNotes;
+    private final TodoStatus sourceStatus;
+    private final Instant sourceRemindAt;
+    private final int sourceSubtasksDone;
+    private final int sourceSubtaskCount;
+    private final List<String> sourceTags;
+
+    private TodoRowViewModel(TodoItem item, long day) {
+        this.day = day;
+        this.sourceTitle = item.getTitle();
+        this.sourceDue = item.getDueDate();
+        this.sourceNotes = item.getNotes();
+        this.sourceStatus = item.getStatus();
+        this.sourceRemindAt = item.getRemindAt();
+        this.sourceSubtasksDone = item.getSubtasksDone();
+        this.sourceSubtaskCount = item.getSubtaskCount();
+        this.sourceTags = item.getTags();
+
+        /*
+         * TodoUiText.breakAnywhere:
+         * - verhindert Layout-Probleme bei sehr langen Wörtern/Strings ohne Leerzeichen
+         */
+        this.title = TodoUiText.breakAnywhere(sourceTitle);
+
+        boolean done = sourceStatus == TodoStatus.DONE;
+
+        // Erinnerung nur bei offenen Tasks anzeigen
+        String remind = sourceRemindAt != null && !done
+                ? "⏰ " + REMIND_FMT.format(sourceRemindAt.atZone(ZoneId.systemDefault()))
+                : null;
+
+        if (sourceDue != null) {
+            this.dueText = dueText(sourceDue.toEpochDay()) + (item.getSeriesId() != 0 ? "  ↻" : "")
+                    + (remind != null ? "  " + remind : "");
+            // Overdue nur bei offenen Tasks (nicht bei erledigten)
+            this.overdue = !done && sourceDue.toEpochDay() < day;
+        } else {
+            this.dueText = remind;
+            this.overdue = false;
+        }
+
+        this.hasNotes = sourceNotes != null && !sourceNotes.isBlank();
+
+        // Fortschritt über den ganzen Teilbaum
+        this.progressText = sourceSubtaskCount > 0 ? "☑ " + sourceSubtasksDone + "/" + sourceSubtaskCount : null;
+
+        // alles, was die Zeilenhöhe bestimmt (Titel, sichtbare Zeilen, Tag-Chips)
+        int hash = title.hashCode();
+        hash = 31 * hash + (dueText != null ? 1 : 0);
+        hash = 31 * hash + (progressText != null ? 1 : 0);
+        hash = 31 * hash + sourceTags.hashCode();
+        this.layoutHash = hash;
+    }
+
+    /**
+     * Berechnet die Anzeige-Daten für heute (beliebiger Thread).
+     */
+    public static TodoRowViewModel of(TodoItem item) {
+        return new TodoRowViewModel(item, today());
+    }
+
+    /**
+     * Heutiger Epoch-Tag (Systemzeitzone). Neu bestimmt erst nach Mitternacht;
+     * davor nur ein Vergleich mit currentTimeMillis.
+     */
+    public static long today() {
+        long now = System.currentTimeMillis();
+        if (now >= nextMidnightMillis) {
+            ZonedDateTime start = LocalDate.now().atStartOfDay(ZoneId.systemDefault());
+            today = start.toLocalDate().toEpochDay();
+            nextMidnightMillis = start.plusDays(1).toInstant().toEpochMilli();
+        }
+        return today;
+    }
+
+    /**
+     * true, wenn diese Anzeige-Daten zum Todo (unverändert) und zu heute passen.
+     */
+    public boolean isFor(TodoItem item, long currentDay) {
+        return day == currentDay
+                && sourceTitle == item.getTitle()
+                && sourceDue == item.getDueDate()
+                && sourceNotes == item.getNotes()
+                && sourceStatus == item.getStatus()
+                && sourceRemindAt == item.getRemindAt()
+                && sourceSubtasksDone == item.getSubtasksDone()
+                && sourceSubtaskCount == item.getSubtaskCount()
+                && sourceTags == item.getTags();
+    }
+
+    /** Titel mit Umbruchstellen. */
+    public String getTitle() {
+        return title;
+    }
+
+    /** Datums-/Erinnerungszeile oder null (ausblenden). */
+    public String getDueText() {
+        return dueText;
+    }
+
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public boolean hasNotes() {
+        return hasNotes;
+    }
+
+    /** "☑ 2/5" oder null (keine Unteraufgaben). */
+    public String getProgressText() {
+        return progressText;
+    }
+
+    /**
+     * Hash über alles, was die Zeilenhöhe bestimmt (für CellHeightCache).
+     */
+    public int getLayoutHash() {
+        return layoutHash;
+    }
+
+    private static String dueText(long epochDay) {
+        String cached = DUE_TEXT_BY_DAY.get(epochDay);
+        if (cached != null) {
+            return cached;
+        }
+        if (DUE_TEXT_BY_DAY.size() >= DATE_CACHE_LIMIT) {
+            DUE_TEXT_BY_DAY.clear();
+        }
+        String text = "📅 " + LocalDate.ofEpochDay(epochDay).format(DUE_FMT);
+        DUE_TEXT_BY_DAY.put(epochDay, text);
+        return text;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ui;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.TextInputDialog;
 
 import java.util.Optional;
 
@@ -71,4 +72,22 @@ public final class UiDialogs {
         Optional<ButtonType> res = alert.showAndWait();
         return res.isPresent() && res.get() == ButtonType.OK;
     }
+
+    /**
+     * Fragt einen einzeiligen Text ab (OK / Abbrechen).
+     *
+     * @param title   Titel des Dialogs
+     * @param content Beschriftung des Eingabefelds
+     * @return eingegebener Text (getrimmt) oder leer bei Abbruch/leerer Eingabe
+     */
+    public static Optional<String> prompt(String title, String content) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle(title);
+        dialog.setHeaderText(null);
+        dialog.setContentText(content);
+
+        return dialog.showAndWait()
+                .map(String::trim)
+                .filter(text -> !text.isEmpty());
+    }
 }
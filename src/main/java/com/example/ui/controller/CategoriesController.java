@@ -1,7 +1,12 @@
 package com.example.ui.controller;
 
 import com.example.domain.Category;
+import com.example.domain.SmartList;
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
 import com.example.service.TodoService;
+import com.example.ui.LazyUi;
+import com.example.ui.ThemeManager;
 import com.example.ui.UiDialogs;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -11,13 +16,19 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Window;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Verantwortlichkeiten:
  * - Laden/Anzeigen von Kategorien in einer ListView
  * - Öffnen eines Edit-Popups (Name/Icon ändern, Kategorie löschen)
  * - Delegation an TodoService für Geschäftslogik (Update/Delete)
+ * - SmartLists (Heute, Überfällig, ...) oberhalb der Kategorien, mit
+ * Anzahl-Badge statt Edit-Button
  *
  * UI-Technik:
  * - Custom ListCell mit "⋯" Button pro Zeile
@@ -28,14 +39,22 @@ public class CategoriesController {
 
     private final ListView<Category> listsView;
     private final TodoService service;
-    private ConfirmPopupController deleteConfirmPopup;
+    private final LazyUi<ConfirmPopupController> deleteConfirmPopup = LazyUi.register(
+            "CategoriesController.deleteConfirm", this::buildDeleteConfirmPopup, ConfirmPopupController::isShowing);
 
     // Edit-Popup (PopupControl statt ContextMenu → kein Abschneiden am Fensterrand)
-    private final PopupControl editPopup = new PopupControl();
+    private final LazyUi<PopupControl> editPopup = LazyUi.register(
+            "CategoriesController.editPopup", this::buildEditPopup, PopupControl::isShowing);
     private TextField nameEditor;
     private FlowPane iconGrid;
     private String selectedIcon;
 
+    // Badge-Werte der SmartLists (werden von aussen gesetzt, siehe setSmartCounts)
+    private final Map<SmartList, Integer> smartCounts = new EnumMap<>(SmartList.class);
+
+    // updateItem-Aufrufe der Kategorie-Zellen
+    private static final Counter CELL_UPDATES = Metrics.counter("CategoriesController.cellUpdates");
+
     // Icon-Set (UI-Optionen für Kategorie-Icon)
     private static final List<String> ICONS = List.of(
             "📁", "🛒", "💼", "🎓", "🏠",
@@ -53,18 +72,17 @@ public class CategoriesController {
      * Initialisiert die UI-Logik.
      *
      * Reihenfolge:
-     * - Popup aufbauen
      * - CellFactory setzen
-     * - Kategorien laden
-     * - Delete-Confirm-Popup initialisieren
-     * - Default-Selection: erste Kategorie auswählen (falls vorhanden)
+     * - Edit- und Delete-Confirm-Popup entstehen erst bei Bedarf (LazyUi)
      */
     public void init() {
-        setupEditPopup();
         setupCategoryCells();
+    }
 
-        deleteConfirmPopup = new ConfirmPopupController(listsView);
-        deleteConfirmPopup.init();
+    private ConfirmPopupController buildDeleteConfirmPopup() {
+        ConfirmPopupController popup = new ConfirmPopupController(listsView);
+        popup.init();
+        return popup;
     }
 
     /**
@@ -72,8 +90,77 @@ public class CategoriesController {
      * ListView-Items-Liste.
      */
     public void loadCategories() {
-        List<Category> categories = service.getCategories();
-        listsView.getItems().setAll(categories);
+        setCategories(service.getCategories());
+    }
+
+    /**
+     * Setzt die Einträge der ListView: SmartLists zuerst, danach die Kategorien.
+     */
+    public void setCategories(List<Category> categories) {
+        // unverändert (z. B. Abgleich nach dem Startbild) → Instanzen, Selektion
+        // und Zellen behalten
+        if (sameCategories(categories)) {
+            return;
+        }
+        List<Category> items = new ArrayList<>(SmartList.values().length + categories.size());
+        for (SmartList list : SmartList.values()) {
+            items.add(list.asCategory());
+        }
+        items.addAll(categories);
+        listsView.getItems().setAll(items);
+    }
+
+    private boolean sameCategories(List<Category> categories) {
+        List<Category> current = listsView.getItems();
+        int offset = SmartList.values().length;
+        if (current.size() != offset + categories.size()) {
+            return false;
+        }
+        for (int i = 0; i < categories.size(); i++) {
+            Category a = current.get(offset + i);
+            Category b = categories.get(i);
+            if (a.getId() != b.getId() || !Objects.equals(a.getName(), b.getName())
+                    || !Objects.equals(a.getIcon(), b.getIcon())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Selektiert die erste echte Kategorie (SmartLists überspringen); ohne
+     * Kategorien die erste SmartList.
+     */
+    public void selectFirstCategory() {
+        listsView.getItems().stream()
+                .filter(c -> !c.isSmartList())
+                .findFirst()
+                .ifPresentOrElse(
+                        c -> listsView.getSelectionModel().select(c),
+                        () -> listsView.getSelectionModel().selectFirst());
+    }
+
+    /**
+     * Aktualisiert die SmartList-Badges (nur betroffene Zellen neu zeichnen).
+     *
+     * @param counts Anzahl je SmartList
+     */
+    public void setSmartCounts(Map<SmartList, Integer> counts) {
+        if (smartCounts.equals(counts)) {
+            return;
+        }
+        smartCounts.clear();
+        smartCounts.putAll(counts);
+        listsView.refresh();
+    }
+
+    /**
+     * @return Badge-Text einer SmartList ("" bei 0)
+     */
+    public String smartCountText(Category category) {
+        SmartList list = SmartList.fromId(category.getId());
+        int count = list == null ? 0 : smartCounts.getOrDefault(list, 0);
+        return count == 0 ? "" : String.valueOf(count);
     }
 
     /**
@@ -99,6 +186,9 @@ public class CategoriesController {
      *                 ownerNode-Szene/Fenster)
      */
     public void showEditFor(Category category, Node anchor) {
+        if (category.isSmartList()) {
+            return;
+        }
         showEditPopup(anchor, category);
     }
 
@@ -107,12 +197,14 @@ public class CategoriesController {
      *
      * Wichtige UI-Details:
      * - AutoHide: Klick ausserhalb schliesst Popup
-     * - OnShown: Stylesheets/Themes übernehmen + Fokus setzen (Platform.runLater
-     * wegen Layout)
+     * - OnShown: Fokus setzen (Platform.runLater wegen Layout)
+     * - erst beim ersten Öffnen bzw. Vorwärmen gebaut (LazyUi); setzt dabei
+     * nameEditor/iconGrid neu
      */
-    private void setupEditPopup() {
-        editPopup.setAutoHide(true);
-        editPopup.setHideOnEscape(true);
+    private PopupControl buildEditPopup() {
+        PopupControl popup = new PopupControl();
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
 
         nameEditor = new TextField();
         nameEditor.getStyleClass().add("category-popup-input");
@@ -142,28 +234,16 @@ public class CategoriesController {
         editorBox.getChildren().setAll(lblName, nameEditor, iconGrid, buttonsRow);
 
         // PopupControl nutzt eine eigene Scene → Root setzen
-        editPopup.getScene().setRoot(editorBox);
+        popup.getScene().setRoot(editorBox);
 
-        editPopup.setOnShown(e -> {
-            /*
-             * Styling/Theme-Synchronisierung:
-             * - übernimmt Stylesheets der Haupt-Scene
-             * - kopiert Theme-Klassen ("dim"/"light") vom Main-Root auf Popup-Root
-             */
-            var owner = listsView.getScene();
-            if (owner != null) {
-                editPopup.getScene().getStylesheets().setAll(owner.getStylesheets());
-
-                var mainRoot = owner.getRoot();
-                var popupRoot = editPopup.getScene().getRoot();
-
-                popupRoot.getStyleClass().removeIf(c -> c.equals("dim") || c.equals("light"));
-                if (mainRoot.getStyleClass().contains("dim"))
-                    popupRoot.getStyleClass().add("dim");
-                if (mainRoot.getStyleClass().contains("light"))
-                    popupRoot.getStyleClass().add("light");
-            }
+        /*
+         * Styling/Theme-Synchronisierung:
+         * - Stylesheets + Theme-Klasse am Popup-Root über ThemeManager (einmalig,
+         * folgt danach jedem Theme-Wechsel, auch wenn offen)
+         */
+        ThemeManager.adopt(popup.getScene());
 
+        popup.setOnShown(e -> {
             /*
              * Fokus erst nach dem Anzeigen/Layout:
              * - requestFocus() direkt im Handler kann zu früh sein, wenn das Popup noch
@@ -176,7 +256,7 @@ public class CategoriesController {
             });
         });
 
-        btnCancel.setOnAction(e -> editPopup.hide());
+        btnCancel.setOnAction(e -> popup.hide());
 
         // commitEdit() kapselt Validierung + Service-Call + Reload/Reselect
         btnSave.setOnAction(e -> commitEdit());
@@ -191,14 +271,15 @@ public class CategoriesController {
              * Vorteil:
              * - Kein zusätzlicher Controller-State nötig.
              */
-            Category category = (Category) editPopup.getUserData();
+            Category category = (Category) popup.getUserData();
             if (category == null) {
-                editPopup.hide();
+                popup.hide();
                 return;
             }
-            editPopup.hide();
+            popup.hide();
             confirmAndDelete(category);
         });
+        return popup;
     }
 
     /**
@@ -261,8 +342,10 @@ public class CategoriesController {
         if (category == null)
             return;
 
+        PopupControl popup = editPopup.get();
+
         // Category im Popup speichern (für commitEdit/delete)
-        editPopup.setUserData(category);
+        popup.setUserData(category);
 
         // Eingabefelder initialisieren
         nameEditor.setText(category.getName());
@@ -278,18 +361,18 @@ public class CategoriesController {
         applyIconSelection();
 
         // Falls bereits offen: schliessen, um Zustand sauber zu resetten
-        if (editPopup.isShowing()) {
-            editPopup.hide();
+        if (popup.isShowing()) {
+            popup.hide();
         }
 
         // --- ZENTRIERUNG ---
         Window ownerWindow = ownerNode.getScene().getWindow();
 
         // Popup zeigen, damit es eine Window-Instanz + Dimensionen hat
-        editPopup.show(ownerWindow);
+        popup.show(ownerWindow);
 
         Platform.runLater(() -> {
-            Window popupWindow = editPopup.getScene().getWindow();
+            Window popupWindow = popup.getScene().getWindow();
 
             double x = ownerWindow.getX()
                     + (ownerWindow.getWidth() - popupWindow.getWidth()) / 2;
@@ -324,9 +407,10 @@ public class CategoriesController {
         listsView.setCellFactory(lv -> new ListCell<>() {
 
             private final Label nameLabel = new Label();
+            private final Label countLabel = new Label();
             private final Button btnEdit = new Button("⋯");
             private final Region spacer = new Region();
-            private final HBox root = new HBox(8, nameLabel, spacer, btnEdit);
+            private final HBox root = new HBox(8, nameLabel, spacer, countLabel, btnEdit);
 
             {
                 root.setAlignment(Pos.CENTER_LEFT);
@@ -334,6 +418,7 @@ public class CategoriesController {
 
                 btnEdit.getStyleClass().add("category-edit-btn");
                 nameLabel.getStyleClass().add("category-name");
+                countLabel.getStyleClass().add("smart-list-count");
 
                 btnEdit.setOnAction(e -> {
                     Category category = getItem();
@@ -344,22 +429,40 @@ public class CategoriesController {
 
                 itemProperty().addListener((obs, oldV, newV) -> {
                     // Popup schliessen, wenn Zelle ein anderes Item bekommt (Recycling/Refresh)
-                    if (editPopup.isShowing())
-                        editPopup.hide();
+                    editPopup.ifCreated(popup -> {
+                        if (popup.isShowing())
+                            popup.hide();
+                    });
                 });
             }
 
             @Override
             protected void updateItem(Category item, boolean empty) {
                 super.updateItem(item, empty);
+                CELL_UPDATES.increment();
 
                 if (empty || item == null) {
                     setText(null);
                     setGraphic(null);
                     setContentDisplay(ContentDisplay.TEXT_ONLY);
+                    getStyleClass().remove("smart-list-cell");
                     return;
                 }
 
+                // SmartLists: Badge statt Edit-Button (Reset wegen Cell-Reuse)
+                boolean smart = item.isSmartList();
+                String count = smart ? smartCountText(item) : "";
+                countLabel.setText(count);
+                countLabel.setVisible(!count.isEmpty());
+                countLabel.setManaged(!count.isEmpty());
+                btnEdit.setVisible(!smart);
+                btnEdit.setManaged(!smart);
+
+                getStyleClass().remove("smart-list-cell");
+                if (smart) {
+                    getStyleClass().add("smart-list-cell");
+                }
+
                 String icon = item.getIcon();
                 if (icon != null && !icon.isBlank()) {
                     nameLabel.setText(icon.trim() + " " + item.getName());
@@ -388,15 +491,16 @@ public class CategoriesController {
      * Falls UX gewünscht: UiDialogs.warn + Fokus zurück.
      */
     private void commitEdit() {
-        Category category = (Category) editPopup.getUserData();
+        PopupControl popup = editPopup.get();
+        Category category = (Category) popup.getUserData();
         if (category == null) {
-            editPopup.hide();
+            popup.hide();
             return;
         }
 
         String newName = nameEditor.getText() == null ? "" : nameEditor.getText().trim();
         if (newName.isEmpty()) {
-            editPopup.hide();
+            popup.hide();
             return;
         }
 
@@ -405,9 +509,9 @@ public class CategoriesController {
 
             loadCategories();
             reselectById(category.getId());
-            editPopup.hide();
+            popup.hide();
         } catch (Exception exception) {
-            editPopup.hide();
+            popup.hide();
             UiDialogs.error("Bearbeiten fehlgeschlagen: " + exception.getMessage(), exception);
         }
     }
@@ -426,12 +530,12 @@ public class CategoriesController {
     private void confirmAndDelete(Category category) {
         String msg = "Liste \"" + category.getName() + "\" wirklich löschen?";
 
-        deleteConfirmPopup.showCentered(msg, () -> {
+        deleteConfirmPopup.get().showCentered(msg, () -> {
             try {
                 service.deleteCategory(category.getId());
                 loadCategories();
                 if (!listsView.getItems().isEmpty()) {
-                    listsView.getSelectionModel().selectFirst();
+                    selectFirstCategory();
                 }
             } catch (Exception exception) {
                 UiDialogs.error("Löschen fehlgeschlagen: " + exception.getMessage(), exception);
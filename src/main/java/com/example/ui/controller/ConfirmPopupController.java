@@ -1,5 +1,6 @@
 package com.example.ui.controller;
 
+import com.example.ui.ThemeManager;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -97,17 +98,12 @@ public class ConfirmPopupController {
         // PopupRoot setzen (PopupControl nutzt eigene Scene)
         popup.getScene().setRoot(card);
 
-        popup.setOnShown(e -> {
-            /*
-             * Stylesheets vom Owner übernehmen:
-             * - stellt sicher, dass Theme (CSS) identisch aussieht wie Hauptfenster
-             * - hier wird setAll genutzt → ersetzt vollständig
-             */
-            var scene = ownerNode.getScene();
-            if (scene != null) {
-                popup.getScene().getStylesheets().setAll(scene.getStylesheets());
-            }
-        });
+        /*
+         * Theme wie Hauptfenster:
+         * - Stylesheets + Root-Klasse einmalig über ThemeManager; offene Popups
+         * wechseln bei Theme-Wechsel mit
+         */
+        ThemeManager.adopt(popup.getScene());
 
         // Abbrechen: Popup schliessen
         btnCancel.setOnAction(e -> popup.hide());
@@ -119,6 +115,13 @@ public class ConfirmPopupController {
         });
     }
 
+    /**
+     * @return true, falls das Popup gerade angezeigt wird
+     */
+    public boolean isShowing() {
+        return popup.isShowing();
+    }
+
     /**
      * Overload ohne Titel.
      *
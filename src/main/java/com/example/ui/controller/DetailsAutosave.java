@@ -0,0 +1,269 @@
+package com.example.ui.controller;
+
+import com.example.domain.TodoItem;
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+import com.example.service.TodoChanges;
+import com.example.service.TodoService;
+import com.example.ui.UiDialogs;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Automatisches Speichern von Titel und Notizen im Detailbereich.
+ *
+ * Ablauf:
+ * - jede Eingabe merkt nur den neuen Wert des Feldes und startet die Pause
+ * (DEBOUNCE) neu
+ * - nach der Pause: nur die Felder, die vom zuletzt gespeicherten Stand
+ * abweichen, als ein UPDATE (nur diese Spalten) an den Schreib-Thread geben
+ * - viele Änderungen am selben Todo bis dahin → ein UPDATE
+ *
+ * Flush:
+ * - flush(): Ausstehendes sofort übergeben (Todo-Wechsel, Schliessen); nichts
+ * wird verworfen
+ * - flushAndWait(): zusätzlich warten, bis alle Schreibvorgänge erledigt sind
+ * (vor explizitem Speichern, beim Beenden); ein fehlgeschlagener Schreibvorgang
+ * wird als Exception weitergegeben (kein Dialog)
+ *
+ * Fehler:
+ * - als gespeichert gilt ein Wert erst nach erfolgreichem Schreiben; schlägt
+ * es fehl, wird derselbe Text bei der nächsten Eingabe erneut geschrieben
+ * - ohne wartenden Aufrufer meldet ein Dialog den Fehler (FX-Thread)
+ *
+ * Hinweis:
+ * - Aufrufe nur im FX-Thread; geschrieben wird auf einem eigenen Thread in
+ * Aufruf-Reihenfolge, mit unveränderlichen Werten (ID, Titel, Notizen)
+ * - berechnete Serien-Vorkommen werden beim Flush im FX-Thread gespeichert
+ * (materialize setzt die ID am geteilten TodoItem)
+ * - die Änderung wird als lokal gemeldet (TodoChanges.runLocal) → kein
+ * Nachladen der Liste; nach dem Schreiben meldet onSaved die neuen Werte im
+ * FX-Thread (betroffene Zeile an Ort und Stelle aktualisieren)
+ * - leerer Titel wird nicht gespeichert (wie beim expliziten Speichern)
+ */
+public class DetailsAutosave {
+
+    private static final Duration DEBOUNCE = Duration.millis(600);
+
+    private static final Counter WRITES = Metrics.counter("DetailsAutosave.writes");
+    private static final Counter COALESCED = Metrics.counter("DetailsAutosave.coalesced");
+
+    /**
+     * Meldet gespeicherte Werte (im FX-Thread).
+     */
+    @FunctionalInterface
+    public interface TextSaved {
+        /**
+         * @param todoId gespeichertes Todo
+         * @param title  neuer Titel (getrimmt) oder null = unverändert
+         * @param notes  neue Notizen oder null = unverändert
+         */
+        void saved(int todoId, String title, String notes);
+    }
+
+    private final TodoService service;
+    private TextSaved onSaved = (todoId, title, notes) -> {
+    };
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = new Thread(runnable, "details-autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // geöffnetes Todo (null = nichts zu speichern)
+    private TodoItem item;
+
+    // zuletzt erfolgreich gespeicherter bzw. geladener Stand (Notizen: blank →
+    // null)
+    private String savedTitle;
+    private String savedNotes;
+
+    // zuletzt an den Schreib-Thread übergebener Stand (Vergleichsbasis beim
+    // Flush; nach einem Fehler wieder der gespeicherte Stand)
+    private String submittedTitle;
+    private String submittedNotes;
+
+    // noch nicht gemeldeter Fehler (flushAndWait gibt ihn weiter, sonst Dialog)
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    // seit dem letzten Flush geänderte Werte (null = Feld unverändert)
+    private String pendingTitle;
+    private String pendingNotes;
+
+    public DetailsAutosave(TodoService service) {
+        this.service = service;
+        debounce.setOnFinished(e -> flush());
+    }
+
+    public void setOnSaved(TextSaved onSaved) {
+        this.onSaved = onSaved;
+    }
+
+    /**
+     * Beginnt mit einem Todo; Ausstehendes des vorherigen wird vorher übergeben.
+     */
+    public void track(TodoItem item) {
+        flush();
+        this.item = item;
+        savedTitle = item.getTitle();
+        savedNotes = normalizeNotes(item.getNotes());
+        submittedTitle = savedTitle;
+        submittedNotes = savedNotes;
+    }
+
+    /**
+     * Ausstehendes übergeben und keine weiteren Änderungen mehr speichern.
+     */
+    public void untrack() {
+        flush();
+        item = null;
+    }
+
+    public void titleChanged(String text) {
+        if (item == null) {
+            return;
+        }
+        countCoalesced();
+        pendingTitle = text == null ? "" : text.trim();
+        debounce.playFromStart();
+    }
+
+    public void notesChanged(String text) {
+        if (item == null) {
+            return;
+        }
+        countCoalesced();
+        pendingNotes = text == null ? "" : text;
+        debounce.playFromStart();
+    }
+
+    /**
+     * Übergibt geänderte Felder an den Schreib-Thread (ohne zu warten).
+     */
+    public void flush() {
+        debounce.stop();
+        if (item == null) {
+            return;
+        }
+
+        String title = pendingTitle != null && !pendingTitle.isEmpty() && !pendingTitle.equals(submittedTitle)
+                ? pendingTitle
+                : null;
+        String notes = pendingNotes != null && !Objects.equals(normalizeNotes(pendingNotes), submittedNotes)
+                ? pendingNotes
+                : null;
+        pendingTitle = null;
+        pendingNotes = null;
+        if (title == null && notes == null) {
+            return;
+        }
+
+        // berechnete Serien-Vorkommen werden beim ersten Bearbeiten gespeichert
+        // (im FX-Thread: materialize setzt die ID am angezeigten TodoItem)
+        int id;
+        try {
+            id = service.materialize(item);
+        } catch (RuntimeException exception) {
+            report(exception);
+            return;
+        }
+
+        if (title != null) {
+            submittedTitle = title;
+        }
+        if (notes != null) {
+            submittedNotes = normalizeNotes(notes);
+        }
+
+        WRITES.increment();
+        writer.execute(() -> {
+            try {
+                TodoChanges.runLocal(() -> service.updateText(id, title, notes));
+            } catch (RuntimeException exception) {
+                Platform.runLater(() -> resubmitLater(id, title, notes));
+                report(exception);
+                return;
+            }
+            Platform.runLater(() -> saved(id, title, notes));
+        });
+    }
+
+    /**
+     * Übergibt Ausstehendes und wartet, bis alle Schreibvorgänge erledigt sind.
+     *
+     * @throws RuntimeException wenn ein Schreibvorgang seit dem letzten Warten
+     *                          fehlgeschlagen ist (Werte gelten dann als nicht
+     *                          gespeichert)
+     */
+    public void flushAndWait() {
+        flush();
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Automatisches Speichern fehlgeschlagen", e);
+        }
+
+        RuntimeException failed = failure.getAndSet(null);
+        if (failed != null) {
+            submittedTitle = savedTitle;
+            submittedNotes = savedNotes;
+            throw new RuntimeException("Automatisches Speichern fehlgeschlagen", failed);
+        }
+    }
+
+    // FX-Thread: Werte gelten als gespeichert, Zeile aktualisieren
+    private void saved(int id, String title, String notes) {
+        if (item != null && item.getId() == id) {
+            if (title != null) {
+                savedTitle = title;
+            }
+            if (notes != null) {
+                savedNotes = normalizeNotes(notes);
+            }
+        }
+        onSaved.saved(id, title, notes);
+    }
+
+    // FX-Thread: fehlgeschlagene Felder beim nächsten Flush erneut schreiben
+    private void resubmitLater(int id, String title, String notes) {
+        if (item != null && item.getId() == id) {
+            if (title != null) {
+                submittedTitle = savedTitle;
+            }
+            if (notes != null) {
+                submittedNotes = savedNotes;
+            }
+        }
+    }
+
+    // Dialog nur, wenn flushAndWait den Fehler nicht schon weitergegeben hat
+    private void report(RuntimeException exception) {
+        failure.set(exception);
+        Platform.runLater(() -> {
+            if (failure.compareAndSet(exception, null)) {
+                UiDialogs.error("Automatisches Speichern fehlgeschlagen: " + exception.getMessage(), exception);
+            }
+        });
+    }
+
+    private void countCoalesced() {
+        if (pendingTitle != null || pendingNotes != null) {
+            COALESCED.increment();
+        }
+    }
+
+    private static String normalizeNotes(String notes) {
+        return notes == null || notes.isBlank() ? null : notes;
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.ui.controller;
 
 import com.example.domain.TodoItem;
+import com.example.domain.TodoSeries;
 import com.example.service.TodoService;
 import com.example.ui.UiDialogs;
 import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Verantwortlichkeiten:
  * - Öffnen/Schliessen des Detail-Panels (Visibility/Managed)
  * - Befüllen der Felder mit Daten des selektierten TodoItem
  * - Speichern von Änderungen über TodoService
+ * - Titel/Notizen zusätzlich automatisch (entprellt, siehe DetailsAutosave);
+ * Wechsel/Schliessen verliert keine Eingaben
  *
  * UI-Pattern:
  * - detailsPane.setManaged(false) entfernt das Panel aus dem Layoutfluss (kein
@@ -29,8 +42,17 @@ public class DetailsController {
     // UI-Felder des Detailbereichs
     private final TextField detailsTitle;
     private final DatePicker detailsDueDate;
+    private final TextField detailsRemindTime;
+    private final TextField detailsTags;
     private final TextArea detailsNotes;
 
+    // Serien-Zeile (Regel + "Serie beenden"), nur bei Serien-Vorkommen sichtbar
+    private final HBox seriesRow;
+    private final Label seriesLabel;
+
+    // Erinnerungszeit als "HH:mm" (Datum: Fälligkeit, sonst heute)
+    private static final DateTimeFormatter REMIND_FMT = DateTimeFormatter.ofPattern("HH:mm");
+
     // Service-Schicht für Persistenz/Businesslogik
     private final TodoService service;
 
@@ -42,6 +64,9 @@ public class DetailsController {
      */
     private TodoItem detailsItem;
 
+    // Autosave für Titel/Notizen (entprellt, eigener Schreib-Thread)
+    private final DetailsAutosave autosave;
+
     /**
      * Konstruktor mit UI-Referenzen und Service.
      *
@@ -49,13 +74,30 @@ public class DetailsController {
      * - UI-Nodes werden injiziert (z. B. aus PrimaryController/FXML-Setup),
      * damit dieser Controller testbarer und unabhängiger von FXML bleibt.
      */
-    public DetailsController(VBox detailsPane, TextField detailsTitle, DatePicker detailsDueDate, TextArea detailsNotes,
-            TodoService service) {
+    public DetailsController(VBox detailsPane, TextField detailsTitle, DatePicker detailsDueDate,
+            TextField detailsRemindTime, TextField detailsTags, TextArea detailsNotes, HBox seriesRow,
+            Label seriesLabel, TodoService service) {
         this.detailsPane = detailsPane;
         this.detailsTitle = detailsTitle;
         this.detailsDueDate = detailsDueDate;
+        this.detailsRemindTime = detailsRemindTime;
+        this.detailsTags = detailsTags;
         this.detailsNotes = detailsNotes;
+        this.seriesRow = seriesRow;
+        this.seriesLabel = seriesLabel;
         this.service = service;
+
+        this.autosave = new DetailsAutosave(service);
+        detailsTitle.textProperty().addListener((obs, oldV, newV) -> autosave.titleChanged(newV));
+        detailsNotes.textProperty().addListener((obs, oldV, newV) -> autosave.notesChanged(newV));
+    }
+
+    /**
+     * Wird nach jedem automatischen Speichern von Titel/Notizen im FX-Thread
+     * aufgerufen (z. B. Zeile in der Liste aktualisieren).
+     */
+    public void setOnTextSaved(DetailsAutosave.TextSaved onSaved) {
+        autosave.setOnSaved(onSaved);
     }
 
     /**
@@ -71,11 +113,20 @@ public class DetailsController {
      * @param item TodoItem, das angezeigt/bearbeitet werden soll
      */
     public void open(TodoItem item) {
+        // Eingaben des vorherigen Todos speichern; Befüllen löst kein Autosave aus
+        autosave.untrack();
         detailsItem = item;
 
         detailsTitle.setText(item.getTitle());
         detailsDueDate.setValue(item.getDueDate());
+        detailsRemindTime.setText(item.getRemindAt() == null
+                ? ""
+                : REMIND_FMT.format(item.getRemindAt().atZone(ZoneId.systemDefault())));
         detailsNotes.setText(item.getNotes() == null ? "" : item.getNotes());
+        detailsTags.setText(formatTags(item.getTags()));
+
+        showSeries(item);
+        autosave.track(item);
 
         detailsPane.setManaged(true);
         detailsPane.setVisible(true);
@@ -85,6 +136,7 @@ public class DetailsController {
      * Schliesst den Detailbereich.
      *
      * State:
+     * - ausstehende Autosave-Änderungen werden übergeben (nicht verworfen)
      * - detailsItem wird auf null gesetzt, damit save() keine Änderungen mehr
      * ausführt
      *
@@ -93,6 +145,7 @@ public class DetailsController {
      * - managed=false entfernt aus Layoutfluss (kein leerer Bereich)
      */
     public void close() {
+        autosave.untrack();
         detailsItem = null;
         detailsPane.setVisible(false);
         detailsPane.setManaged(false);
@@ -128,11 +181,20 @@ public class DetailsController {
      *
      * Validierung:
      * - Titel darf nicht leer sein (trim → empty)
+     * - Erinnerung muss leer oder "HH:mm" sein
      */
     public boolean save() {
         if (detailsItem == null)
             return false;
 
+        // Autosave zuerst abschliessen: kein älterer Stand darf danach schreiben
+        try {
+            autosave.flushAndWait();
+        } catch (RuntimeException exception) {
+            UiDialogs.error("Aufgabe konnte nicht aktualisiert werden: " + exception.getMessage(), exception);
+            return false;
+        }
+
         String newTitle = detailsTitle.getText() == null ? "" : detailsTitle.getText().trim();
         if (newTitle.isEmpty())
             return false;
@@ -140,12 +202,109 @@ public class DetailsController {
         LocalDate newDue = detailsDueDate.getValue();
         String notes = detailsNotes.getText();
 
+        Instant newRemindAt;
         try {
-            service.updateTodo(detailsItem.getId(), newTitle, newDue, notes);
+            newRemindAt = parseRemindAt(detailsRemindTime.getText(), newDue);
+        } catch (DateTimeParseException exception) {
+            UiDialogs.error("Erinnerung bitte als HH:mm angeben (z. B. 08:30).", exception);
+            return false;
+        }
+
+        try {
+            // berechnete Serien-Vorkommen werden beim ersten Bearbeiten gespeichert
+            int id = service.materialize(detailsItem);
+            service.updateTodo(id, newTitle, newDue, notes);
+            if (!Objects.equals(newRemindAt, detailsItem.getRemindAt())) {
+                service.setReminder(id, newRemindAt);
+            }
+            String tagsText = detailsTags.getText() == null ? "" : detailsTags.getText();
+            if (!tagsText.trim().equals(formatTags(detailsItem.getTags()))) {
+                service.setTags(id, Arrays.asList(tagsText.split("[\\s,]+")));
+            }
             return true;
         } catch (Exception exception) {
             UiDialogs.error("Aufgabe konnte nicht aktualisiert werden: " + exception.getMessage(), exception);
             return false;
         }
     }
+
+    /**
+     * Übergibt ausstehende Autosave-Änderungen und wartet auf den Schreib-Thread
+     * (z. B. beim Beenden der App).
+     *
+     * @throws RuntimeException wenn ein Schreibvorgang fehlgeschlagen ist
+     */
+    public void flushPendingEdits() {
+        autosave.flushAndWait();
+    }
+
+    /**
+     * Beendet die Serie des geöffneten Todos (bereits gespeicherte Vorkommen
+     * bleiben erhalten).
+     *
+     * @return true, wenn die Serie gelöscht wurde
+     */
+    public boolean stopSeries() {
+        if (detailsItem == null || detailsItem.getSeriesId() == 0)
+            return false;
+
+        try {
+            service.deleteSeries(detailsItem.getSeriesId());
+            return true;
+        } catch (Exception exception) {
+            UiDialogs.error("Serie konnte nicht beendet werden: " + exception.getMessage(), exception);
+            return false;
+        }
+    }
+
+    /**
+     * Formatiert Tags für das Eingabefeld ("#a #b").
+     */
+    private static String formatTags(List<String> tags) {
+        StringBuilder sb = new StringBuilder();
+        for (String tag : tags) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append('#').append(tag);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Kombiniert die eingegebene Uhrzeit mit dem Fälligkeitsdatum (ohne Datum:
+     * heute).
+     *
+     * @return Zeitpunkt oder null, wenn das Feld leer ist
+     * @throws DateTimeParseException bei ungültiger Uhrzeit
+     */
+    private static Instant parseRemindAt(String text, LocalDate due) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        LocalTime time = LocalTime.parse(text.trim(), DateTimeFormatter.ofPattern("H:mm"));
+        LocalDate day = due != null ? due : LocalDate.now();
+        return day.atTime(time).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Zeigt die Wiederholungsregel, falls das Todo zu einer (noch bestehenden)
+     * Serie gehört.
+     */
+    private void showSeries(TodoItem item) {
+        TodoSeries series = null;
+        if (item.getSeriesId() != 0) {
+            try {
+                series = service.getSeries(item.getSeriesId());
+            } catch (Exception exception) {
+                // nur Zusatzinfo: Details trotzdem öffnen
+                series = null;
+            }
+        }
+
+        boolean show = series != null;
+        seriesLabel.setText(show ? "↻ " + series.getRule().describe() : "");
+        seriesRow.setVisible(show);
+        seriesRow.setManaged(show);
+    }
 }
@@ -0,0 +1,194 @@
+package com.example.ui.controller;
+
+import com.example.metrics.FlightRecording;
+import com.example.metrics.Metrics;
+import com.example.metrics.Timer;
+import com.example.ui.ThemeManager;
+import com.example.ui.UiDialogs;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Metrik-Ansicht (Ctrl+Shift+M): Timer, Zähler und Gauges aus Metrics als
+ * Tabelle.
+ *
+ * Verhalten:
+ * - aktualisiert sich jede Sekunde, solange das Fenster offen ist
+ * - Spalten sortierbar (z. B. nach Summe → wo geht die Zeit hin)
+ * - Sortierung bleibt über Aktualisierungen erhalten
+ * - Schalter "JFR-Aufnahme": startet/stoppt eine Flight-Recorder-Aufnahme
+ * (App-Events + JFR-Standardprofil) als .jfr-Datei
+ */
+public class MetricsViewController {
+
+    private final TableView<Row> table = new TableView<>();
+    private final Label hint = new Label("Zeiten in ms · Datei: metrics.txt neben der Datenbank");
+    private final ToggleButton tglRecording = new ToggleButton("JFR-Aufnahme");
+    private final Timeline ticker = new Timeline(new KeyFrame(Duration.seconds(1), e -> update()));
+
+    private final Path recordingsDirectory;
+    private Stage stage;
+
+    /**
+     * @param recordingsDirectory Zielverzeichnis für .jfr-Dateien
+     */
+    public MetricsViewController(Path recordingsDirectory) {
+        this.recordingsDirectory = recordingsDirectory;
+    }
+
+    /**
+     * Öffnet die Ansicht (bzw. holt sie nach vorne).
+     *
+     * @param owner Hauptfenster (Owner)
+     */
+    public void show(Window owner) {
+        if (stage == null) {
+            stage = buildStage(owner);
+        }
+        update();
+        ticker.play();
+        stage.show();
+        stage.toFront();
+    }
+
+    private Stage buildStage(Window owner) {
+        ticker.setCycleCount(Timeline.INDEFINITE);
+
+        table.getColumns().add(textColumn("Name", 300, row -> row.name));
+        table.getColumns().add(numberColumn("Anzahl", row -> row.count));
+        table.getColumns().add(numberColumn("Mittel", row -> row.meanMs));
+        table.getColumns().add(numberColumn("p50", row -> row.p50Ms));
+        table.getColumns().add(numberColumn("p99", row -> row.p99Ms));
+        table.getColumns().add(numberColumn("Max", row -> row.maxMs));
+        table.getColumns().add(numberColumn("Summe", row -> row.totalMs));
+        table.setPlaceholder(new Label("Noch keine Messwerte"));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        hint.getStyleClass().add("todo-progress");
+        hint.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(hint, Priority.ALWAYS);
+
+        tglRecording.setSelected(FlightRecording.isRecording());
+        tglRecording.setOnAction(e -> toggleRecording());
+
+        HBox footer = new HBox(8, hint, tglRecording);
+        footer.setAlignment(Pos.CENTER_LEFT);
+
+        VBox root = new VBox(8, table, footer);
+        root.setPadding(new Insets(12));
+        root.getStyleClass().add("app-root");
+
+        Stage s = new Stage();
+        s.initOwner(owner);
+        s.setTitle("Metriken");
+        s.setScene(new Scene(root, 860, 520));
+        ThemeManager.adopt(s.getScene());
+        s.setOnHidden(e -> ticker.stop());
+        return s;
+    }
+
+    /*
+     * Aufnahme starten bzw. stoppen; der Dateipfad wird im Hinweis angezeigt.
+     * Schalter spiegelt bei Fehlern den tatsächlichen Zustand.
+     */
+    private void toggleRecording() {
+        try {
+            if (tglRecording.isSelected()) {
+                Path file = FlightRecording.start(recordingsDirectory);
+                hint.setText("JFR-Aufnahme läuft → " + file);
+            } else {
+                Path file = FlightRecording.stop();
+                hint.setText(file == null ? "Keine Aufnahme aktiv" : "JFR-Aufnahme gespeichert: " + file);
+            }
+        } catch (RuntimeException exception) {
+            UiDialogs.error(exception.getMessage(), exception);
+        }
+        tglRecording.setSelected(FlightRecording.isRecording());
+    }
+
+    private void update() {
+        List<Row> rows = new ArrayList<>();
+        for (Timer.Snapshot t : Metrics.timerSnapshots()) {
+            if (t.getCount() > 0) {
+                rows.add(new Row(t.getName(), t.getCount(), Metrics.millis(t.getMeanNanos()),
+                        Metrics.millis(t.percentileNanos(0.5)), Metrics.millis(t.percentileNanos(0.99)),
+                        Metrics.millis(t.getMaxNanos()), Metrics.millis(t.getTotalNanos())));
+            }
+        }
+        Metrics.counterValues().forEach((name, value) -> rows.add(new Row(name, value, null, null, null, null, null)));
+        Metrics.gaugeValues().forEach((name, value) -> rows.add(new Row(name, value, null, null, null, null, null)));
+
+        table.getItems().setAll(rows);
+        table.sort();
+    }
+
+    private static TableColumn<Row, String> textColumn(String title, double width, Function<Row, String> value) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        return column;
+    }
+
+    private static <T extends Number & Comparable<T>> TableColumn<Row, T> numberColumn(String title,
+            Function<Row, T> value) {
+        TableColumn<Row, T> column = new TableColumn<>(title);
+        column.setPrefWidth(80);
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else if (item instanceof Double d) {
+                    setText(String.format("%.3f", d));
+                } else {
+                    setText(item.toString());
+                }
+            }
+        });
+        return column;
+    }
+
+    // Tabellenzeile; Zähler/Gauges haben nur einen Wert (Spalte Anzahl)
+    private static final class Row {
+        final String name;
+        final Long count;
+        final Double meanMs;
+        final Double p50Ms;
+        final Double p99Ms;
+        final Double maxMs;
+        final Double totalMs;
+
+        Row(String name, long count, Double meanMs, Double p50Ms, Double p99Ms, Double maxMs, Double totalMs) {
+            this.name = name;
+            this.count = count;
+            this.meanMs = meanMs;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.totalMs = totalMs;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ui.controller;
 
 import com.example.domain.Category;
 import com.example.service.TodoService;
+import com.example.ui.ThemeManager;
 import com.example.ui.UiDialogs;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -119,16 +120,10 @@ public class NewListPopupController {
 
         popup.getScene().setRoot(card);
 
-        popup.setOnShown(e -> {
-            /*
-             * Stylesheets übernehmen:
-             * - sorgt für identisches Theme/Design wie Hauptfenster
-             */
-            var owner = ownerListsView.getScene();
-            if (owner != null) {
-                popup.getScene().getStylesheets().setAll(owner.getStylesheets());
-            }
+        // Theme: Stylesheets + Root-Klasse einmalig, folgt danach jedem Wechsel
+        ThemeManager.adopt(popup.getScene());
 
+        popup.setOnShown(e -> {
             /*
              * Wichtig: Zentrierung + Fokus in runLater,
              * damit w/h des Popups korrekt sind und Fokus zuverlässig greift.
@@ -161,6 +156,13 @@ public class NewListPopupController {
         });
     }
 
+    /**
+     * @return true, falls das Popup gerade angezeigt wird
+     */
+    public boolean isShowing() {
+        return popup.isShowing();
+    }
+
     /**
      * Toggle-Funktion:
      * - wenn offen: schliessen
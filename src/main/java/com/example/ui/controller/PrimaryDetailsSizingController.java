@@ -12,6 +12,14 @@ public class PrimaryDetailsSizingController {
     private final ListView<?> tasksView;
     private final VBox detailsPane;
 
+    /*
+     * Zuletzt angewendeter Zustand: apply() baut Bindings nur bei Änderung neu auf
+     * (die Bindings folgen Breitenänderungen selbst).
+     */
+    private boolean applied = false;
+    private boolean appliedDetailsOpen;
+    private boolean appliedCompact;
+
     public PrimaryDetailsSizingController(HBox tasksAndDetailsContainer, ListView<?> tasksView, VBox detailsPane) {
         this.tasksAndDetailsContainer = tasksAndDetailsContainer;
         this.tasksView = tasksView;
@@ -23,6 +31,11 @@ public class PrimaryDetailsSizingController {
             return;
 
         boolean detailsOpen = detailsPane.isManaged() && detailsPane.isVisible();
+        if (applied && detailsOpen == appliedDetailsOpen && compactMode == appliedCompact)
+            return;
+        applied = true;
+        appliedDetailsOpen = detailsOpen;
+        appliedCompact = compactMode;
 
         // alte Bindings sauber entfernen
         if (detailsPane.prefWidthProperty().isBound())
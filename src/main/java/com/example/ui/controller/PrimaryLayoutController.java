@@ -1,7 +1,6 @@
 package com.example.ui.controller;
 
 import com.example.domain.Category;
-import javafx.application.Platform;
 import javafx.scene.control.Label;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.Button;
@@ -28,6 +27,13 @@ public class PrimaryLayoutController {
     // Schwellwert (Fensterbreite), unterhalb wird Compact Mode aktiviert
     private final double compactBreakpoint;
 
+    /*
+     * Hysterese um den Schwellwert (je Richtung):
+     * - verhindert Hin- und Herschalten, wenn beim Ziehen knapp um den
+     * Schwellwert gependelt wird
+     */
+    private static final double COMPACT_HYSTERESIS = 12;
+
     private boolean compactMode = false;
 
     /*
@@ -72,25 +78,16 @@ public class PrimaryLayoutController {
     }
 
     /**
-     * Initialisiert Responsive-Listener.
+     * Initialisiert das Layout.
      *
      * Ablauf:
      * - SplitPane.setResizableWithParent(listsPane, false): verhindert, dass
      * SplitPane die Listenpane "streckt"
-     * - runLater: erst nach Scene-Attach, damit scene.getWidth() gültig ist
-     * - widthListener: bei jeder Breitenänderung Compact Mode neu prüfen/anwenden
+     * - Breitenänderungen kommen gebündelt über den ResizeCoordinator
+     * (applyCompactMode einmal pro Pulse)
      */
     public void init() {
         SplitPane.setResizableWithParent(listsPane, false);
-
-        Platform.runLater(() -> {
-            var scene = listsPane.getScene();
-            if (scene == null)
-                return;
-
-            applyCompactMode(scene.getWidth());
-            scene.widthProperty().addListener((o, oldW, newW) -> applyCompactMode(newW.doubleValue()));
-        });
     }
 
     /**
@@ -104,7 +101,8 @@ public class PrimaryLayoutController {
      * Schaltet Compact Mode abhängig von der aktuellen Breite.
      *
      * Implementierungsdetails:
-     * - "shouldCompact" anhand width < compactBreakpoint
+     * - "shouldCompact" mit Hysterese: Compact erst unter compactBreakpoint -
+     * COMPACT_HYSTERESIS, zurück erst über compactBreakpoint + COMPACT_HYSTERESIS
      * - Nur bei Zustandswechsel (shouldCompact != compactMode) werden
      * UI-Eigenschaften verändert
      *
@@ -119,11 +117,15 @@ public class PrimaryLayoutController {
      * Header:
      * - tasksTitleLabel wird im Compact Mode ausgeblendet
      * - btnListMenu wird im Compact Mode eingeblendet
+     *
+     * @return true, wenn der Modus gewechselt hat
      */
-    public void applyCompactMode(double width) {
-        boolean shouldCompact = width < compactBreakpoint;
+    public boolean applyCompactMode(double width) {
+        boolean shouldCompact = compactMode
+                ? width < compactBreakpoint + COMPACT_HYSTERESIS
+                : width < compactBreakpoint - COMPACT_HYSTERESIS;
         if (shouldCompact == compactMode)
-            return;
+            return false;
         compactMode = shouldCompact;
 
         // Listenpanel ein-/ausblenden
@@ -163,6 +165,7 @@ public class PrimaryLayoutController {
             btnListMenu.setVisible(compactMode);
             btnListMenu.setManaged(compactMode);
         }
+        return true;
     }
 
     /**
@@ -1,42 +1,55 @@
 package com.example.ui.controller;
 
 import com.example.domain.Category;
+import com.example.ui.LazyUi;
+import com.example.ui.ThemeManager;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
 import javafx.geometry.Pos;
-import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
 
-import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * Zweck:
  * - Im Compact Mode wird statt der linken Listenpane ein Button (btnListMenu)
  * angezeigt.
- * - Klick auf den Button öffnet ein ContextMenu mit:
+ * - Klick auf den Button öffnet ein Popup mit:
  * - allen Kategorien (Auswahl möglich)
  * - je Kategorie ein "⋯" Button, der den gleichen Edit-Popup öffnet wie in der
  * ListCell
  * - Eintrag "+ Neue Liste"
  *
  * UI-Details:
- * - ContextMenu wird dynamisch über rebuild() befüllt
- * - CustomMenuItem mit eigener HBox pro Zeile (Label + Spacer + Edit-Button)
+ * - Kategorien in einer ListView im Popup (virtualisiert: nur sichtbare Zeilen
+ * haben Nodes, Zellen werden wiederverwendet)
+ * - die ListView teilt sich die Items mit der listsView → Änderungen am
+ * Kategorie-Modell kommen inkrementell an, Öffnen baut nichts neu auf
+ * - Selektion wird aus der listsView gespiegelt (Pseudo-Klasse :selected)
+ * - Popup entsteht erst beim ersten Öffnen bzw. Vorwärmen (LazyUi) und kann
+ * unter Speicherdruck verworfen werden
  */
 public class PrimaryListMenuController {
 
+    // Zeilenhöhe/Breite fix: schnelle Virtualisierung, kein "springendes" Popup
+    private static final double MENU_W = 260;
+    private static final double EDIT_W = 36;
+    private static final double ROW_H = 40;
+    private static final int MAX_VISIBLE_ROWS = 10;
+
     private final Button btnListMenu;
     private final ListView<Category> listsView;
     private final CategoriesController categoriesController;
 
     /*
      * Stabiler Anchor für den Edit-Popup:
-     * - wichtig, weil ContextMenu/CustomMenuItem teils instabile Koordinaten/Owner
-     * haben
+     * - wichtig, weil das Menü-Popup beim Öffnen des Edit-Popups geschlossen wird
      * - z. B. tasksView oder ein dauerhaft sichtbarer Node
      */
     private final Node stableAnchorForEditPopup; // z.B. tasksView
@@ -44,9 +57,13 @@ public class PrimaryListMenuController {
     /*
      * Callback: "Neue Liste" (UI startet NewListPopupController o. ä.)
      */
-    private final Consumer<Void> onNewList;
+    private final Runnable onNewList;
+
+    private final LazyUi<PopupControl> listMenu = LazyUi.register(
+            "PrimaryListMenuController.listMenu", this::buildListMenu, PopupControl::isShowing, this::releaseListMenu);
 
-    private ContextMenu listMenu;
+    // ListView im Popup (null, solange das Popup nicht gebaut ist)
+    private ListView<Category> menuView;
 
     /*
      * Wird genutzt, um Icon + Name pro Kategorie im Menü zu rendern.
@@ -65,14 +82,7 @@ public class PrimaryListMenuController {
         this.listsView = listsView;
         this.categoriesController = categoriesController;
         this.stableAnchorForEditPopup = stableAnchorForEditPopup;
-
-        /*
-         * Runnable → Consumer<Void> Adapter.
-         * Alternative (sauberer): Feld als Runnable definieren und direkt ausführen.
-         */
-        this.onNewList = v -> {
-            onNewList.run();
-        };
+        this.onNewList = onNewList;
 
         /*
          * iconForSelectedDummy wird nicht verwendet.
@@ -84,101 +94,181 @@ public class PrimaryListMenuController {
     }
 
     /**
-     * Initialisiert das ContextMenu und registriert Klick-Handler auf den Button.
+     * Registriert Klick-Handler auf den Button und die Listener am
+     * Kategorie-Modell (wirken nur, solange das Popup gebaut ist).
      *
      * Verhalten:
      * - Linksklick toggelt Menü
-     * - Vor dem Anzeigen wird rebuild() aufgerufen (aktuelle Liste/Selection)
+     * - Selektion der listsView wird laufend gespiegelt
      */
     public void init() {
         if (btnListMenu == null)
             return;
 
-        listMenu = new ContextMenu();
-        listMenu.getStyleClass().add("theme-menu");
+        // Höhe folgt der Anzahl Kategorien (bis MAX_VISIBLE_ROWS, dann scrollen)
+        listsView.getItems().addListener((ListChangeListener<Category>) c -> {
+            if (menuView != null)
+                updateMenuHeight();
+        });
+
+        listsView.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> {
+            if (menuView != null)
+                syncSelection();
+        });
 
         btnListMenu.setOnMouseClicked(e -> {
             if (e.getButton() != MouseButton.PRIMARY)
                 return;
 
-            if (listMenu.isShowing()) {
-                listMenu.hide();
+            if (isShowing()) {
+                hide();
             } else {
-                rebuild();
-                listMenu.show(btnListMenu, Side.BOTTOM, 0, 6);
+                show();
             }
         });
     }
 
+    /*
+     * Popup aufbauen.
+     * - Items: dieselbe ObservableList wie listsView (kein Kopieren/Neuaufbau)
+     */
+    private PopupControl buildListMenu() {
+        PopupControl popup = new PopupControl();
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
+
+        menuView = new ListView<>();
+        menuView.setItems(listsView.getItems());
+        menuView.setFixedCellSize(ROW_H);
+        menuView.setPrefWidth(MENU_W);
+        menuView.setFocusTraversable(false);
+        menuView.getStyleClass().add("list-menu-view");
+        menuView.setCellFactory(lv -> new MenuCell());
+
+        Button btnAdd = new Button("+ Neue Liste");
+        btnAdd.getStyleClass().add("list-menu-add");
+        btnAdd.setMaxWidth(Double.MAX_VALUE);
+        btnAdd.setFocusTraversable(false);
+        btnAdd.setOnAction(e -> {
+            popup.hide();
+            onNewList.run();
+        });
+
+        VBox card = new VBox(6, menuView, btnAdd);
+        card.getStyleClass().addAll("category-popup-card", "list-menu-card");
+        popup.getScene().setRoot(card);
+        ThemeManager.adopt(popup.getScene());
+
+        updateMenuHeight();
+        return popup;
+    }
+
+    // verworfenes Popup: ListView vom gemeinsamen Items-Modell lösen
+    private void releaseListMenu(PopupControl popup) {
+        menuView.setItems(null);
+        menuView = null;
+    }
+
     /**
      * Schliesst das Menü, falls offen.
      */
     public void hide() {
-        if (listMenu != null)
-            listMenu.hide();
+        listMenu.ifCreated(PopupControl::hide);
     }
 
     /**
      * @return true, falls das Menü aktuell angezeigt wird.
      */
     public boolean isShowing() {
-        return listMenu != null && listMenu.isShowing();
+        return listMenu.test(PopupControl::isShowing);
     }
 
-    /**
-     * Baut die Menüeinträge neu auf.
-     *
-     * Inhalt:
-     * - pro Kategorie eine Zeile:
-     * - Label: Icon + Name
-     * - Edit-Button "⋯" öffnet Edit-Popup
-     * - Klick auf Zeile selektiert Kategorie (ausser Klick auf Edit-Button)
-     * - Separator
-     * - "+ Neue Liste" Eintrag
-     *
-     * Layout:
-     * - fixe Breite MENU_W sorgt für konsistente Zeilenbreite
+    /*
+     * Öffnen: nur Selektion spiegeln und unter dem Button anzeigen. Die Zellen
+     * bleiben von früheren Öffnungen erhalten.
      */
-    public void rebuild() {
-        if (listMenu == null)
+    private void show() {
+        if (btnListMenu.getScene() == null)
             return;
 
-        listMenu.getItems().clear();
+        PopupControl popup = listMenu.get();
+        syncSelection();
 
+        Bounds b = btnListMenu.localToScreen(btnListMenu.getBoundsInLocal());
+        popup.show(btnListMenu, b.getMinX(), b.getMaxY() + 6);
+
+        int selected = menuView.getSelectionModel().getSelectedIndex();
+        if (selected >= 0)
+            menuView.scrollTo(Math.max(0, selected - MAX_VISIBLE_ROWS / 2));
+    }
+
+    private void syncSelection() {
         Category selected = listsView.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            menuView.getSelectionModel().clearSelection();
+        } else if (menuView.getSelectionModel().getSelectedItem() != selected) {
+            menuView.getSelectionModel().select(selected);
+        }
+    }
 
-        final double MENU_W = 260;
-        final double EDIT_W = 36;
+    private void updateMenuHeight() {
+        int rows = Math.max(1, Math.min(MAX_VISIBLE_ROWS, listsView.getItems().size()));
+        menuView.setPrefHeight(rows * ROW_H + 2);
+    }
 
-        for (Category c : listsView.getItems()) {
-            // Label enthält Icon + Name; iconForCategory sollte bereits " " oder "" passend
-            // liefern
-            Label lbl = new Label(iconForCategory.apply(c) + c.getName());
+    /*
+     * Auswahl aus dem Menü: in der listsView selektieren (Selection-Listener lädt
+     * die Todos) und schliessen.
+     */
+    private void choose(Category c) {
+        listsView.getSelectionModel().select(c);
+        hide();
+    }
+
+    /**
+     * Prüft, ob target innerhalb der Parent-Kette von expected liegt.
+     *
+     * Zweck:
+     * - Event-Target kann ein Child des Buttons sein (z. B. Text-Node).
+     * - So kann man "Klick innerhalb des Edit-Buttons" zuverlässig erkennen.
+     *
+     * @param target   tatsächliches Event-Target
+     * @param expected Node, der in der Parent-Kette vorkommen soll
+     * @return true, wenn expected in der Parent-Kette enthalten ist
+     */
+    private boolean isInParentChain(Node target, Node expected) {
+        Node n = target;
+        while (n != null) {
+            if (n == expected)
+                return true;
+            n = n.getParent();
+        }
+        return false;
+    }
+
+    /*
+     * Menüzeile: Label (Icon + Name) + Spacer + Edit-Button. Nodes und Handler
+     * werden einmal pro Zelle angelegt; updateItem setzt nur Text/Sichtbarkeit.
+     */
+    private final class MenuCell extends ListCell<Category> {
+        private final Label lbl = new Label();
+        private final Region spacer = new Region();
+        private final Button btnEdit = new Button("⋯");
+        private final HBox row = new HBox(10, lbl, spacer, btnEdit);
+
+        MenuCell() {
             lbl.setMinWidth(0);
             lbl.setMaxWidth(Double.MAX_VALUE);
-
-            Region spacer = new Region();
             HBox.setHgrow(spacer, Priority.ALWAYS);
 
-            Button btnEdit = new Button("⋯");
             btnEdit.getStyleClass().add("category-edit-btn");
             btnEdit.setFocusTraversable(false);
             btnEdit.setMinWidth(EDIT_W);
             btnEdit.setPrefWidth(EDIT_W);
             btnEdit.setMaxWidth(EDIT_W);
 
-            HBox row = new HBox(10, lbl, spacer, btnEdit);
             row.setAlignment(Pos.CENTER_LEFT);
-
-            // fixe Breite: verhindert "springendes" Menü
-            row.setPrefWidth(MENU_W);
-            row.setMinWidth(MENU_W);
-            row.setMaxWidth(MENU_W);
-
             row.getStyleClass().add("list-menu-row");
-            if (selected != null && c.getId() == selected.getId()) {
-                row.getStyleClass().add("list-menu-row-selected");
-            }
 
             /*
              * Klick auf Zeile:
@@ -187,16 +277,15 @@ public class PrimaryListMenuController {
              * Sonderfall:
              * - Klick auf Edit-Button soll NICHT selektieren/schliessen durch Row-Handler,
              * sondern eigenen Handler nutzen.
-             * - Deshalb wird geprüft, ob Target im Parent-Chain von btnEdit liegt.
              */
-            row.setOnMouseClicked(ev -> {
-                if (ev.getButton() != MouseButton.PRIMARY)
+            setOnMouseClicked(ev -> {
+                Category c = getItem();
+                if (ev.getButton() != MouseButton.PRIMARY || isEmpty() || c == null)
                     return;
                 if (isInParentChain((Node) ev.getTarget(), btnEdit))
                     return;
 
-                listsView.getSelectionModel().select(c);
-                listMenu.hide();
+                choose(c);
             });
 
             /*
@@ -204,55 +293,32 @@ public class PrimaryListMenuController {
              * - selektiert Kategorie (damit UI konsistent ist)
              * - schliesst Menü
              * - öffnet Edit-Popup über CategoriesController an stabilem Anchor
-             *
-             * ev.consume() verhindert zusätzliche Event-Propagation.
              */
             btnEdit.setOnAction(ev -> {
                 ev.consume();
-                listsView.getSelectionModel().select(c);
-                listMenu.hide();
+                Category c = getItem();
+                if (c == null)
+                    return;
+                choose(c);
                 categoriesController.showEditFor(c, stableAnchorForEditPopup);
             });
-
-            /*
-             * CustomMenuItem:
-             * - hideOnClick=false, damit Klicks nicht automatisch das Menü schliessen
-             * (Schliessen wird kontrolliert über eigene Handler)
-             */
-            CustomMenuItem item = new CustomMenuItem(row, false);
-            item.setHideOnClick(false);
-            item.setMnemonicParsing(false);
-            listMenu.getItems().add(item);
         }
 
-        listMenu.getItems().add(new SeparatorMenuItem());
+        @Override
+        protected void updateItem(Category c, boolean empty) {
+            super.updateItem(c, empty);
+            setText(null);
 
-        MenuItem add = new MenuItem("+ Neue Liste");
-        add.setOnAction(e -> {
-            listMenu.hide();
-            onNewList.accept(null);
-        });
-        listMenu.getItems().add(add);
-    }
+            if (empty || c == null) {
+                setGraphic(null);
+                return;
+            }
 
-    /**
-     * Prüft, ob target innerhalb der Parent-Kette von expected liegt.
-     *
-     * Zweck:
-     * - Event-Target kann ein Child des Buttons sein (z. B. Text-Node).
-     * - So kann man "Klick innerhalb des Edit-Buttons" zuverlässig erkennen.
-     *
-     * @param target   tatsächliches Event-Target
-     * @param expected Node, der in der Parent-Kette vorkommen soll
-     * @return true, wenn expected in der Parent-Kette enthalten ist
-     */
-    private boolean isInParentChain(Node target, Node expected) {
-        Node n = target;
-        while (n != null) {
-            if (n == expected)
-                return true;
-            n = n.getParent();
+            lbl.setText(iconForCategory.apply(c) + c.getName());
+
+            // SmartLists sind nicht bearbeitbar
+            btnEdit.setVisible(!c.isSmartList());
+            setGraphic(row);
         }
-        return false;
     }
 }
@@ -0,0 +1,302 @@
+package com.example.ui.controller;
+
+import com.example.domain.Category;
+import com.example.domain.TodoItem;
+import com.example.service.QuickSwitchIndex;
+import com.example.service.TodoService;
+import com.example.ui.ThemeManager;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.PopupControl;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Schnellwechsler (Ctrl+K): unscharfe Suche über Kategorien und zuletzt
+ * angelegte Todos.
+ *
+ * Verhalten:
+ * - Eingabe filtert sofort (QuickSwitchIndex, kein DB-Zugriff pro Tastendruck)
+ * - Pfeil hoch/runter wählt, ENTER springt zur Kategorie bzw. öffnet das Todo in
+ * den Details, ESC schliesst
+ *
+ * Ablauf beim Öffnen:
+ * - Index zuerst nur aus den Kategorien der listsView (sofort verfügbar)
+ * - neueste offene Todos im Hintergrund laden, dann Index mit beiden ersetzen
+ *
+ * UI-Details:
+ * - Treffer in einer ListView (Zellen werden wiederverwendet, keine Nodes pro
+ * Kategorie wie im ContextMenu des Compact Mode)
+ */
+public class QuickSwitcherController {
+
+    // max. angezeigte Treffer und Anzahl geladener Todos
+    private static final int MAX_RESULTS = 12;
+    private static final int RECENT_TODOS = 500;
+
+    private final PopupControl popup = new PopupControl();
+    private final TextField queryField = new TextField();
+    private final ListView<Object> resultsView = new ListView<>();
+
+    private final ListView<Category> listsView;
+    private final TodoService service;
+    private final Function<Category, String> iconForCategory;
+    private final Consumer<TodoItem> onOpenTodo;
+
+    private QuickSwitchIndex<Object> index = new QuickSwitchIndex<>(List.of(), item -> "");
+
+    // Token: nur das letzte Öffnen darf den Index ersetzen
+    private long openToken = 0;
+
+    /**
+     * @param listsView       Kategorien (Quelle + Owner für Positionierung)
+     * @param service         TodoService (neueste Todos)
+     * @param iconForCategory Icon-Präfix je Kategorie (wie in der Liste)
+     * @param onOpenTodo      Callback: Todo in den Details öffnen
+     */
+    public QuickSwitcherController(ListView<Category> listsView, TodoService service,
+            Function<Category, String> iconForCategory, Consumer<TodoItem> onOpenTodo) {
+        this.listsView = listsView;
+        this.service = service;
+        this.iconForCategory = iconForCategory;
+        this.onOpenTodo = onOpenTodo;
+    }
+
+    /**
+     * Baut Popup-UI auf und registriert Event-Handler.
+     */
+    public void init() {
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
+
+        queryField.setPromptText("Liste oder Todo suchen…");
+        queryField.getStyleClass().add("category-popup-input");
+
+        resultsView.getStyleClass().add("quick-switch-results");
+        resultsView.setFocusTraversable(false);
+        resultsView.setPrefHeight(320);
+        resultsView.setCellFactory(lv -> new ResultCell());
+        resultsView.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 1) {
+                choose(resultsView.getSelectionModel().getSelectedItem());
+            }
+        });
+
+        VBox card = new VBox(8, queryField, resultsView);
+        card.getStyleClass().addAll("category-popup-card", "quick-switch-card");
+        popup.getScene().setRoot(card);
+        ThemeManager.adopt(popup.getScene());
+
+        queryField.textProperty().addListener((obs, oldV, newV) -> updateResults());
+
+        // Navigation bleibt im Textfeld (Fokus wechselt nicht in die Liste)
+        queryField.setOnKeyPressed(e -> {
+            switch (e.getCode()) {
+                case DOWN -> {
+                    moveSelection(1);
+                    e.consume();
+                }
+                case UP -> {
+                    moveSelection(-1);
+                    e.consume();
+                }
+                case ENTER -> {
+                    choose(resultsView.getSelectionModel().getSelectedItem());
+                    e.consume();
+                }
+                case ESCAPE -> popup.hide();
+                default -> {
+                }
+            }
+        });
+
+        popup.setOnShown(e -> {
+            Platform.runLater(() -> {
+                positionInOwnerScene();
+                var popupWindow = popup.getScene().getWindow();
+                if (popupWindow != null) {
+                    popupWindow.requestFocus();
+                }
+                queryField.requestFocus();
+            });
+        });
+    }
+
+    /**
+     * Öffnet den Schnellwechsler bzw. schliesst ihn, falls offen.
+     */
+    public void toggleShow() {
+        if (listsView.getScene() == null) {
+            return;
+        }
+        if (popup.isShowing()) {
+            popup.hide();
+            return;
+        }
+
+        List<Category> categories = List.copyOf(listsView.getItems());
+        index = buildIndex(categories, List.of());
+        queryField.clear();
+        updateResults();
+        popup.show(listsView, 0, 0);
+
+        loadRecentTodos(categories);
+    }
+
+    /*
+     * Neueste Todos im Hintergrund laden und Index (Kategorien + Todos) ersetzen.
+     * Fehler sind nicht kritisch: Kategorien bleiben durchsuchbar.
+     */
+    private void loadRecentTodos(List<Category> categories) {
+        final long token = ++openToken;
+
+        Task<QuickSwitchIndex<Object>> task = new Task<>() {
+            @Override
+            protected QuickSwitchIndex<Object> call() {
+                return buildIndex(categories, service.getRecentTodos(RECENT_TODOS));
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (token != openToken || !popup.isShowing()) {
+                return;
+            }
+            index = task.getValue();
+            updateResults();
+        });
+
+        task.setOnFailed(e -> {
+            Throwable ex = task.getException();
+            if (ex != null) {
+                ex.printStackTrace();
+            }
+        });
+
+        Thread t = new Thread(task, "load-quick-switch");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // Kategorien vor Todos: bei gleicher Bewertung gewinnt die Liste
+    private static QuickSwitchIndex<Object> buildIndex(List<Category> categories, List<TodoItem> todos) {
+        List<Object> entries = new ArrayList<>(categories.size() + todos.size());
+        entries.addAll(categories);
+        entries.addAll(todos);
+        return new QuickSwitchIndex<>(entries, entry -> entry instanceof Category c ? c.getName()
+                : ((TodoItem) entry).getTitle());
+    }
+
+    private void updateResults() {
+        resultsView.getItems().setAll(index.search(queryField.getText(), MAX_RESULTS));
+        if (!resultsView.getItems().isEmpty()) {
+            resultsView.getSelectionModel().select(0);
+        }
+    }
+
+    private void moveSelection(int delta) {
+        int size = resultsView.getItems().size();
+        if (size == 0) {
+            return;
+        }
+        int idx = Math.floorMod(resultsView.getSelectionModel().getSelectedIndex() + delta, size);
+        resultsView.getSelectionModel().select(idx);
+        resultsView.scrollTo(idx);
+    }
+
+    /*
+     * Kategorie: in der listsView selektieren (Selection-Listener lädt die Todos).
+     * Todo: Callback (Kategorie wechseln + Details öffnen).
+     */
+    private void choose(Object entry) {
+        if (entry == null) {
+            return;
+        }
+        popup.hide();
+
+        if (entry instanceof Category category) {
+            listsView.getItems().stream()
+                    .filter(c -> c.getId() == category.getId())
+                    .findFirst()
+                    .ifPresent(c -> listsView.getSelectionModel().select(c));
+        } else {
+            onOpenTodo.accept((TodoItem) entry);
+        }
+    }
+
+    private String categoryName(int categoryId) {
+        for (Category c : listsView.getItems()) {
+            if (c.getId() == categoryId) {
+                return iconForCategory.apply(c) + c.getName();
+            }
+        }
+        return "";
+    }
+
+    /*
+     * Oben mittig im Fenster (wie übliche Befehlspaletten), damit die Trefferliste
+     * nach unten Platz hat.
+     */
+    private void positionInOwnerScene() {
+        var ownerScene = listsView.getScene();
+        double w = popup.getWidth();
+        if (w <= 0) {
+            popup.getScene().getRoot().applyCss();
+            popup.getScene().getRoot().layout();
+            w = popup.getScene().getRoot().prefWidth(-1);
+        }
+
+        popup.setX(ownerScene.getWindow().getX() + ownerScene.getX() + (ownerScene.getWidth() - w) / 2.0);
+        popup.setY(ownerScene.getWindow().getY() + ownerScene.getY() + 60);
+    }
+
+    /*
+     * Trefferzeile: Icon + Name bzw. Titel, rechts die Art (Liste) bzw. die
+     * Kategorie des Todos.
+     */
+    private final class ResultCell extends ListCell<Object> {
+        private final Label title = new Label();
+        private final Region spacer = new Region();
+        private final Label hint = new Label();
+        private final HBox root = new HBox(8, title, spacer, hint);
+
+        ResultCell() {
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            title.setMinWidth(0);
+            hint.getStyleClass().add("todo-progress");
+            hint.setMinWidth(Region.USE_PREF_SIZE);
+        }
+
+        @Override
+        protected void updateItem(Object item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+
+            if (item instanceof Category c) {
+                title.setText(iconForCategory.apply(c) + c.getName());
+                hint.setText("Liste");
+            } else {
+                TodoItem todo = (TodoItem) item;
+                title.setText("☐ " + todo.getTitle());
+                hint.setText(categoryName(todo.getCategoryId()));
+            }
+            setGraphic(root);
+        }
+    }
+}
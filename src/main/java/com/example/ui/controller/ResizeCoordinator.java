@@ -0,0 +1,76 @@
+package com.example.ui.controller;
+
+import com.example.ui.FxPulseCoalescer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+/**
+ * Bündelt Breitenänderungen des Fensters zu einem Layout-Durchgang pro
+ * FX-Pulse.
+ *
+ * Zweck:
+ * - beim Ziehen am Fensterrand feuert widthProperty für jedes Pixel; bisher
+ * haben dann Compact Mode und Details-Sizing jeweils sofort umgebaut
+ * (Bindings lösen/neu setzen)
+ * - hier wird nur die letzte Breite gemerkt und im nächsten Frame einmal
+ * ausgewertet
+ *
+ * Ablauf (pro Pulse):
+ * - Compact Mode mit Hysterese prüfen (PrimaryLayoutController)
+ * - nur bei Zustandswechsel das Details-Sizing neu anwenden; sonst folgen die
+ * bestehenden Breiten-Bindings der Größe ohnehin
+ *
+ * Hinweis:
+ * - nur im FX-Thread verwenden
+ */
+public class ResizeCoordinator {
+
+    private final Node anchor;
+    private final PrimaryLayoutController layout;
+    private final PrimaryDetailsSizingController sizing;
+    private final FxPulseCoalescer pulse = new FxPulseCoalescer(this::applyPending);
+
+    private double pendingWidth = Double.NaN;
+
+    /**
+     * @param anchor beliebiger Node im Hauptfenster (liefert die Scene)
+     */
+    public ResizeCoordinator(Node anchor, PrimaryLayoutController layout, PrimaryDetailsSizingController sizing) {
+        this.anchor = anchor;
+        this.layout = layout;
+        this.sizing = sizing;
+    }
+
+    /**
+     * Initialisiert den Breiten-Listener.
+     *
+     * Ablauf:
+     * - runLater: erst nach Scene-Attach, damit scene.getWidth() gültig ist
+     * - Startzustand sofort anwenden (nicht erst im nächsten Frame)
+     */
+    public void init() {
+        Platform.runLater(() -> {
+            Scene scene = anchor.getScene();
+            if (scene == null)
+                return;
+
+            pendingWidth = scene.getWidth();
+            applyPending();
+
+            scene.widthProperty().addListener((o, oldW, newW) -> {
+                pendingWidth = newW.doubleValue();
+                pulse.request();
+            });
+        });
+    }
+
+    private void applyPending() {
+        if (Double.isNaN(pendingWidth))
+            return;
+
+        if (layout.applyCompactMode(pendingWidth)) {
+            sizing.apply(layout.isCompactMode());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.ui.controller;
+
+import com.example.domain.Category;
+import com.example.domain.StatsBucket;
+import com.example.domain.StatsPeriod;
+import com.example.service.TodoService;
+import com.example.ui.ThemeManager;
+import com.example.ui.UiDialogs;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.StringConverter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Statistik-Fenster: angelegte und erledigte Todos je Tag/Woche/Monat und je
+ * Kategorie.
+ *
+ * Datenquelle:
+ * - nur die Tages-Rollups (DailyStats) über TodoService.getStats(...); auch
+ * mehrere Jahre sind wenige tausend Zeilen
+ * - Laden im Hintergrund-Task, nur das letzte Laden wird angezeigt (Token)
+ *
+ * Darstellung:
+ * - Verlauf als LineChart mit numerischer X-Achse (Epoch-Tag), damit auch
+ * tausende Punkte ohne eine Achsenbeschriftung pro Punkt gezeichnet werden
+ * - Erledigt je Liste als BarChart
+ */
+public class StatsDashboardController {
+
+    // Zeiträume der Auswahl (Tage zurück ab heute; 0 = alles)
+    private static final List<String> RANGE_OPTIONS = List.of(
+            "Letzte 30 Tage", "Letzte 12 Wochen", "Letzte 12 Monate", "Alles");
+    private static final int[] RANGE_DAYS = { 30, 84, 365, 0 };
+
+    private static final DateTimeFormatter DAY_FMT = DateTimeFormatter.ofPattern("d.M.yy", Locale.GERMAN);
+
+    private final TodoService service;
+    private final Supplier<List<Category>> categoriesSupplier;
+
+    private Stage stage;
+    private final ComboBox<String> cmbRange = new ComboBox<>();
+    private final ComboBox<StatsPeriod> cmbPeriod = new ComboBox<>();
+    private final ComboBox<Category> cmbCategory = new ComboBox<>();
+    private final Label summary = new Label();
+
+    private final NumberAxis timeAxis = new NumberAxis();
+    private final LineChart<Number, Number> timeline = new LineChart<>(timeAxis, new NumberAxis());
+    private final BarChart<String, Number> byCategory = new BarChart<>(new CategoryAxis(), new NumberAxis());
+
+    // Token: nur das letzte Laden darf die Diagramme setzen
+    private long loadToken = 0;
+
+    /**
+     * @param service            TodoService (Statistik)
+     * @param categoriesSupplier aktuelle Kategorien (Namen, Filter-Auswahl)
+     */
+    public StatsDashboardController(TodoService service, Supplier<List<Category>> categoriesSupplier) {
+        this.service = service;
+        this.categoriesSupplier = categoriesSupplier;
+    }
+
+    /**
+     * Öffnet das Statistik-Fenster (bzw. holt es nach vorne) und lädt die Daten
+     * neu.
+     *
+     * @param owner Hauptfenster (Owner)
+     */
+    public void show(Window owner) {
+        if (stage == null) {
+            stage = buildStage(owner);
+        }
+
+        // Kategorien können sich seit dem letzten Öffnen geändert haben
+        Category selected = cmbCategory.getValue();
+        List<Category> options = new ArrayList<>();
+        options.add(new Category(0, "Alle Listen"));
+        categoriesSupplier.get().stream().filter(c -> !c.isSmartList()).forEach(options::add);
+        cmbCategory.getItems().setAll(options);
+        cmbCategory.setValue(options.stream()
+                .filter(c -> selected != null && c.getId() == selected.getId())
+                .findFirst()
+                .orElse(options.get(0)));
+
+        stage.show();
+        stage.toFront();
+        reload();
+    }
+
+    private Stage buildStage(Window owner) {
+        cmbRange.getItems().setAll(RANGE_OPTIONS);
+        cmbRange.getSelectionModel().select(0);
+        cmbPeriod.getItems().setAll(StatsPeriod.values());
+        cmbPeriod.setValue(StatsPeriod.DAY);
+
+        cmbRange.setOnAction(e -> reload());
+        cmbPeriod.setOnAction(e -> reload());
+        cmbCategory.setOnAction(e -> reload());
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox controls = new HBox(8, cmbRange, cmbPeriod, cmbCategory, spacer, summary);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        timeline.setTitle("Verlauf");
+        timeline.setCreateSymbols(false);
+        timeline.setAnimated(false);
+        timeAxis.setAutoRanging(false);
+        timeAxis.setMinorTickVisible(false);
+        timeAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number epochDay) {
+                return DAY_FMT.format(LocalDate.ofEpochDay(epochDay.longValue()));
+            }
+
+            @Override
+            public Number fromString(String text) {
+                return LocalDate.parse(text, DAY_FMT).toEpochDay();
+            }
+        });
+
+        byCategory.setTitle("Erledigt je Liste");
+        byCategory.setAnimated(false);
+        byCategory.setLegendVisible(false);
+
+        VBox.setVgrow(timeline, Priority.ALWAYS);
+        VBox root = new VBox(12, controls, timeline, byCategory);
+        root.setPadding(new Insets(16));
+        root.getStyleClass().addAll("app-root", "stats-root");
+
+        Stage s = new Stage();
+        s.initOwner(owner);
+        s.setTitle("Statistik");
+        s.setScene(new Scene(root, 860, 620));
+        ThemeManager.adopt(s.getScene());
+        return s;
+    }
+
+    /*
+     * Zeitraum aus der Auswahl bestimmen und im Hintergrund laden.
+     */
+    private void reload() {
+        if (cmbCategory.getValue() == null) {
+            return;
+        }
+
+        final int rangeDays = RANGE_DAYS[Math.max(0, cmbRange.getSelectionModel().getSelectedIndex())];
+        final StatsPeriod period = cmbPeriod.getValue();
+        final Integer categoryId = cmbCategory.getValue().getId() == 0 ? null : cmbCategory.getValue().getId();
+        final LocalDate to = LocalDate.now();
+        final long token = ++loadToken;
+
+        Task<StatsResult> task = new Task<>() {
+            @Override
+            protected StatsResult call() {
+                LocalDate from = to.minusDays(rangeDays - 1L);
+                if (rangeDays == 0) {
+                    LocalDate first = service.getFirstStatsDay();
+                    from = first == null || first.isAfter(to) ? to : first;
+                }
+                return new StatsResult(from, service.getStats(period, from, to, categoryId),
+                        service.getStatsByCategory(from, to));
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (token == loadToken) {
+                show(task.getValue(), to);
+            }
+        });
+
+        task.setOnFailed(e -> {
+            Throwable ex = task.getException();
+            UiDialogs.error(
+                    "Statistik laden fehlgeschlagen: " + (ex == null ? "" : ex.getMessage()),
+                    ex instanceof Exception ? (Exception) ex : new Exception(ex));
+        });
+
+        Thread t = new Thread(task, "load-stats");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void show(StatsResult result, LocalDate to) {
+        XYChart.Series<Number, Number> created = new XYChart.Series<>();
+        XYChart.Series<Number, Number> completed = new XYChart.Series<>();
+        XYChart.Series<Number, Number> overdue = new XYChart.Series<>();
+        created.setName("Angelegt");
+        completed.setName("Erledigt");
+        overdue.setName("Verspätet erledigt");
+
+        int sumCreated = 0;
+        int sumCompleted = 0;
+        int sumOverdue = 0;
+        for (StatsBucket b : result.buckets) {
+            long x = b.getStart().toEpochDay();
+            created.getData().add(new XYChart.Data<>(x, b.getCreated()));
+            completed.getData().add(new XYChart.Data<>(x, b.getCompleted()));
+            overdue.getData().add(new XYChart.Data<>(x, b.getOverdue()));
+            sumCreated += b.getCreated();
+            sumCompleted += b.getCompleted();
+            sumOverdue += b.getOverdue();
+        }
+
+        // X-Achse: ca. 8 Beschriftungen über den ganzen Zeitraum
+        long lower = result.buckets.isEmpty() ? result.from.toEpochDay() : result.buckets.get(0).getStart().toEpochDay();
+        long upper = Math.max(lower + 1, to.toEpochDay());
+        timeAxis.setLowerBound(lower);
+        timeAxis.setUpperBound(upper);
+        timeAxis.setTickUnit(Math.max(1, (upper - lower) / 8));
+
+        timeline.setData(FXCollections.observableArrayList(List.of(created, completed, overdue)));
+
+        XYChart.Series<String, Number> perCategory = new XYChart.Series<>();
+        for (Category c : cmbCategory.getItems()) {
+            StatsBucket b = result.byCategory.get(c.getId());
+            if (c.getId() != 0 && b != null && b.getCompleted() > 0) {
+                perCategory.getData().add(new XYChart.Data<>(c.getName(), b.getCompleted()));
+            }
+        }
+        byCategory.setData(FXCollections.observableArrayList(List.of(perCategory)));
+
+        summary.setText("Angelegt " + sumCreated + " · Erledigt " + sumCompleted + " · davon verspätet " + sumOverdue);
+    }
+
+    private static final class StatsResult {
+        final LocalDate from;
+        final List<StatsBucket> buckets;
+        final Map<Integer, StatsBucket> byCategory;
+
+        StatsResult(LocalDate from, List<StatsBucket> buckets, Map<Integer, StatsBucket> byCategory) {
+            this.from = from;
+            this.buckets = buckets;
+            this.byCategory = byCategory;
+        }
+    }
+}
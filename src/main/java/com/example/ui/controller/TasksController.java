@@ -1,28 +1,70 @@
 package com.example.ui.controller;
 
 import com.example.domain.Category;
+import com.example.domain.RecurrenceRule;
+import com.example.domain.SmartList;
 import com.example.domain.TodoItem;
 import com.example.domain.TodoStatus;
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+import com.example.metrics.RefreshEvent;
+import com.example.metrics.Timer;
 import com.example.service.TodoService;
-import com.example.ui.TodoUiText;
+import com.example.service.TrigramIndex;
+import com.example.ui.CellHeightCache;
+import com.example.ui.FxPulseCoalescer;
+import com.example.ui.LazyUi;
+import com.example.ui.ThemeManager;
+import com.example.ui.TodoRowViewModel;
 import com.example.ui.UiDialogs;
 
+import javafx.application.Platform;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.TransferMode;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.concurrent.Task;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
  * Verantwortlichkeiten:
  * - Laden/Anzeige von offenen oder erledigten Todos (showingDone)
- * - Hinzufügen neuer Todos (Titel + optional DueDate)
+ * - Hinzufügen neuer Todos (Titel + optional DueDate + optional Wiederholung)
  * - Umschalten Status (Checkbox)
  * - History-UI steuern ("Erledigt", "Zurück", "Alle löschen")
  * - stabiler Refresh inkl. Wiederherstellung der Selektion (per ID)
+ * - Tag-Filter: geladene Todos werden im Speicher gefiltert (Bitmap-Index im
+ * Service), ohne neue DB-Abfrage pro Tastendruck
+ * - SmartLists (negative Kategorie-ID): seitenweises Laden über alle
+ * Kategorien, nächste Seite beim Scrollen ans Listenende
+ * - Unteraufgaben: Kategorien zeigen nur Wurzeln; Kinder werden erst beim
+ * Aufklappen geladen und eingerückt unter dem Elternteil eingefügt (flacher
+ * Baum in der ListView)
+ * - manuelle Reihenfolge per Drag & Drop (offene Wurzeln einer Kategorie): es
+ * wird genau ein Sortierschlüssel gespeichert und die Liste lokal umgestellt,
+ * ohne Neuladen
+ * - Suche während der Eingabe: Titel/Notizen aller geladenen Todos liegen in
+ * einem Trigramm-Index; die ListView zeigt eine FilteredList, deren Prädikat
+ * höchstens einmal pro Frame neu gesetzt wird (keine DB-Abfrage, keine neuen
+ * Zellen)
  *
  * Technische Schwerpunkte:
  * - ListCell-Rendering mit WrapText und dynamischen Elementen
@@ -35,6 +77,7 @@ public class TasksController {
     private final ListView<TodoItem> tasksView;
     private final TextField txtNewTaskTitle;
     private final DatePicker dpNewTaskDueDate;
+    private final ComboBox<String> cmbNewTaskRepeat;
 
     private final Button btnShowDone;
     private final Button btnBack;
@@ -49,14 +92,19 @@ public class TasksController {
      */
     private final Supplier<Category> selectedCategorySupplier;
 
-    // Datumsformat für DueDate-Anzeige (Deutsch)
-    private final DateTimeFormatter dueFmt = DateTimeFormatter.ofPattern("EEE, d. MMM", Locale.GERMAN);
+    /*
+     * Wiederholungs-Auswahl in der Eingabezeile (Index → Regel, siehe repeatRule).
+     * Wöchentlich/Monatlich richten sich nach dem gewählten Datum (sonst heute).
+     */
+    private static final List<String> REPEAT_OPTIONS = List.of(
+            "Einmalig", "Täglich", "Werktags", "Wöchentlich", "Alle 2 Wochen", "Monatlich");
 
     // false = offene Todos, true = erledigte Todos
     private boolean showingDone = false;
 
-    // Bestätigungs-Popup für "alle erledigten löschen"
-    private ConfirmPopupController deleteDoneConfirmPopup;
+    // Bestätigungs-Popup für "alle erledigten löschen" (erst bei Bedarf gebaut)
+    private final LazyUi<ConfirmPopupController> deleteDoneConfirmPopup = LazyUi.register(
+            "TasksController.deleteDoneConfirm", this::buildDeleteDoneConfirmPopup, ConfirmPopupController::isShowing);
 
     // verhindert, dass programatische Selektion (Refresh) Details öffnet
     private boolean suppressSelection = false;
@@ -64,9 +112,79 @@ public class TasksController {
     // Token für nebenläufige Refreshes (nur letzter Effektiv)
     private volatile long refreshToken = 0;
 
+    // zuletzt geladene (ungefilterte) Todos + aktiver Tag-Filter
+    private List<TodoItem> loadedItems = new ArrayList<>();
+    private Predicate<TodoItem> tagFilter = item -> true;
+
+    // SmartList-Paging: Seitengrösse, Position (gespeicherte Todos) und Status
+    private static final int SMART_PAGE_SIZE = 100;
+    private int smartOffset = 0;
+    private boolean smartHasMore = false;
+    private boolean loadingMore = false;
+
+    /*
+     * Startbild (SessionSnapshot): angezeigte Instanzen je ID. Der erste Refresh
+     * übernimmt sie bei unverändertem Inhalt, damit nur abweichende Zeilen neu
+     * gezeichnet werden. Erste Seite und erledigte Anzahl für das nächste Abbild.
+     */
+    private static final int SNAPSHOT_ROWS = SMART_PAGE_SIZE;
+    private Map<Integer, TodoItem> snapshotItems = Map.of();
+    private int doneCount = 0;
+
+    /*
+     * Metriken:
+     * - refresh: Aufruf bis Liste gesetzt (Hintergrund-Load + FX-Übernahme)
+     * - cellUpdates: updateItem-Aufrufe der Todo-Zellen (Recycling beim Scrollen)
+     */
+    private static final Timer REFRESH_TIMER = Metrics.timer("TasksController.refresh");
+    private static final Counter CELL_UPDATES = Metrics.counter("TasksController.cellUpdates");
+
+    // Unteraufgaben: aufgeklappte Todo-IDs, geladene Kinder je Elternteil und
+    // Einrückung je sichtbarer Zeile
+    private final Set<Integer> expanded = new HashSet<>();
+    private Map<Integer, List<TodoItem>> childrenById = new HashMap<>();
+    private final Map<TodoItem, Integer> depths = new IdentityHashMap<>();
+
+    /*
+     * Anzeige-Daten je geladenem Todo (im Lade-Task berechnet, nur im FX-Thread
+     * gelesen/ersetzt) und Einrückung je Tiefe (keine Insets pro updateItem).
+     */
+    private final Map<TodoItem, TodoRowViewModel> rowModels = new IdentityHashMap<>();
+    private static final Insets[] INDENTS = new Insets[16];
+
+    /*
+     * Zellhöhen (umbrechende Titel): Schlüssel aus ID, Layout-Hash, Tiefe und
+     * Breite in ganzen Pixeln. Gemessen wird nur bei Fehlschlag, also beim
+     * Resize nur die sichtbaren Zeilen. Theme-Wechsel (Schrift) leert den Cache.
+     */
+    private static final int HEIGHT_CACHE_SIZE = 16_384;
+    private final CellHeightCache heightCache = new CellHeightCache(HEIGHT_CACHE_SIZE);
+    private static final Counter HEIGHT_HITS = Metrics.counter("TasksController.cellHeightHits");
+    private static final Counter HEIGHT_MISSES = Metrics.counter("TasksController.cellHeightMisses");
+
+    // Drag & Drop: gerade gezogenes Todo (null = kein Drag aus dieser Liste)
+    private TodoItem draggedItem;
+
+    /*
+     * Suche:
+     * - rows: sichtbare Zeilen (Tag-Filter + Baum), filteredRows: davon die
+     * Treffer (Inhalt der ListView)
+     * - searchIndex: alle geladenen Todos inkl. Unteraufgaben, wird in den
+     * Lade-Tasks abgeglichen (nur geänderte Texte werden neu zerlegt)
+     */
+    private final ObservableList<TodoItem> rows = FXCollections.observableArrayList();
+    private final FilteredList<TodoItem> filteredRows = new FilteredList<>(rows);
+    private final TrigramIndex searchIndex = new TrigramIndex();
+    private final FxPulseCoalescer searchPulse = new FxPulseCoalescer(this::applySearch);
+
+    // Statuswechsel (Checkbox, asynchron): ein Refresh je Frame
+    private final FxPulseCoalescer statusRefreshPulse = new FxPulseCoalescer(this::refresh);
+    private String searchText = "";
+
     public TasksController(ListView<TodoItem> tasksView,
             TextField txtNewTaskTitle,
             DatePicker dpNewTaskDueDate,
+            ComboBox<String> cmbNewTaskRepeat,
             Button btnShowDone,
             Button btnBack,
             Button btnClearDone,
@@ -75,6 +193,7 @@ public class TasksController {
         this.tasksView = tasksView;
         this.txtNewTaskTitle = txtNewTaskTitle;
         this.dpNewTaskDueDate = dpNewTaskDueDate;
+        this.cmbNewTaskRepeat = cmbNewTaskRepeat;
         this.btnShowDone = btnShowDone;
         this.btnBack = btnBack;
         this.btnClearDone = btnClearDone;
@@ -91,10 +210,22 @@ public class TasksController {
      * noch einen defensiven Null-Check in onClearDone().
      */
     public void init() {
+        tasksView.setItems(filteredRows);
+        Metrics.gauge("TasksController.rows", rows::size);
+        Metrics.gauge("TasksController.searchIndex", searchIndex::size);
+        Metrics.gauge("TasksController.heightCache", heightCache::size);
+
+        // Theme bestimmt Schrift/Abstände → gemessene Höhen verwerfen
+        ThemeManager.currentThemeProperty().addListener((obs, oldV, newV) -> {
+            heightCache.clear();
+            tasksView.refresh();
+        });
         setupTodoCells();
 
-        deleteDoneConfirmPopup = new ConfirmPopupController(tasksView);
-        deleteDoneConfirmPopup.init();
+        if (cmbNewTaskRepeat != null) {
+            cmbNewTaskRepeat.getItems().setAll(REPEAT_OPTIONS);
+            cmbNewTaskRepeat.getSelectionModel().selectFirst();
+        }
     }
 
     /**
@@ -149,7 +280,8 @@ public class TasksController {
      * Lädt Todos neu basierend auf ausgewählter Kategorie und showingDone.
      *
      * Wichtige Punkte:
-     * - merkt aktuelle Selektion per ID (weil neue Instanzen geladen werden)
+     * - merkt aktuelle Selektion (ID bzw. Serie + Datum), weil neue Instanzen
+     * geladen werden
      * - suppressSelection verhindert Details-Trigger beim select(...) nach Refresh
      * - aktualisiert History-Buttons anhand doneCount
      */
@@ -157,16 +289,19 @@ public class TasksController {
         Category category = selectedCategorySupplier.get();
 
         // Selektion merken (stabil über Refresh, weil Instanzen neu geladen werden)
-        Integer selectedId = null;
         TodoItem selected = tasksView.getSelectionModel().getSelectedItem();
-        if (selected != null) {
-            selectedId = selected.getId();
-        }
+
+        // SmartLists haben keine Kategorie → keine neuen Todos darin anlegen
+        setInputEnabled(category == null || !category.isSmartList());
+        smartHasMore = false;
 
         if (category == null) {
+            loadedItems = new ArrayList<>();
+            childrenById = new HashMap<>();
+            rowModels.clear();
             suppressSelection = true;
             try {
-                tasksView.getItems().setAll(List.of());
+                rows.setAll(List.of());
                 tasksView.getSelectionModel().clearSelection();
             } finally {
                 suppressSelection = false;
@@ -176,8 +311,17 @@ public class TasksController {
         }
 
         final int categoryId = category.getId();
+        final SmartList smartList = SmartList.fromId(categoryId);
         final boolean loadDone = showingDone;
-        final Integer keepSelectedId = selectedId;
+        final TodoItem keepSelected = selected;
+        final Set<Integer> keepExpanded = Set.copyOf(expanded);
+        final long started = System.nanoTime();
+        final RefreshEvent event = new RefreshEvent("tasks", categoryId);
+        event.begin();
+
+        // Startbild-Instanzen nur beim ersten Refresh danach abgleichen
+        final Map<Integer, TodoItem> reuse = snapshotItems;
+        snapshotItems = Map.of();
 
         // Token: nur letzter Refresh darf UI setzen
         final long token = ++refreshToken;
@@ -185,13 +329,29 @@ public class TasksController {
         Task<RefreshResult> task = new Task<>() {
             @Override
             protected RefreshResult call() {
+                if (smartList != null) {
+                    List<TodoItem> items = service.getSmartListPage(smartList, 0, SMART_PAGE_SIZE);
+                    service.attachTags(items);
+                    service.attachSubtaskProgress(items);
+                    items = reuseUnchanged(items, reuse);
+                    Map<Integer, List<TodoItem>> children = loadChildren(items, keepExpanded);
+                    indexForSearch(token, items, children, true);
+                    return new RefreshResult(0, items, children, rowModelsFor(items, children));
+                }
+
                 int doneCount = service.countDoneTodosForCategory(categoryId);
 
+                // nur Wurzeln; Unteraufgaben nur für aufgeklappte Todos
                 List<TodoItem> items = loadDone
-                        ? service.getDoneTodosForCategory(categoryId)
-                        : service.getOpenTodosForCategory(categoryId);
-
-                return new RefreshResult(doneCount, items);
+                        ? service.getDoneTodosForCategory(categoryId, true)
+                        : service.getOpenTodosForCategory(categoryId, true);
+                service.attachTags(items);
+                service.attachSubtaskProgress(items);
+                items = reuseUnchanged(items, reuse);
+
+                Map<Integer, List<TodoItem>> children = loadChildren(items, keepExpanded);
+                indexForSearch(token, items, children, true);
+                return new RefreshResult(doneCount, items, children, rowModelsFor(items, children));
             }
         };
 
@@ -202,27 +362,34 @@ public class TasksController {
 
             RefreshResult result = task.getValue();
 
+            loadedItems = new ArrayList<>(result.items);
+            childrenById = result.children;
+            rowModels.clear();
+            rowModels.putAll(result.models);
+            List<TodoItem> visible = visibleItems();
+
             suppressSelection = true;
             try {
-                tasksView.getItems().setAll(result.items);
-
-                // Selektion wiederherstellen (per ID)
-                if (keepSelectedId != null) {
-                    int idx = indexOfId(result.items, keepSelectedId);
-                    if (idx >= 0) {
-                        tasksView.getSelectionModel().select(idx);
-                        tasksView.scrollTo(idx);
-                    } else {
-                        tasksView.getSelectionModel().clearSelection();
-                    }
-                } else {
-                    tasksView.getSelectionModel().clearSelection();
-                }
+                patchRows(visible);
+                filteredRows.setPredicate(searchIndex.matcher(searchText));
+
+                // Selektion wiederherstellen (per Identität)
+                restoreSelection(keepSelected, true);
             } finally {
                 suppressSelection = false;
             }
 
-            updateHistoryButtons(result.doneCount);
+            if (smartList != null) {
+                // berechnete Serien-Vorkommen zählen nicht zum Offset
+                smartOffset = (int) result.items.stream().filter(t -> t.getId() != 0).count();
+                smartHasMore = smartOffset == SMART_PAGE_SIZE;
+                hideHistoryButtons();
+            } else {
+                updateHistoryButtons(result.doneCount);
+            }
+            REFRESH_TIMER.record(System.nanoTime() - started);
+            event.setRows(result.items.size());
+            event.commit();
         });
 
         task.setOnFailed(e -> {
@@ -241,14 +408,567 @@ public class TasksController {
     }
 
     /**
-     * Hilfsfunktion: Index eines TodoItem anhand ID in einer Liste.
+     * Zeigt Todos aus dem Startbild der letzten Sitzung (ohne DB-Zugriff).
+     *
+     * Hinweis:
+     * - der nächste refresh() gleicht mit der DB ab und übernimmt unveränderte
+     * Instanzen (nur abweichende Zeilen werden ersetzt)
+     *
+     * @param items     Wurzel-Todos der selektierten Kategorie
+     * @param doneCount Anzahl erledigter (Button-Text)
+     */
+    public void showSnapshot(List<TodoItem> items, int doneCount) {
+        Category category = selectedCategorySupplier.get();
+        setInputEnabled(category == null || !category.isSmartList());
+
+        loadedItems = new ArrayList<>(items);
+        childrenById = new HashMap<>();
+        rowModels.clear();
+        Map<Integer, TodoItem> byId = new HashMap<>();
+        for (TodoItem item : items) {
+            rowModels.put(item, TodoRowViewModel.of(item));
+            if (item.getId() != 0) {
+                byId.put(item.getId(), item);
+            }
+        }
+        snapshotItems = byId;
+
+        suppressSelection = true;
+        try {
+            rows.setAll(visibleItems());
+            tasksView.getSelectionModel().clearSelection();
+        } finally {
+            suppressSelection = false;
+        }
+
+        if (category != null && category.isSmartList()) {
+            hideHistoryButtons();
+        } else {
+            updateHistoryButtons(doneCount);
+        }
+    }
+
+    /**
+     * @return erste Seite der geladenen Wurzel-Todos (leer in der
+     *         Erledigt-Ansicht) für das Startbild
+     */
+    public List<TodoItem> snapshotRows() {
+        if (showingDone) {
+            return List.of();
+        }
+        return List.copyOf(loadedItems.subList(0, Math.min(SNAPSHOT_ROWS, loadedItems.size())));
+    }
+
+    /**
+     * @return zuletzt angezeigte Anzahl erledigter Todos der Kategorie
+     */
+    public int getDoneCount() {
+        return doneCount;
+    }
+
+    /*
+     * Ersetzt geladene Todos durch die angezeigte Startbild-Instanz, wenn der
+     * Inhalt gleich ist (Lade-Task; die Instanzen werden nur gelesen).
+     */
+    private static List<TodoItem> reuseUnchanged(List<TodoItem> items, Map<Integer, TodoItem> reuse) {
+        if (reuse.isEmpty()) {
+            return items;
+        }
+        List<TodoItem> output = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            TodoItem shown = item.getId() == 0 ? null : reuse.get(item.getId());
+            output.add(shown != null && shown.hasSameContent(item) ? shown : item);
+        }
+        return output;
+    }
+
+    /*
+     * Übernimmt next in rows: gleicher Anfang/gleiches Ende (per Identität)
+     * bleiben stehen, nur der Bereich dazwischen wird ersetzt. Ohne Änderung kein
+     * Change-Event (Zellen werden nicht neu befüllt).
+     */
+    private void patchRows(List<TodoItem> next) {
+        int start = 0;
+        int common = Math.min(rows.size(), next.size());
+        while (start < common && rows.get(start) == next.get(start)) {
+            start++;
+        }
+
+        int endOld = rows.size();
+        int endNew = next.size();
+        while (endOld > start && endNew > start && rows.get(endOld - 1) == next.get(endNew - 1)) {
+            endOld--;
+            endNew--;
+        }
+
+        if (start == endOld && start == endNew) {
+            return;
+        }
+        if (start == 0 && endOld == rows.size() && endNew == next.size()) {
+            rows.setAll(next);
+            return;
+        }
+        rows.remove(start, endOld);
+        rows.addAll(start, next.subList(start, endNew));
+    }
+
+    /**
+     * Lädt die nächste Seite einer SmartList und hängt sie an (ausgelöst, wenn die
+     * letzte Zeile sichtbar wird).
+     */
+    private void loadMoreSmart() {
+        Category category = selectedCategorySupplier.get();
+        SmartList smartList = category == null ? null : SmartList.fromId(category.getId());
+        if (smartList == null || !smartHasMore || loadingMore) {
+            return;
+        }
+
+        loadingMore = true;
+        final int offset = smartOffset;
+        final long token = refreshToken;
+
+        Task<RefreshResult> task = new Task<>() {
+            @Override
+            protected RefreshResult call() {
+                List<TodoItem> page = service.getSmartListPage(smartList, offset, SMART_PAGE_SIZE);
+                service.attachTags(page);
+                service.attachSubtaskProgress(page);
+                indexForSearch(token, page, Map.of(), false);
+                return new RefreshResult(0, page, Map.of(), rowModelsFor(page, Map.of()));
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            loadingMore = false;
+            if (token != refreshToken) {
+                return; // inzwischen neu geladen
+            }
+            List<TodoItem> page = task.getValue().items;
+            rowModels.putAll(task.getValue().models);
+            loadedItems.addAll(page);
+
+            List<TodoItem> added = new ArrayList<>();
+            for (TodoItem item : filtered(page)) {
+                appendTree(item, 0, added);
+            }
+            rows.addAll(added);
+            if (!searchText.isBlank()) {
+                applySearch(); // Treffer-Menge enthält die neuen Instanzen noch nicht
+            }
+            smartOffset += page.size();
+            smartHasMore = page.size() == SMART_PAGE_SIZE;
+        });
+
+        task.setOnFailed(e -> {
+            loadingMore = false;
+            smartHasMore = false;
+            Throwable ex = task.getException();
+            UiDialogs.error(
+                    "Todos laden fehlgeschlagen: " + (ex == null ? "" : ex.getMessage()),
+                    ex instanceof Exception ? (Exception) ex : new Exception(ex));
+        });
+
+        Thread t = new Thread(task, "load-todos-page");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Setzt den Tag-Filter (z. B. "#arbeit -#warten") und filtert die geladenen
+     * Todos neu (keine DB-Abfrage; Selektion bleibt erhalten, falls sichtbar).
+     *
+     * @param query Filtertext; leer → alle
+     */
+    public void setTagFilter(String query) {
+        try {
+            tagFilter = service.tagFilter(query);
+        } catch (Exception exception) {
+            UiDialogs.error("Filter konnte nicht angewendet werden: " + exception.getMessage(), exception);
+            tagFilter = item -> true;
+        }
+
+        applyVisible();
+    }
+
+    /**
+     * Setzt die sichtbaren Zeilen neu (Filter + aufgeklappte Unteraufgaben) aus
+     * den geladenen Daten; Selektion bleibt erhalten, falls weiterhin sichtbar.
+     */
+    private void applyVisible() {
+        TodoItem selected = tasksView.getSelectionModel().getSelectedItem();
+        List<TodoItem> visible = visibleItems();
+
+        suppressSelection = true;
+        try {
+            rows.setAll(visible);
+            filteredRows.setPredicate(searchIndex.matcher(searchText));
+            restoreSelection(selected, false);
+        } finally {
+            suppressSelection = false;
+        }
+    }
+
+    /**
+     * Setzt den Suchtext (Titel + Notizen, alle Wörter müssen vorkommen). Gefiltert
+     * wird im nächsten Frame; mehrere Tastendrücke dazwischen ergeben eine
+     * Filterung.
+     *
+     * Hinweis:
+     * - gesucht wird in den sichtbaren Zeilen (inkl. aufgeklappter
+     * Unteraufgaben), nicht in der DB
+     *
+     * @param query Suchtext; leer → alle
+     */
+    public void setSearchText(String query) {
+        searchText = query == null ? "" : query;
+        searchPulse.request();
+    }
+
+    /*
+     * Neues Prädikat aus dem Index (Treffer-Menge) setzen; die FilteredList filtert
+     * nur die vorhandenen Zeilen, die ListView verwendet ihre Zellen weiter.
+     */
+    private void applySearch() {
+        TodoItem selected = tasksView.getSelectionModel().getSelectedItem();
+
+        suppressSelection = true;
+        try {
+            filteredRows.setPredicate(searchIndex.matcher(searchText));
+            restoreSelection(selected, false);
+        } finally {
+            suppressSelection = false;
+        }
+    }
+
+    /*
+     * Selektion per Identität in den angezeigten (gefilterten) Zeilen
+     * wiederherstellen; nicht mehr sichtbar → Selektion aufheben.
+     */
+    private void restoreSelection(TodoItem selected, boolean scroll) {
+        int idx = selected == null ? -1 : indexOf(filteredRows, selected);
+        if (idx >= 0) {
+            tasksView.getSelectionModel().select(idx);
+            if (scroll) {
+                tasksView.scrollTo(idx);
+            }
+        } else {
+            tasksView.getSelectionModel().clearSelection();
+        }
+    }
+
+    /*
+     * Gleicht den Such-Index im Lade-Task ab (replace: vollständiger Abgleich,
+     * sonst nur hinzufügen). Token-Prüfung unter der Sperre des Index: ein
+     * veralteter Task überschreibt den Stand eines neueren nicht.
+     */
+    private void indexForSearch(long token, List<TodoItem> items, Map<Integer, List<TodoItem>> children,
+            boolean replace) {
+        List<TodoItem> all = new ArrayList<>(items);
+        children.values().forEach(all::addAll);
+
+        synchronized (searchIndex) {
+            if (token != refreshToken) {
+                return;
+            }
+            if (replace) {
+                searchIndex.sync(all);
+            } else {
+                all.forEach(searchIndex::put);
+            }
+        }
+    }
+
+    /*
+     * Anzeige-Daten für geladene Todos inkl. Kinder (im Lade-Task, damit
+     * updateItem beim Scrollen nur noch Werte setzt).
+     */
+    private static Map<TodoItem, TodoRowViewModel> rowModelsFor(List<TodoItem> items,
+            Map<Integer, List<TodoItem>> children) {
+        Map<TodoItem, TodoRowViewModel> output = new IdentityHashMap<>();
+        for (TodoItem item : items) {
+            output.put(item, TodoRowViewModel.of(item));
+        }
+        for (List<TodoItem> list : children.values()) {
+            for (TodoItem child : list) {
+                output.put(child, TodoRowViewModel.of(child));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Anzeige-Daten einer Zeile: vorberechnet oder (Todo geändert, neuer Tag,
+     * nicht vorgeladen) hier neu berechnen und merken.
+     */
+    private TodoRowViewModel rowModel(TodoItem item) {
+        TodoRowViewModel model = rowModels.get(item);
+        if (model == null || !model.isFor(item, TodoRowViewModel.today())) {
+            model = TodoRowViewModel.of(item);
+            rowModels.put(item, model);
+        }
+        return model;
+    }
+
+    private static Insets indent(int depth) {
+        if (depth >= INDENTS.length) {
+            return new Insets(0, 0, 0, depth * 22);
+        }
+        Insets insets = INDENTS[depth];
+        if (insets == null) {
+            insets = new Insets(0, 0, 0, depth * 22);
+            INDENTS[depth] = insets;
+        }
+        return insets;
+    }
+
+    /*
+     * Geladene Wurzeln (gefiltert) plus Kinder aufgeklappter Todos direkt
+     * darunter. Unteraufgaben werden nicht gefiltert (gehören zum Elternteil).
+     */
+    private List<TodoItem> visibleItems() {
+        depths.clear();
+        List<TodoItem> output = new ArrayList<>(loadedItems.size());
+        for (TodoItem item : filtered(loadedItems)) {
+            appendTree(item, 0, output);
+        }
+        return output;
+    }
+
+    private void appendTree(TodoItem item, int depth, List<TodoItem> output) {
+        output.add(item);
+        depths.put(item, depth);
+
+        List<TodoItem> children = childrenById.get(item.getId());
+        if (children != null && expanded.contains(item.getId())) {
+            for (TodoItem child : children) {
+                appendTree(child, depth + 1, output);
+            }
+        }
+    }
+
+    /*
+     * Lädt Kinder aller aufgeklappten Todos (rekursiv, nur wo aufgeklappt).
+     * Läuft im Hintergrund-Task.
+     */
+    private Map<Integer, List<TodoItem>> loadChildren(List<TodoItem> items, Set<Integer> open) {
+        Map<Integer, List<TodoItem>> output = new HashMap<>();
+        Deque<TodoItem> pending = new ArrayDeque<>(items);
+
+        while (!pending.isEmpty()) {
+            TodoItem item = pending.pop();
+            if (item.getSubtaskCount() > 0 && open.contains(item.getId())) {
+                List<TodoItem> children = service.getSubtasks(item.getId());
+                service.attachTags(children);
+                service.attachSubtaskProgress(children);
+                output.put(item.getId(), children);
+                pending.addAll(children);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Klappt die Unteraufgaben eines Todos auf oder zu. Beim Aufklappen werden
+     * die Kinder im Hintergrund geladen (nicht im Voraus).
+     */
+    private void toggleExpanded(TodoItem item) {
+        final int id = item.getId();
+        if (expanded.remove(id)) {
+            applyVisible();
+            return;
+        }
+
+        expanded.add(id);
+        final long token = refreshToken;
+        final Set<Integer> open = Set.copyOf(expanded);
+
+        Task<RefreshResult> task = new Task<>() {
+            @Override
+            protected RefreshResult call() {
+                Map<Integer, List<TodoItem>> children = loadChildren(List.of(item), open);
+                indexForSearch(token, List.of(), children, false);
+                return new RefreshResult(0, List.of(), children, rowModelsFor(List.of(), children));
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (token != refreshToken) {
+                return; // inzwischen neu geladen (inkl. Kinder)
+            }
+            childrenById.putAll(task.getValue().children);
+            rowModels.putAll(task.getValue().models);
+            applyVisible();
+        });
+
+        task.setOnFailed(e -> {
+            expanded.remove(id);
+            Throwable ex = task.getException();
+            UiDialogs.error(
+                    "Unteraufgaben laden fehlgeschlagen: " + (ex == null ? "" : ex.getMessage()),
+                    ex instanceof Exception ? (Exception) ex : new Exception(ex));
+        });
+
+        Thread t = new Thread(task, "load-subtasks");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /*
+     * Verschieben ist nur in der offenen Ansicht einer normalen Kategorie möglich
+     * (SmartLists/Erledigt haben keine manuelle Reihenfolge) und nur für Wurzeln.
+     */
+    private boolean canReorder(TodoItem item) {
+        Category category = selectedCategorySupplier.get();
+        return item != null && !showingDone && category != null && !category.isSmartList()
+                && depths.getOrDefault(item, 0) == 0;
+    }
+
+    /**
+     * Übernimmt automatisch gespeicherte Texte (DetailsAutosave) in das geladene
+     * Todo, ohne die Liste neu zu laden.
+     *
+     * Ablauf:
+     * - Todo per ID unter den geladenen Wurzeln und Unteraufgaben suchen (nicht
+     * geladen → nichts zu tun)
+     * - Titel/Notizen setzen, Suchindex nachführen; die Zeile berechnet ihr
+     * Anzeige-Modell beim Zeichnen neu (TodoRowViewModel.isFor)
+     *
+     * @param todoId gespeichertes Todo
+     * @param title  neuer Titel oder null = unverändert
+     * @param notes  neue Notizen oder null = unverändert
+     */
+    public void applySavedText(int todoId, String title, String notes) {
+        TodoItem item = findLoaded(todoId);
+        if (item == null) {
+            return;
+        }
+        if (title != null) {
+            item.setTitle(title);
+        }
+        if (notes != null) {
+            item.setNotes(notes.isBlank() ? null : notes);
+        }
+        searchIndex.put(item);
+        if (!searchText.isEmpty()) {
+            filteredRows.setPredicate(searchIndex.matcher(searchText));
+        }
+        tasksView.refresh();
+    }
+
+    private TodoItem findLoaded(int todoId) {
+        for (TodoItem item : loadedItems) {
+            if (item.getId() == todoId) {
+                return item;
+            }
+        }
+        for (List<TodoItem> children : childrenById.values()) {
+            for (TodoItem child : children) {
+                if (child.getId() == todoId) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Statuswechsel fehlgeschlagen: Checkbox auf den tatsächlichen Status zurück
+    private static void statusChangeFailed(CheckBox checkBox, TodoItem item, Throwable exception) {
+        Throwable unwrapped = exception instanceof java.util.concurrent.CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+        Exception cause = unwrapped instanceof Exception e ? e : new RuntimeException(unwrapped);
+        checkBox.setSelected(item.getStatus() == TodoStatus.DONE);
+        UiDialogs.error("Status konnte nicht geändert werden: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Verschiebt ein Todo an die Position eines anderen (Drop).
+     *
+     * Ablauf:
+     * - neue Reihenfolge auf den geladenen (ungefilterten) Wurzeln berechnen: nach
+     * oben gezogen → vor dem Ziel, nach unten → hinter dem Ziel
+     * - Service speichert den Schlüssel (i. d. R. ein UPDATE)
+     * - Liste lokal neu aufbauen, kein Neuladen
+     *
+     * @param dragged gezogenes Todo
+     * @param target  Todo unter dem Mauszeiger oder null (ans Listenende)
+     */
+    private void moveItem(TodoItem dragged, TodoItem target) {
+        List<TodoItem> order = new ArrayList<>(loadedItems);
+        int from = indexOf(order, dragged);
+        int targetIndex = target == null ? order.size() : indexOf(order, target);
+        if (from < 0 || targetIndex < 0 || from == targetIndex) {
+            return;
+        }
+
+        order.remove(from);
+        int to = target == null ? order.size() : indexOf(order, target) + (from < targetIndex ? 1 : 0);
+        order.add(to, dragged);
+
+        try {
+            service.moveTodo(order, to);
+            loadedItems = order;
+            applyVisible();
+        } catch (Exception exception) {
+            UiDialogs.error("Reihenfolge konnte nicht gespeichert werden: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Handler: Unteraufgabe zu einem Todo hinzufügen (Kontextmenü der Zeile).
+     *
+     * Ablauf:
+     * - Titel abfragen
+     * - berechnete Serien-Vorkommen werden zuerst gespeichert
+     * - Elternteil bleibt danach aufgeklappt
+     */
+    private void onAddSubtask(TodoItem parent) {
+        Optional<String> title = UiDialogs.prompt("Unteraufgabe", "Titel:");
+        if (title.isEmpty()) {
+            return;
+        }
+
+        try {
+            int parentId = service.materialize(parent);
+            service.addSubtask(parentId, title.get(), null);
+            expanded.add(parentId);
+            refresh();
+        } catch (Exception exception) {
+            UiDialogs.error("Unteraufgabe konnte nicht hinzugefügt werden: " + exception.getMessage(), exception);
+        }
+    }
+
+    private List<TodoItem> filtered(List<TodoItem> items) {
+        List<TodoItem> output = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            if (tagFilter.test(item)) {
+                output.add(item);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Aktiviert/deaktiviert die Eingabezeile für neue Todos.
+     */
+    private void setInputEnabled(boolean enabled) {
+        txtNewTaskTitle.setDisable(!enabled);
+        dpNewTaskDueDate.setDisable(!enabled);
+        if (cmbNewTaskRepeat != null) {
+            cmbNewTaskRepeat.setDisable(!enabled);
+        }
+    }
+
+    /**
+     * Hilfsfunktion: Index eines TodoItem (gleiche ID bzw. gleiches
+     * Serien-Vorkommen) in einer Liste.
      *
      * Laufzeit:
      * - O(n) pro Refresh; bei typischer Todo-Listen-Grösse ok.
      */
-    private int indexOfId(List<TodoItem> items, int id) {
+    private int indexOf(List<TodoItem> items, TodoItem item) {
         for (int i = 0; i < items.size(); i++) {
-            if (items.get(i).getId() == id)
+            if (items.get(i).isSameTodo(item))
                 return i;
         }
         return -1;
@@ -261,14 +981,14 @@ public class TasksController {
      * - Titel darf nicht leer sein
      *
      * Ablauf:
-     * - service.addTodo(...)
+     * - service.addTodo(...) bzw. service.addSeries(...) bei Wiederholung
      * - Eingabefelder zurücksetzen
      * - showingDone=false (nach Insert wieder in offene Ansicht)
      * - refresh()
      */
     public void onAddTask() {
         Category category = selectedCategorySupplier.get();
-        if (category == null)
+        if (category == null || category.isSmartList())
             return;
 
         String title = txtNewTaskTitle.getText() == null ? "" : txtNewTaskTitle.getText().trim();
@@ -276,9 +996,19 @@ public class TasksController {
             return;
 
         try {
-            service.addTodo(category.getId(), title, dpNewTaskDueDate.getValue());
+            LocalDate due = dpNewTaskDueDate.getValue();
+            RecurrenceRule rule = repeatRule(due == null ? LocalDate.now() : due);
+
+            if (rule == null) {
+                service.addTodo(category.getId(), title, due);
+            } else {
+                service.addSeries(category.getId(), title, rule, due);
+            }
             txtNewTaskTitle.clear();
             dpNewTaskDueDate.setValue(null);
+            if (cmbNewTaskRepeat != null) {
+                cmbNewTaskRepeat.getSelectionModel().selectFirst();
+            }
 
             showingDone = false;
             refresh();
@@ -287,6 +1017,31 @@ public class TasksController {
         }
     }
 
+    /**
+     * Übersetzt die Auswahl der Wiederholungs-ComboBox in eine Regel.
+     *
+     * @param start Startdatum (bestimmt Wochentag bzw. Tag im Monat)
+     * @return Regel oder null für "Einmalig"
+     */
+    private RecurrenceRule repeatRule(LocalDate start) {
+        int index = cmbNewTaskRepeat == null ? 0 : cmbNewTaskRepeat.getSelectionModel().getSelectedIndex();
+
+        return switch (index) {
+            case 1 -> RecurrenceRule.daily();
+            case 2 -> RecurrenceRule.weekly(RecurrenceRule.WORKDAYS);
+            case 3 -> RecurrenceRule.weekly(start.getDayOfWeek());
+            case 4 -> RecurrenceRule.everyNDays(14);
+            case 5 -> RecurrenceRule.monthly(start.getDayOfMonth());
+            default -> null;
+        };
+    }
+
+    private ConfirmPopupController buildDeleteDoneConfirmPopup() {
+        ConfirmPopupController popup = new ConfirmPopupController(tasksView);
+        popup.init();
+        return popup;
+    }
+
     /**
      * Handler: "Alle erledigten löschen" (nur im History-Mode sichtbar).
      *
@@ -297,15 +1052,10 @@ public class TasksController {
      */
     public void onClearDone() {
         Category category = selectedCategorySupplier.get();
-        if (category == null)
+        if (category == null || category.isSmartList())
             return;
 
-        if (deleteDoneConfirmPopup == null) {
-            deleteDoneConfirmPopup = new ConfirmPopupController(tasksView);
-            deleteDoneConfirmPopup.init();
-        }
-
-        deleteDoneConfirmPopup.showCentered(
+        deleteDoneConfirmPopup.get().showCentered(
                 "Alle erledigten Aufgaben in dieser Liste löschen?",
                 () -> {
                     try {
@@ -327,6 +1077,7 @@ public class TasksController {
      * - btnBack + btnClearDone: nur sichtbar wenn inHistory
      */
     private void updateHistoryButtons(int doneCount) {
+        this.doneCount = doneCount;
         boolean inHistory = showingDone;
 
         if (btnShowDone != null) {
@@ -344,12 +1095,25 @@ public class TasksController {
         }
     }
 
+    /**
+     * SmartLists haben keine Erledigt-Ansicht (Verlauf gehört zur Kategorie).
+     */
+    private void hideHistoryButtons() {
+        for (Button button : new Button[] { btnShowDone, btnBack, btnClearDone }) {
+            if (button != null) {
+                button.setVisible(false);
+                button.setManaged(false);
+            }
+        }
+    }
+
     /**
      * Konfiguriert die ListCell für TodoItems.
      *
      * Aufbau:
+     * - Aufklapp-Pfeil (nur mit Unteraufgaben) + Einrückung nach Tiefe
      * - CheckBox links (Status)
-     * - VBox: Title (wrap) + optional Due-Date
+     * - VBox: Title (wrap) + optional Due-Date + Tags + Fortschritt
      * - Spacer
      * - Notes-Icon "✎" nur sichtbar, wenn Notes vorhanden
      *
@@ -366,11 +1130,17 @@ public class TasksController {
             private final CheckBox checkBox = new CheckBox();
             private final Label title = new Label();
             private final Label due = new Label();
-            private final VBox textBox = new VBox(2, title, due);
+            private final FlowPane tagsBox = new FlowPane(4, 4);
+            private final Label progress = new Label();
+            private final VBox textBox = new VBox(2, title, due, tagsBox, progress);
 
+            private final Label expander = new Label();
             private final Region spacer = new Region();
             private final Label notesIcon = new Label("✎");
-            private final HBox root = new HBox(8, checkBox, textBox, spacer, notesIcon);
+            private final HBox root = new HBox(8, expander, checkBox, textBox, spacer, notesIcon);
+
+            private final MenuItem addSubtask = new MenuItem("Unteraufgabe hinzufügen…");
+            private final ContextMenu menu = new ContextMenu(addSubtask);
 
             {
                 /*
@@ -399,6 +1169,34 @@ public class TasksController {
                 due.setManaged(false);
                 due.setVisible(false);
 
+                tagsBox.getStyleClass().add("todo-tags");
+                tagsBox.setManaged(false);
+                tagsBox.setVisible(false);
+
+                progress.getStyleClass().add("todo-progress");
+                progress.setManaged(false);
+                progress.setVisible(false);
+
+                expander.getStyleClass().add("todo-expander");
+                expander.setMinWidth(14);
+                expander.setPrefWidth(14);
+
+                // Pressed konsumieren: Aufklappen soll weder selektieren noch Details öffnen
+                expander.setOnMousePressed(e -> {
+                    TodoItem item = getItem();
+                    if (item != null && item.getSubtaskCount() > 0) {
+                        toggleExpanded(item);
+                    }
+                    e.consume();
+                });
+
+                addSubtask.setOnAction(e -> {
+                    TodoItem item = getItem();
+                    if (item != null) {
+                        onAddSubtask(item);
+                    }
+                });
+
                 textBox.getStyleClass().add("todo-textbox");
 
                 notesIcon.getStyleClass().add("todo-notes-icon");
@@ -420,68 +1218,173 @@ public class TasksController {
                  * Hinweis:
                  * - Bei refresh() wird die Liste neu gesetzt; ListCell wird recycelt.
                  */
+                /*
+                 * Drag & Drop (manuelle Reihenfolge):
+                 * - Inhalt ist nur ein Marker; das Todo merkt sich der Controller
+                 * - Drop auf eine leere Zeile → ans Listenende
+                 */
+                setOnDragDetected(e -> {
+                    TodoItem item = getItem();
+                    if (!canReorder(item)) {
+                        return;
+                    }
+                    draggedItem = item;
+                    Dragboard board = startDragAndDrop(TransferMode.MOVE);
+                    ClipboardContent content = new ClipboardContent();
+                    content.putString(item.getTitle());
+                    board.setContent(content);
+                    e.consume();
+                });
+
+                setOnDragOver(e -> {
+                    TodoItem item = getItem();
+                    if (draggedItem != null && item != draggedItem && (item == null || canReorder(item))) {
+                        e.acceptTransferModes(TransferMode.MOVE);
+                        getStyleClass().removeAll("drop-above", "drop-below");
+                        getStyleClass().add(item != null && getIndex() < tasksView.getItems().indexOf(draggedItem)
+                                ? "drop-above"
+                                : "drop-below");
+                    }
+                    e.consume();
+                });
+
+                setOnDragExited(e -> getStyleClass().removeAll("drop-above", "drop-below"));
+
+                setOnDragDropped(e -> {
+                    TodoItem dragged = draggedItem;
+                    getStyleClass().removeAll("drop-above", "drop-below");
+                    if (dragged != null) {
+                        moveItem(dragged, getItem());
+                    }
+                    e.setDropCompleted(dragged != null);
+                    e.consume();
+                });
+
+                setOnDragDone(e -> draggedItem = null);
+
                 checkBox.setOnAction(e -> {
                     TodoItem item = getItem();
                     if (item == null)
                         return;
 
+                    /*
+                     * Ohne auf den Commit zu warten: schnelle Klickfolgen teilen sich
+                     * einen Gruppen-Commit. Ziel ist der angezeigte Zustand (item ist
+                     * bis zum Nachladen noch der alte Stand). Nacharbeit und Refresh
+                     * laufen im FX-Thread (eigene Änderung, kein externes Nachladen);
+                     * mehrere Commits im selben Frame → ein Refresh.
+                     */
                     try {
-                        if (item.getStatus() == TodoStatus.DONE) {
-                            service.markOpen(item.getId());
-                        } else {
-                            service.markDone(item.getId());
-                        }
-                        refresh();
+                        java.util.concurrent.CompletableFuture<Void> write = checkBox.isSelected()
+                                // berechnete Serien-Vorkommen werden dabei gespeichert
+                                ? service.markDoneAsync(item, Platform::runLater)
+                                : service.markOpenAsync(item, Platform::runLater);
+                        write.whenCompleteAsync((ignored, exception) -> {
+                            if (exception != null) {
+                                statusChangeFailed(checkBox, item, exception);
+                            } else {
+                                statusRefreshPulse.request();
+                            }
+                        }, Platform::runLater);
                     } catch (Exception exception) {
-                        // UI zurücksetzen auf tatsächlichen Status
-                        checkBox.setSelected(item.getStatus() == TodoStatus.DONE);
-                        UiDialogs.error("Status konnte nicht geändert werden: " + exception.getMessage(), exception);
+                        statusChangeFailed(checkBox, item, exception);
                     }
                 });
             }
 
+            /*
+             * Höhe aus dem Cache, sonst messen (Text-Layout) und merken. Während
+             * Drag & Drop (Rahmen 2px) wird immer gemessen.
+             */
+            @Override
+            protected double computePrefHeight(double width) {
+                TodoItem item = getItem();
+                if (isEmpty() || item == null || width <= 0
+                        || getStyleClass().contains("drop-above") || getStyleClass().contains("drop-below")) {
+                    return super.computePrefHeight(width);
+                }
+
+                long key = CellHeightCache.key(item.getId(), rowModel(item).getLayoutHash(),
+                        depths.getOrDefault(item, 0), Math.round(width));
+                double cached = heightCache.get(key);
+                if (!Double.isNaN(cached)) {
+                    HEIGHT_HITS.increment();
+                    return cached;
+                }
+
+                HEIGHT_MISSES.increment();
+                double height = super.computePrefHeight(width);
+                heightCache.put(key, height);
+                return height;
+            }
+
             @Override
             protected void updateItem(TodoItem item, boolean empty) {
                 super.updateItem(item, empty);
+                CELL_UPDATES.increment();
 
                 if (empty || item == null) {
                     setText(null);
                     setGraphic(null);
+                    setContextMenu(null);
                     return;
                 }
 
+                TodoRowViewModel model = rowModel(item);
                 checkBox.setSelected(item.getStatus() == TodoStatus.DONE);
 
-                /*
-                 * TodoUiText.breakAnywhere:
-                 * - verhindert Layout-Probleme bei sehr langen Wörtern/Strings ohne Leerzeichen
-                 * - typischer Ansatz: Zero-Width-Spaces oder Soft-Hyphen einfügen
-                 */
-                title.setText(TodoUiText.breakAnywhere(item.getTitle()));
+                // Baum: Einrückung und Pfeil (▸ zu, ▾ offen)
+                root.setPadding(indent(depths.getOrDefault(item, 0)));
+                boolean hasSubtasks = item.getSubtaskCount() > 0;
+                expander.setText(hasSubtasks ? (expanded.contains(item.getId()) ? "▾" : "▸") : "");
+                expander.setVisible(hasSubtasks);
+
+                addSubtask.setDisable(item.getStatus() == TodoStatus.DONE);
+                setContextMenu(menu);
 
-                // Reset (wichtig wegen Cell-Reuse)
-                due.getStyleClass().remove("overdue");
+                // letzte Zeile sichtbar → nächste SmartList-Seite nachladen
+                if (smartHasMore && getIndex() == tasksView.getItems().size() - 1) {
+                    loadMoreSmart();
+                }
 
-                if (item.getDueDate() != null) {
-                    due.setText("📅 " + item.getDueDate().format(dueFmt));
-                    due.setManaged(true);
-                    due.setVisible(true);
+                // Texte/Flags vorberechnet (TodoRowViewModel), hier nur setzen
+                title.setText(model.getTitle());
 
-                    boolean isDone = item.getStatus() == TodoStatus.DONE;
-                    boolean isOverdue = !isDone && item.getDueDate().isBefore(java.time.LocalDate.now());
+                String dueText = model.getDueText();
+                due.setText(dueText);
+                due.setManaged(dueText != null);
+                due.setVisible(dueText != null);
 
-                    // Overdue nur bei offenen Tasks (nicht bei erledigten)
-                    if (isOverdue) {
+                // Klasse nur bei Wechsel anfassen (Cell-Reuse, kein CSS-Neuaufbau pro Zeile)
+                if (model.isOverdue() != due.getStyleClass().contains("overdue")) {
+                    if (model.isOverdue()) {
                         due.getStyleClass().add("overdue");
+                    } else {
+                        due.getStyleClass().remove("overdue");
                     }
-                } else {
-                    due.setManaged(false);
-                    due.setVisible(false);
                 }
 
-                boolean hasNotes = item.getNotes() != null && !item.getNotes().isBlank();
-                notesIcon.setManaged(hasNotes);
-                notesIcon.setVisible(hasNotes);
+                // Tag-Chips (Labels nur bei Änderung neu aufbauen)
+                List<String> tags = item.getTags();
+                if (!tags.equals(tagsBox.getUserData())) {
+                    tagsBox.getChildren().clear();
+                    for (String tag : tags) {
+                        Label chip = new Label("#" + tag);
+                        chip.getStyleClass().add("todo-tag-chip");
+                        tagsBox.getChildren().add(chip);
+                    }
+                    tagsBox.setUserData(tags);
+                }
+                tagsBox.setManaged(!tags.isEmpty());
+                tagsBox.setVisible(!tags.isEmpty());
+
+                // Fortschritt über den ganzen Teilbaum
+                progress.setText(hasSubtasks ? model.getProgressText() : "");
+                progress.setManaged(hasSubtasks);
+                progress.setVisible(hasSubtasks);
+
+                notesIcon.setManaged(model.hasNotes());
+                notesIcon.setVisible(model.hasNotes());
 
                 setText(null);
                 setGraphic(root);
@@ -493,10 +1396,15 @@ public class TasksController {
     private static final class RefreshResult {
         final int doneCount;
         final List<TodoItem> items;
+        final Map<Integer, List<TodoItem>> children;
+        final Map<TodoItem, TodoRowViewModel> models;
 
-        RefreshResult(int doneCount, List<TodoItem> items) {
+        RefreshResult(int doneCount, List<TodoItem> items, Map<Integer, List<TodoItem>> children,
+                Map<TodoItem, TodoRowViewModel> models) {
             this.doneCount = doneCount;
             this.items = items;
+            this.children = children;
+            this.models = models;
         }
     }
 
@@ -6,9 +6,12 @@ module com.example {
     requires javafx.base;
 
     requires java.desktop;
+    requires java.management;
 
     requires java.sql;
     requires java.prefs;
+    requires jdk.httpserver;
+    requires jdk.jfr;
     requires org.xerial.sqlitejdbc;
 
     opens com.example to javafx.fxml;
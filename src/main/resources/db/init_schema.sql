@@ -12,11 +12,72 @@ CREATE TABLE IF NOT EXISTS TodoItems (
   Notes       TEXT,
   Status      INTEGER NOT NULL,
   CategoryId  INTEGER,
+  SeriesId       INTEGER,
+  OccurrenceDate TEXT,
+  RemindAt       INTEGER,
+  SortRank       TEXT,
+  CreatedAt      INTEGER,
+  UpdatedAt      INTEGER,
+  CompletedAt    INTEGER,
   FOREIGN KEY (CategoryId) REFERENCES Categories(Id)
     ON DELETE SET NULL
+    ON UPDATE CASCADE,
+  FOREIGN KEY (SeriesId) REFERENCES TodoSeries(Id)
+    ON DELETE SET NULL
+);
+
+CREATE TABLE IF NOT EXISTS TodoSeries (
+  Id             INTEGER PRIMARY KEY AUTOINCREMENT,
+  CategoryId     INTEGER NOT NULL,
+  Title          TEXT NOT NULL,
+  Notes          TEXT,
+  Frequency      INTEGER NOT NULL,
+  IntervalDays   INTEGER NOT NULL DEFAULT 1,
+  WeekDays       INTEGER NOT NULL DEFAULT 0,
+  MonthDay       INTEGER NOT NULL DEFAULT 0,
+  StartDate      TEXT NOT NULL,
+  ClearedThrough TEXT,
+  FOREIGN KEY (CategoryId) REFERENCES Categories(Id)
+    ON DELETE CASCADE
     ON UPDATE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS Tags (
+  Id    INTEGER PRIMARY KEY AUTOINCREMENT,
+  Name  TEXT NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS TodoTags (
+  TodoId  INTEGER NOT NULL,
+  TagId   INTEGER NOT NULL,
+  PRIMARY KEY (TodoId, TagId),
+  FOREIGN KEY (TodoId) REFERENCES TodoItems(Id)
+    ON DELETE CASCADE,
+  FOREIGN KEY (TagId) REFERENCES Tags(Id)
+    ON DELETE CASCADE
+) WITHOUT ROWID;
+
+CREATE TABLE IF NOT EXISTS TodoTree (
+  AncestorId    INTEGER NOT NULL,
+  Depth         INTEGER NOT NULL,
+  DescendantId  INTEGER NOT NULL,
+  PRIMARY KEY (AncestorId, Depth, DescendantId),
+  FOREIGN KEY (AncestorId) REFERENCES TodoItems(Id)
+    ON DELETE CASCADE,
+  FOREIGN KEY (DescendantId) REFERENCES TodoItems(Id)
+    ON DELETE CASCADE
+) WITHOUT ROWID;
+
+CREATE TABLE IF NOT EXISTS DailyStats (
+  Day         TEXT NOT NULL,
+  CategoryId  INTEGER NOT NULL,
+  Created     INTEGER NOT NULL DEFAULT 0,
+  Completed   INTEGER NOT NULL DEFAULT 0,
+  Overdue     INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (Day, CategoryId)
+) WITHOUT ROWID;
+
 CREATE INDEX IF NOT EXISTS IX_TodoItems_Status     ON TodoItems(Status);
 CREATE INDEX IF NOT EXISTS IX_TodoItems_CategoryId ON TodoItems(CategoryId);
 CREATE INDEX IF NOT EXISTS IX_TodoItems_DueDate    ON TodoItems(DueDate);
+CREATE INDEX IF NOT EXISTS IX_TodoSeries_CategoryId ON TodoSeries(CategoryId);